@@ -12,16 +12,26 @@
 package org.viewer.hub.back.controller;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.viewer.hub.back.config.s3.S3ClientConfigurationProperties;
-import org.viewer.hub.back.service.OverrideConfigService;
+import org.viewer.hub.back.constant.EndPoint;
+import org.viewer.hub.back.model.launch.ConfigurationPropertiesPayload;
+import org.viewer.hub.back.service.ConfigurationPropertiesService;
+
+import java.nio.charset.StandardCharsets;
 
 @WithMockUser
 @ExtendWith(SpringExtension.class)
@@ -31,16 +41,57 @@ class OverrideConfigControllerIntegrationTests {
 	private MockMvc mockMvc;
 
 	@MockitoBean
-	private OverrideConfigService overrideConfigService;
+	private ConfigurationPropertiesService configurationPropertiesService;
 
 	@MockitoBean
 	private S3ClientConfigurationProperties s3ClientConfigurationProperties;
 
+	@MockitoBean
+	ClientRegistrationRepository clientRegistrationRepository;
+
 	@BeforeEach
 	public void setUp(WebApplicationContext wac) {
 		this.mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
 	}
 
+	@Test
+	void given_validParams_when_retrievingConfigurationProperties_then_shouldReturnContentWithETag() throws Exception {
+		// Mock service
+		Mockito.when(this.configurationPropertiesService.retrieveConfigurationProperties(1L, 2L, 3L))
+			.thenReturn(new ConfigurationPropertiesPayload(
+					"weasis.name=weasisName".getBytes(StandardCharsets.ISO_8859_1), false, "\"etag\""));
+
+		// Get and test results
+		this.mockMvc
+			.perform(MockMvcRequestBuilders.get(EndPoint.OVERRIDE_CONFIG_PATH + "/properties")
+				.param("packageVersionId", "1")
+				.param("launchConfigId", "2")
+				.param("groupId", "3"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"etag\""))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+			.andExpect(MockMvcResultMatchers.content().string("weasis.name=weasisName"));
+	}
+
+	@Test
+	void given_matchingETag_when_retrievingConfigurationProperties_then_shouldBeNotModified() throws Exception {
+		// Mock service
+		Mockito.when(this.configurationPropertiesService.retrieveConfigurationProperties(1L, 2L, 3L))
+			.thenReturn(new ConfigurationPropertiesPayload(
+					"weasis.name=weasisName".getBytes(StandardCharsets.ISO_8859_1), false, "\"etag\""));
+
+		// Get with the entity tag received previously and test results
+		this.mockMvc
+			.perform(MockMvcRequestBuilders.get(EndPoint.OVERRIDE_CONFIG_PATH + "/properties")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"etag\"")
+				.param("packageVersionId", "1")
+				.param("launchConfigId", "2")
+				.param("groupId", "3"))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"etag\""))
+			.andExpect(MockMvcResultMatchers.content().string(""));
+	}
+
 	// TODO W-34: to set back and modify
 	// @Test
 	// void given_validParams_when_retrievingConfigurationProperties_then_shouldBeOk()
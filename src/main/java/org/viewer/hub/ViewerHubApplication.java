@@ -16,10 +16,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.viewer.hub.back.config.properties.ClientHostResolutionConfigurationProperties;
 import org.viewer.hub.back.config.properties.ConnectorConfigurationProperties;
+import org.viewer.hub.back.config.properties.ConnectorQueryConfigurationProperties;
+import org.viewer.hub.back.config.properties.DicomAssociationPoolConfigurationProperties;
 import org.viewer.hub.back.config.properties.EnvironmentOverrideProperties;
 import org.viewer.hub.back.config.properties.MicroDicomConfigurationProperties;
 import org.viewer.hub.back.config.properties.OhifConfigurationProperties;
+import org.viewer.hub.back.config.properties.ResourceDiskCacheConfigurationProperties;
 import org.viewer.hub.back.config.properties.SlicerConfigurationProperties;
 import org.viewer.hub.back.config.properties.WeasisConfigurationProperties;
 import org.viewer.hub.back.config.properties.WeasisPackageDefaultConfigurationProperties;
@@ -27,9 +31,11 @@ import org.viewer.hub.back.config.properties.WeasisPackageDefaultConfigurationPr
 @SpringBootApplication
 @EnableAsync
 @EnableConfigurationProperties({ ConnectorConfigurationProperties.class,
+		ConnectorQueryConfigurationProperties.class, DicomAssociationPoolConfigurationProperties.class,
 		WeasisPackageDefaultConfigurationProperties.class, EnvironmentOverrideProperties.class,
 		WeasisConfigurationProperties.class, OhifConfigurationProperties.class, SlicerConfigurationProperties.class,
-		MicroDicomConfigurationProperties.class })
+		MicroDicomConfigurationProperties.class, ClientHostResolutionConfigurationProperties.class,
+		ResourceDiskCacheConfigurationProperties.class })
 @EnableScheduling
 public class ViewerHubApplication {
 
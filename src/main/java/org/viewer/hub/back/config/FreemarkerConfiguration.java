@@ -18,6 +18,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
 import org.springframework.web.servlet.view.freemarker.FreeMarkerViewResolver;
+import org.viewer.hub.back.config.freemarker.CachedInterpretDirective;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,11 +29,15 @@ public class FreemarkerConfiguration implements BeanPostProcessor {
 	@Value("${viewer-hub.server.url}")
 	private String viewerHubServerUrl;
 
+	// Directive interpreting the launch properties with a cache of the templates compiled
+	private final CachedInterpretDirective cachedInterpretDirective = new CachedInterpretDirective();
+
 	@Override
 	public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
 		if (bean instanceof FreeMarkerConfigurer configurer) {
 			Map<String, Object> sharedVariables = new HashMap<>();
 			sharedVariables.put("viewerHubServerUrl", this.viewerHubServerUrl);
+			sharedVariables.put(CachedInterpretDirective.NAME, this.cachedInterpretDirective);
 			configurer.setFreemarkerVariables(sharedVariables);
 		}
 		else if (bean instanceof FreeMarkerViewResolver resolver) {
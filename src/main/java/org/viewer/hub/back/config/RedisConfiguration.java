@@ -10,6 +10,7 @@
  */
 package org.viewer.hub.back.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.cache.autoconfigure.RedisCacheManagerBuilderCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -17,12 +18,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.viewer.hub.back.config.redis.CompressedRedisSerializer;
 import org.viewer.hub.back.constant.CacheName;
 import org.viewer.hub.back.entity.PackageVersionEntity;
 import org.viewer.hub.back.model.manifest.Manifest;
+import org.viewer.hub.back.service.LaunchConfigurationSnapshotService;
+import org.viewer.hub.back.service.ManifestReadinessService;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 /**
@@ -62,14 +70,45 @@ public class RedisConfiguration {
 	}
 
 	/**
-	 * Configure cache names + ttl
+	 * Listen to the notifications published by all the instances on a single connection:
+	 * end of the build of the manifests and changes of the launch configuration
+	 * @param connectionFactory connection factory
+	 * @param manifestReadinessService service completing the clients waiting for a
+	 * manifest
+	 * @param launchConfigurationSnapshotService service invalidating the snapshot of the
+	 * launch configuration
+	 * @return RedisMessageListenerContainer for the notifications
+	 */
+	@Bean
+	public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+			ManifestReadinessService manifestReadinessService,
+			LaunchConfigurationSnapshotService launchConfigurationSnapshotService) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		container.addMessageListener(
+				(message, pattern) -> manifestReadinessService
+					.completeManifestWaiters(new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CacheName.MANIFEST_READY_CHANNEL));
+		container.addMessageListener(
+				(message, pattern) -> launchConfigurationSnapshotService
+					.invalidateSnapshot(new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CacheName.LAUNCH_CONFIGURATION_CHANGED_CHANNEL));
+		return container;
+	}
+
+	/**
+	 * Configure cache names + ttl. Manifests are stored compressed.
+	 * @param meterRegistry registry of the metrics on the size of the manifests stored
 	 * @return RedisCacheManagerBuilderCustomizer
 	 */
 	@Bean
-	public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
+	public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer(MeterRegistry meterRegistry) {
 		return (builder) -> builder
 			.withCacheConfiguration(CacheName.MANIFEST,
-					RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(3)))
+					RedisCacheConfiguration.defaultCacheConfig()
+						.entryTtl(Duration.ofMinutes(3))
+						.serializeValuesWith(SerializationPair
+							.fromSerializer(new CompressedRedisSerializer(CacheName.MANIFEST, meterRegistry))))
 			.withCacheConfiguration(CacheName.PACKAGE_VERSION,
 					RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ZERO));
 	}
@@ -14,6 +14,7 @@ package org.viewer.hub.back.config;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
@@ -25,8 +26,14 @@ import org.springframework.http.converter.xml.JacksonXmlHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.viewer.hub.back.config.s3.DownloadResource;
+import org.viewer.hub.back.config.s3.S3BlobManifestCache;
+import org.viewer.hub.back.config.s3.S3CachedMetadataResource;
 import org.viewer.hub.back.config.s3.S3ClientConfigurationProperties;
+import org.viewer.hub.back.config.s3.S3ResourceDiskCache;
+import org.viewer.hub.back.config.web.IfRangeFilter;
 import tools.jackson.databind.cfg.EnumFeature;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.dataformat.xml.XmlMapper;
@@ -34,6 +41,7 @@ import tools.jackson.dataformat.xml.XmlWriteFeature;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
 
 
 /**
@@ -51,10 +59,21 @@ public class WebConfiguration implements WebMvcConfigurer {
 
 	private final ResourceLoader resourceLoader;
 
+	private final DownloadResource downloadResource;
+
+	private final S3ResourceDiskCache s3ResourceDiskCache;
+
+	private final S3BlobManifestCache s3BlobManifestCache;
+
 	@Autowired
-	public WebConfiguration(S3ClientConfigurationProperties s3config, ResourceLoader resourceLoader) {
+	public WebConfiguration(S3ClientConfigurationProperties s3config, ResourceLoader resourceLoader,
+			DownloadResource downloadResource, S3ResourceDiskCache s3ResourceDiskCache,
+			S3BlobManifestCache s3BlobManifestCache) {
 		this.s3config = s3config;
 		this.resourceLoader = resourceLoader;
+		this.downloadResource = downloadResource;
+		this.s3ResourceDiskCache = s3ResourceDiskCache;
+		this.s3BlobManifestCache = s3BlobManifestCache;
 	}
 
 	@Override
@@ -93,17 +112,23 @@ public class WebConfiguration implements WebMvcConfigurer {
 	 */
 	@Bean
 	public JacksonXmlHttpMessageConverter jacksonXmlHttpMessageConverter() {
+		return new JacksonXmlHttpMessageConverter(this.xmlMapper());
+	}
+
+	/**
+	 * Xml jackson mapper (Jackson 3 / tools.jackson): shared by the xml converter and the
+	 * manifest streaming
+	 * @return XmlMapper built
+	 */
+	@Bean
+	public XmlMapper xmlMapper() {
 		// configureForJackson2() keeps the Jackson 2 serialization defaults
 		// (enum-as-name,
 		// dates-as-timestamps, no xsi:nil for null values, ...) so the manifest XML is
 		// unchanged.
 		// enable(WRITE_XML_DECLARATION) adds the xml declaration tag to each xml
 		// serialization.
-		XmlMapper mapper = XmlMapper.builder()
-			.configureForJackson2()
-			.enable(XmlWriteFeature.WRITE_XML_DECLARATION)
-			.build();
-		return new JacksonXmlHttpMessageConverter(mapper);
+		return XmlMapper.builder().configureForJackson2().enable(XmlWriteFeature.WRITE_XML_DECLARATION).build();
 	}
 
 	@Override
@@ -115,12 +140,48 @@ public class WebConfiguration implements WebMvcConfigurer {
 		registry.addResourceHandler("/weasis/**")
 			.addResourceLocations("s3://%s/".formatted(this.s3config.getBucket()))
 			.setCacheControl(CacheControl.maxAge(Duration.ofDays(90)).cachePublic().immutable())
+			// ETag of the S3 object: validates the conditional and range requests resuming
+			// an interrupted download
+			.setEtagGenerator(resource -> (resource instanceof S3CachedMetadataResource s3CachedMetadataResource)
+					? s3CachedMetadataResource.getETag() : null)
 			.resourceChain(true)
+			// Text files are uploaded with their gzip variant: served to the clients
+			// accepting it
+			.addResolver(this.gzipVariantResourceResolver())
 			.addResolver(this.s3WeasisResourceResolver());
 	}
 
 	/**
-	 * Retrieve the resource in S3 for the resource handler /weasis
+	 * Apply the If-Range header of the range requests on the resources packages: the range
+	 * requests themselves (single and multiple ranges) are served by the resource handler
+	 * @return FilterRegistrationBean created
+	 */
+	@Bean
+	public FilterRegistrationBean<IfRangeFilter> ifRangeFilter() {
+		FilterRegistrationBean<IfRangeFilter> registration = new FilterRegistrationBean<>(new IfRangeFilter());
+		registration.addUrlPatterns("/weasis/*");
+		return registration;
+	}
+
+	/**
+	 * Resolve the gzip variant (.gz) of the resource for the clients accepting gzip
+	 * encoded responses. Only gzip variants are generated at upload, the other content
+	 * codings are not looked for.
+	 * @return EncodedResourceResolver created
+	 */
+	private EncodedResourceResolver gzipVariantResourceResolver() {
+		EncodedResourceResolver encodedResourceResolver = new EncodedResourceResolver();
+		encodedResourceResolver.setContentCodings(List.of("gzip"));
+		return encodedResourceResolver;
+	}
+
+	/**
+	 * Retrieve the resource in S3 for the resource handler /weasis: the existence, size and
+	 * last modification of the resource are checked with the cache of the metadata of the
+	 * S3 objects, so that serving a resource does not request S3 for each check, and the
+	 * immutable resources of the builds are read from the local disk cache. The jars of the
+	 * builds are read from the content-addressed blobs found in the manifests of the
+	 * builds.
 	 * @return PathResourceResolver created
 	 */
 	@NotNull
@@ -130,15 +191,34 @@ public class WebConfiguration implements WebMvcConfigurer {
 			protected Resource getResource(@NotNull String resourcePath, @NotNull Resource location)
 					throws IOException {
 				// Retrieve the s3 resource
-				Resource s3Resource = WebConfiguration.this.resourceLoader
-					.getResource("s3://%s/%s/%s".formatted(WebConfiguration.this.s3config.getBucket(),
-							WebConfiguration.this.viewerHubResourcesPackagesWeasisPath, resourcePath));
-				if (s3Resource.exists() && s3Resource.isReadable()) {
-					return s3Resource;
+				String key = "%s/%s".formatted(WebConfiguration.this.viewerHubResourcesPackagesWeasisPath,
+						resourcePath);
+				String blobKey = WebConfiguration.this.s3BlobManifestCache.retrieveBlobKey(key);
+				if (blobKey != null) {
+					return WebConfiguration.this.createS3CachedMetadataResource(blobKey, key);
 				}
-				return super.getResource(resourcePath, location);
+				if (WebConfiguration.this.downloadResource.retrieveS3ObjectMetadata(key).exists()) {
+					return WebConfiguration.this.createS3CachedMetadataResource(key, key);
+				}
+				// Resource at the root of the bucket: only checked in S3 if it exists
+				if (WebConfiguration.this.downloadResource.retrieveS3ObjectMetadata(resourcePath).exists()) {
+					return super.getResource(resourcePath, location);
+				}
+				return null;
 			}
 		};
 	}
 
+	/**
+	 * Create the resource reading the S3 object in parameter
+	 * @param key Key of the S3 object read
+	 * @param path Key of the resource requested: key of the file in its build for a blob
+	 * @return S3CachedMetadataResource created
+	 */
+	private S3CachedMetadataResource createS3CachedMetadataResource(String key, String path) {
+		return new S3CachedMetadataResource(
+				this.resourceLoader.getResource("s3://%s/%s".formatted(this.s3config.getBucket(), key)), key, path,
+				this.downloadResource, this.s3ResourceDiskCache);
+	}
+
 }
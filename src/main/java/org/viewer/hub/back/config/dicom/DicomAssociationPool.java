@@ -0,0 +1,383 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+
+package org.viewer.hub.back.config.dicom;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Connection;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DimseRSP;
+import org.dcm4che3.net.DimseRSPHandler;
+import org.dcm4che3.net.Priority;
+import org.dcm4che3.net.QueryOption;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.ExtendedNegotiation;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.QueryRetrieveLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.viewer.hub.back.config.properties.DicomAssociationPoolConfigurationProperties;
+import org.viewer.hub.back.constant.Message;
+import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.model.property.DicomConnectorDimseProperty;
+import org.weasis.dicom.op.CFind;
+import org.weasis.dicom.param.AdvancedParams;
+import org.weasis.dicom.param.DicomNode;
+import org.weasis.dicom.param.DicomParam;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Pool of DICOM associations used to execute the C-FIND requests of the DICOM
+ * connectors.
+ * <p>
+ * Associations are kept open per archive (calling/called AET, host, port, TLS settings
+ * and query options) and reused by the following requests instead of negotiating a new
+ * association for each C-FIND. The number of associations opened against an archive is
+ * capped, idle associations are released after a while and an association idle for too
+ * long is checked with a C-ECHO before being reused.
+ * <p>
+ * An association is used by one C-FIND at a time: asynchronous operations are rarely
+ * negotiated by the archives, so parallel requests use distinct pooled associations.
+ */
+@Slf4j
+@Component
+public class DicomAssociationPool {
+
+	private static final String FIND_CUID = UID.StudyRootQueryRetrieveInformationModelFind;
+
+	private static final int FIND_PC_ID = 1;
+
+	private static final int VERIFICATION_PC_ID = 3;
+
+	private final DicomAssociationPoolConfigurationProperties dicomAssociationPoolConfigurationProperties;
+
+	private final Map<DicomAssociationKey, DicomAssociationPartition> partitions = new ConcurrentHashMap<>();
+
+	private final ExecutorService executorService;
+
+	private final ScheduledExecutorService scheduledExecutorService;
+
+	// Current time in nanoseconds
+	private final LongSupplier nanoTime;
+
+	/**
+	 * Autowired constructor
+	 * @param dicomAssociationPoolConfigurationProperties Pool configuration
+	 */
+	@Autowired
+	public DicomAssociationPool(
+			final DicomAssociationPoolConfigurationProperties dicomAssociationPoolConfigurationProperties) {
+		this(dicomAssociationPoolConfigurationProperties, System::nanoTime);
+	}
+
+	/**
+	 * Constructor
+	 * @param dicomAssociationPoolConfigurationProperties Pool configuration
+	 * @param nanoTime Current time in nanoseconds
+	 */
+	DicomAssociationPool(DicomAssociationPoolConfigurationProperties dicomAssociationPoolConfigurationProperties,
+			LongSupplier nanoTime) {
+		this.dicomAssociationPoolConfigurationProperties = dicomAssociationPoolConfigurationProperties;
+		this.nanoTime = nanoTime;
+		this.executorService = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("dicom-association-", 0).factory());
+		this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+	}
+
+	/**
+	 * Execute a C-FIND on the archive in parameter
+	 * @param dimse Dimse properties of the archive
+	 * @param queryRetrieveLevel Query level
+	 * @param dicomParams Matching and return keys
+	 * @param useQueryRelational Flag to know if relational queries should be used
+	 * @return List of attributes found
+	 * @throws TechnicalException when no association is available in time or the C-FIND
+	 * fails
+	 */
+	public List<Attributes> cfind(DicomConnectorDimseProperty dimse, QueryRetrieveLevel queryRetrieveLevel,
+			List<DicomParam> dicomParams, boolean useQueryRelational) {
+		if (!this.dicomAssociationPoolConfigurationProperties.isEnabled()) {
+			// One association per request
+			return CFind
+				.process(dimse.retrieveAdvancedParamsFromProperties(useQueryRelational),
+						new DicomNode(dimse.getCallingAet()), dimse.retrieveDicomNodeFromProperties(), 0,
+						queryRetrieveLevel, dicomParams.toArray(new DicomParam[] {}))
+				.getDicomRSP();
+		}
+
+		// Matching and return keys
+		Attributes keys = new Attributes();
+		keys.setString(Tag.QueryRetrieveLevel, VR.CS, queryRetrieveLevel.name());
+		dicomParams.forEach(dicomParam -> CFind.addAttributes(keys, dicomParam));
+
+		DicomAssociationPartition partition = this.partitions.computeIfAbsent(
+				new DicomAssociationKey(dimse, useQueryRelational),
+				key -> new DicomAssociationPartition(
+						this.dicomAssociationPoolConfigurationProperties.getMaxAssociationsPerArchive()));
+		boolean permitAcquired;
+		try {
+			permitAcquired = partition.permits.tryAcquire(
+					this.dicomAssociationPoolConfigurationProperties.getBorrowTimeout().toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException("Interrupted while waiting for a DICOM association to %s"
+				.formatted(dimse.getAet()));
+		}
+		if (!permitAcquired) {
+			throw new TechnicalException("%s: no DICOM association available for %s after %s".formatted(
+					Message.PACS_SERVER_NOT_AVAILABLE, dimse.getAet(),
+					this.dicomAssociationPoolConfigurationProperties.getBorrowTimeout()));
+		}
+
+		Association association = null;
+		try {
+			association = this.borrow(partition, dimse, useQueryRelational);
+			List<Attributes> results = this.cfind(association, keys);
+			// Association still usable: give it back to the pool
+			partition.idle.push(new PooledAssociation(association, this.nanoTime.getAsLong()));
+			association = null;
+			return results;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException("Interrupted during C-FIND on %s".formatted(dimse.getAet()));
+		}
+		catch (Exception e) {
+			throw new TechnicalException("%s: issue during C-FIND on %s: %s"
+				.formatted(Message.PACS_SERVER_NOT_AVAILABLE, dimse.getAet(), e.getMessage()));
+		}
+		finally {
+			if (association != null) {
+				association.abort();
+			}
+			partition.permits.release();
+		}
+	}
+
+	/**
+	 * Every 10 seconds: release the associations idle for longer than the idle timeout.
+	 * <p>
+	 * The associations to evict are first taken out of the pool, then released: an
+	 * association borrowed in the meantime is not taken out, and is therefore never
+	 * released while in use.
+	 */
+	@Scheduled(fixedDelay = 10_000L)
+	public void evictIdleAssociations() {
+		long idleTimeout = this.dicomAssociationPoolConfigurationProperties.getIdleTimeout().toNanos();
+		long now = this.nanoTime.getAsLong();
+		List<PooledAssociation> evictedAssociations = new ArrayList<>();
+		this.partitions.values().forEach(partition -> {
+			for (PooledAssociation pooledAssociation : partition.idle) {
+				// Taken out only if not polled by a borrower first
+				if (now - pooledAssociation.lastUsed() > idleTimeout
+						&& partition.idle.removeFirstOccurrence(pooledAssociation)) {
+					evictedAssociations.add(pooledAssociation);
+				}
+			}
+		});
+		evictedAssociations.forEach(pooledAssociation -> release(pooledAssociation.association()));
+	}
+
+	/**
+	 * Borrow an idle association of the partition, or open a new one when none is
+	 * available
+	 * @param partition Partition of the archive
+	 * @param dimse Dimse properties of the archive
+	 * @param useQueryRelational Flag to know if relational queries should be used
+	 * @return association ready for data transfer
+	 */
+	private Association borrow(DicomAssociationPartition partition, DicomConnectorDimseProperty dimse,
+			boolean useQueryRelational) throws Exception {
+		long validateAfterIdle = this.dicomAssociationPoolConfigurationProperties.getValidateAfterIdle().toNanos();
+		PooledAssociation pooledAssociation;
+		// Most recently used first: the warmest association
+		while ((pooledAssociation = partition.idle.poll()) != null) {
+			Association association = pooledAssociation.association();
+			boolean recentlyUsed = this.nanoTime.getAsLong() - pooledAssociation.lastUsed() <= validateAfterIdle;
+			if (association.isReadyForDataTransfer() && (recentlyUsed || this.isAlive(association))) {
+				return association;
+			}
+			association.abort();
+		}
+		return this.open(dimse, useQueryRelational);
+	}
+
+	/**
+	 * Negotiate a new association with the archive
+	 * @param dimse Dimse properties of the archive
+	 * @param useQueryRelational Flag to know if relational queries should be used
+	 * @return association opened
+	 */
+	Association open(DicomConnectorDimseProperty dimse, boolean useQueryRelational) throws Exception {
+		AdvancedParams params = dimse.retrieveAdvancedParamsFromProperties(useQueryRelational);
+
+		// Local device
+		Device device = new Device("viewer-hub-findscu");
+		ApplicationEntity applicationEntity = new ApplicationEntity(dimse.getCallingAet());
+		Connection connection = new Connection();
+		device.addApplicationEntity(applicationEntity);
+		device.addConnection(connection);
+		applicationEntity.addConnection(connection);
+		device.setExecutor(this.executorService);
+		device.setScheduledExecutor(this.scheduledExecutorService);
+
+		// Association request
+		AAssociateRQ rq = new AAssociateRQ();
+		rq.addPresentationContext(new PresentationContext(FIND_PC_ID, FIND_CUID, params.getTsuidOrder()));
+		rq.addPresentationContext(
+				new PresentationContext(VERIFICATION_PC_ID, UID.Verification, UID.ImplicitVRLittleEndian));
+		if (!params.getQueryOptions().isEmpty()) {
+			rq.addExtendedNegotiation(new ExtendedNegotiation(FIND_CUID,
+					QueryOption.toExtendedNegotiationInformation(params.getQueryOptions())));
+		}
+
+		// Remote archive
+		Connection remote = new Connection();
+		params.configureConnect(rq, remote, dimse.retrieveDicomNodeFromProperties());
+		params.configureBind(applicationEntity, connection, new DicomNode(dimse.getCallingAet()));
+		params.configure(connection);
+		params.configureTLS(connection, remote);
+
+		LOG.debug("Opening DICOM association {} -> {}@{}:{}", dimse.getCallingAet(), dimse.getAet(), dimse.getHost(),
+				dimse.getPort());
+		return applicationEntity.connect(connection, remote, rq);
+	}
+
+	/**
+	 * Execute the C-FIND on the association and wait for all the responses
+	 * @param association Association to use
+	 * @param keys Matching and return keys
+	 * @return List of attributes found
+	 */
+	private List<Attributes> cfind(Association association, Attributes keys) throws Exception {
+		List<Attributes> results = new ArrayList<>();
+		int[] finalStatus = { Status.Success };
+		DimseRSPHandler rspHandler = new DimseRSPHandler(association.nextMessageID()) {
+			@Override
+			public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+				super.onDimseRSP(as, cmd, data);
+				int status = cmd.getInt(Tag.Status, -1);
+				if (Status.isPending(status)) {
+					results.add(data);
+				}
+				else {
+					finalStatus[0] = status;
+				}
+			}
+		};
+		association.cfind(FIND_CUID, Priority.NORMAL, keys, null, rspHandler);
+		association.waitForOutstandingRSP();
+		if (finalStatus[0] != Status.Success) {
+			LOG.warn("C-FIND on {} completed with status {}", association.getCalledAET(),
+					Integer.toHexString(finalStatus[0]));
+		}
+		return results;
+	}
+
+	/**
+	 * Check with a C-ECHO that the association is still accepted by the archive
+	 * @param association Association to check
+	 * @return true if the archive answered
+	 */
+	private boolean isAlive(Association association) {
+		try {
+			DimseRSP rsp = association.cecho();
+			rsp.next();
+			return rsp.getCommand().getInt(Tag.Status, -1) == Status.Success;
+		}
+		catch (Exception e) {
+			LOG.debug("Pooled DICOM association to {} not alive anymore: {}", association.getCalledAET(),
+					e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Release gracefully an association
+	 * @param association Association to release
+	 */
+	private static void release(Association association) {
+		try {
+			association.release();
+		}
+		catch (Exception e) {
+			association.abort();
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		this.partitions.values().forEach(partition -> {
+			PooledAssociation pooledAssociation;
+			while ((pooledAssociation = partition.idle.poll()) != null) {
+				release(pooledAssociation.association());
+			}
+		});
+		this.executorService.shutdownNow();
+		this.scheduledExecutorService.shutdownNow();
+	}
+
+	/**
+	 * Key of the associations which can be shared
+	 * @param dimse Dimse properties of the archive (aets, host, port, TLS settings)
+	 * @param useQueryRelational Query option negotiated
+	 */
+	private record DicomAssociationKey(DicomConnectorDimseProperty dimse, boolean useQueryRelational) {
+	}
+
+	/**
+	 * Idle association with the moment it was last used
+	 * @param association Association
+	 * @param lastUsed Nano time of the last usage
+	 */
+	private record PooledAssociation(Association association, long lastUsed) {
+	}
+
+	/**
+	 * Associations of one archive
+	 */
+	private static final class DicomAssociationPartition {
+
+		private final Semaphore permits;
+
+		private final Deque<PooledAssociation> idle = new ConcurrentLinkedDeque<>();
+
+		private DicomAssociationPartition(int maxAssociations) {
+			this.permits = new Semaphore(maxAssociations, true);
+		}
+
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.freemarker;
+
+import freemarker.core.Environment;
+import freemarker.template.Template;
+import freemarker.template.TemplateDirectiveBody;
+import freemarker.template.TemplateDirectiveModel;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateScalarModel;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Directive interpreting a string as a template, like the ?interpret built-in of
+ * FreeMarker, but compiling each distinct content only once: the templates compiled are
+ * kept in cache keyed by their content, so rendering the launch config only substitutes
+ * the values of the model instead of parsing the properties on each request. A changed
+ * content is a new key: the least recently used templates are evicted once the cache is
+ * full.
+ * <p>
+ * Usage: <code>&lt;@interpretCached source='&lt;#assign x = "${y}"&gt;'/&gt;</code>
+ */
+public class CachedInterpretDirective implements TemplateDirectiveModel {
+
+	public static final String NAME = "interpretCached";
+
+	static final String PARAM_SOURCE = "source";
+
+	// Maximum number of templates kept in cache
+	private static final int MAXIMUM_SIZE = 1000;
+
+	// Templates compiled by content, in access order: guarded by itself
+	private final Map<TemplateKey, Template> templates;
+
+	/**
+	 * Constructor
+	 */
+	public CachedInterpretDirective() {
+		this(MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param maximumSize Maximum number of templates kept in cache
+	 */
+	CachedInterpretDirective(int maximumSize) {
+		this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<TemplateKey, Template> eldest) {
+				return this.size() > maximumSize;
+			}
+		};
+	}
+
+	@Override
+	public void execute(Environment env, Map params, TemplateModel[] loopVars, TemplateDirectiveBody body)
+			throws TemplateException, IOException {
+		if (params.size() != 1 || !(params.get(PARAM_SOURCE) instanceof TemplateScalarModel source)) {
+			throw new TemplateModelException(
+					"Directive %s expects only the string parameter %s".formatted(NAME, PARAM_SOURCE));
+		}
+		// Like ?interpret, the template is executed in the current namespace so that its
+		// assignments are visible from the calling template
+		env.include(this.retrieveTemplate(env.getCurrentTemplate(), source.getAsString()));
+	}
+
+	/**
+	 * Retrieve the template compiled from the content in parameter, compiling it with the
+	 * settings of the calling template if not yet in cache
+	 * @param parentTemplate Calling template
+	 * @param source Content of the template
+	 * @return template compiled
+	 * @throws IOException if the content cannot be parsed
+	 */
+	Template retrieveTemplate(Template parentTemplate, String source) throws IOException {
+		TemplateKey key = new TemplateKey(parentTemplate.getName(), source);
+		Template template;
+		synchronized (this.templates) {
+			template = this.templates.get(key);
+		}
+		if (template == null) {
+			// Compiled outside the lock: a content compiled twice concurrently is only
+			// cached once
+			Template compiled = new Template("%s->%s".formatted(parentTemplate.getName(), NAME), null,
+					new StringReader(source), parentTemplate.getConfiguration(),
+					parentTemplate.getParserConfiguration(), null);
+			synchronized (this.templates) {
+				template = this.templates.putIfAbsent(key, compiled);
+			}
+			if (template == null) {
+				template = compiled;
+			}
+		}
+		return template;
+	}
+
+	/**
+	 * Key of a template compiled
+	 * @param parentTemplateName Name of the calling template, which settings are used to
+	 * compile the content
+	 * @param source Content of the template
+	 */
+	private record TemplateKey(String parentTemplateName, String source) {
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Cache of the reverse DNS resolution of the host of the clients
+ */
+@Validated
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "viewer-hub.client-host-resolution")
+public class ClientHostResolutionConfigurationProperties {
+
+	/**
+	 * Maximum number of addresses kept in cache
+	 */
+	@Min(1)
+	private int maximumSize = 10000;
+
+	/**
+	 * Duration during which a host found is kept in cache
+	 */
+	@NotNull
+	private Duration positiveTtl = Duration.ofMinutes(30);
+
+	/**
+	 * Duration during which an address without host (no PTR record, lookup failed or too
+	 * long) is kept in cache
+	 */
+	@NotNull
+	private Duration negativeTtl = Duration.ofMinutes(2);
+
+	/**
+	 * A host found older than this duration is resolved again in background, the cached
+	 * host being returned meanwhile
+	 */
+	@NotNull
+	private Duration refreshAhead = Duration.ofMinutes(20);
+
+	/**
+	 * Maximum duration a request waits for a lookup: the request continues without host
+	 * after this duration and the lookup completes in background
+	 */
+	@NotNull
+	private Duration lookupTimeout = Duration.ofMillis(500);
+
+}
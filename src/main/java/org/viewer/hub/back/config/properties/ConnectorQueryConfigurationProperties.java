@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+
+package org.viewer.hub.back.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the concurrent execution of the archive queries (DB, DICOM, DICOM_WEB
+ * connectors)
+ */
+@Validated
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "connector.query")
+public class ConnectorQueryConfigurationProperties {
+
+	/**
+	 * Maximum number of archive queries running at the same time for the whole
+	 * application
+	 */
+	@Min(1)
+	private int maxConcurrentQueries = 32;
+
+	/**
+	 * Maximum number of archive queries running at the same time against the same
+	 * connector: protects the archives (association limits, rate limiting...)
+	 */
+	@Min(1)
+	private int maxConcurrentQueriesPerConnector = 4;
+
+	/**
+	 * Maximum duration of a query against one connector, measured from its start once its
+	 * connector and global permits have been granted: the wait for the permits is only
+	 * bounded by the global timeout
+	 */
+	@NotNull
+	private Duration connectorTimeout = Duration.ofSeconds(90);
+
+	/**
+	 * Deadline of a whole fan-out: results of the queries not completed in time are
+	 * discarded
+	 */
+	@NotNull
+	private Duration globalTimeout = Duration.ofSeconds(120);
+
+}
@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+
+package org.viewer.hub.back.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Pool of the DICOM associations used by the C-FIND requests of the DICOM connectors
+ */
+@Validated
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "connector.dicom-association-pool")
+public class DicomAssociationPoolConfigurationProperties {
+
+	/**
+	 * When disabled, each C-FIND negotiates and releases its own association
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of associations opened at the same time against one archive
+	 */
+	@Min(1)
+	private int maxAssociationsPerArchive = 4;
+
+	/**
+	 * Maximum duration to wait for an association when all of them are in use
+	 */
+	@NotNull
+	private Duration borrowTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Idle associations are released after this duration
+	 */
+	@NotNull
+	private Duration idleTimeout = Duration.ofSeconds(60);
+
+	/**
+	 * An association idle for longer than this duration is checked with a C-ECHO before
+	 * being reused
+	 */
+	@NotNull
+	private Duration validateAfterIdle = Duration.ofSeconds(10);
+
+}
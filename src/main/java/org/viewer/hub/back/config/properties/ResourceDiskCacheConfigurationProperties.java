@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.properties;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+/**
+ * Local disk cache of the immutable build resources (build-stamped sub-directories)
+ * served from S3
+ */
+@Validated
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "viewer-hub.resources-packages.disk-cache")
+public class ResourceDiskCacheConfigurationProperties {
+
+	/**
+	 * True to keep the resources served on the local disk
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Directory of the cache: its content is discarded at startup
+	 */
+	@NotNull
+	private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "viewer-hub", "resources-cache");
+
+	/**
+	 * Maximum size of the files kept: the least recently used files are removed beyond
+	 */
+	@NotNull
+	private DataSize maximumSize = DataSize.ofGigabytes(2);
+
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.redis;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Serializer of the values of a redis cache: values are serialized then compressed with
+ * deflate, and prefixed by a header containing the version of the format. Values written
+ * without header (legacy format: default jdk serialization) are still readable.
+ */
+@Slf4j
+public class CompressedRedisSerializer implements RedisSerializer<Object> {
+
+	// Header of the values written by this serializer: magic bytes + format version
+	private static final byte[] MAGIC = { 'V', 'H', 'C' };
+
+	private static final byte FORMAT_VERSION = 1;
+
+	private static final int HEADER_LENGTH = MAGIC.length + 1;
+
+	// Serializer used for the payload, and for values written in the legacy format
+	private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+	// Metrics
+	private final DistributionSummary rawSizeSummary;
+
+	private final DistributionSummary compressedSizeSummary;
+
+	private final DistributionSummary compressionRatioSummary;
+
+	/**
+	 * Constructor
+	 * @param cacheName Name of the cache using the serializer: used to tag the metrics
+	 * @param meterRegistry Registry of the metrics
+	 */
+	public CompressedRedisSerializer(String cacheName, MeterRegistry meterRegistry) {
+		this.rawSizeSummary = DistributionSummary.builder("viewer.hub.cache.value.size")
+			.description("Size of the cache values before compression")
+			.baseUnit("bytes")
+			.tag("cache", cacheName)
+			.tag("form", "raw")
+			.register(meterRegistry);
+		this.compressedSizeSummary = DistributionSummary.builder("viewer.hub.cache.value.size")
+			.description("Size of the cache values stored in redis")
+			.baseUnit("bytes")
+			.tag("cache", cacheName)
+			.tag("form", "compressed")
+			.register(meterRegistry);
+		this.compressionRatioSummary = DistributionSummary.builder("viewer.hub.cache.value.compression.ratio")
+			.description("Raw size divided by compressed size of the cache values")
+			.tag("cache", cacheName)
+			.register(meterRegistry);
+	}
+
+	@Override
+	public byte[] serialize(Object value) throws SerializationException {
+		if (value == null) {
+			return new byte[0];
+		}
+		byte[] raw = this.jdkSerializer.serialize(value);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(HEADER_LENGTH + raw.length / 4);
+		outputStream.writeBytes(MAGIC);
+		outputStream.write(FORMAT_VERSION);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater)) {
+			deflaterOutputStream.write(raw);
+		}
+		catch (IOException e) {
+			throw new SerializationException("Cannot compress cache value", e);
+		}
+		finally {
+			deflater.end();
+		}
+		byte[] compressed = outputStream.toByteArray();
+
+		// Metrics
+		this.rawSizeSummary.record(raw.length);
+		this.compressedSizeSummary.record(compressed.length);
+		this.compressionRatioSummary.record((double) raw.length / compressed.length);
+
+		return compressed;
+	}
+
+	@Override
+	public Object deserialize(byte[] bytes) throws SerializationException {
+		if (bytes == null || bytes.length == 0) {
+			return null;
+		}
+
+		// Legacy format: value written before the introduction of this serializer
+		if (!hasHeader(bytes)) {
+			LOG.debug("Cache value read in legacy format");
+			return this.jdkSerializer.deserialize(bytes);
+		}
+
+		// Format version
+		if (bytes[MAGIC.length] != FORMAT_VERSION) {
+			throw new SerializationException("Unsupported cache value format version: %d".formatted(bytes[MAGIC.length]));
+		}
+
+		try (InflaterInputStream inflaterInputStream = new InflaterInputStream(
+				new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH))) {
+			return this.jdkSerializer.deserialize(inflaterInputStream.readAllBytes());
+		}
+		catch (IOException e) {
+			throw new SerializationException("Cannot decompress cache value", e);
+		}
+	}
+
+	/**
+	 * Check if the value has been written by this serializer
+	 * @param bytes Value to check
+	 * @return true if the value starts with the header of this serializer
+	 */
+	private static boolean hasHeader(byte[] bytes) {
+		return bytes.length > HEADER_LENGTH && Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+	}
+
+}
@@ -14,14 +14,28 @@ package org.viewer.hub.back.config.s3;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
 
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * Class used to delete in S3
@@ -30,35 +44,167 @@ import java.util.concurrent.CompletableFuture;
 @Component
 public class DeleteResource {
 
+	// Maximum number of keys of a DeleteObjects request
+	static final int MAX_KEYS_PER_REQUEST = 1000;
+
+	// Delay before deleting again the keys in error, doubled at each attempt
+	private static final Duration RETRY_DELAY = Duration.ofMillis(200);
+
+	// Code of the errors reported for the keys of a batch whose request failed
+	private static final String REQUEST_FAILED_ERROR_CODE = "RequestFailed";
+
 	private final S3AsyncClient s3AsyncClient;
 
 	private final S3ClientConfigurationProperties s3config;
 
+	private final S3ObjectMetadataCache s3ObjectMetadataCache;
+
 	@Autowired
-	public DeleteResource(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config) {
+	public DeleteResource(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config,
+			final S3ObjectMetadataCache s3ObjectMetadataCache) {
 		this.s3AsyncClient = s3AsyncClient;
 		this.s3config = s3config;
+		this.s3ObjectMetadataCache = s3ObjectMetadataCache;
 	}
 
 	/**
-	 * Delete objects in S3 based on keys in parameters
+	 * Delete objects in S3 based on keys in parameters: the keys are deleted by batches of
+	 * {@value #MAX_KEYS_PER_REQUEST} keys (limit of a DeleteObjects request), several
+	 * batches being deleted concurrently. The keys which failed to be deleted, and the
+	 * batches whose request was throttled or failed on the server side, are deleted again
+	 * with a growing delay before giving up.
 	 * @param keys Keys to delete
-	 * @return CompletableFuture
+	 * @return CompletableFuture containing the errors of the keys which could not be
+	 * deleted
 	 */
 	public CompletableFuture<DeleteObjectsResponse> deleteObjects(Set<String> keys) {
-		// Retrieve the object identifiers
-		List<ObjectIdentifier> objectIdentifiers = keys.stream()
-			.map(key -> ObjectIdentifier.builder().key(key).build())
-			.toList();
+		if (keys.isEmpty()) {
+			return CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build());
+		}
+
+		// Split the keys in batches
+		List<String> keysToDelete = List.copyOf(keys);
+		Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+		for (int i = 0; i < keysToDelete.size(); i += MAX_KEYS_PER_REQUEST) {
+			batches.add(keysToDelete.subList(i, Math.min(i + MAX_KEYS_PER_REQUEST, keysToDelete.size())));
+		}
+		boolean reportProgress = batches.size() > 1;
+
+		// Each worker deletes the batches one after the other until the queue is empty
+		AtomicInteger deleted = new AtomicInteger();
+		List<S3Error> errors = Collections.synchronizedList(new ArrayList<>());
+		CompletableFuture<?>[] workers = IntStream
+			.range(0, Math.min(batches.size(), Math.max(1, this.s3config.getMaxDeleteBatchesInFlight())))
+			.mapToObj(i -> this.deleteNextBatches(batches, keys.size(), deleted, errors, reportProgress))
+			.toArray(CompletableFuture[]::new);
+
+		return CompletableFuture.allOf(workers)
+			.thenApply(unused -> {
+				if (!errors.isEmpty()) {
+					LOG.warn("Deletion in S3: {} objects on {} could not be deleted", errors.size(), keys.size());
+				}
+				return DeleteObjectsResponse.builder().errors(errors).build();
+			})
+			.whenComplete((response, e) -> keys.forEach(this.s3ObjectMetadataCache::invalidate));
+	}
+
+	/**
+	 * Delete the next batch of the queue, then the following ones until the queue is
+	 * empty
+	 * @param batches Batches remaining
+	 * @param total Number of keys to delete
+	 * @param deleted Number of keys deleted
+	 * @param errors Errors of the keys which could not be deleted
+	 * @param reportProgress true to log the progress of the deletion
+	 * @return CompletableFuture completed when the queue is empty
+	 */
+	private CompletableFuture<Void> deleteNextBatches(Queue<List<String>> batches, int total, AtomicInteger deleted,
+			List<S3Error> errors, boolean reportProgress) {
+		List<String> batch = batches.poll();
+		if (batch == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return this.deleteBatch(batch, 1).thenCompose(batchErrors -> {
+			errors.addAll(batchErrors);
+			int deletedCount = deleted.addAndGet(batch.size() - batchErrors.size());
+			if (reportProgress) {
+				LOG.info("Deletion in S3: {}/{} objects deleted", deletedCount, total);
+			}
+			return this.deleteNextBatches(batches, total, deleted, errors, reportProgress);
+		});
+	}
 
-		// Build the delete objects request
+	/**
+	 * Delete a batch of keys, deleting again only the keys reported in error, or the whole
+	 * batch when its request has been throttled or failed on the server side
+	 * @param keys Keys of the batch
+	 * @param attempt Number of the attempt
+	 * @return CompletableFuture containing the errors of the keys which could not be
+	 * deleted
+	 */
+	private CompletableFuture<List<S3Error>> deleteBatch(List<String> keys, int attempt) {
+		// Quiet mode: the response only contains the keys in error
 		DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
 			.bucket(this.s3config.getBucket())
-			.delete(d -> d.objects(objectIdentifiers))
+			.delete(d -> d.objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+				.quiet(true))
 			.build();
 
-		// Delete objects
-		return this.s3AsyncClient.deleteObjects(deleteObjectsRequest);
+		boolean lastAttempt = attempt >= this.s3config.getDeleteMaxAttempts();
+		return this.s3AsyncClient.deleteObjects(deleteObjectsRequest).handle((response, e) -> {
+			if (e != null) {
+				Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+				if (lastAttempt || !isRetryable(cause)) {
+					// Batch reported in error so that the other batches are still deleted
+					LOG.warn("Deletion in S3: batch of {} objects not deleted: {}", keys.size(), cause.getMessage());
+					return CompletableFuture.completedFuture(keys.stream()
+						.map(key -> S3Error.builder()
+							.key(key)
+							.code(REQUEST_FAILED_ERROR_CODE)
+							.message(cause.getMessage())
+							.build())
+						.toList());
+				}
+				LOG.warn("Deletion in S3: batch of {} objects not deleted (attempt {}): {}, deleting it again",
+						keys.size(), attempt, cause.getMessage());
+				return this.deleteBatchLater(keys, attempt);
+			}
+			if (response.errors().isEmpty() || lastAttempt) {
+				return CompletableFuture.completedFuture(response.errors());
+			}
+			LOG.warn("Deletion in S3: {} objects not deleted (attempt {}), deleting them again",
+					response.errors().size(), attempt);
+			return this.deleteBatchLater(response.errors().stream().map(S3Error::key).toList(), attempt);
+		}).thenCompose(Function.identity());
+	}
+
+	/**
+	 * Delete the keys again after a delay doubled at each attempt: the keys in error are
+	 * often throttled
+	 * @param keys Keys to delete again
+	 * @param attempt Number of the attempt which failed
+	 * @return CompletableFuture containing the errors of the keys which could not be
+	 * deleted
+	 */
+	private CompletableFuture<List<S3Error>> deleteBatchLater(List<String> keys, int attempt) {
+		long delay = RETRY_DELAY.toMillis() << Math.min(attempt - 1, 10);
+		return CompletableFuture
+			.supplyAsync(() -> keys, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+			.thenCompose(retryKeys -> this.deleteBatch(retryKeys, attempt + 1));
+	}
+
+	/**
+	 * Check if a failed DeleteObjects request can be sent again: throttled, failed on the
+	 * server side or on the network
+	 * @param cause Cause of the failure
+	 * @return true if the request can be sent again
+	 */
+	private static boolean isRetryable(Throwable cause) {
+		if (cause instanceof SdkServiceException serviceException) {
+			return serviceException.isThrottlingException()
+					|| serviceException.statusCode() >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+		}
+		return cause instanceof SdkClientException;
 	}
 
-}
\ No newline at end of file
+}
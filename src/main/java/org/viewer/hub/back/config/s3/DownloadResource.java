@@ -16,16 +16,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.util.PackageUtil;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -36,24 +44,36 @@ import java.util.stream.Collectors;
 @Component
 public class DownloadResource {
 
+	private static final String S3_DELIMITER = "/";
+
 	private final S3AsyncClient s3AsyncClient;
 
 	private final S3ClientConfigurationProperties s3config;
 
+	private final S3ObjectMetadataCache s3ObjectMetadataCache;
+
 	@Autowired
-	public DownloadResource(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config) {
+	public DownloadResource(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config,
+			final S3ObjectMetadataCache s3ObjectMetadataCache) {
 		this.s3config = s3config;
 		this.s3AsyncClient = s3AsyncClient;
+		this.s3ObjectMetadataCache = s3ObjectMetadataCache;
 	}
 
 	/**
-	 * Check existence of S3 objects with prefix key in parameter
+	 * Check existence of the S3 object with the key in parameter, or of S3 objects in the
+	 * folder with the key in parameter
 	 * @param key Key to retrieve
-	 * @return true if objects are present with the prefix key path in parameter
+	 * @return true if the object or objects in the folder are present
 	 */
 	public boolean checkS3KeyExists(String key) {
 		try {
-			return this.retrieveS3KeysFromPrefix(key).stream().findFirst().isPresent();
+			if (this.retrieveS3ObjectMetadata(key).exists()) {
+				return true;
+			}
+			// Not an object: check if the key is a folder, one key is enough
+			String folderKey = key.endsWith("/") ? key : "%s/".formatted(key);
+			return this.s3ObjectMetadataCache.get(folderKey, this::listFolderMarker).exists();
 		}
 		catch (TechnicalException e) {
 			throw new TechnicalException(
@@ -61,6 +81,111 @@ public class DownloadResource {
 		}
 	}
 
+	/**
+	 * Retrieve the metadata of the S3 object with the key in parameter, from cache or with
+	 * a HEAD request
+	 * @param key Key of the object
+	 * @return metadata of the object, not existing if the object is not found
+	 */
+	public S3ObjectMetadata retrieveS3ObjectMetadata(String key) {
+		return this.s3ObjectMetadataCache.get(key, this::headObject);
+	}
+
+	/**
+	 * Retrieve the metadata of the S3 object with the key in parameter with a HEAD
+	 * request, without using the cache: for the checks which cannot rely on the metadata
+	 * cached by this instance or known by the other ones
+	 * @param key Key of the object
+	 * @return metadata of the object, not existing if the object is not found
+	 */
+	public S3ObjectMetadata retrieveUncachedS3ObjectMetadata(String key) {
+		return this.headObject(key);
+	}
+
+	/**
+	 * Retrieve the instant of the last reuse of a blob from its tags
+	 * @param key Key of the blob
+	 * @return instant of the last reuse, null if the blob has never been reused or does
+	 * not exist
+	 */
+	public Instant retrieveBlobLastReused(String key) {
+		try {
+			return this.s3AsyncClient.getObjectTagging(r -> r.bucket(this.s3config.getBucket()).key(key))
+				.get()
+				.tagSet()
+				.stream()
+				.filter(tag -> PackageUtil.BLOB_REUSED_AT_TAG.equals(tag.key()))
+				.map(tag -> Instant.parse(tag.value()))
+				.findFirst()
+				.orElse(null);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof S3Exception s3Exception
+					&& s3Exception.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+				return null;
+			}
+			throw new TechnicalException(
+					"Issue when retrieving tags of S3 object %s:%s".formatted(key, e.getMessage()));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException(
+					"Issue when retrieving tags of S3 object %s:%s".formatted(key, e.getMessage()));
+		}
+	}
+
+	/**
+	 * Retrieve the metadata of the S3 object with a HEAD request
+	 * @param key Key of the object
+	 * @return metadata of the object, not existing if the object is not found
+	 */
+	private S3ObjectMetadata headObject(String key) {
+		try {
+			HeadObjectResponse response = this.s3AsyncClient
+				.headObject(r -> r.bucket(this.s3config.getBucket()).key(key))
+				.get();
+			return new S3ObjectMetadata(true, response.contentLength(), response.eTag(), response.lastModified());
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof S3Exception s3Exception
+					&& s3Exception.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+				return S3ObjectMetadata.NOT_FOUND;
+			}
+			LOG.error("Issue when retrieving metadata of S3 object %s:%s".formatted(key, e.getMessage()));
+			throw new TechnicalException(
+					"Issue when retrieving metadata of S3 object %s:%s".formatted(key, e.getMessage()));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException(
+					"Issue when retrieving metadata of S3 object %s:%s".formatted(key, e.getMessage()));
+		}
+	}
+
+	/**
+	 * Check if the folder contains at least one object, listing only one key
+	 * @param folderKey Key of the folder
+	 * @return existing metadata if the folder contains objects
+	 */
+	private S3ObjectMetadata listFolderMarker(String folderKey) {
+		try {
+			boolean folderExists = !this.s3AsyncClient
+				.listObjectsV2(r -> r.bucket(this.s3config.getBucket()).prefix(folderKey).maxKeys(1))
+				.get()
+				.contents()
+				.isEmpty();
+			return folderExists ? new S3ObjectMetadata(true, 0L, null, null) : S3ObjectMetadata.NOT_FOUND;
+		}
+		catch (ExecutionException e) {
+			LOG.error("Issue when checking S3 folder %s:%s".formatted(folderKey, e.getMessage()));
+			throw new TechnicalException("Issue when checking S3 folder %s:%s".formatted(folderKey, e.getMessage()));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException("Issue when checking S3 folder %s:%s".formatted(folderKey, e.getMessage()));
+		}
+	}
+
 	/**
 	 * Retrieve S3 keys from prefix
 	 * @param prefix Prefix to evaluate
@@ -100,6 +225,32 @@ public class DownloadResource {
 		return s3Objects;
 	}
 
+	/**
+	 * Retrieve the content of the folder in parameter without going down in its
+	 * sub-folders: listed with the delimiter /, the objects of a sub-folder are grouped in
+	 * a single common prefix
+	 * @param folderKey Key of the folder, ending with /
+	 * @return Responses of the pages of the listing
+	 */
+	public List<ListObjectsV2Response> retrieveS3FolderContent(String folderKey) {
+		List<ListObjectsV2Response> responses = new ArrayList<>();
+		try {
+			ListObjectsV2Request listObjectsV2Request = ListObjectsV2Request.builder()
+				.bucket(this.s3config.getBucket())
+				.prefix(folderKey)
+				.delimiter(S3_DELIMITER)
+				.build();
+			this.s3AsyncClient.listObjectsV2Paginator(listObjectsV2Request).subscribe(responses::add).get();
+		}
+		catch (InterruptedException | ExecutionException e) {
+			LOG.error("Issue when retrieving content of S3 folder %s:%s".formatted(folderKey, e.getMessage()));
+			Thread.currentThread().interrupt();
+			throw new TechnicalException(
+					"Issue when retrieving content of S3 folder %s:%s".formatted(folderKey, e.getMessage()));
+		}
+		return responses;
+	}
+
 	/**
 	 * Retrieve S3 object from the key in parameter
 	 * @param key Key ot retrieve
@@ -122,4 +273,32 @@ public class DownloadResource {
 		}
 	}
 
+	/**
+	 * Retrieve S3 object from the key in parameter, starting at the position in parameter:
+	 * the bytes before the position are not downloaded
+	 * @param key Key to retrieve
+	 * @param start Position of the first byte to retrieve
+	 * @param eTag ETag the S3 object must still have, null to retrieve any version
+	 * @return InputStream corresponding to the S3 object from the position
+	 * @throws IOException if the S3 object cannot be retrieved or has changed
+	 */
+	public InputStream retrieveS3ObjectInputStream(String key, long start, String eTag) throws IOException {
+		GetObjectRequest.Builder getObjectRequest = GetObjectRequest.builder()
+			.bucket(this.s3config.getBucket())
+			.key(key)
+			.ifMatch(eTag);
+		if (start > 0) {
+			getObjectRequest.range("bytes=%d-".formatted(start));
+		}
+		try {
+			return this.s3AsyncClient
+				.getObject(getObjectRequest.build(), AsyncResponseTransformer.toBlockingInputStream())
+				.join();
+		}
+		catch (CompletionException e) {
+			throw new IOException("Issue when retrieving S3 object from key %s at position %d:%s".formatted(key,
+					start, e.getCause().getMessage()), e.getCause());
+		}
+	}
+
 }
@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.util.JacksonMappers;
+import org.viewer.hub.back.util.PackageUtil;
+import tools.jackson.core.JacksonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the manifests of the builds mapping the paths of their deduplicated files to
+ * the content-addressed blobs storing them, so that serving a file of a build does not
+ * cost a request to S3 to find its blob.
+ * <p>
+ * A build is immutable once published: its manifest is read once and kept, a missing
+ * manifest (build without deduplicated files, or not fully uploaded yet) relying on the
+ * cache of the metadata of the S3 objects.
+ */
+@Slf4j
+@Component
+public class S3BlobManifestCache {
+
+	private final DownloadResource downloadResource;
+
+	private final String blobsPath;
+
+	// Digest of the deduplicated files by path, by key of the manifest of the build
+	private final Map<String, Map<String, String>> manifests = new ConcurrentHashMap<>();
+
+	/**
+	 * Autowired constructor
+	 * @param downloadResource Resource retrieving the S3 objects
+	 * @param blobsPath Base S3 path of the blobs
+	 */
+	@Autowired
+	public S3BlobManifestCache(final DownloadResource downloadResource,
+			@Value("${viewer-hub.resources-packages.weasis.blobs.path}") final String blobsPath) {
+		this.downloadResource = downloadResource;
+		this.blobsPath = blobsPath;
+	}
+
+	/**
+	 * Retrieve the key of the blob storing the file of a build
+	 * @param key S3 key of the file in the build-stamped folder of its build
+	 * @return S3 key of the blob, null if the file is not deduplicated in its build
+	 */
+	public String retrieveBlobKey(String key) {
+		if (!PackageUtil.isDeduplicated(key)) {
+			return null;
+		}
+		// <version path>/<buildId>/<path of the file in the build>
+		String[] segments = key.split("/");
+		int buildIdIndex = -1;
+		for (int i = 0; i < segments.length - 1 && buildIdIndex < 0; i++) {
+			if (PackageUtil.BUILD_ID_PATTERN.matcher(segments[i]).matches()) {
+				buildIdIndex = i;
+			}
+		}
+		if (buildIdIndex < 0) {
+			return null;
+		}
+		String buildFolderKey = String.join("/", Arrays.copyOfRange(segments, 0, buildIdIndex + 1));
+		String path = key.substring(buildFolderKey.length() + 1);
+		Map<String, String> manifest = this
+			.retrieveManifest("%s/%s".formatted(buildFolderKey, PackageUtil.BLOB_MANIFEST_FILE));
+		String digest = manifest != null ? manifest.get(path) : null;
+		return digest != null ? PackageUtil.retrieveBlobKey(this.blobsPath, digest) : null;
+	}
+
+	/**
+	 * Retrieve the manifest of a build, from cache or from S3
+	 * @param manifestKey S3 key of the manifest
+	 * @return manifest, null if the build has no manifest
+	 */
+	private Map<String, String> retrieveManifest(String manifestKey) {
+		Map<String, String> manifest = this.manifests.get(manifestKey);
+		if (manifest == null && this.downloadResource.retrieveS3ObjectMetadata(manifestKey).exists()) {
+			manifest = this.manifests.computeIfAbsent(manifestKey, this::readManifest);
+		}
+		return manifest;
+	}
+
+	/**
+	 * Read the manifest of a build in S3
+	 * @param manifestKey S3 key of the manifest
+	 * @return manifest read
+	 */
+	private Map<String, String> readManifest(String manifestKey) {
+		try (InputStream inputStream = this.downloadResource.retrieveS3ObjectInputStream(manifestKey)) {
+			Map<String, String> manifest = JacksonMappers.BLOB_MANIFEST_READER.readValue(inputStream);
+			return Map.copyOf(manifest);
+		}
+		catch (IOException | JacksonException e) {
+			LOG.error("Issue when reading blob manifest {}:{}", manifestKey, e.getMessage());
+			throw new TechnicalException("Issue when reading blob manifest %s:%s".formatted(manifestKey,
+					e.getMessage()));
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * S3 resource answering the checks of existence, size and last modification from the
+ * cache of the metadata of the S3 objects instead of requesting S3 each time. The content
+ * of an immutable object is read from the local disk cache, the other objects being read
+ * from S3 from the first byte requested, so that a range request does not download the
+ * beginning of the object.
+ * <p>
+ * The file of a build stored as a content-addressed blob is read from the key of the
+ * blob, the resource keeping the path of the file in the build for its name and its
+ * relative resources.
+ */
+public class S3CachedMetadataResource extends AbstractResource {
+
+	private final Resource s3Resource;
+
+	private final String key;
+
+	// Key of the file in its build, different from the key read for a blob
+	private final String path;
+
+	private final DownloadResource downloadResource;
+
+	private final S3ResourceDiskCache s3ResourceDiskCache;
+
+	/**
+	 * Constructor
+	 * @param s3Resource S3 resource reading the content
+	 * @param key Key of the S3 object
+	 * @param downloadResource Resource retrieving the metadata of the S3 objects
+	 * @param s3ResourceDiskCache Local disk cache of the immutable S3 objects
+	 */
+	public S3CachedMetadataResource(Resource s3Resource, String key, DownloadResource downloadResource,
+			S3ResourceDiskCache s3ResourceDiskCache) {
+		this(s3Resource, key, key, downloadResource, s3ResourceDiskCache);
+	}
+
+	/**
+	 * Constructor of the resource of a file read from another key, the blob storing it
+	 * @param s3Resource S3 resource reading the content
+	 * @param key Key of the S3 object read
+	 * @param path Key of the file in its build
+	 * @param downloadResource Resource retrieving the metadata of the S3 objects
+	 * @param s3ResourceDiskCache Local disk cache of the immutable S3 objects
+	 */
+	public S3CachedMetadataResource(Resource s3Resource, String key, String path, DownloadResource downloadResource,
+			S3ResourceDiskCache s3ResourceDiskCache) {
+		this.s3Resource = s3Resource;
+		this.key = key;
+		this.path = path;
+		this.downloadResource = downloadResource;
+		this.s3ResourceDiskCache = s3ResourceDiskCache;
+	}
+
+	@Override
+	public boolean exists() {
+		return this.retrieveMetadata().exists();
+	}
+
+	@Override
+	public boolean isReadable() {
+		return this.exists();
+	}
+
+	@Override
+	public long contentLength() throws IOException {
+		return this.retrieveExistingMetadata().contentLength();
+	}
+
+	@Override
+	public long lastModified() throws IOException {
+		S3ObjectMetadata metadata = this.retrieveExistingMetadata();
+		return metadata.lastModified() != null ? metadata.lastModified().toEpochMilli() : 0L;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		FileChannel cachedFile = this.openCachedFile();
+		return cachedFile != null ? Channels.newInputStream(cachedFile)
+				: new S3RangeInputStream(this.downloadResource, this.key, this.retrieveExistingMetadata());
+	}
+
+	/**
+	 * ETag of the S3 object, used as ETag of the response so that conditional and range
+	 * requests are validated against the version of the S3 object
+	 * @return ETag of the S3 object, null if it does not exist
+	 */
+	public String getETag() {
+		return this.retrieveMetadata().eTag();
+	}
+
+	@Override
+	public ReadableByteChannel readableChannel() throws IOException {
+		FileChannel cachedFile = this.openCachedFile();
+		return cachedFile != null ? cachedFile : super.readableChannel();
+	}
+
+	@Override
+	public URL getURL() throws IOException {
+		return this.s3Resource.getURL();
+	}
+
+	@Override
+	public URI getURI() throws IOException {
+		return this.s3Resource.getURI();
+	}
+
+	/**
+	 * Create a resource relative to this one (a precompressed variant for example), its
+	 * checks being answered from the cache of the metadata as well
+	 */
+	@Override
+	public Resource createRelative(String relativePath) throws IOException {
+		String relativeKey = this.path.substring(0, this.path.lastIndexOf('/') + 1) + relativePath;
+		return new S3CachedMetadataResource(this.s3Resource.createRelative(relativePath), relativeKey,
+				this.downloadResource, this.s3ResourceDiskCache);
+	}
+
+	@Override
+	public String getFilename() {
+		return StringUtils.getFilename(this.path);
+	}
+
+	@Override
+	public String getDescription() {
+		return this.s3Resource.getDescription();
+	}
+
+	/**
+	 * Open the local file of the S3 object
+	 * @return channel of the local file, or null if the S3 object is read from S3
+	 * @throws FileNotFoundException if the S3 object does not exist
+	 */
+	private FileChannel openCachedFile() throws FileNotFoundException {
+		return this.s3ResourceDiskCache.openFile(this.key, this.retrieveExistingMetadata());
+	}
+
+	/**
+	 * Retrieve the metadata of the S3 object from cache
+	 * @return metadata of the S3 object
+	 */
+	private S3ObjectMetadata retrieveMetadata() {
+		return this.downloadResource.retrieveS3ObjectMetadata(this.key);
+	}
+
+	/**
+	 * Retrieve the metadata of the S3 object from cache, failing if it does not exist
+	 * anymore
+	 * @return metadata of the S3 object
+	 * @throws FileNotFoundException if the S3 object does not exist
+	 */
+	private S3ObjectMetadata retrieveExistingMetadata() throws FileNotFoundException {
+		S3ObjectMetadata metadata = this.retrieveMetadata();
+		if (!metadata.exists()) {
+			throw new FileNotFoundException("%s does not exist".formatted(this.getDescription()));
+		}
+		return metadata;
+	}
+
+}
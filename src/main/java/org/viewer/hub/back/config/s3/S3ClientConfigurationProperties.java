@@ -16,6 +16,7 @@ import org.springframework.stereotype.Component;
 import software.amazon.awssdk.regions.Region;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Component
 public class S3ClientConfigurationProperties {
@@ -39,9 +40,33 @@ public class S3ClientConfigurationProperties {
 
 	private int maxConcurrency;
 
+	// Upload requests in flight: bounds the memory used by the streamed uploads
+	private int maxUploadRequestsInFlight;
+
+	private int uploadPartMaxAttempts;
+
+	// Batches of keys deleted concurrently
+	private int maxDeleteBatchesInFlight;
+
+	private int deleteMaxAttempts;
+
+	// Time to live of the metadata of an existing object, and of a missing one
+	private Duration metadataCacheTtl;
+
+	private Duration metadataCacheNegativeTtl;
+
+	private int metadataCacheMaximumSize;
+
 	public S3ClientConfigurationProperties() {
 		this.multipartMinPartSize = 5242880;
 		this.maxConcurrency = 64;
+		this.maxUploadRequestsInFlight = 8;
+		this.uploadPartMaxAttempts = 3;
+		this.maxDeleteBatchesInFlight = 4;
+		this.deleteMaxAttempts = 3;
+		this.metadataCacheTtl = Duration.ofSeconds(30);
+		this.metadataCacheNegativeTtl = Duration.ofSeconds(5);
+		this.metadataCacheMaximumSize = 10000;
 	}
 
 	public Region getRegion() {
@@ -72,6 +97,34 @@ public class S3ClientConfigurationProperties {
 		return this.maxConcurrency;
 	}
 
+	public int getMaxUploadRequestsInFlight() {
+		return this.maxUploadRequestsInFlight;
+	}
+
+	public int getUploadPartMaxAttempts() {
+		return this.uploadPartMaxAttempts;
+	}
+
+	public int getMaxDeleteBatchesInFlight() {
+		return this.maxDeleteBatchesInFlight;
+	}
+
+	public int getDeleteMaxAttempts() {
+		return this.deleteMaxAttempts;
+	}
+
+	public Duration getMetadataCacheTtl() {
+		return this.metadataCacheTtl;
+	}
+
+	public Duration getMetadataCacheNegativeTtl() {
+		return this.metadataCacheNegativeTtl;
+	}
+
+	public int getMetadataCacheMaximumSize() {
+		return this.metadataCacheMaximumSize;
+	}
+
 	public void setRegion(final Region region) {
 		this.region = region;
 	}
@@ -100,4 +153,32 @@ public class S3ClientConfigurationProperties {
 		this.maxConcurrency = maxConcurrency;
 	}
 
+	public void setMaxUploadRequestsInFlight(final int maxUploadRequestsInFlight) {
+		this.maxUploadRequestsInFlight = maxUploadRequestsInFlight;
+	}
+
+	public void setUploadPartMaxAttempts(final int uploadPartMaxAttempts) {
+		this.uploadPartMaxAttempts = uploadPartMaxAttempts;
+	}
+
+	public void setMaxDeleteBatchesInFlight(final int maxDeleteBatchesInFlight) {
+		this.maxDeleteBatchesInFlight = maxDeleteBatchesInFlight;
+	}
+
+	public void setDeleteMaxAttempts(final int deleteMaxAttempts) {
+		this.deleteMaxAttempts = deleteMaxAttempts;
+	}
+
+	public void setMetadataCacheTtl(final Duration metadataCacheTtl) {
+		this.metadataCacheTtl = metadataCacheTtl;
+	}
+
+	public void setMetadataCacheNegativeTtl(final Duration metadataCacheNegativeTtl) {
+		this.metadataCacheNegativeTtl = metadataCacheNegativeTtl;
+	}
+
+	public void setMetadataCacheMaximumSize(final int metadataCacheMaximumSize) {
+		this.metadataCacheMaximumSize = metadataCacheMaximumSize;
+	}
+
 }
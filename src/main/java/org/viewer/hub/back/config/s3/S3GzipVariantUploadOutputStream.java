@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output stream uploading the bytes written in S3 together with a gzip variant of them,
+ * uploaded next to the object: the content is compressed once at upload time, so that it
+ * can be served compressed without compressing it on each download.
+ */
+public class S3GzipVariantUploadOutputStream extends S3UploadOutputStream {
+
+	private static final int GZIP_BUFFER_SIZE = 8192;
+
+	// Upload of the gzip variant
+	private final S3UploadOutputStream variantUpload;
+
+	private final GZIPOutputStream gzipOutputStream;
+
+	// Completion of both uploads
+	private final CompletableFuture<Void> completion;
+
+	/**
+	 * Constructor
+	 * @param s3AsyncClient S3 client
+	 * @param bucket Bucket
+	 * @param key Key of the object to upload
+	 * @param partSize Size of the parts of a multipart upload
+	 * @param maxAttempts Maximum number of attempts to upload a part
+	 * @param requestsInFlight Requests in flight shared by the streams
+	 * @param onUploadOver Action run when the upload of the object is over, before its
+	 * completion
+	 * @param variantUpload Upload of the gzip variant
+	 * @throws IOException if the gzip stream cannot be created
+	 */
+	S3GzipVariantUploadOutputStream(S3AsyncClient s3AsyncClient, String bucket, String key, int partSize,
+			int maxAttempts, Semaphore requestsInFlight, Runnable onUploadOver, S3UploadOutputStream variantUpload)
+			throws IOException {
+		super(s3AsyncClient, bucket, key, partSize, maxAttempts, requestsInFlight, onUploadOver);
+		this.variantUpload = variantUpload;
+		// Compressed once per build: the best compression is worth its cost
+		this.gzipOutputStream = new GZIPOutputStream(variantUpload, GZIP_BUFFER_SIZE) {
+			{
+				this.def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		};
+		this.completion = CompletableFuture.allOf(super.getCompletion(), variantUpload.getCompletion());
+	}
+
+	@Override
+	public CompletableFuture<Void> getCompletion() {
+		return this.completion;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		super.write(b, off, len);
+		this.gzipOutputStream.write(b, off, len);
+	}
+
+	@Override
+	public void close() throws IOException {
+		// Writes the end of the gzip stream and completes the upload of the variant, unless
+		// the uploads have already been aborted
+		if (!this.completion.isCompletedExceptionally()) {
+			this.gzipOutputStream.close();
+		}
+		super.close();
+	}
+
+	@Override
+	public void abort() {
+		this.variantUpload.abort();
+		super.abort();
+	}
+
+}
@@ -0,0 +1,30 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import java.time.Instant;
+
+/**
+ * Metadata of an S3 object, retrieved without downloading it
+ * @param exists true if the object exists
+ * @param contentLength Size in bytes of the object
+ * @param eTag ETag of the object
+ * @param lastModified Last modification of the object
+ */
+public record S3ObjectMetadata(boolean exists, long contentLength, String eTag, Instant lastModified) {
+
+	/**
+	 * Metadata of an object which does not exist
+	 */
+	public static final S3ObjectMetadata NOT_FOUND = new S3ObjectMetadata(false, 0L, null, null);
+
+}
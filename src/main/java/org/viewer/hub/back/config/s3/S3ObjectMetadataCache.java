@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the metadata of the S3 objects, existing or not, so that checking an object
+ * does not cost a request to S3 each time.
+ * <p>
+ * The metadata of an object which does not exist are kept for a shorter duration than
+ * the metadata of an existing object. The uploads and deletions of this instance
+ * invalidate the keys written, the other instances relying on the expiration of the
+ * entries. Beyond the maximum size, the least recently used entries are evicted.
+ */
+@Component
+public class S3ObjectMetadataCache {
+
+	private final S3ClientConfigurationProperties s3config;
+
+	// Current time in nanoseconds
+	private final LongSupplier nanoTime;
+
+	// Metadata by key in order of access: the first one is the least recently used
+	private final LinkedHashMap<String, CachedMetadata> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Autowired constructor
+	 * @param s3config S3 configuration
+	 */
+	@Autowired
+	public S3ObjectMetadataCache(final S3ClientConfigurationProperties s3config) {
+		this(s3config, System::nanoTime);
+	}
+
+	/**
+	 * Constructor
+	 * @param s3config S3 configuration
+	 * @param nanoTime Current time in nanoseconds
+	 */
+	S3ObjectMetadataCache(S3ClientConfigurationProperties s3config, LongSupplier nanoTime) {
+		this.s3config = s3config;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Retrieve the metadata of the key, loading them if they are not in cache or expired
+	 * @param key Key of the object
+	 * @param loader Loader of the metadata of a key
+	 * @return metadata of the object
+	 */
+	public S3ObjectMetadata get(String key, Function<String, S3ObjectMetadata> loader) {
+		long now = this.nanoTime.getAsLong();
+		CachedMetadata cachedMetadata;
+		synchronized (this.cache) {
+			cachedMetadata = this.cache.get(key);
+		}
+		if (cachedMetadata != null && now - cachedMetadata.expiresAt() < 0) {
+			return cachedMetadata.metadata();
+		}
+		S3ObjectMetadata metadata = loader.apply(key);
+		long ttl = (metadata.exists() ? this.s3config.getMetadataCacheTtl()
+				: this.s3config.getMetadataCacheNegativeTtl())
+			.toNanos();
+		if (ttl > 0) {
+			synchronized (this.cache) {
+				this.cache.put(key, new CachedMetadata(metadata, now + ttl));
+				// Keep the cache bounded
+				Iterator<CachedMetadata> iterator = this.cache.values().iterator();
+				while (this.cache.size() > this.s3config.getMetadataCacheMaximumSize() && iterator.hasNext()) {
+					iterator.next();
+					iterator.remove();
+				}
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Invalidate the metadata of a key written, and the existence of its parent folders
+	 * @param key Key of the object
+	 */
+	public void invalidate(String key) {
+		synchronized (this.cache) {
+			this.cache.remove(key);
+			for (int index = key.lastIndexOf('/'); index > 0; index = key.lastIndexOf('/', index - 1)) {
+				this.cache.remove(key.substring(0, index + 1));
+			}
+		}
+	}
+
+	/**
+	 * Metadata cached
+	 * @param metadata Metadata of the object
+	 * @param expiresAt Expiration in nanoseconds
+	 */
+	private record CachedMetadata(S3ObjectMetadata metadata, long expiresAt) {
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream of an S3 object requested only at the first read: the bytes skipped before
+ * are not downloaded, the S3 object being requested from the position reached. A range of
+ * the object is then served by skipping to its first byte, as done when writing the
+ * regions of a range request, without downloading the beginning of the object.
+ */
+class S3RangeInputStream extends InputStream {
+
+	private final DownloadResource downloadResource;
+
+	private final String key;
+
+	private final S3ObjectMetadata metadata;
+
+	// Position of the first byte to request
+	private long position;
+
+	// Stream of the S3 object, requested at the first read
+	private InputStream s3InputStream;
+
+	private boolean closed;
+
+	/**
+	 * Constructor
+	 * @param downloadResource Resource downloading the S3 object
+	 * @param key Key of the S3 object
+	 * @param metadata Metadata of the S3 object: the object is read only if its ETag is
+	 * still the same
+	 */
+	S3RangeInputStream(DownloadResource downloadResource, String key, S3ObjectMetadata metadata) {
+		this.downloadResource = downloadResource;
+		this.key = key;
+		this.metadata = metadata;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return this.open().read();
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		return this.open().read(b, off, len);
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		if (this.s3InputStream != null) {
+			return this.s3InputStream.skip(n);
+		}
+		this.ensureOpen();
+		// Not requested yet: only moves the position of the first byte to request
+		long skipped = Math.max(0L, Math.min(n, this.metadata.contentLength() - this.position));
+		this.position += skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.s3InputStream != null ? this.s3InputStream.available() : 0;
+	}
+
+	/**
+	 * Close the stream: the download of the rest of the S3 object is aborted
+	 */
+	@Override
+	public void close() throws IOException {
+		this.closed = true;
+		if (this.s3InputStream != null) {
+			this.s3InputStream.close();
+		}
+	}
+
+	/**
+	 * Request the S3 object from the position reached, if not yet requested
+	 * @return stream of the S3 object
+	 */
+	private InputStream open() throws IOException {
+		if (this.s3InputStream == null) {
+			this.ensureOpen();
+			this.s3InputStream = this.position < this.metadata.contentLength()
+					? this.downloadResource.retrieveS3ObjectInputStream(this.key, this.position,
+							this.metadata.eTag())
+					: InputStream.nullInputStream();
+		}
+		return this.s3InputStream;
+	}
+
+	/**
+	 * Check that the stream has not been closed
+	 */
+	private void ensureOpen() throws IOException {
+		if (this.closed) {
+			throw new IOException("Stream of %s already closed".formatted(this.key));
+		}
+	}
+
+}
@@ -0,0 +1,334 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.viewer.hub.back.config.properties.ResourceDiskCacheConfigurationProperties;
+import org.viewer.hub.back.util.PackageUtil;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of the immutable S3 objects: the objects of the build-stamped
+ * sub-directories are never modified once uploaded (a new upload publishes a new build
+ * id), as well as the content-addressed blobs, so they are downloaded once from S3 and
+ * then served from the local disk.
+ * <p>
+ * The size of the cache is bounded: the least recently used files are removed beyond the
+ * maximum size. A missing file is downloaded in a temporary file, checked against the
+ * size and ETag of the S3 object, then moved atomically in the cache: a file of the cache
+ * is always complete. Concurrent requests of a missing file share the same download.
+ */
+@Slf4j
+@Component
+public class S3ResourceDiskCache {
+
+	private static final String FILL_SUFFIX = ".fill";
+
+	private static final int DIGEST_BUFFER_SIZE = 65536;
+
+	// ETag of an object uploaded in a single part: md5 of its content
+	private static final Pattern MD5_ETAG_PATTERN = Pattern.compile("^[0-9a-fA-F]{32}$");
+
+	private static final Pattern EXTENSION_PATTERN = Pattern.compile("^[A-Za-z0-9]{1,16}$");
+
+	// Files of the cache: SHA-256 of the key with its extension, or download in progress
+	private static final Pattern CACHE_FILE_PATTERN = Pattern
+		.compile("^([0-9a-f]{64}(\\.[A-Za-z0-9]{1,16})?|[0-9a-f-]{36}\\.fill)$");
+
+	private final S3AsyncClient s3AsyncClient;
+
+	private final S3ClientConfigurationProperties s3config;
+
+	private final ResourceDiskCacheConfigurationProperties resourceDiskCacheConfigurationProperties;
+
+	// Files cached by key in order of access: the first one is the least recently used
+	private final LinkedHashMap<String, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+
+	// Size in bytes of the files cached, guarded by the files
+	private long size;
+
+	// Downloads in progress by key: concurrent requests of a key share the same download
+	private final Map<String, CompletableFuture<Path>> fills = new ConcurrentHashMap<>();
+
+	/**
+	 * Autowired constructor
+	 * @param s3AsyncClient S3 client
+	 * @param s3config S3 configuration
+	 * @param resourceDiskCacheConfigurationProperties Configuration of the cache
+	 */
+	@Autowired
+	public S3ResourceDiskCache(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config,
+			final ResourceDiskCacheConfigurationProperties resourceDiskCacheConfigurationProperties) {
+		this.s3AsyncClient = s3AsyncClient;
+		this.s3config = s3config;
+		this.resourceDiskCacheConfigurationProperties = resourceDiskCacheConfigurationProperties;
+	}
+
+	/**
+	 * Prepare the directory of the cache: the index of the files is kept in memory, so the
+	 * files of a previous run are discarded (only the files named by the cache)
+	 * @throws IOException if the directory cannot be created
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		if (!this.resourceDiskCacheConfigurationProperties.isEnabled()) {
+			return;
+		}
+		Path directory = this.resourceDiskCacheConfigurationProperties.getDirectory();
+		Files.createDirectories(directory);
+		try (Stream<Path> paths = Files.list(directory)) {
+			paths.filter(path -> CACHE_FILE_PATTERN.matcher(path.getFileName().toString()).matches())
+				.forEach(S3ResourceDiskCache::deleteQuietly);
+		}
+	}
+
+	/**
+	 * Open the local file of the S3 object, downloading it if it is not yet cached.
+	 * <p>
+	 * The file is opened while it is still in the cache: a file evicted afterwards stays
+	 * readable through the channel until it is closed.
+	 * @param key Key of the S3 object
+	 * @param metadata Metadata of the S3 object
+	 * @return channel of the local file, or null if the object is not cacheable or could
+	 * not be cached: it is then read from S3
+	 */
+	public FileChannel openFile(String key, S3ObjectMetadata metadata) {
+		if (!this.resourceDiskCacheConfigurationProperties.isEnabled() || !metadata.exists()
+				|| !(PackageUtil.isInBuildStampedFolder(key) || PackageUtil.isBlob(key))
+				|| metadata.contentLength() > this.resourceDiskCacheConfigurationProperties.getMaximumSize()
+					.toBytes()) {
+			return null;
+		}
+		FileChannel channel = this.openCachedFile(key);
+		if (channel != null) {
+			return channel;
+		}
+		try {
+			this.fill(key, metadata).join();
+		}
+		catch (CompletionException e) {
+			LOG.warn("S3 object {} not cached on disk: {}", key, e.getCause().getMessage());
+			return null;
+		}
+		// Null if already evicted by the download of another object
+		return this.openCachedFile(key);
+	}
+
+	/**
+	 * Open the file of the cache of the key
+	 * @param key Key of the S3 object
+	 * @return channel of the file, or null if the key is not cached
+	 */
+	private FileChannel openCachedFile(String key) {
+		synchronized (this.files) {
+			CachedFile cachedFile = this.files.get(key);
+			if (cachedFile == null) {
+				return null;
+			}
+			try {
+				return FileChannel.open(cachedFile.path());
+			}
+			catch (IOException e) {
+				// Removed from the disk by someone else: download it again
+				this.files.remove(key);
+				this.size -= cachedFile.size();
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Download the S3 object in the cache, unless a download of this key is already in
+	 * progress
+	 * @param key Key of the S3 object
+	 * @param metadata Metadata of the S3 object
+	 * @return download of the S3 object
+	 */
+	private CompletableFuture<Path> fill(String key, S3ObjectMetadata metadata) {
+		CompletableFuture<Path> fill = new CompletableFuture<>();
+		CompletableFuture<Path> fillInProgress = this.fills.putIfAbsent(key, fill);
+		if (fillInProgress != null) {
+			return fillInProgress;
+		}
+		Path fillFile = this.resourceDiskCacheConfigurationProperties.getDirectory()
+			.resolve(UUID.randomUUID() + FILL_SUFFIX);
+		// If-Match: the content downloaded is the one described by the metadata
+		this.s3AsyncClient
+			.getObject(r -> r.bucket(this.s3config.getBucket()).key(key).ifMatch(metadata.eTag()),
+					AsyncResponseTransformer.toFile(fillFile))
+			.thenApply(response -> this.store(key, metadata, fillFile))
+			.whenComplete((path, e) -> {
+				this.fills.remove(key, fill);
+				if (e != null) {
+					deleteQuietly(fillFile);
+					fill.completeExceptionally(e);
+				}
+				else {
+					fill.complete(path);
+				}
+			});
+		return fill;
+	}
+
+	/**
+	 * Check the file downloaded and move it in the cache, removing the least recently used
+	 * files beyond the maximum size
+	 * @param key Key of the S3 object
+	 * @param metadata Metadata of the S3 object
+	 * @param fillFile File downloaded
+	 * @return file of the cache
+	 */
+	private Path store(String key, S3ObjectMetadata metadata, Path fillFile) {
+		Path path = this.resourceDiskCacheConfigurationProperties.getDirectory().resolve(fileName(key));
+		try {
+			verify(metadata, fillFile);
+			if (metadata.lastModified() != null) {
+				Files.setLastModifiedTime(fillFile, FileTime.from(metadata.lastModified()));
+			}
+			Files.move(fillFile, path, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		List<Path> evicted = new ArrayList<>();
+		synchronized (this.files) {
+			CachedFile previous = this.files.put(key, new CachedFile(path, metadata.contentLength()));
+			if (previous != null) {
+				this.size -= previous.size();
+			}
+			this.size += metadata.contentLength();
+			long maximumSize = this.resourceDiskCacheConfigurationProperties.getMaximumSize().toBytes();
+			Iterator<Map.Entry<String, CachedFile>> iterator = this.files.entrySet().iterator();
+			while (this.size > maximumSize && iterator.hasNext()) {
+				Map.Entry<String, CachedFile> eldest = iterator.next();
+				if (!eldest.getKey().equals(key)) {
+					iterator.remove();
+					this.size -= eldest.getValue().size();
+					evicted.add(eldest.getValue().path());
+				}
+			}
+		}
+		// Files opened before their removal from the cache stay readable until closed
+		evicted.forEach(S3ResourceDiskCache::deleteQuietly);
+		return path;
+	}
+
+	/**
+	 * Check the integrity of the file downloaded: size, and md5 for an object uploaded in
+	 * a single part (the ETag of a multipart upload is not the md5 of the content, its
+	 * content is guaranteed by the If-Match of the download)
+	 * @param metadata Metadata of the S3 object
+	 * @param file File downloaded
+	 * @throws IOException if the file does not match the S3 object
+	 */
+	static void verify(S3ObjectMetadata metadata, Path file) throws IOException {
+		if (Files.size(file) != metadata.contentLength()) {
+			throw new IOException("Size of %s is %d instead of %d".formatted(file, Files.size(file),
+					metadata.contentLength()));
+		}
+		String eTag = metadata.eTag() != null ? metadata.eTag().replace("\"", "") : null;
+		if (eTag != null && MD5_ETAG_PATTERN.matcher(eTag).matches() && !eTag.equalsIgnoreCase(md5(file))) {
+			throw new IOException("Md5 of %s does not match the ETag %s".formatted(file, eTag));
+		}
+	}
+
+	/**
+	 * Compute the md5 of a file
+	 * @param file File
+	 * @return md5 in hexadecimal
+	 * @throws IOException if the file cannot be read
+	 */
+	private static String md5(Path file) throws IOException {
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+			byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				messageDigest.update(buffer, 0, read);
+			}
+			return HexFormat.of().formatHex(messageDigest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Name of the file of the cache: SHA-256 of the key, keeping the extension of the key
+	 * @param key Key of the S3 object
+	 * @return name of the file
+	 */
+	static String fileName(String key) {
+		try {
+			String hash = HexFormat.of()
+				.formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+			String extension = StringUtils.getFilenameExtension(key);
+			return extension != null && EXTENSION_PATTERN.matcher(extension).matches()
+					? "%s.%s".formatted(hash, extension) : hash;
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Delete a file, logging the failure
+	 * @param path File to delete
+	 */
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException e) {
+			LOG.warn("Not able to delete the file {} of the disk cache: {}", path, e.getMessage());
+		}
+	}
+
+	/**
+	 * File of the cache
+	 * @param path Path of the file
+	 * @param size Size in bytes of the file
+	 */
+	private record CachedFile(Path path, long size) {
+	}
+
+}
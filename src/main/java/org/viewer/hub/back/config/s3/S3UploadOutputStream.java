@@ -0,0 +1,311 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Output stream uploading the bytes written in S3 without holding the whole object in
+ * memory: the bytes are buffered up to the size of a part, an object smaller than a part
+ * is uploaded with a single put and a bigger one with a multipart upload. The number of
+ * requests in flight is bounded by the semaphore shared by the streams: writing blocks
+ * while it is exhausted, which applies backpressure on the producer. A failed part is
+ * uploaded again before giving up, and a multipart upload which cannot be completed is
+ * aborted so that no orphan part is kept in the bucket.
+ */
+@Slf4j
+public class S3UploadOutputStream extends OutputStream {
+
+	private static final int INITIAL_BUFFER_SIZE = 8192;
+
+	private final S3AsyncClient s3AsyncClient;
+
+	private final String bucket;
+
+	private final String key;
+
+	private final int partSize;
+
+	private final int maxAttempts;
+
+	// Requests in flight, shared by the streams
+	private final Semaphore requestsInFlight;
+
+	// Action run when the upload is over, before its completion
+	private final Runnable onUploadOver;
+
+	// Completion of the upload
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	// Parts uploaded or in progress
+	private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+
+	// Bytes not yet uploaded, grown up to the size of a part
+	private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+	private int position;
+
+	// Id of the multipart upload, null while the object fits in a single part
+	private String uploadId;
+
+	private boolean closed;
+
+	/**
+	 * Constructor
+	 * @param s3AsyncClient S3 client
+	 * @param bucket Bucket
+	 * @param key Key of the object to upload
+	 * @param partSize Size of the parts of a multipart upload
+	 * @param maxAttempts Maximum number of attempts to upload a part
+	 * @param requestsInFlight Requests in flight shared by the streams
+	 * @param onUploadOver Action run when the upload is over, before its completion
+	 */
+	S3UploadOutputStream(S3AsyncClient s3AsyncClient, String bucket, String key, int partSize, int maxAttempts,
+			Semaphore requestsInFlight, Runnable onUploadOver) {
+		this.s3AsyncClient = s3AsyncClient;
+		this.bucket = bucket;
+		this.key = key;
+		this.partSize = partSize;
+		this.maxAttempts = maxAttempts;
+		this.requestsInFlight = requestsInFlight;
+		this.onUploadOver = onUploadOver;
+	}
+
+	/**
+	 * Completion of the upload: completed once the object is stored in S3 after the
+	 * stream has been closed, or exceptionally if the upload failed or has been aborted
+	 * @return completion of the upload
+	 */
+	public CompletableFuture<Void> getCompletion() {
+		return this.completion;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.ensureOpen();
+		while (len > 0) {
+			if (this.position == this.partSize) {
+				this.uploadPart();
+			}
+			if (this.position == this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, Math.min(this.partSize, this.buffer.length * 2));
+			}
+			int length = Math.min(len, this.buffer.length - this.position);
+			System.arraycopy(b, off, this.buffer, this.position, length);
+			this.position += length;
+			off += length;
+			len -= length;
+		}
+	}
+
+	/**
+	 * Upload the bytes remaining and complete the upload: the completion of the upload is
+	 * available from {@link #getCompletion()}
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		if (this.uploadId == null) {
+			// Object smaller than a part: single put
+			byte[] content = Arrays.copyOf(this.buffer, this.position);
+			this.buffer = null;
+			this.acquireRequest();
+			this.closed = true;
+			this.s3AsyncClient
+				.putObject(r -> r.bucket(this.bucket).key(this.key), AsyncRequestBody.fromBytesUnsafe(content))
+				.whenComplete((response, e) -> {
+					this.requestsInFlight.release();
+					this.complete(e);
+				});
+			return;
+		}
+		if (this.position > 0) {
+			// Last part can be smaller than the others
+			this.uploadPart();
+		}
+		this.closed = true;
+		this.buffer = null;
+		CompletableFuture.allOf(this.parts.toArray(new CompletableFuture[0]))
+			.thenCompose(unused -> this.s3AsyncClient.completeMultipartUpload(r -> r.bucket(this.bucket)
+				.key(this.key)
+				.uploadId(this.uploadId)
+				.multipartUpload(m -> m.parts(this.parts.stream()
+					.map(CompletableFuture::join)
+					.sorted(Comparator.comparing(CompletedPart::partNumber))
+					.toList()))))
+			.whenComplete((response, e) -> {
+				if (e != null) {
+					this.abortMultipartUpload();
+				}
+				this.complete(e);
+			});
+	}
+
+	/**
+	 * Abort the upload: nothing is stored in S3 and the parts already uploaded are
+	 * discarded. The upload is over: its action is run like for a completed one
+	 */
+	public void abort() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		this.buffer = null;
+		if (this.uploadId != null) {
+			this.abortMultipartUpload();
+		}
+		this.complete(new IOException("Upload of %s aborted".formatted(this.key)));
+	}
+
+	/**
+	 * Upload the bytes buffered as the next part of the multipart upload, starting the
+	 * multipart upload for the first part
+	 */
+	private void uploadPart() throws IOException {
+		if (this.uploadId == null) {
+			try {
+				this.uploadId = this.s3AsyncClient
+					.createMultipartUpload(r -> r.bucket(this.bucket)
+						.key(this.key)
+						.checksumAlgorithm(ChecksumAlgorithm.CRC32))
+					.join()
+					.uploadId();
+			}
+			catch (CompletionException e) {
+				this.abort();
+				throw new IOException("Not able to start the upload of %s".formatted(this.key), e.getCause());
+			}
+		}
+		byte[] content = this.position == this.buffer.length ? this.buffer : Arrays.copyOf(this.buffer, this.position);
+		int partNumber = this.parts.size() + 1;
+		this.acquireRequest();
+		this.parts.add(this.uploadPart(partNumber, content, 1).whenComplete((part, e) -> {
+			this.requestsInFlight.release();
+			if (e != null) {
+				// Stop writing the next parts as soon as possible
+				this.completion.completeExceptionally(e);
+			}
+		}));
+		this.buffer = new byte[Math.min(this.partSize, INITIAL_BUFFER_SIZE)];
+		this.position = 0;
+	}
+
+	/**
+	 * Upload a part, uploading it again in case of failure
+	 * @param partNumber Number of the part
+	 * @param content Content of the part
+	 * @param attempt Number of the attempt
+	 * @return part uploaded
+	 */
+	private CompletableFuture<CompletedPart> uploadPart(int partNumber, byte[] content, int attempt) {
+		return this.s3AsyncClient
+			.uploadPart(r -> r.bucket(this.bucket)
+				.key(this.key)
+				.uploadId(this.uploadId)
+				.partNumber(partNumber)
+				.checksumAlgorithm(ChecksumAlgorithm.CRC32), AsyncRequestBody.fromBytesUnsafe(content))
+			.thenApply(response -> CompletedPart.builder()
+				.partNumber(partNumber)
+				.eTag(response.eTag())
+				.checksumCRC32(response.checksumCRC32())
+				.build())
+			.exceptionallyCompose(e -> {
+				if (attempt >= this.maxAttempts) {
+					return CompletableFuture.failedFuture(e);
+				}
+				LOG.warn("Upload of part {} of {} failed (attempt {}): {}", partNumber, this.key, attempt,
+						e.getMessage());
+				return this.uploadPart(partNumber, content, attempt + 1);
+			});
+	}
+
+	/**
+	 * Abort the multipart upload in S3 once the parts in progress are over, so that no
+	 * part is stored after the abort
+	 */
+	private void abortMultipartUpload() {
+		CompletableFuture.allOf(this.parts.stream()
+			.map(part -> part.handle((completedPart, e) -> null))
+			.toArray(CompletableFuture[]::new))
+			.thenCompose(unused -> this.s3AsyncClient
+				.abortMultipartUpload(r -> r.bucket(this.bucket).key(this.key).uploadId(this.uploadId)))
+			.whenComplete((response, e) -> {
+				if (e != null) {
+					LOG.error("Not able to abort the upload of {}: {}", this.key, e.getMessage());
+				}
+			});
+	}
+
+	/**
+	 * Complete the upload
+	 * @param e Exception if the upload failed
+	 */
+	private void complete(Throwable e) {
+		this.onUploadOver.run();
+		if (e != null) {
+			this.completion.completeExceptionally(e);
+		}
+		else {
+			this.completion.complete(null);
+		}
+	}
+
+	/**
+	 * Wait for a request slot: blocks the producer while too many requests are in flight
+	 */
+	private void acquireRequest() throws IOException {
+		try {
+			this.requestsInFlight.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.abort();
+			throw new InterruptedIOException("Upload of %s interrupted".formatted(this.key));
+		}
+	}
+
+	/**
+	 * Check that the stream can be written
+	 */
+	private void ensureOpen() throws IOException {
+		if (this.closed) {
+			throw new IOException("Upload of %s already closed".formatted(this.key));
+		}
+		if (this.completion.isCompletedExceptionally()) {
+			this.abort();
+			throw new IOException("Upload of %s failed".formatted(this.key));
+		}
+	}
+
+}
@@ -16,16 +16,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.util.PackageUtil;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.Tag;
 import software.amazon.awssdk.transfer.s3.S3TransferManager;
 import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
+import software.amazon.awssdk.transfer.s3.model.CompletedFileUpload;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
 /**
  * Class used to upload in S3
@@ -40,11 +46,19 @@ public class UploadResource {
 
 	private final S3TransferManager s3TransferManager;
 
+	private final S3ObjectMetadataCache s3ObjectMetadataCache;
+
+	// Requests in flight of the streamed uploads
+	private final Semaphore uploadRequestsInFlight;
+
 	@Autowired
-	public UploadResource(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config) {
+	public UploadResource(final S3AsyncClient s3AsyncClient, final S3ClientConfigurationProperties s3config,
+			final S3ObjectMetadataCache s3ObjectMetadataCache) {
 		this.s3AsyncClient = s3AsyncClient;
 		this.s3config = s3config;
+		this.s3ObjectMetadataCache = s3ObjectMetadataCache;
 		this.s3TransferManager = S3TransferManager.builder().s3Client(this.s3AsyncClient).build();
+		this.uploadRequestsInFlight = new Semaphore(s3config.getMaxUploadRequestsInFlight());
 	}
 
 	/**
@@ -57,7 +71,24 @@ public class UploadResource {
 		return this.s3TransferManager.copy(c -> c.copyObjectRequest(r -> r.sourceBucket(this.s3config.getBucket())
 			.sourceKey(sourceKey)
 			.destinationBucket(this.s3config.getBucket())
-			.destinationKey(destinationKey))).completionFuture();
+			.destinationKey(destinationKey)))
+			.completionFuture()
+			.whenComplete((completedCopy, e) -> this.s3ObjectMetadataCache.invalidate(destinationKey));
+	}
+
+	/**
+	 * Record the reuse of an existing blob in its tags: the object itself is not
+	 * rewritten, its content, metadata, ETag and last modification are unchanged.
+	 * @param key Key of the blob
+	 * @return CompletableFuture, completed exceptionally if the blob does not exist
+	 */
+	public CompletableFuture<Void> markBlobReused(String key) {
+		return this.s3AsyncClient
+			.putObjectTagging(r -> r.bucket(this.s3config.getBucket())
+				.key(key)
+				.tagging(t -> t.tagSet(
+						Tag.builder().key(PackageUtil.BLOB_REUSED_AT_TAG).value(Instant.now().toString()).build())))
+			.thenApply(response -> null);
 	}
 
 	/**
@@ -70,13 +101,60 @@ public class UploadResource {
 		try (inputStream) {
 			// Push object in S3
 			byte[] content = inputStream.readAllBytes();
-			return this.s3AsyncClient.putObject(
-					PutObjectRequest.builder().bucket(this.s3config.getBucket()).key(key).build(),
-					AsyncRequestBody.fromBytes(content));
+			// The content read is not shared: no defensive copy
+			return this.s3AsyncClient
+				.putObject(PutObjectRequest.builder().bucket(this.s3config.getBucket()).key(key).build(),
+						AsyncRequestBody.fromBytesUnsafe(content))
+				.whenComplete((response, e) -> this.s3ObjectMetadataCache.invalidate(key));
 		}
 		catch (IOException e) {
 			throw new TechnicalException("Issue when uploading object in S3:%s".formatted(e.getMessage()));
 		}
 	}
 
+	/**
+	 * Upload a local file in S3
+	 * @param file File to upload
+	 * @param key Key used to load the object
+	 * @return CompletableFuture
+	 */
+	public CompletableFuture<CompletedFileUpload> uploadFile(Path file, String key) {
+		return this.s3TransferManager
+			.uploadFile(u -> u.putObjectRequest(r -> r.bucket(this.s3config.getBucket()).key(key)).source(file))
+			.completionFuture()
+			.whenComplete((completedFileUpload, e) -> this.s3ObjectMetadataCache.invalidate(key));
+	}
+
+	/**
+	 * Open a stream uploading in S3 the bytes written, part by part: the object is stored
+	 * once the stream is closed
+	 * @param key Key used to load the object
+	 * @return stream to write the object in
+	 */
+	public S3UploadOutputStream openUploadStream(String key) {
+		return new S3UploadOutputStream(this.s3AsyncClient, this.s3config.getBucket(), key,
+				this.s3config.getMultipartMinPartSize(), this.s3config.getUploadPartMaxAttempts(),
+				this.uploadRequestsInFlight, () -> this.s3ObjectMetadataCache.invalidate(key));
+	}
+
+	/**
+	 * Open a stream uploading in S3 the bytes written, part by part, together with a gzip
+	 * variant of them stored next to the object (key suffixed by .gz): both objects are
+	 * stored once the stream is closed
+	 * @param key Key used to load the object
+	 * @return stream to write the object in
+	 */
+	public S3UploadOutputStream openUploadStreamWithGzipVariant(String key) {
+		S3UploadOutputStream variantUpload = this.openUploadStream(key + PackageUtil.GZIP_VARIANT_EXTENSION);
+		try {
+			return new S3GzipVariantUploadOutputStream(this.s3AsyncClient, this.s3config.getBucket(), key,
+					this.s3config.getMultipartMinPartSize(), this.s3config.getUploadPartMaxAttempts(),
+					this.uploadRequestsInFlight, () -> this.s3ObjectMetadataCache.invalidate(key), variantUpload);
+		}
+		catch (IOException e) {
+			variantUpload.abort();
+			throw new TechnicalException("Issue when opening gzip variant of %s:%s".formatted(key, e.getMessage()));
+		}
+	}
+
 }
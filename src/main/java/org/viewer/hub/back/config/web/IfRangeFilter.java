@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Filter applying the If-Range header of the range requests, not applied by the resource
+ * handlers: the Range header is ignored, and the whole resource is sent, when the
+ * validator of the If-Range header does not match the ETag or the last modification of
+ * the resource. A client resuming an interrupted download of a resource modified since
+ * then receives the new version instead of parts of two versions.
+ * <p>
+ * The resource handler sets the ETag and Last-Modified headers of the response before
+ * reading the Range header, which is then checked against them.
+ */
+public class IfRangeFilter extends OncePerRequestFilter {
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+		if (request.getHeader(HttpHeaders.RANGE) != null && request.getHeader(HttpHeaders.IF_RANGE) != null) {
+			filterChain.doFilter(new IfRangeRequestWrapper(request, response), response);
+		}
+		else {
+			filterChain.doFilter(request, response);
+		}
+	}
+
+	/**
+	 * Check if the validator of the If-Range header matches the response: an entity tag
+	 * must be strongly equal to the ETag of the response, a date must be equal to the last
+	 * modification of the response
+	 * @param ifRange Value of the If-Range header
+	 * @param response Response
+	 * @return true if the range can be applied
+	 */
+	static boolean isIfRangeMatching(String ifRange, HttpServletResponse response) {
+		String validator = ifRange.strip();
+		if (validator.startsWith("\"") || validator.startsWith("W/")) {
+			// Weak entity tags are never matching
+			String eTag = response.getHeader(HttpHeaders.ETAG);
+			return !validator.startsWith("W/") && validator.equals(eTag);
+		}
+		String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+		if (lastModified == null) {
+			return false;
+		}
+		try {
+			return ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME)
+				.isEqual(ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME));
+		}
+		catch (DateTimeParseException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Request hiding its Range header when the If-Range header does not match the
+	 * response, checked when the Range header is read
+	 */
+	private static final class IfRangeRequestWrapper extends HttpServletRequestWrapper {
+
+		private final HttpServletResponse response;
+
+		IfRangeRequestWrapper(HttpServletRequest request, HttpServletResponse response) {
+			super(request);
+			this.response = response;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return this.isRangeIgnored(name) ? null : super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			return this.isRangeIgnored(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			if (!this.isRangeIgnored(HttpHeaders.RANGE)) {
+				return super.getHeaderNames();
+			}
+			return Collections.enumeration(Collections.list(super.getHeaderNames())
+				.stream()
+				.filter(name -> !HttpHeaders.RANGE.equalsIgnoreCase(name))
+				.toList());
+		}
+
+		/**
+		 * Check if the header is the Range header and must be ignored
+		 * @param name Name of the header
+		 * @return true if the Range header must be ignored
+		 */
+		private boolean isRangeIgnored(String name) {
+			return HttpHeaders.RANGE.equalsIgnoreCase(name)
+					&& !isIfRangeMatching(super.getHeader(HttpHeaders.IF_RANGE), this.response);
+		}
+
+	}
+
+}
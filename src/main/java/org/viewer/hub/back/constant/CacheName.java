@@ -19,6 +19,12 @@ public class CacheName {
 	// Manifest
 	public static final String MANIFEST = "weasis.manifest";
 
+	// Channel notifying that the build of a manifest is over
+	public static final String MANIFEST_READY_CHANNEL = "weasis.manifest.ready";
+
+	// Channel notifying that the launch configuration has changed
+	public static final String LAUNCH_CONFIGURATION_CHANGED_CHANNEL = "weasis.launch.configuration.changed";
+
 	// Package version
 	public static final String PACKAGE_VERSION = "weasis.package.version";
 
@@ -42,6 +42,14 @@ public final class ParamName {
 
 	public static final String DICOM_WEB_STUDY_INSTANCE_UID = "StudyInstanceUID";
 
+	public static final String DICOM_WEB_STUDY_DATE = "StudyDate";
+
+	public static final String DICOM_WEB_MODALITIES_IN_STUDY = "ModalitiesInStudy";
+
+	public static final String ORDER_BY = "orderby";
+
+	public static final String ORDER_BY_MOST_RECENT_STUDIES = "-StudyDate,-StudyTime";
+
 	public static final String INCLUDE_FIELD = "includefield";
 
 	public static final String INCLUDE_FIELD_INSTANCE_ATTRIBUTES = "StudyInstanceUID,SeriesInstanceUID,SOPInstanceUID,SOPClassUID,InstanceNumber";
@@ -42,9 +42,9 @@ import org.viewer.hub.back.controller.exception.ConstraintException;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.IHESearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
+import org.viewer.hub.back.service.ClientHostService;
 import org.viewer.hub.back.service.CryptographyService;
 import org.viewer.hub.back.service.DisplayService;
-import org.viewer.hub.back.util.InetUtil;
 import org.viewer.hub.back.util.MultiValueMapUtil;
 
 import java.util.Set;
@@ -67,18 +67,22 @@ public class DisplayController {
 
 	private final Validator validator;
 
+	private final ClientHostService clientHostService;
+
 	/**
 	 * Autowired constructor
 	 * @param displayService service which will select the viewer to launch depending on
 	 * rules
 	 * @param cryptographyService cryptography service
+	 * @param clientHostService service resolving the host of the clients
 	 */
 	@Autowired
 	public DisplayController(final DisplayService displayService, final CryptographyService cryptographyService,
-			final Validator validator) {
+			final Validator validator, final ClientHostService clientHostService) {
 		this.displayService = displayService;
 		this.cryptographyService = cryptographyService;
 		this.validator = validator;
+		this.clientHostService = clientHostService;
 	}
 
 	/**
@@ -245,7 +249,7 @@ public class DisplayController {
 	 */
 	private void resolveHostSearchCriteria(HttpServletRequest request, SearchCriteria searchCriteria) {
 		if (searchCriteria != null && StringUtils.isBlank(searchCriteria.getHost())) {
-			searchCriteria.setHost(InetUtil.getClientHostFromRequest(request));
+			searchCriteria.setHost(this.clientHostService.retrieveClientHostFromRequest(request));
 		}
 	}
 
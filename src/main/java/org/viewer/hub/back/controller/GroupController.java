@@ -283,7 +283,7 @@ public class GroupController {
 				Objects.equals(TargetType.HOST, targetType) ? TargetType.HOST_GROUP : TargetType.USER_GROUP);
 		// retrieve the targets
 		List<TargetEntity> targetEntities = targets.stream()
-			.map(t -> this.targetService.retrieveTargetByNameAndType(t.getName(), targetType))
+			.map(t -> this.retrieveMember(t.getName(), targetType))
 			.collect(Collectors.toList());
 		// save in database
 		List<GroupEntity> groupAssociations = this.groupService.createGroupAssociation(groupEntity, targetEntities);
@@ -312,7 +312,7 @@ public class GroupController {
 				Objects.equals(TargetType.HOST, targetType) ? TargetType.HOST_GROUP : TargetType.USER_GROUP);
 		// retrieve the targets
 		List<TargetEntity> targetEntities = members.stream()
-			.map(t -> this.targetService.retrieveTargetByNameAndType(t.getName(), targetType))
+			.map(t -> this.retrieveMember(t.getName(), targetType))
 			.collect(Collectors.toList());
 		// delete in database
 		this.groupService.deleteMembers(groupEntity, targetEntities);
@@ -320,6 +320,20 @@ public class GroupController {
 		return ResponseEntity.ok().body(RESULT_MEMBERS_DELETED);
 	}
 
+	/**
+	 * Retrieve a member of a group: a target of the type in parameter, or a nested group of
+	 * this type
+	 * @param memberName Name of the member
+	 * @param targetType Target type
+	 * @return the member found
+	 */
+	private TargetEntity retrieveMember(String memberName, TargetType targetType) {
+		TargetEntity member = this.targetService.retrieveTargetByNameAndType(memberName, targetType);
+		return member != null ? member
+				: this.targetService.retrieveTargetByNameAndType(memberName,
+						Objects.equals(TargetType.HOST, targetType) ? TargetType.HOST_GROUP : TargetType.USER_GROUP);
+	}
+
 	/**
 	 * Retrieve the groups by the target type in parameter
 	 * @param targetType Target type
@@ -33,9 +33,9 @@ import org.viewer.hub.back.constant.EndPoint;
 import org.viewer.hub.back.constant.MDCConstants;
 import org.viewer.hub.back.constant.ParamName;
 import org.viewer.hub.back.model.PerformanceModel;
+import org.viewer.hub.back.service.ClientHostService;
 import org.viewer.hub.back.service.LaunchPreferenceService;
 import org.viewer.hub.back.util.DateTimeUtil;
-import org.viewer.hub.back.util.InetUtil;
 import org.viewer.hub.back.util.MDCUtil;
 import org.viewer.hub.back.util.MultiValueMapUtil;
 import org.viewer.hub.back.util.PackageUtil;
@@ -111,13 +111,18 @@ public class LaunchConfigController {
 	// Services
 	private final LaunchPreferenceService launchPreferenceService;
 
+	private final ClientHostService clientHostService;
+
 	/**
 	 * Autowired constructor
 	 * @param launchPreferenceService Launch Preference Service
+	 * @param clientHostService Client Host Service
 	 */
 	@Autowired
-	public LaunchConfigController(final LaunchPreferenceService launchPreferenceService) {
+	public LaunchConfigController(final LaunchPreferenceService launchPreferenceService,
+			final ClientHostService clientHostService) {
 		this.launchPreferenceService = launchPreferenceService;
+		this.clientHostService = clientHostService;
 	}
 
 	/**
@@ -163,8 +168,8 @@ public class LaunchConfigController {
 		String user = optionalValidParam.apply(userParam).orElse(null);
 
 		// GET_HOST from IP/DNS (X-FORWARDED FOR attributes)
-		String host = InetUtil.getClientHost(request, optionalValidParam.apply(hostParam).map(hostWithoutPrefix),
-				HOST_PARAM_BYPASS_VALUE);
+		String host = this.clientHostService.retrieveClientHost(request,
+				optionalValidParam.apply(hostParam).map(hostWithoutPrefix), HOST_PARAM_BYPASS_VALUE);
 
 		// GET_CONFIG from parameter (if not given DEFAULT is used)
 		String config = optionalValidParam.apply(configParam).orElse(DEFAULT_PROFILE);
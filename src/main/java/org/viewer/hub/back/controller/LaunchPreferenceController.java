@@ -49,9 +49,9 @@ import org.viewer.hub.back.entity.TargetEntity;
 import org.viewer.hub.back.enums.TargetType;
 import org.viewer.hub.back.model.ErrorMessage;
 import org.viewer.hub.back.model.Launches;
+import org.viewer.hub.back.service.ClientHostService;
 import org.viewer.hub.back.service.LaunchPreferenceService;
 import org.viewer.hub.back.service.TargetService;
-import org.viewer.hub.back.util.InetUtil;
 import org.viewer.hub.back.util.SpringDocUtil;
 
 import java.util.List;
@@ -108,15 +108,20 @@ public class LaunchPreferenceController {
 
 	private final TargetService targetService;
 
+	private final ClientHostService clientHostService;
+
 	/**
 	 * Autowired constructor
 	 * @param launchPreferenceService Launch Preference Service
 	 * @param targetService Target Service
+	 * @param clientHostService Client Host Service
 	 */
 	@Autowired
-	public LaunchPreferenceController(LaunchPreferenceService launchPreferenceService, TargetService targetService) {
+	public LaunchPreferenceController(LaunchPreferenceService launchPreferenceService, TargetService targetService,
+			ClientHostService clientHostService) {
 		this.launchPreferenceService = launchPreferenceService;
 		this.targetService = targetService;
+		this.clientHostService = clientHostService;
 	}
 
 	/**
@@ -599,8 +604,8 @@ public class LaunchPreferenceController {
 		// Get params user / host / config (for config if not existing: we take default
 		// config)
 		String user = optionalValidParam.apply(userParam).orElse(null);
-		String host = InetUtil.getClientHost(request, optionalValidParam.apply(hostParam).map(hostWithoutPrefix),
-				HOST_PARAM_BYPASS_VALUE);
+		String host = this.clientHostService.retrieveClientHost(request,
+				optionalValidParam.apply(hostParam).map(hostWithoutPrefix), HOST_PARAM_BYPASS_VALUE);
 		String launchConfig = optionalValidParam.apply(configParam).orElse(DEFAULT_CONFIG);
 		// Prefered type corresponding to the specific prefered type requested or if
 		// "all": all prefered types
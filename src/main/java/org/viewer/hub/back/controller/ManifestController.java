@@ -18,21 +18,35 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.viewer.hub.back.constant.ApiVersion;
 import org.viewer.hub.back.constant.EndPoint;
 import org.viewer.hub.back.model.manifest.Manifest;
 import org.viewer.hub.back.model.searchcriteria.WeasisArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.WeasisIHESearchCriteria;
-import org.viewer.hub.back.service.WeasisService;
+import org.viewer.hub.back.service.ManifestReadinessService;
 import org.viewer.hub.back.util.DateTimeUtil;
 import org.viewer.hub.back.util.JacksonUtil;
-import org.viewer.hub.back.util.Retryable;
+import tools.jackson.dataformat.xml.XmlMapper;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
 
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
@@ -46,59 +60,159 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
 @Validated
 public class ManifestController {
 
+	// Maximum duration to wait for the end of the build of a manifest
+	private static final Duration MANIFEST_BUILD_WAIT_TIMEOUT = Duration.ofSeconds(30);
+
+	// Margin given to the async request so that the manifest wait ends first
+	private static final Duration ASYNC_REQUEST_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+	private static final String GZIP_ENCODING = "gzip";
+
+	private static final String X_GZIP_ENCODING = "x-gzip";
+
+	private static final int GZIP_BUFFER_SIZE = 8192;
+
 	// Services
-	private final WeasisService weasisService;
+	private final ManifestReadinessService manifestReadinessService;
+
+	// Mapper writing the manifest
+	private final XmlMapper xmlMapper;
 
 	/**
 	 * Autowired constructor
-	 * @param weasisService manifest service
+	 * @param manifestReadinessService manifest readiness service
+	 * @param xmlMapper xml mapper
 	 */
 	@Autowired
-	public ManifestController(final WeasisService weasisService) {
-		this.weasisService = weasisService;
+	public ManifestController(final ManifestReadinessService manifestReadinessService, final XmlMapper xmlMapper) {
+		this.manifestReadinessService = manifestReadinessService;
+		this.xmlMapper = xmlMapper;
 	}
 
 	/**
 	 * Retrieve manifest corresponding to the key and produce it as xml format
 	 * @param key key of the manifest to retrieve
-	 * @return xml manifest found
+	 * @return xml manifest found, provided as soon as its build is over and streamed in
+	 * the response
 	 */
 	@Operation(summary = "Retrieve manifest",
 			description = "Retrieve the XML manifest for Weasis and log kv for Kibana regarding request and manifest creation/retrieval")
 	@GetMapping(produces = { ApiVersion.V1_APPLICATION_XML_VALUE })
 	// @PreAuthorize("hasAuthority('viewerhub_search')")
 	// TODO temporary deactivate security: wait for Weasis to make secured calls
-	public Manifest retrieveXmlManifest(HttpServletRequest request, @Valid @NotBlank String key) {
+	public DeferredResult<ResponseEntity<StreamingResponseBody>> retrieveXmlManifest(HttpServletRequest request,
+			@Valid @NotBlank String key) {
 		LocalDateTime startTimeRetrieveManifest = LocalDateTime.now();
+		String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+		boolean gzipAccepted = isGzipAccepted(request);
+		DeferredResult<ResponseEntity<StreamingResponseBody>> deferredResult = new DeferredResult<>(
+				MANIFEST_BUILD_WAIT_TIMEOUT.plus(ASYNC_REQUEST_TIMEOUT_MARGIN).toMillis());
+
+		// The request thread is released while the manifest is in build: the result is
+		// set when the build is over, or with an empty body when the manifest has been
+		// evicted from cache after ttl or is still in build after the timeout
+		this.manifestReadinessService.awaitManifest(key, MANIFEST_BUILD_WAIT_TIMEOUT)
+			.whenComplete((manifest, e) -> {
+				if (e != null) {
+					deferredResult.setErrorResult(e);
+				}
+				else if (manifest == null) {
+					deferredResult.setResult(ResponseEntity.ok().build());
+				}
+				else {
+					// Manifest found
+					deferredResult.setResult(this.buildManifestResponse(manifest, gzipAccepted,
+							size -> logManifestRetrieval(userAgent, manifest, key, startTimeRetrieveManifest,
+									size)));
+				}
+			});
+
+		return deferredResult;
+	}
+
+	/**
+	 * Build the response writing the manifest directly in the output stream of the
+	 * response, without building the xml document in memory
+	 * @param manifest Manifest to write
+	 * @param gzip true to compress the response with gzip
+	 * @param sizeConsumer Consumer of the size in bytes of the xml written
+	 * @return ResponseEntity built
+	 */
+	private ResponseEntity<StreamingResponseBody> buildManifestResponse(Manifest manifest, boolean gzip,
+			LongConsumer sizeConsumer) {
+		ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType(ApiVersion.V1_APPLICATION_XML_VALUE))
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			responseBuilder.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+		}
+		StreamingResponseBody body = outputStream -> {
+			// Closing the target stream ends the gzip stream, not the response stream
+			OutputStream target = StreamUtils.nonClosing(outputStream);
+			if (gzip) {
+				target = new GZIPOutputStream(target, GZIP_BUFFER_SIZE);
+			}
+			CountingOutputStream countingOutputStream = new CountingOutputStream(target);
+			this.xmlMapper.writeValue(countingOutputStream, manifest);
+			sizeConsumer.accept(countingOutputStream.getCount());
+		};
+		return responseBuilder.body(body);
+	}
+
+	/**
+	 * Check if the client accepts gzip encoded responses: gzip, or the wildcard when gzip
+	 * is not listed, with a quality value greater than 0
+	 * @param request request
+	 * @return true if gzip is accepted
+	 */
+	private static boolean isGzipAccepted(HttpServletRequest request) {
+		Double gzipQuality = null;
+		Double wildcardQuality = null;
+		for (String acceptEncoding : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+			for (String coding : acceptEncoding.split(",")) {
+				String[] parameters = coding.split(";");
+				String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+				if (GZIP_ENCODING.equals(name) || X_GZIP_ENCODING.equals(name)) {
+					gzipQuality = Math.max(gzipQuality != null ? gzipQuality : 0, retrieveQuality(parameters));
+				}
+				else if ("*".equals(name)) {
+					wildcardQuality = retrieveQuality(parameters);
+				}
+			}
+		}
+		Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+		return quality != null && quality > 0;
+	}
 
-		// currently quick and dirty: TODO: with spring-retry on condition instead of
-		// exception if possible ?
-		Manifest manifest = Retryable.of(() -> this.weasisService.retrieveManifest(key))
-			// => Retry occurs when build of manifest is currently in progress
-			// => Retry should not be launch when the manifest has been evicted from cache
-			// after ttl (= manifest is null)
-			.successIs((m) -> m == null || !m.isBuildInProgress())
-			// Retry during 30 seconds: 300 x 100 ms
-			.retries(300)
-			.delay(100L)
-			.orElse(() -> null)
-			.execute();
-
-		// StructuredArguments used for building dashboard
-		logManifestRetrieval(request, manifest, key, startTimeRetrieveManifest);
-
-		// Manifest found
-		return manifest;
+	/**
+	 * Retrieve the quality value of a content coding of the Accept-Encoding header
+	 * @param parameters Name of the content coding followed by its parameters
+	 * @return quality value, 1 when not specified or not valid
+	 */
+	private static double retrieveQuality(String[] parameters) {
+		for (int i = 1; i < parameters.length; i++) {
+			String[] parameter = parameters[i].split("=", 2);
+			if (parameter.length == 2 && "q".equalsIgnoreCase(parameter[0].trim())) {
+				try {
+					return Double.parseDouble(parameter[1].trim());
+				}
+				catch (NumberFormatException e) {
+					return 1;
+				}
+			}
+		}
+		return 1;
 	}
 
 	/**
 	 * Log used to build dashboard in kibana in order to follow the time taken by the
 	 * client to retrieve the manifest
-	 * @param request request
+	 * @param userAgent user agent of the request
 	 * @param manifest manifest containing the info to display
+	 * @param manifestSize size in bytes of the xml manifest written
 	 */
-	private static void logManifestRetrieval(HttpServletRequest request, Manifest manifest, String key,
-			LocalDateTime startRetrieveManifest) {
+	private static void logManifestRetrieval(String userAgent, Manifest manifest, String key,
+			LocalDateTime startRetrieveManifest, long manifestSize) {
 		if (manifest != null && manifest.getStartManifestRequest() != null) {
 			// Config
 			String config = (manifest.getSearchCriteria() instanceof WeasisIHESearchCriteria weasisIHE)
@@ -116,10 +230,39 @@ public class ManifestController {
 							(manifest.getSearchCriteria().getUser() != null)
 									? manifest.getSearchCriteria().getUser().toUpperCase() : null),
 					kv("request.client", manifest.getSearchCriteria().getClient()),
-					kv("request.component", request.getHeader("User-Agent")), kv("request.config", config),
+					kv("request.component", userAgent), kv("request.config", config),
 					kv("request.parameters", JacksonUtil.serializeIntoJson(manifest.getSearchCriteria())),
-					kv("manifest.size", manifest.toString().length()));
+					kv("manifest.size", manifestSize));
 		}
 	}
 
+	/**
+	 * Output stream counting the bytes written
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.count += len;
+		}
+
+		long getCount() {
+			return this.count;
+		}
+
+	}
+
 }
@@ -18,8 +18,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -28,17 +28,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.viewer.hub.back.constant.ApiVersion;
 import org.viewer.hub.back.constant.EndPoint;
-import org.viewer.hub.back.entity.OverrideConfigEntity;
-import org.viewer.hub.back.entity.PackageVersionEntity;
-import org.viewer.hub.back.entity.WeasisPropertyEntity;
-import org.viewer.hub.back.entity.serializer.WeasisPropertyEntitySerializer;
-import org.viewer.hub.back.service.OverrideConfigService;
-import org.viewer.hub.back.service.PackageService;
-import org.viewer.hub.back.util.JacksonUtil;
-
-import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.stream.Collectors;
+import org.viewer.hub.back.model.launch.ConfigurationPropertiesPayload;
+import org.viewer.hub.back.service.ConfigurationPropertiesService;
 
 /**
  * Controller managing override of Weasis configuration
@@ -58,22 +49,27 @@ public class OverrideConfigController {
 	private String weasisConfigFileNameJson;
 
 	// Services
-	private final OverrideConfigService overrideConfigService;
-
-	private final PackageService packageService;
+	private final ConfigurationPropertiesService configurationPropertiesService;
 
 	/**
 	 * Autowired constructor
-	 * @param overrideConfigService Service managing override of Weasis configuration
-	 * @param packageService Service managing package versions
+	 * @param configurationPropertiesService Service providing the configuration
+	 * properties of Weasis
 	 */
 	@Autowired
-	public OverrideConfigController(final OverrideConfigService overrideConfigService,
-			final PackageService packageService) {
-		this.overrideConfigService = overrideConfigService;
-		this.packageService = packageService;
+	public OverrideConfigController(final ConfigurationPropertiesService configurationPropertiesService) {
+		this.configurationPropertiesService = configurationPropertiesService;
 	}
 
+	/**
+	 * Retrieve the configuration properties: the payload is built once per launch
+	 * configuration change and served with a strong ETag, so that a client sending it
+	 * back in If-None-Match receives a 304 without body
+	 * @param packageVersionId Id of the package version
+	 * @param launchConfigId Id of the launch config
+	 * @param groupId Id of the group
+	 * @return configuration properties in props or json format
+	 */
 	@Operation(summary = "Retrieve the configuration properties",
 			description = "Retrieve the configuration properties in props or json format ")
 	@GetMapping(value = "/properties",
@@ -82,40 +78,20 @@ public class OverrideConfigController {
 	// TODO temporary deactivate security: wait for Weasis to make secured calls
 	public ResponseEntity<byte[]> retrieveConfigurationProperties(@RequestParam @NotNull Long packageVersionId,
 			@RequestParam(required = false) Long launchConfigId, @RequestParam(required = false) Long groupId) {
-		ResponseEntity<byte[]> toReturn = null;
-
-		// Retrieve the package version entity corresponding to the id in the request
-		PackageVersionEntity packageVersionEntity = this.packageService.retrievePackageVersion(packageVersionId);
-
-		if (packageVersionEntity != null) {
-			boolean shouldUseJsonSerialization = this.packageService.shouldUseJsonParsing(packageVersionEntity);
-
-			// In order to produce a file: add filename header
-			HttpHeaders responseHeaders = new HttpHeaders();
-			responseHeaders.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=%s".formatted(
-					shouldUseJsonSerialization ? this.weasisConfigFileNameJson : this.weasisConfigFileNameProperties));
-
-			// Call service to retrieve the corresponding properties, build properties or
-			// json bytes and return the response with headers
-			List<WeasisPropertyEntity> weasisPropertyEntities = this.overrideConfigService
-				.retrieveProperties(packageVersionId, launchConfigId, groupId)
-				.getWeasisPropertyEntities();
-			toReturn = new ResponseEntity<>(shouldUseJsonSerialization
-					? JacksonUtil
-						.serializeIntoJson(
-								OverrideConfigEntity.builder().weasisPropertyEntities(weasisPropertyEntities).build())
-						.getBytes()
-					: weasisPropertyEntities.stream()
-						.map(p -> JacksonUtil.customPropertiesSerializer(p,
-								new WeasisPropertyEntitySerializer(WeasisPropertyEntity.class),
-								WeasisPropertyEntity.class))
-						.collect(Collectors.joining())
-						// modify String encoding to ISO-8859-1 for Weasis versions using
-						// properties file
-						.getBytes(StandardCharsets.ISO_8859_1),
-					responseHeaders, HttpStatus.OK);
+		ConfigurationPropertiesPayload payload = this.configurationPropertiesService
+			.retrieveConfigurationProperties(packageVersionId, launchConfigId, groupId);
+		if (payload == null) {
+			return null;
 		}
-		return toReturn;
+
+		// In order to produce a file: add filename header. The If-None-Match header of
+		// the request is checked against the ETag by Spring MVC, which answers 304
+		return ResponseEntity.ok()
+			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=%s"
+				.formatted(payload.json() ? this.weasisConfigFileNameJson : this.weasisConfigFileNameProperties))
+			.eTag(payload.eTag())
+			.cacheControl(CacheControl.noCache())
+			.body(payload.content());
 	}
 
 }
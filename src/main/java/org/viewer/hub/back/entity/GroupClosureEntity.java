@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.entity;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Entity for the table group_closure: transitive closure of the table groups. The depth
+ * is the number of levels between the group and its member: 1 for a direct member.
+ */
+@Entity
+@Table(name = "group_closure")
+public class GroupClosureEntity implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 2697165212458430781L;
+
+	private GroupClosureEntityPK groupClosureEntityPK;
+
+	private int depth;
+
+	public GroupClosureEntity() {
+	}
+
+	public GroupClosureEntity(Long ancestorId, Long descendantId, int depth) {
+		this.groupClosureEntityPK = new GroupClosureEntityPK(ancestorId, descendantId);
+		this.depth = depth;
+	}
+
+	@AttributeOverrides(value = { @AttributeOverride(name = "ancestorId", column = @Column(name = "ancestor_id")),
+			@AttributeOverride(name = "descendantId", column = @Column(name = "descendant_id")) })
+	@EmbeddedId
+	public GroupClosureEntityPK getGroupClosureEntityPK() {
+		return this.groupClosureEntityPK;
+	}
+
+	public void setGroupClosureEntityPK(GroupClosureEntityPK groupClosureEntityPK) {
+		this.groupClosureEntityPK = groupClosureEntityPK;
+	}
+
+	@Basic
+	@Column(name = "depth", nullable = false)
+	public int getDepth() {
+		return this.depth;
+	}
+
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || this.getClass() != o.getClass()) {
+			return false;
+		}
+		GroupClosureEntity that = (GroupClosureEntity) o;
+		return this.depth == that.depth && Objects.equals(this.groupClosureEntityPK, that.groupClosureEntityPK);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.groupClosureEntityPK, this.depth);
+	}
+
+}
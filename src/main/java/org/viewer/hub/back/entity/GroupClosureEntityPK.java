@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Embeddable key the table group_closure.
+ */
+@Embeddable
+public class GroupClosureEntityPK implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = -4460863921736208347L;
+
+	@Schema(description = "Id of the group target")
+	private Long ancestorId;
+
+	@Schema(description = "Id of the target member of the group, directly or through nested groups")
+	private Long descendantId;
+
+	public GroupClosureEntityPK() {
+	}
+
+	public GroupClosureEntityPK(Long ancestorId, Long descendantId) {
+		this.ancestorId = ancestorId;
+		this.descendantId = descendantId;
+	}
+
+	public Long getAncestorId() {
+		return this.ancestorId;
+	}
+
+	public void setAncestorId(Long ancestorId) {
+		this.ancestorId = ancestorId;
+	}
+
+	public Long getDescendantId() {
+		return this.descendantId;
+	}
+
+	public void setDescendantId(Long descendantId) {
+		this.descendantId = descendantId;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || this.getClass() != o.getClass()) {
+			return false;
+		}
+		GroupClosureEntityPK that = (GroupClosureEntityPK) o;
+		return Objects.equals(this.ancestorId, that.ancestorId) && Objects.equals(this.descendantId, that.descendantId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.ancestorId, this.descendantId);
+	}
+
+}
@@ -17,7 +17,9 @@ import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 
 import java.io.Serializable;
 import java.util.Objects;
@@ -27,6 +29,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "groups")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 public class GroupEntity implements Serializable {
 
 	private static final long serialVersionUID = 8313794009353457388L;
@@ -14,6 +14,7 @@ package org.viewer.hub.back.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -24,6 +25,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -33,6 +35,7 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "i18n")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 @Getter
 @Setter
 @ToString
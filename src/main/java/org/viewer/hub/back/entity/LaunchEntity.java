@@ -21,9 +21,11 @@ import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.validation.Valid;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
 import java.io.Serial;
@@ -35,6 +37,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "launch")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 @JsonPropertyOrder({ "config", "preferred", "target", "selection" })
 public class LaunchEntity implements Serializable {
 
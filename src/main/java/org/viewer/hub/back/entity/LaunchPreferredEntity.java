@@ -15,11 +15,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
 import java.io.Serial;
@@ -31,6 +33,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "launch_preferred")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 public class LaunchPreferredEntity implements Serializable {
 
 	@Serial
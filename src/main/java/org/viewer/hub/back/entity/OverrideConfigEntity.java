@@ -19,6 +19,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MapsId;
@@ -30,18 +31,23 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Entity for the table override_config.
  */
 @Entity
 @Table(name = "override_config")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 @JsonIgnoreProperties(ignoreUnknown = true)
 @Data
 @Builder
@@ -103,30 +109,22 @@ public class OverrideConfigEntity extends AuditEntity implements Serializable {
 	 */
 	public void replaceNullOrNotExistingPropertiesByDefault(OverrideConfigEntity defaultOverrideConfig) {
 		if (defaultOverrideConfig != null) {
+			// Default properties by code: the first one is kept for a duplicated code
+			Map<String, WeasisPropertyEntity> defaultWeasisPropertiesByCode = new HashMap<>();
+			defaultOverrideConfig.getWeasisPropertyEntities()
+				.forEach(dp -> defaultWeasisPropertiesByCode.putIfAbsent(dp.getCode(), dp));
+
 			// Handle existing property with value null
+			Set<String> codesOfPropertiesToEvaluate = new HashSet<>();
 			this.weasisPropertyEntities.forEach(p -> {
-				WeasisPropertyEntity defaultWeasisPropertyFound = defaultOverrideConfig.getWeasisPropertyEntities()
-					.stream()
-					.filter(dp -> Objects.equals(p.getCode(), dp.getCode()))
-					.findFirst()
-					.orElse(null);
-				p.replaceNullByDefault(defaultWeasisPropertyFound);
+				p.replaceNullByDefault(defaultWeasisPropertiesByCode.get(p.getCode()));
+				codesOfPropertiesToEvaluate.add(p.getCode());
 			});
 
 			// Handle missing property whereas it is existing in default
-			List<String> codesOfPropertiesToEvaluate = this.weasisPropertyEntities.stream()
-				.map(WeasisPropertyEntity::getCode)
-				.toList();
-
-			List<String> missingCodes = defaultOverrideConfig.getWeasisPropertyEntities()
-				.stream()
-				.map(WeasisPropertyEntity::getCode)
-				.filter(element -> !codesOfPropertiesToEvaluate.contains(element))
-				.toList();
-
 			List<WeasisPropertyEntity> propertiesToAdd = defaultOverrideConfig.getWeasisPropertyEntities()
 				.stream()
-				.filter(p -> missingCodes.contains(p.getCode()))
+				.filter(p -> !codesOfPropertiesToEvaluate.contains(p.getCode()))
 				.toList();
 
 			ArrayList<WeasisPropertyEntity> modifiableList = new ArrayList<>(this.weasisPropertyEntities);
@@ -14,6 +14,7 @@ package org.viewer.hub.back.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -23,6 +24,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -34,6 +36,7 @@ import java.io.Serializable;
 @Setter
 @Entity
 @Table(name = "package_version")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 @EqualsAndHashCode(callSuper = true)
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Entity for the table s3_inventory: state of the S3 package folders seen at the last
+ * refresh of the package versions. The ETag is the one of the object driving the
+ * content of the key (current build pointer of a version folder, mapping of the minimal
+ * versions), null if there is no such object (legacy version folder).
+ */
+@Entity
+@Table(name = "s3_inventory")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class S3InventoryEntity implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 6209518376340857215L;
+
+	@Id
+	@Column(name = "s3_key", nullable = false)
+	private String s3Key;
+
+	@Column(name = "etag")
+	private String eTag;
+
+}
@@ -16,6 +16,7 @@ import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -23,6 +24,7 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.viewer.hub.back.entity.converter.TargetTypeConverter;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 import org.viewer.hub.back.enums.TargetType;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
@@ -35,6 +37,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "target")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 public class TargetEntity implements Serializable {
 
 	@Serial
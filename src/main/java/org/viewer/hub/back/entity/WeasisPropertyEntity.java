@@ -18,6 +18,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -31,6 +32,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationEntityListener;
 import org.viewer.hub.back.enums.WeasisPropertyCategory;
 import org.viewer.hub.back.enums.WeasisPropertyJavaType;
 import org.viewer.hub.back.enums.WeasisPropertyType;
@@ -40,6 +42,7 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "weasis_property")
+@EntityListeners(LaunchConfigurationEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
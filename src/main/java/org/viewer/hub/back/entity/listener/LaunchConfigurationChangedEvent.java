@@ -0,0 +1,22 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.entity.listener;
+
+import java.util.Set;
+
+/**
+ * Event published when entities used to resolve the launch configuration have been
+ * created, updated or deleted, once per committed transaction
+ * @param entityNames Names of the entities changed
+ */
+public record LaunchConfigurationChangedEvent(Set<String> entityNames) {
+}
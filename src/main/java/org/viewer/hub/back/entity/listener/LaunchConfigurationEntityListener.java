@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.entity.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Listener of the entities used to resolve the launch configuration: any change made from
+ * the admin UI or the REST endpoints publishes a LaunchConfigurationChangedEvent.
+ * <p>
+ * The changes of a transaction are collected and published in a single event once the
+ * transaction is committed, a rolled back transaction publishing nothing. A change made
+ * outside a transaction is published immediately.
+ */
+@Component
+public class LaunchConfigurationEntityListener {
+
+	private final ApplicationEventPublisher applicationEventPublisher;
+
+	/**
+	 * Autowired constructor
+	 * @param applicationEventPublisher Publisher of the events
+	 */
+	@Autowired
+	public LaunchConfigurationEntityListener(final ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	/**
+	 * Publish the change of an entity
+	 * @param entity Entity created, updated or deleted
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void onChange(Object entity) {
+		String entityName = entity.getClass().getSimpleName();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.applicationEventPublisher.publishEvent(new LaunchConfigurationChangedEvent(Set.of(entityName)));
+			return;
+		}
+		ChangesSynchronization changesSynchronization = (ChangesSynchronization) TransactionSynchronizationManager
+			.getResource(this);
+		if (changesSynchronization == null) {
+			// First change of the transaction
+			changesSynchronization = new ChangesSynchronization();
+			TransactionSynchronizationManager.bindResource(this, changesSynchronization);
+			TransactionSynchronizationManager.registerSynchronization(changesSynchronization);
+		}
+		changesSynchronization.entityNames.add(entityName);
+	}
+
+	/**
+	 * Changes of a transaction, published once the transaction is committed
+	 */
+	private class ChangesSynchronization implements TransactionSynchronization {
+
+		// Names of the entities changed
+		private final Set<String> entityNames = new LinkedHashSet<>();
+
+		@Override
+		public void afterCommit() {
+			LaunchConfigurationEntityListener.this.applicationEventPublisher
+				.publishEvent(new LaunchConfigurationChangedEvent(Set.copyOf(this.entityNames)));
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(LaunchConfigurationEntityListener.this);
+		}
+
+	}
+
+}
@@ -13,6 +13,8 @@ package org.viewer.hub.back.enums;
 
 /**
  * Define the max level of information that the dicom-web connector should to retrieve.
+ * Also used to limit the level retrieved by the dicom/dicom-web connectors to the one
+ * needed by the viewer to launch.
  */
 public enum DicomWebLevelLimitType {
 
@@ -0,0 +1,28 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.enums;
+
+/**
+ * Search criteria filters that a connector is able to apply in its study queries instead
+ * of filtering the studies once retrieved
+ */
+public enum SearchCriteriaPushDownType {
+
+	// StudyDate range matching from lowerDateTime/upperDateTime
+	STUDY_DATE_RANGE,
+	// ModalitiesInStudy matching from modalitiesInStudy
+	MODALITIES_IN_STUDY,
+	// Dicom-web only: limit + orderby on StudyDate from mostRecentResults, when no other
+	// filter is requested
+	MOST_RECENT_RESULTS
+
+}
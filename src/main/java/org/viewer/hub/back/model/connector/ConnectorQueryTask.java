@@ -0,0 +1,26 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+
+package org.viewer.hub.back.model.connector;
+
+import org.viewer.hub.back.model.property.ConnectorProperty;
+
+import java.util.function.Supplier;
+
+/**
+ * Query to run against a connector
+ * @param connector Connector queried
+ * @param query Query to execute
+ * @param <T> Type of the result of the query
+ */
+public record ConnectorQueryTask<T>(ConnectorProperty connector, Supplier<T> query) {
+}
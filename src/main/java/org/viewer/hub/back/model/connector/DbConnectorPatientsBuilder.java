@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.connector;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.viewer.hub.back.model.patient.DicomPatientSex;
+import org.viewer.hub.back.model.patient.Instance;
+import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.patient.Serie;
+import org.viewer.hub.back.model.patient.Study;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Build the patients from the rows of a db connector query, in one pass while the rows
+ * are read: the patients, studies, series and instances are indexed by their id/uid and
+ * the tree is assembled at the end.
+ */
+public class DbConnectorPatientsBuilder implements RowCallbackHandler {
+
+	private final DbConnectorResultRowMapper rowMapper = new DbConnectorResultRowMapper();
+
+	// Manifest configuration of the connector applied to the series
+	private final String transferSyntaxUid;
+
+	private final Integer compressionRate;
+
+	// Indexes: patients by patient id, studies by patient id and study uid, series by
+	// study uid and serie uid, instances by serie uid and sop instance uid
+	private final Map<String, Patient> patients = new LinkedHashMap<>();
+
+	private final Map<String, Map<String, Study>> studiesByPatientId = new LinkedHashMap<>();
+
+	private final Map<String, Map<String, Serie>> seriesByStudyUid = new LinkedHashMap<>();
+
+	private final Map<String, Map<String, Instance>> instancesBySerieUid = new LinkedHashMap<>();
+
+	private int rowNum;
+
+	/**
+	 * Constructor
+	 * @param transferSyntaxUid Transfer syntax uid of the series
+	 * @param compressionRate Compression rate of the series
+	 */
+	public DbConnectorPatientsBuilder(String transferSyntaxUid, Integer compressionRate) {
+		this.transferSyntaxUid = transferSyntaxUid;
+		this.compressionRate = compressionRate;
+	}
+
+	@Override
+	public void processRow(ResultSet rs) throws SQLException {
+		this.add(this.rowMapper.mapRow(rs, this.rowNum++));
+	}
+
+	/**
+	 * Index the patient, study, serie and instance of a row
+	 * @param row Row to add
+	 */
+	public void add(DbConnectorResult row) {
+		this.patients.computeIfAbsent(row.getPatientId(), patientId -> new Patient(patientId, row.getPatientName(),
+				row.getPatientBirthDate(),
+				row.getPatientSex() != null ? DicomPatientSex.valueOf(row.getPatientSex()) : null));
+
+		this.studiesByPatientId.computeIfAbsent(row.getPatientId(), patientId -> new LinkedHashMap<>())
+			.computeIfAbsent(row.getStudyInstanceUid(),
+					studyUid -> new Study(studyUid, row.getStudyDescription(), row.getStudyDateTime(),
+							row.getAccessionNumber(), row.getStudyId(), row.getReferringPhysicianName()));
+
+		this.seriesByStudyUid.computeIfAbsent(row.getStudyInstanceUid(), studyUid -> new LinkedHashMap<>())
+			.computeIfAbsent(row.getSeriesInstanceUid(),
+					serieUid -> new Serie(serieUid, row.getSeriesDescription(), row.getSeriesNumber(),
+							row.getModality(), row.getSeriesDateTime(), this.transferSyntaxUid, this.compressionRate));
+
+		this.instancesBySerieUid.computeIfAbsent(row.getSeriesInstanceUid(), serieUid -> new LinkedHashMap<>())
+			.computeIfAbsent(row.getSopInstanceUid(),
+					sopInstanceUid -> new Instance(sopInstanceUid, row.getSopClassUid(), row.getInstanceNumber(),
+							null));
+	}
+
+	/**
+	 * Assemble the patients from the indexes, in the order the rows have been read
+	 * @return patients found
+	 */
+	public Set<Patient> build() {
+		Set<Patient> patientsBuilt = new LinkedHashSet<>();
+		this.patients.forEach((patientId, patient) -> {
+			Set<Study> studies = new LinkedHashSet<>();
+			this.studiesByPatientId.get(patientId).forEach((studyUid, study) -> {
+				Set<Serie> series = new LinkedHashSet<>();
+				this.seriesByStudyUid.get(studyUid).forEach((serieUid, serie) -> {
+					serie.setInstances(new LinkedHashSet<>(this.instancesBySerieUid.get(serieUid).values()));
+					series.add(serie);
+				});
+				study.setSeries(series);
+				studies.add(study);
+			});
+			patient.setStudies(studies);
+			patientsBuilt.add(patient);
+		});
+		return patientsBuilt;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.connector;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Map the rows of a db connector query to DbConnectorResult. The columns are matched to
+ * the properties of DbConnectorResult by their label, camel case or underscored, and
+ * resolved once from the metadata of the first row.
+ */
+public class DbConnectorResultRowMapper implements RowMapper<DbConnectorResult> {
+
+	// Column index of each property, null until the first row is mapped
+	private Map<String, Integer> columnIndexes;
+
+	@Override
+	public DbConnectorResult mapRow(ResultSet rs, int rowNum) throws SQLException {
+		if (this.columnIndexes == null) {
+			this.columnIndexes = resolveColumnIndexes(rs.getMetaData());
+		}
+
+		DbConnectorResult dbConnectorResult = new DbConnectorResult();
+		// Patient
+		dbConnectorResult.setPatientName(this.getValue(rs, "patientName", String.class));
+		dbConnectorResult.setPatientId(this.getValue(rs, "patientId", String.class));
+		dbConnectorResult.setPatientBirthDate(this.getValue(rs, "patientBirthDate", LocalDate.class));
+		dbConnectorResult.setPatientSex(this.getValue(rs, "patientSex", String.class));
+		// Study
+		dbConnectorResult.setStudyInstanceUid(this.getValue(rs, "studyInstanceUid", String.class));
+		dbConnectorResult.setStudyId(this.getValue(rs, "studyId", String.class));
+		dbConnectorResult.setStudyDateTime(this.getValue(rs, "studyDateTime", LocalDateTime.class));
+		dbConnectorResult.setAccessionNumber(this.getValue(rs, "accessionNumber", String.class));
+		dbConnectorResult.setReferringPhysicianName(this.getValue(rs, "referringPhysicianName", String.class));
+		dbConnectorResult.setStudyDescription(this.getValue(rs, "studyDescription", String.class));
+		// Serie
+		dbConnectorResult.setSeriesInstanceUid(this.getValue(rs, "seriesInstanceUid", String.class));
+		dbConnectorResult.setModality(this.getValue(rs, "modality", String.class));
+		dbConnectorResult.setSeriesDateTime(this.getValue(rs, "seriesDateTime", LocalDateTime.class));
+		dbConnectorResult.setSeriesDescription(this.getValue(rs, "seriesDescription", String.class));
+		dbConnectorResult.setSeriesNumber(this.getValue(rs, "seriesNumber", Integer.class));
+		// Instance
+		dbConnectorResult.setSopInstanceUid(this.getValue(rs, "sopInstanceUid", String.class));
+		dbConnectorResult.setSopClassUid(this.getValue(rs, "sopClassUid", String.class));
+		dbConnectorResult.setInstanceNumber(this.getValue(rs, "instanceNumber", Integer.class));
+		return dbConnectorResult;
+	}
+
+	/**
+	 * Retrieve the value of a property in the current row
+	 * @param rs Result set positioned on the row
+	 * @param property Property of DbConnectorResult
+	 * @param requiredType Type of the property
+	 * @return value found, null if the column is not selected or the value is null
+	 */
+	private <T> T getValue(ResultSet rs, String property, Class<T> requiredType) throws SQLException {
+		Integer columnIndex = this.columnIndexes.get(normalize(property));
+		return columnIndex != null ? requiredType.cast(JdbcUtils.getResultSetValue(rs, columnIndex, requiredType))
+				: null;
+	}
+
+	/**
+	 * Resolve the index of the columns by normalized label
+	 * @param metaData Metadata of the result set
+	 * @return index of the columns by normalized label
+	 */
+	private static Map<String, Integer> resolveColumnIndexes(ResultSetMetaData metaData) throws SQLException {
+		Map<String, Integer> columnIndexes = new HashMap<>();
+		for (int index = 1; index <= metaData.getColumnCount(); index++) {
+			// First column wins if several columns have the same label
+			columnIndexes.putIfAbsent(normalize(JdbcUtils.lookupColumnName(metaData, index)), index);
+		}
+		return columnIndexes;
+	}
+
+	/**
+	 * Normalize a column label or a property name: lower case without underscore
+	 * @param name Name to normalize
+	 * @return name normalized
+	 */
+	private static String normalize(String name) {
+		return name.replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,23 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.launch;
+
+/**
+ * Configuration properties of Weasis serialized for a package version, launch config and
+ * group, served as is to the Weasis clients
+ * @param content Serialized properties: json or properties file depending on the package
+ * version
+ * @param json True if the content is in json format
+ * @param eTag Strong entity tag of the content (quoted)
+ */
+public record ConfigurationPropertiesPayload(byte[] content, boolean json, String eTag) {
+}
@@ -0,0 +1,280 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.launch;
+
+import org.viewer.hub.back.entity.GroupClosureEntity;
+import org.viewer.hub.back.entity.I18nEntity;
+import org.viewer.hub.back.entity.LaunchConfigEntity;
+import org.viewer.hub.back.entity.LaunchEntity;
+import org.viewer.hub.back.entity.LaunchPreferredEntity;
+import org.viewer.hub.back.entity.OverrideConfigEntityPK;
+import org.viewer.hub.back.entity.PackageVersionEntity;
+import org.viewer.hub.back.entity.TargetEntity;
+import org.viewer.hub.back.enums.TargetType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the data used to resolve the launch configuration of a Weasis
+ * launch: targets, group memberships, launch configs, launches, override configs and
+ * i18n builds, indexed to be read without any database access. The version identifies
+ * the changes of the data the snapshot has been built from.
+ */
+public final class LaunchConfigurationSnapshot {
+
+	private static final String TYPE_NAME_SEPARATOR = ":";
+
+	private final long version;
+
+	// Targets by type and upper case name
+	private final Map<String, TargetEntity> targetsByTypeAndName;
+
+	// Targets by upper case name
+	private final Map<String, TargetEntity> targetsByName;
+
+	// Group targets, direct or nested, by id of the member target: closest groups first
+	private final Map<Long, List<TargetEntity>> groupsByMemberId;
+
+	// Launch configs by name and by upper case name
+	private final Map<String, LaunchConfigEntity> launchConfigsByName;
+
+	private final Map<String, LaunchConfigEntity> launchConfigsByUpperCaseName;
+
+	// Launches with their associated entities filled, by launch config id
+	private final Map<Long, List<LaunchEntity>> launchesByLaunchConfigId;
+
+	// Ids of the override configs (package version/launch config/target)
+	private final Set<OverrideConfigEntityPK> overrideConfigIds;
+
+	// Build id of the i18n versions (version number + qualifier)
+	private final Map<String, String> i18nBuildIdsByVersion;
+
+	private LaunchConfigurationSnapshot(long version, Map<String, TargetEntity> targetsByTypeAndName,
+			Map<String, TargetEntity> targetsByName, Map<Long, List<TargetEntity>> groupsByMemberId,
+			Map<String, LaunchConfigEntity> launchConfigsByName,
+			Map<String, LaunchConfigEntity> launchConfigsByUpperCaseName,
+			Map<Long, List<LaunchEntity>> launchesByLaunchConfigId, Set<OverrideConfigEntityPK> overrideConfigIds,
+			Map<String, String> i18nBuildIdsByVersion) {
+		this.version = version;
+		this.targetsByTypeAndName = targetsByTypeAndName;
+		this.targetsByName = targetsByName;
+		this.groupsByMemberId = groupsByMemberId;
+		this.launchConfigsByName = launchConfigsByName;
+		this.launchConfigsByUpperCaseName = launchConfigsByUpperCaseName;
+		this.launchesByLaunchConfigId = launchesByLaunchConfigId;
+		this.overrideConfigIds = overrideConfigIds;
+		this.i18nBuildIdsByVersion = i18nBuildIdsByVersion;
+	}
+
+	/**
+	 * Build the snapshot from the entities of the database
+	 * @param version Version of the data
+	 * @param targets Targets
+	 * @param groupClosures Group memberships, direct or through nested groups
+	 * @param launchConfigs Launch configs
+	 * @param launchPreferred Launch preferred
+	 * @param launches Launches: their associated entities are filled
+	 * @param overrideConfigIds Ids of the override configs
+	 * @param i18ns I18n versions
+	 * @return snapshot built
+	 */
+	public static LaunchConfigurationSnapshot of(long version, Collection<TargetEntity> targets,
+			Collection<GroupClosureEntity> groupClosures, Collection<LaunchConfigEntity> launchConfigs,
+			Collection<LaunchPreferredEntity> launchPreferred, Collection<LaunchEntity> launches,
+			Collection<OverrideConfigEntityPK> overrideConfigIds, Collection<I18nEntity> i18ns) {
+		// Targets
+		Map<Long, TargetEntity> targetsById = indexById(targets, TargetEntity::getId);
+		Map<String, TargetEntity> targetsByTypeAndName = new HashMap<>();
+		Map<String, TargetEntity> targetsByName = new HashMap<>();
+		targets.forEach(target -> {
+			targetsByTypeAndName.putIfAbsent(typeAndNameKey(target.getType(), target.getName()), target);
+			targetsByName.putIfAbsent(upperCase(target.getName()), target);
+		});
+
+		// Group memberships ordered by depth: only the groups still existing
+		Map<Long, List<TargetEntity>> groupsByMemberId = new HashMap<>();
+		groupClosures.stream()
+			.sorted(Comparator.comparingInt(GroupClosureEntity::getDepth))
+			.forEach(groupClosure -> {
+				TargetEntity groupTarget = targetsById.get(groupClosure.getGroupClosureEntityPK().getAncestorId());
+				if (groupTarget != null) {
+					groupsByMemberId
+						.computeIfAbsent(groupClosure.getGroupClosureEntityPK().getDescendantId(),
+								memberId -> new ArrayList<>())
+						.add(groupTarget);
+				}
+			});
+
+		// Launch configs
+		Map<String, LaunchConfigEntity> launchConfigsByName = new HashMap<>();
+		Map<String, LaunchConfigEntity> launchConfigsByUpperCaseName = new HashMap<>();
+		launchConfigs.forEach(launchConfig -> {
+			launchConfigsByName.putIfAbsent(launchConfig.getName(), launchConfig);
+			launchConfigsByUpperCaseName.putIfAbsent(upperCase(launchConfig.getName()), launchConfig);
+		});
+
+		// Launches: keep only the launches whose associated entities exist
+		Map<Long, LaunchConfigEntity> launchConfigsById = indexById(launchConfigs, LaunchConfigEntity::getId);
+		Map<Long, LaunchPreferredEntity> launchPreferredById = indexById(launchPreferred,
+				LaunchPreferredEntity::getId);
+		Map<Long, List<LaunchEntity>> launchesByLaunchConfigId = new HashMap<>();
+		launches.forEach(launch -> {
+			TargetEntity target = targetsById.get(launch.getLaunchEntityPK().getTargetId());
+			LaunchPreferredEntity preferred = launchPreferredById
+				.get(launch.getLaunchEntityPK().getLaunchPreferredId());
+			LaunchConfigEntity config = launchConfigsById.get(launch.getLaunchEntityPK().getLaunchConfigId());
+			if (target != null && preferred != null && config != null) {
+				launch.setAssociatedTarget(target);
+				launch.setAssociatedPreferred(preferred);
+				launch.setAssociatedConfig(config);
+				launchesByLaunchConfigId.computeIfAbsent(config.getId(), configId -> new ArrayList<>()).add(launch);
+			}
+		});
+
+		// I18n build ids: first build id found for a version
+		Map<String, String> i18nBuildIdsByVersion = new HashMap<>();
+		i18ns.stream()
+			.filter(i18n -> i18n.getBuildId() != null)
+			.forEach(i18n -> i18nBuildIdsByVersion.putIfAbsent(
+					i18n.getVersionNumber() + Objects.toString(i18n.getQualifier(), ""), i18n.getBuildId()));
+
+		return new LaunchConfigurationSnapshot(version, Map.copyOf(targetsByTypeAndName), Map.copyOf(targetsByName),
+				groupsByMemberId.entrySet()
+					.stream()
+					.collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue()))),
+				Map.copyOf(launchConfigsByName), Map.copyOf(launchConfigsByUpperCaseName),
+				launchesByLaunchConfigId.entrySet()
+					.stream()
+					.collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue()))),
+				Set.copyOf(overrideConfigIds), Map.copyOf(i18nBuildIdsByVersion));
+	}
+
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Retrieve the target by name, ignoring case, and type
+	 * @param name Name of the target
+	 * @param type Type of the target
+	 * @return target found, null otherwise
+	 */
+	public TargetEntity retrieveTarget(String name, TargetType type) {
+		return name != null && type != null ? this.targetsByTypeAndName.get(typeAndNameKey(type, name)) : null;
+	}
+
+	/**
+	 * Retrieve the target by name, ignoring case
+	 * @param name Name of the target
+	 * @return target found, null otherwise
+	 */
+	public TargetEntity retrieveTarget(String name) {
+		return name != null ? this.targetsByName.get(upperCase(name)) : null;
+	}
+
+	/**
+	 * Retrieve the groups the target belongs to, directly or through nested groups
+	 * @param member Target member of the groups
+	 * @return groups of the target, closest groups first
+	 */
+	public List<TargetEntity> retrieveGroups(TargetEntity member) {
+		return member != null && member.getId() != null ? this.groupsByMemberId.getOrDefault(member.getId(), List.of())
+				: List.of();
+	}
+
+	/**
+	 * Retrieve the launch config by name
+	 * @param name Name of the launch config
+	 * @return launch config found, null otherwise
+	 */
+	public LaunchConfigEntity retrieveLaunchConfig(String name) {
+		return name != null ? this.launchConfigsByName.get(name) : null;
+	}
+
+	/**
+	 * Retrieve the launch config by name, ignoring case
+	 * @param name Name of the launch config
+	 * @return launch config found, null otherwise
+	 */
+	public LaunchConfigEntity retrieveLaunchConfigIgnoreCase(String name) {
+		return name != null ? this.launchConfigsByUpperCaseName.get(upperCase(name)) : null;
+	}
+
+	/**
+	 * Retrieve the launches of the launch config for the targets in parameter. The
+	 * launches are shared by all the callers and must not be modified.
+	 * @param targets Targets of the launches
+	 * @param launchConfig Launch config of the launches
+	 * @return launches found, in a new list
+	 */
+	public List<LaunchEntity> retrieveLaunches(Collection<TargetEntity> targets, LaunchConfigEntity launchConfig) {
+		if (launchConfig == null || launchConfig.getId() == null) {
+			return new ArrayList<>();
+		}
+		Set<Long> targetIds = targets.stream()
+			.filter(Objects::nonNull)
+			.map(TargetEntity::getId)
+			.collect(Collectors.toSet());
+		return this.launchesByLaunchConfigId.getOrDefault(launchConfig.getId(), List.of())
+			.stream()
+			.filter(launch -> targetIds.contains(launch.getLaunchEntityPK().getTargetId()))
+			.collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	/**
+	 * Check if an override config exists for the package version/launch config/target
+	 * @param packageVersion Package version
+	 * @param launchConfig Launch config
+	 * @param target Target
+	 * @return true if the override config exists
+	 */
+	public boolean existOverrideConfig(PackageVersionEntity packageVersion, LaunchConfigEntity launchConfig,
+			TargetEntity target) {
+		return this.overrideConfigIds
+			.contains(new OverrideConfigEntityPK(packageVersion.getId(), launchConfig.getId(), target.getId()));
+	}
+
+	/**
+	 * Retrieve the build id of the i18n version
+	 * @param i18nVersion I18n version: version number followed by the qualifier (ex:
+	 * 4.6.0-QUALIFIER)
+	 * @return build id found, null otherwise
+	 */
+	public String retrieveI18nBuildId(String i18nVersion) {
+		return i18nVersion != null && !i18nVersion.isBlank() ? this.i18nBuildIdsByVersion.get(i18nVersion) : null;
+	}
+
+	private static String typeAndNameKey(TargetType type, String name) {
+		return type + TYPE_NAME_SEPARATOR + upperCase(name);
+	}
+
+	private static String upperCase(String name) {
+		return name != null ? name.toUpperCase(Locale.ROOT) : null;
+	}
+
+	private static <T> Map<Long, T> indexById(Collection<T> entities, Function<T, Long> idExtractor) {
+		Map<Long, T> entitiesById = new HashMap<>();
+		entities.forEach(entity -> entitiesById.putIfAbsent(idExtractor.apply(entity), entity));
+		return entitiesById;
+	}
+
+}
@@ -31,6 +31,7 @@ import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 
@@ -84,7 +85,7 @@ public class ArcQuery implements Serializable {
 	private ConnectorType queryMode;
 
 	public ArcQuery() {
-		this.patients = new HashSet<>();
+		this.patients = new LinkedHashSet<>();
 		this.httpTags = new HashSet<>();
 		this.messages = new HashSet<>();
 	}
@@ -135,38 +135,23 @@ public class Manifest implements Serializable {
 	 */
 	public void update(Set<Patient> patients, @Valid ConnectorProperty connector) {
 		if (!patients.isEmpty()) {
-			if (this.getArcQueries().isEmpty() || this.getArcQueries()
-				.stream()
-				.noneMatch(aq -> Objects.equals(aq.getArcId(), connector.getId()))) {
-				this.createAndAddNewArcQuery(connector);
-			}
-
-			this.getArcQueries()
+			ArcQuery arcQuery = this.getArcQueries()
 				.stream()
 				.filter(aq -> Objects.equals(aq.getArcId(), connector.getId()))
 				.findFirst()
-				.ifPresent(arcQuery -> patients.forEach(patient -> {
-					// Merge existing patient
-					if (arcQuery.containsPatient(patient.getPatientID())) {
-						arcQuery.getPatients()
-							.stream()
-							.filter(p -> Objects.equals(p.getPatientID(), patient.getPatientID()))
-							.findFirst()
-							.ifPresent(p -> p.merge(patient));
-					}
-					// Create new one
-					else {
-						arcQuery.getPatients().add(patient);
-					}
-				}));
+				.orElseGet(() -> this.createAndAddNewArcQuery(connector));
+
+			// Merge existing patients or add new ones
+			Patient.mergePatients(arcQuery.getPatients(), patients);
 		}
 	}
 
 	/**
 	 * Create and fill new arc query
 	 * @param connector Connector properties
+	 * @return arc query created
 	 */
-	private void createAndAddNewArcQuery(ConnectorProperty connector) {
+	private ArcQuery createAndAddNewArcQuery(ConnectorProperty connector) {
 		ArcQuery arcQuery = new ArcQuery();
 		// Arc id
 		arcQuery.setArcId(connector.getId());
@@ -194,6 +179,7 @@ public class Manifest implements Serializable {
 		arcQuery.setQueryMode(connector.getType());
 
 		this.getArcQueries().add(arcQuery);
+		return arcQuery;
 	}
 
 }
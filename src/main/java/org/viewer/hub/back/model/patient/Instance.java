@@ -26,13 +26,14 @@ import java.io.Serializable;
 @Getter
 @Builder
 @AllArgsConstructor
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
 public class Instance implements Serializable {
 
 	@Serial
 	private static final long serialVersionUID = 7225568734948080876L;
 
+	@EqualsAndHashCode.Include
 	@JacksonXmlProperty(isAttribute = true, localName = "SOPInstanceUID")
 	private String sopInstanceUID;
 
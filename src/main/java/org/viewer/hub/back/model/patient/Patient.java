@@ -20,6 +20,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.viewer.hub.back.util.MergeUtil;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
@@ -27,17 +28,14 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Setter
 @Getter
 @Builder
 @AllArgsConstructor
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
 @JsonPropertyOrder({ "patientID", "issuerOfPatientID", "patientName", "patientBirthDate", "patientBirthTime",
 		"patientSex", "studies" })
@@ -49,8 +47,11 @@ public class Patient implements Serializable {
 	@Builder.Default
 	@JacksonXmlElementWrapper(useWrapping = false)
 	@JsonProperty("Study")
-	private Set<Study> studies = new HashSet<>();
+	private Set<Study> studies = new LinkedHashSet<>();
 
+	// Patient, study, serie and instance are identified by their id/uid only: their
+	// children can be updated while they are in a set
+	@EqualsAndHashCode.Include
 	@JacksonXmlProperty(isAttribute = true, localName = "PatientID")
 	private String patientID;
 
@@ -71,11 +72,11 @@ public class Patient implements Serializable {
 	private DicomPatientSex patientSex;
 
 	public Patient() {
-		this.studies = new HashSet<>();
+		this.studies = new LinkedHashSet<>();
 	}
 
 	public Patient(String patientID, String patientName, LocalDate patientBirthDate, DicomPatientSex patientSex) {
-		this.studies = new HashSet<>();
+		this.studies = new LinkedHashSet<>();
 		this.patientID = patientID;
 		this.patientName = patientName;
 		this.patientBirthDate = patientBirthDate;
@@ -84,7 +85,7 @@ public class Patient implements Serializable {
 
 	public Patient(String patientID, String patientName, String issuerOfPatientID, LocalDate patientBirthDate,
 			LocalTime patientBirthTime, DicomPatientSex patientSex) {
-		this.studies = new HashSet<>();
+		this.studies = new LinkedHashSet<>();
 		this.patientID = patientID;
 		this.patientName = patientName;
 		this.issuerOfPatientID = issuerOfPatientID;
@@ -98,45 +99,17 @@ public class Patient implements Serializable {
 	 * @param patientToMerge Patient to merge
 	 */
 	public void merge(Patient patientToMerge) {
-		// Retrieve studies to merge that are already in the current patient
-		Set<Study> studiesAlreadyInPatient = patientToMerge.getStudies()
-			.stream()
-			.filter(s -> this.studies.stream()
-				.anyMatch(study -> Objects.equals(s.getStudyInstanceUID(), study.getStudyInstanceUID())))
-			.collect(Collectors.toSet());
-		// Retrieve studies to merge that are not already in the current patient
-		Set<Study> studiesNotAlreadyInPatient = patientToMerge.getStudies()
-			.stream()
-			.filter(s -> this.studies.stream()
-				.noneMatch(study -> Objects.equals(s.getStudyInstanceUID(), study.getStudyInstanceUID())))
-			.collect(Collectors.toSet());
-
-		// Studies not in current patient: add directly the studies
-		this.studies.addAll(studiesNotAlreadyInPatient);
-
-		// Studies in current patient: retrieve the studies of the current patient
-		// and merge them with the studies to merge
-		studiesAlreadyInPatient.forEach(studyAlreadyInPatient -> {
-			Optional<Study> optionalStudy = this.studies.stream()
-				.filter(s -> Objects.equals(s.getStudyInstanceUID(), studyAlreadyInPatient.getStudyInstanceUID()))
-				.findFirst();
-			optionalStudy.ifPresent(study -> study.merge(studyAlreadyInPatient));
-		});
+		MergeUtil.mergeByKey(this.studies, patientToMerge.getStudies(), Study::getStudyInstanceUID, Study::merge);
 	}
 
+	/**
+	 * Merge the patients in the set of patients in parameter: patients are identified by
+	 * their patient id
+	 * @param patients Patients to update
+	 * @param toMerge Patients to merge
+	 */
 	public static void mergePatients(Set<Patient> patients, Set<Patient> toMerge) {
-		toMerge.forEach(p -> {
-			Patient existing = patients.stream()
-				.filter(bp -> Objects.equals(bp.getPatientID(), p.getPatientID()))
-				.findFirst()
-				.orElse(null);
-			if (existing != null) {
-				existing.merge(p);
-			}
-			else {
-				patients.add(p);
-			}
-		});
+		MergeUtil.mergeByKey(patients, toMerge, Patient::getPatientID, Patient::merge);
 	}
 
 }
@@ -23,6 +23,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.viewer.hub.back.util.DateTimeUtil;
+import org.viewer.hub.back.util.MergeUtil;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
@@ -32,17 +33,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Objects;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Setter
 @Getter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
 public class Serie implements Serializable {
 
@@ -52,8 +51,9 @@ public class Serie implements Serializable {
 	@Builder.Default
 	@JacksonXmlElementWrapper(useWrapping = false)
 	@JsonProperty("Instance")
-	private Set<Instance> instances = new HashSet<>();
+	private Set<Instance> instances = new LinkedHashSet<>();
 
+	@EqualsAndHashCode.Include
 	@JacksonXmlProperty(isAttribute = true, localName = "SeriesInstanceUID")
 	private String seriesInstanceUID;
 
@@ -87,7 +87,7 @@ public class Serie implements Serializable {
 
 	public Serie(String seriesInstanceUID, String seriesDescription, Integer seriesNumber, String modality,
 			LocalDateTime seriesDateTime, String wadoTransferSyntaxUID, Integer wadoCompressionRate) {
-		this.instances = new HashSet<>();
+		this.instances = new LinkedHashSet<>();
 		this.seriesInstanceUID = seriesInstanceUID;
 		this.seriesDescription = seriesDescription;
 		this.seriesNumber = seriesNumber;
@@ -100,7 +100,7 @@ public class Serie implements Serializable {
 
 	public Serie(String seriesInstanceUID, String seriesDescription, Integer seriesNumber, String modality,
 			Date seriesDate, Date seriesTime, String wadoTransferSyntaxUID, Integer wadoCompressionRate) {
-		this.instances = new HashSet<>();
+		this.instances = new LinkedHashSet<>();
 		this.seriesInstanceUID = seriesInstanceUID;
 		this.seriesDescription = seriesDescription;
 		this.seriesNumber = seriesNumber;
@@ -116,15 +116,8 @@ public class Serie implements Serializable {
 	 * @param serieToMerge Serie to merge
 	 */
 	public void merge(Serie serieToMerge) {
-		// Retrieve instances to merge that are not already in the current serie
-		Set<Instance> instancesNotAlreadyInSerie = serieToMerge.getInstances()
-			.stream()
-			.filter(i -> this.instances.stream()
-				.noneMatch(instance -> Objects.equals(i.getSopInstanceUID(), instance.getSopInstanceUID())))
-			.collect(Collectors.toSet());
-
-		// Instances not in current serie: add directly
-		this.instances.addAll(instancesNotAlreadyInSerie);
+		// Instances already in the current serie are kept
+		MergeUtil.mergeByKey(this.instances, serieToMerge.getInstances(), Instance::getSopInstanceUID);
 	}
 
 }
@@ -19,6 +19,7 @@ import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.viewer.hub.back.util.DateTimeUtil;
+import org.viewer.hub.back.util.MergeUtil;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import tools.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
@@ -28,16 +29,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Study implements Serializable {
 
 	@Serial
@@ -46,8 +44,9 @@ public class Study implements Serializable {
 	@Builder.Default
 	@JacksonXmlElementWrapper(useWrapping = false)
 	@JsonProperty("Series")
-	private Set<Serie> series = new HashSet<>();
+	private Set<Serie> series = new LinkedHashSet<>();
 
+	@EqualsAndHashCode.Include
 	@JacksonXmlProperty(isAttribute = true, localName = "StudyInstanceUID")
 	private String studyInstanceUID;
 
@@ -73,7 +72,7 @@ public class Study implements Serializable {
 
 	public Study(String studyInstanceUID, String studyDescription, Date studyDate, Date studyTime,
 			String accessionNumber, String studyID, String referringPhysicianName) {
-		this.series = new HashSet<>();
+		this.series = new LinkedHashSet<>();
 		this.studyInstanceUID = studyInstanceUID;
 		this.studyDescription = studyDescription;
 		this.studyDate = studyDate != null ? DateTimeUtil.toLocalDate(studyDate) : null;
@@ -85,7 +84,7 @@ public class Study implements Serializable {
 
 	public Study(String studyInstanceUID, String studyDescription, LocalDateTime studyDateTime, String accessionNumber,
 			String studyID, String referringPhysicianName) {
-		this.series = new HashSet<>();
+		this.series = new LinkedHashSet<>();
 		this.studyInstanceUID = studyInstanceUID;
 		this.studyDescription = studyDescription;
 		this.studyDate = studyDateTime != null ? studyDateTime.toLocalDate() : null;
@@ -174,33 +173,10 @@ public class Study implements Serializable {
 
 	/**
 	 * Merge the current study with the study in parameter
-	 * @param studyToMerge Serie to merge
+	 * @param studyToMerge Study to merge
 	 */
 	public void merge(Study studyToMerge) {
-		// Retrieve series to merge that are already in the current study
-		Set<Serie> seriesAlreadyInStudy = studyToMerge.getSeries()
-			.stream()
-			.filter(s -> this.series.stream()
-				.anyMatch(serie -> Objects.equals(s.getSeriesInstanceUID(), serie.getSeriesInstanceUID())))
-			.collect(Collectors.toSet());
-		// Retrieve series to merge that are not already in the current study
-		Set<Serie> seriesNotAlreadyInStudy = studyToMerge.getSeries()
-			.stream()
-			.filter(s -> this.series.stream()
-				.noneMatch(serie -> Objects.equals(s.getSeriesInstanceUID(), serie.getSeriesInstanceUID())))
-			.collect(Collectors.toSet());
-
-		// Series not in current study: add directly
-		this.series.addAll(seriesNotAlreadyInStudy);
-
-		// Series in current study: retrieve the series of the current study
-		// and merge them with the series to merge
-		seriesAlreadyInStudy.forEach(serieToMerge -> {
-			Optional<Serie> optionalSerie = this.series.stream()
-				.filter(s -> Objects.equals(s.getSeriesInstanceUID(), serieToMerge.getSeriesInstanceUID()))
-				.findFirst();
-			optionalSerie.ifPresent(serie -> serie.merge(serieToMerge));
-		});
+		MergeUtil.mergeByKey(this.series, studyToMerge.getSeries(), Serie::getSeriesInstanceUID, Serie::merge);
 	}
 
 }
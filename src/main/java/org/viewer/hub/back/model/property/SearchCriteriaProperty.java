@@ -12,24 +12,38 @@
 package org.viewer.hub.back.model.property;
 
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.validation.annotation.Validated;
 import org.viewer.hub.back.enums.QueryLevelType;
+import org.viewer.hub.back.enums.SearchCriteriaPushDownType;
 
+import java.util.HashSet;
 import java.util.Set;
 
 @Getter
 @Setter
 @Validated
 @EqualsAndHashCode
-@AllArgsConstructor
 public class SearchCriteriaProperty {
 
 	@NotNull
 	// Used to deactivate some search criteria levels
 	private Set<QueryLevelType> deactivated;
 
+	// Search criteria filters applied by the connector in its study queries
+	private Set<SearchCriteriaPushDownType> pushDown;
+
+	public SearchCriteriaProperty(Set<QueryLevelType> deactivated) {
+		this(deactivated, null);
+	}
+
+	@ConstructorBinding
+	public SearchCriteriaProperty(Set<QueryLevelType> deactivated, Set<SearchCriteriaPushDownType> pushDown) {
+		this.deactivated = deactivated;
+		this.pushDown = pushDown != null ? pushDown : new HashSet<>();
+	}
+
 }
@@ -50,6 +50,12 @@ public abstract class SearchCriteria implements Serializable {
 	@Serial
 	private static final long serialVersionUID = 3062479886665643364L;
 
+	// Mapper used for the deduction: modules are discovered once, the mapper being
+	// thread-safe once configured
+	private static final ObjectMapper DEDUCTION_MAPPER = new ObjectMapper().findAndRegisterModules()
+		.enable(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS)
+		.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+
 	@Setter
 	@Schema(description = "Provide user context for the request. Used to retrieve specific properties depending on user/user group",
 			name = "user", type = "String", example = "abcd")
@@ -129,7 +135,9 @@ public abstract class SearchCriteria implements Serializable {
 		this.applyPatientRequestFilterMostRecentResults(patientsToFilter);
 
 		// clean patients without studies
-		return patientsToFilter.stream().filter(patient -> !patient.getStudies().isEmpty()).collect(Collectors.toSet());
+		return patientsToFilter.stream()
+			.filter(patient -> !patient.getStudies().isEmpty())
+			.collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	private void applyPatientRequestFilterMostRecentResults(Set<Patient> patientsToFilter) {
@@ -141,7 +149,7 @@ public abstract class SearchCriteria implements Serializable {
 					.filter(study -> study.getStudyDateTime() != null)
 					.sorted((s1, s2) -> s2.getStudyDateTime().compareTo(s1.getStudyDateTime()))
 					.limit(this.mostRecentResults)
-					.collect(Collectors.toSet())));
+					.collect(Collectors.toCollection(LinkedHashSet::new))));
 		}
 	}
 
@@ -151,7 +159,7 @@ public abstract class SearchCriteria implements Serializable {
 				.stream()
 				.filter(study -> study.getStudyDateTime() != null)
 				.filter(study -> study.getStudyDateTime().isBefore(this.upperDateTime))
-				.collect(Collectors.toSet())));
+				.collect(Collectors.toCollection(LinkedHashSet::new))));
 		}
 	}
 
@@ -161,7 +169,7 @@ public abstract class SearchCriteria implements Serializable {
 				.stream()
 				.filter(study -> study.getStudyDateTime() != null)
 				.filter(study -> study.getStudyDateTime().isAfter(this.lowerDateTime))
-				.collect(Collectors.toSet())));
+				.collect(Collectors.toCollection(LinkedHashSet::new))));
 		}
 	}
 
@@ -172,7 +180,7 @@ public abstract class SearchCriteria implements Serializable {
 				.filter(study -> Objects.nonNull(study.getStudyDescription()) && !study.getStudyDescription().isBlank())
 				.filter(study -> this.containsInDescription.stream()
 					.anyMatch(description -> deAccent(study.getStudyDescription()).toLowerCase().contains(description)))
-				.collect(Collectors.toSet())));
+				.collect(Collectors.toCollection(LinkedHashSet::new))));
 		}
 	}
 
@@ -183,7 +191,7 @@ public abstract class SearchCriteria implements Serializable {
 				.filter(study -> study.getSeries()
 					.stream()
 					.anyMatch(serie -> this.modalitiesInStudy.contains(serie.getModality())))
-				.collect(Collectors.toSet())));
+				.collect(Collectors.toCollection(LinkedHashSet::new))));
 		}
 	}
 
@@ -195,16 +203,13 @@ public abstract class SearchCriteria implements Serializable {
 	 * IHESearchCriteria, WeasisIHESearchCriteria, WeasisArchiveSearchCriteria
 	 */
 	public static SearchCriteria jacksonDeduction(MultiValueMap<String, String> params) {
-		ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
-			.enable(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS)
-			.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
 		// Use the appropriate intermediate class for deduction based on the presence of
 		// requestType, since the top-level deduction cannot distinguish IHE from Archive
 		// subtypes when child-specific properties (pro/config/arg) are absent.
 		if (params.containsKey("requestType")) {
-			return mapper.convertValue(params, IHESearchCriteria.class);
+			return DEDUCTION_MAPPER.convertValue(params, IHESearchCriteria.class);
 		}
-		return mapper.convertValue(params, ArchiveSearchCriteria.class);
+		return DEDUCTION_MAPPER.convertValue(params, ArchiveSearchCriteria.class);
 	}
 
 }
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.searchcriteria;
+
+import org.viewer.hub.back.enums.SearchCriteriaPushDownType;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+/**
+ * Search criteria filters applied by a connector in its study queries. The filters
+ * pushed down never exclude a study kept by the search criteria filters applied on the
+ * results.
+ *
+ * @param studyDateRange StudyDate range matching (yyyyMMdd-yyyyMMdd, open bounds
+ * allowed), null if not pushed down
+ * @param modalitiesInStudy ModalitiesInStudy matching values, empty if not pushed down
+ * @param mostRecentResults Number of most recent studies to retrieve, null if not pushed
+ * down
+ */
+public record StudyQueryFilter(String studyDateRange, Set<String> modalitiesInStudy, Integer mostRecentResults) {
+
+	// No filter pushed down
+	public static final StudyQueryFilter NONE = new StudyQueryFilter(null, Set.of(), null);
+
+	private static final DateTimeFormatter DICOM_DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+	/**
+	 * Determine the filters to push down in the study queries of a connector
+	 * @param searchCriteria Search criteria of the request, null if no filter
+	 * @param pushDownTypes Filters supported by the connector
+	 * @return StudyQueryFilter built
+	 */
+	public static StudyQueryFilter of(SearchCriteria searchCriteria, Set<SearchCriteriaPushDownType> pushDownTypes) {
+		if (searchCriteria == null || pushDownTypes == null || pushDownTypes.isEmpty()) {
+			return NONE;
+		}
+
+		// StudyDate range: date part of the bounds, the time is checked on the results
+		boolean dateFiltered = searchCriteria.getLowerDateTime() != null || searchCriteria.getUpperDateTime() != null;
+		String studyDateRange = dateFiltered && pushDownTypes.contains(SearchCriteriaPushDownType.STUDY_DATE_RANGE)
+				? "%s-%s".formatted(toDicomDate(searchCriteria.getLowerDateTime()),
+						toDicomDate(searchCriteria.getUpperDateTime()))
+				: null;
+
+		// ModalitiesInStudy
+		boolean modalitiesPushedDown = !searchCriteria.getModalitiesInStudy().isEmpty()
+				&& pushDownTypes.contains(SearchCriteriaPushDownType.MODALITIES_IN_STUDY);
+		Set<String> modalitiesInStudy = modalitiesPushedDown ? Set.copyOf(searchCriteria.getModalitiesInStudy())
+				: Set.of();
+
+		// Most recent results: the most recent studies are selected after the other
+		// filters, which are all applied again on the results (the modalities on the
+		// modality of the series retrieved), so the limit is only pushed down when no
+		// other filter is requested
+		boolean otherFilters = dateFiltered || !searchCriteria.getContainsInDescription().isEmpty()
+				|| !searchCriteria.getModalitiesInStudy().isEmpty();
+		Integer mostRecentResults = searchCriteria.getMostRecentResults() != null && !otherFilters
+				&& pushDownTypes.contains(SearchCriteriaPushDownType.MOST_RECENT_RESULTS)
+						? searchCriteria.getMostRecentResults() : null;
+
+		return new StudyQueryFilter(studyDateRange, modalitiesInStudy, mostRecentResults);
+	}
+
+	/**
+	 * Format the date part of a date time for a dicom range matching
+	 * @param dateTime Date time to format
+	 * @return date formatted, empty for an open bound
+	 */
+	private static String toDicomDate(LocalDateTime dateTime) {
+		return dateTime != null ? dateTime.format(DICOM_DATE_FORMATTER) : "";
+	}
+
+}
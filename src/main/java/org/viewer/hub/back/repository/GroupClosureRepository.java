@@ -0,0 +1,40 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.viewer.hub.back.entity.GroupClosureEntity;
+import org.viewer.hub.back.entity.GroupClosureEntityPK;
+
+import java.util.List;
+
+/**
+ * Repository for the entity GroupClosure.
+ */
+public interface GroupClosureRepository extends JpaRepository<GroupClosureEntity, GroupClosureEntityPK> {
+
+	/**
+	 * Retrieve the groups whose the target belongs to, directly or through nested groups,
+	 * the closest groups first
+	 * @param descendantId id of the member target
+	 * @return list of GroupClosureEntity whose the target belongs to
+	 */
+	List<GroupClosureEntity> findByGroupClosureEntityPKDescendantIdOrderByDepthAsc(Long descendantId);
+
+	/**
+	 * Retrieve the members of the group, directly or through nested groups
+	 * @param ancestorId id of the group
+	 * @return list of GroupClosureEntity of the members of the group
+	 */
+	List<GroupClosureEntity> findByGroupClosureEntityPKAncestorId(Long ancestorId);
+
+}
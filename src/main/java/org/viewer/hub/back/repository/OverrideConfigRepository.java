@@ -13,6 +13,7 @@ package org.viewer.hub.back.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntityPK;
@@ -85,6 +86,13 @@ public interface OverrideConfigRepository extends JpaRepository<OverrideConfigEn
 	 */
 	List<OverrideConfigEntity> findByPackageVersionId(Long packageVersionId);
 
+	/**
+	 * Find the ids of all the override configs, without loading their properties
+	 * @return ids of the override configs
+	 */
+	@Query("select o.overrideConfigEntityPK from OverrideConfigEntity o")
+	List<OverrideConfigEntityPK> findAllIds();
+
 	/**
 	 * Delete all OverrideConfig entities by package version
 	 * @param packageVersion package version to evaluate
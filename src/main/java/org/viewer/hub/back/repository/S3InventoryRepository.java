@@ -0,0 +1,22 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.viewer.hub.back.entity.S3InventoryEntity;
+
+/**
+ * Repository for the entity S3Inventory.
+ */
+public interface S3InventoryRepository extends JpaRepository<S3InventoryEntity, String> {
+
+}
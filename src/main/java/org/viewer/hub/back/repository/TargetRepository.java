@@ -11,9 +11,11 @@
 
 package org.viewer.hub.back.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.viewer.hub.back.entity.TargetEntity;
 import org.viewer.hub.back.enums.TargetType;
 
@@ -62,6 +64,15 @@ public interface TargetRepository extends JpaRepository<TargetEntity, Long> {
 	 */
 	TargetEntity findByNameIgnoreCaseAndType(String targetName, TargetType targetType);
 
+	/**
+	 * Find target entity by name and type, locking it until the end of the transaction
+	 * @param targetName target Name
+	 * @param targetType target Type
+	 * @return optional target entity found and locked
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Optional<TargetEntity> findLockedByNameAndType(String targetName, TargetType targetType);
+
 	/**
 	 * Find Target by names
 	 * @param targetNames target names to look for
@@ -25,12 +25,36 @@ public interface CacheService {
 	// ================= Manifest ====================
 
 	/**
-	 * Determine the key depending on the search criteria in parameters
+	 * Determine the key depending on the search criteria in parameters: SHA-256 of the
+	 * canonical form of the search criteria, which does not depend on the order of the
+	 * values of unordered criteria
 	 * @param searchCriteria Search criteria
 	 * @return key built
 	 */
 	String constructManifestKeyDependingOnSearchParameters(SearchCriteria searchCriteria);
 
+	/**
+	 * Try to acquire the lock allowing to build the manifest corresponding to the key:
+	 * only one build of a manifest is launched at a time for all instances
+	 * @param key Key of the manifest to build
+	 * @return true if the lock has been acquired, false if a build is already in progress
+	 */
+	boolean acquireManifestBuildLock(String key);
+
+	/**
+	 * Release the lock acquired to build the manifest corresponding to the key: the lock
+	 * is released only if still held by the acquisition of this instance
+	 * @param key Key of the manifest built
+	 */
+	void releaseManifestBuildLock(String key);
+
+	/**
+	 * Check if a build of the manifest corresponding to the key has been launched
+	 * @param key Key of the manifest
+	 * @return true if a build is in progress
+	 */
+	boolean isManifestBuildLocked(String key);
+
 	/**
 	 * Add the key and manifest in the cache if key is absent
 	 * @param key Key to retrieve the manifest
@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Optional;
+
+/**
+ * Resolve the host of the clients from their address
+ */
+public interface ClientHostService {
+
+	/**
+	 * Retrieve the host of the client: host provided in parameter if present, host of the
+	 * address of the request otherwise
+	 * @param request Request of the client
+	 * @param optHostAddr Host or address provided by the client
+	 * @param bypass Value of the host provided by the client meaning that no host should be
+	 * resolved
+	 * @return host found, null if the host cannot be resolved or is bypassed
+	 */
+	String retrieveClientHost(HttpServletRequest request, Optional<String> optHostAddr, String bypass);
+
+	/**
+	 * Retrieve the host of the address of the request
+	 * @param request Request of the client
+	 * @return host found, null if the host cannot be resolved
+	 */
+	String retrieveClientHostFromRequest(HttpServletRequest request);
+
+	/**
+	 * Resolve the host of the address in parameter
+	 * @param addr Literal IP address or host name
+	 * @param bypass Value of the address meaning that no host should be resolved
+	 * @return host found, null if the host cannot be resolved or is bypassed
+	 */
+	String resolveClientHost(String addr, String bypass);
+
+}
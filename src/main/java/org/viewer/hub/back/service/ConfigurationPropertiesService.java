@@ -0,0 +1,35 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service;
+
+import org.viewer.hub.back.model.launch.ConfigurationPropertiesPayload;
+
+/**
+ * Provide the configuration properties of Weasis served to the clients
+ */
+public interface ConfigurationPropertiesService {
+
+	/**
+	 * Retrieve the configuration properties of the package version, launch config and
+	 * group in parameters, serialized in json or properties format depending on the
+	 * package version. The payload is built once and served again until the launch
+	 * configuration changes.
+	 * @param packageVersionId Id of the package version
+	 * @param launchConfigId Id of the launch config
+	 * @param groupId Id of the group
+	 * @return payload built, null if the package version or the configuration of the
+	 * launch config and group does not exist
+	 */
+	ConfigurationPropertiesPayload retrieveConfigurationProperties(Long packageVersionId, Long launchConfigId,
+			Long groupId);
+
+}
@@ -12,6 +12,7 @@
 package org.viewer.hub.back.service;
 
 import org.springframework.security.core.Authentication;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
 import org.viewer.hub.back.model.patient.Patient;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.IHESearchCriteria;
@@ -89,19 +90,23 @@ public interface ConnectorQueryService {
 	/**
 	 * Retrieve Patients by Archive with ArchiveSearchCriteria
 	 * @param searchCriteria ArchiveSearchCriteria
+	 * @param levelLimit Deepest level to retrieve, null to retrieve up to the sop
+	 * instances
 	 * @param authentication Authentication
 	 * @return patients found by archive
 	 */
 	Map<String, Set<Patient>> retrievePatientsByArchiveWithoutIHESearchCriteria(ArchiveSearchCriteria searchCriteria,
-			Authentication authentication);
+			DicomWebLevelLimitType levelLimit, Authentication authentication);
 
 	/**
 	 * Retrieve Patients by Archive with IHESearchCriteria
 	 * @param searchCriteria IHESearchCriteria
+	 * @param levelLimit Deepest level to retrieve, null to retrieve up to the sop
+	 * instances
 	 * @param authentication Authentication
 	 * @return patients found by archive
 	 */
 	Map<String, Set<Patient>> retrievePatientsByArchiveWithIHESearchCriteria(IHESearchCriteria searchCriteria,
-			Authentication authentication);
+			DicomWebLevelLimitType levelLimit, Authentication authentication);
 
 }
@@ -13,8 +13,10 @@ package org.viewer.hub.back.service;
 
 import jakarta.validation.Valid;
 import org.springframework.security.core.Authentication;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
 import org.viewer.hub.back.model.patient.Patient;
 import org.viewer.hub.back.model.property.ConnectorProperty;
+import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
 
 import java.util.Set;
 
@@ -26,39 +28,49 @@ public interface DicomConnectorQueryService {
 	/**
 	 * Retrieve patients from patients ids requests with dicom/dicom-web connector
 	 * @param patientIds Patient ids to look for
+	 * @param searchCriteria Search criteria of the request: filters supported by the
+	 * connector are applied in the study queries, null if no filter
+	 * @param levelLimit Deepest level to retrieve, null to retrieve up to the sop
+	 * instances
 	 * @param connector Connector properties
 	 * @param authentication Authentication
 	 */
-	Set<Patient> retrievePatientsFromPatientIdsDicomConnector(Set<String> patientIds,
-			@Valid ConnectorProperty connector, Authentication authentication);
+	Set<Patient> retrievePatientsFromPatientIdsDicomConnector(Set<String> patientIds, SearchCriteria searchCriteria,
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication);
 
 	/**
 	 * Retrieve patients from study instance uids requests with dicom/dicom-web connector
 	 * @param studyInstanceUids Study instance uids to look for
+	 * @param levelLimit Deepest level to retrieve, null to retrieve up to the sop
+	 * instances
 	 * @param connector Connector properties
 	 * @param authentication Authentication
 	 */
 	Set<Patient> retrievePatientsFromStudyInstanceUidsDicomConnector(Set<String> studyInstanceUids,
-			@Valid ConnectorProperty connector, Authentication authentication);
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication);
 
 	/**
 	 * Retrieve patients from study accession numbers requests with dicom/dicom-web
 	 * connector
 	 * @param studyAccessionNumbers Study accession numbers to look for
+	 * @param levelLimit Deepest level to retrieve, null to retrieve up to the sop
+	 * instances
 	 * @param connector Connector properties
 	 * @param authentication Authentication
 	 */
 	Set<Patient> retrievePatientsFromStudyAccessionNumbersDicomConnector(Set<String> studyAccessionNumbers,
-			@Valid ConnectorProperty connector, Authentication authentication);
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication);
 
 	/**
 	 * Retrieve patients from serie instance uids requests with dicom/dicom-web connector
 	 * @param seriesInstanceUids Serie instance uids numbers to look for
+	 * @param levelLimit Deepest level to retrieve, null to retrieve up to the sop
+	 * instances
 	 * @param connector Connector properties
 	 * @param authentication Authentication
 	 */
 	Set<Patient> retrievePatientsFromSeriesInstanceUidsDicomConnector(Set<String> seriesInstanceUids,
-			@Valid ConnectorProperty connector, Authentication authentication);
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication);
 
 	/**
 	 * Retrieve patients from sop instance uids requests with dicom/dicom-web connector
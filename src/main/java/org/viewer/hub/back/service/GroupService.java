@@ -11,6 +11,8 @@
 
 package org.viewer.hub.back.service;
 
+import org.viewer.hub.back.controller.exception.ParameterException;
+import org.viewer.hub.back.entity.GroupClosureEntity;
 import org.viewer.hub.back.entity.GroupEntity;
 import org.viewer.hub.back.entity.TargetEntity;
 
@@ -25,6 +27,14 @@ public interface GroupService {
 	 */
 	List<GroupEntity> retrieveGroupsByMember(TargetEntity member);
 
+	/**
+	 * Returns the groups whose the member belongs to, directly or through nested groups,
+	 * ordered by precedence: the closest groups first
+	 * @param member Target member
+	 * @return the list of group closure entities for the member in parameter
+	 */
+	List<GroupClosureEntity> retrieveEffectiveGroupsByMember(TargetEntity member);
+
 	/**
 	 * Returns the list of group entities for a group in parameter
 	 * @param group Group to look for
@@ -33,10 +43,12 @@ public interface GroupService {
 	List<GroupEntity> retrieveGroupsByGroup(TargetEntity group);
 
 	/**
-	 * Associate a list of targets to a group
+	 * Associate a list of targets to a group: a target can be a group itself, unless the
+	 * association would create a cycle in the groups
 	 * @param groupEntity Group entity
 	 * @param targetEntities Targets entities
 	 * @return List of groups created
+	 * @throws ParameterException if one of the targets is the group or contains it
 	 */
 	List<GroupEntity> createGroupAssociation(TargetEntity groupEntity, List<TargetEntity> targetEntities);
 
@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service;
+
+import org.viewer.hub.back.model.launch.LaunchConfigurationSnapshot;
+
+/**
+ * Provide the in-memory snapshot used to resolve the launch configuration of Weasis
+ */
+public interface LaunchConfigurationSnapshotService {
+
+	/**
+	 * Retrieve the snapshot of the launch configuration: the snapshot is built again
+	 * after a change of the data it has been built from
+	 * @return snapshot up to date
+	 */
+	LaunchConfigurationSnapshot retrieveSnapshot();
+
+	/**
+	 * Retrieve the version of the launch configuration data: the version is incremented
+	 * at each change made on this instance or notified by another instance, and renewed
+	 * when it has not changed for a while in case a notification has been lost
+	 * @return version of the data
+	 */
+	long retrieveChangeVersion();
+
+	/**
+	 * Invalidate the snapshot of this instance and notify the other instances of the
+	 * application that the launch configuration has changed
+	 */
+	void notifyLaunchConfigurationChanged();
+
+	/**
+	 * Invalidate the snapshot of this instance following a change notified by an instance
+	 * of the application
+	 * @param instanceId Id of the instance which has notified the change: notifications
+	 * sent by this instance are ignored
+	 */
+	void invalidateSnapshot(String instanceId);
+
+}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service;
+
+import org.viewer.hub.back.model.manifest.Manifest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Notify the clients waiting for a manifest when its build is over
+ */
+public interface ManifestReadinessService {
+
+	/**
+	 * Wait for the manifest corresponding to the key: the future is completed as soon as
+	 * the manifest is no longer in build
+	 * @param key Key of the manifest
+	 * @param timeout Maximum duration to wait for the end of the build
+	 * @return Future completed with the manifest found, or null if the manifest is not in
+	 * the cache or is still in build after the timeout
+	 */
+	CompletableFuture<Manifest> awaitManifest(String key, Duration timeout);
+
+	/**
+	 * Notify all the instances of the application that the build of the manifest is over
+	 * @param key Key of the manifest built
+	 */
+	void notifyManifestReady(String key);
+
+	/**
+	 * Complete the futures of this instance waiting for the manifest
+	 * @param key Key of the manifest built
+	 */
+	void completeManifestWaiters(String key);
+
+}
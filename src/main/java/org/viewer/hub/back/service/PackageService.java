@@ -15,8 +15,8 @@ import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.PackageVersionEntity;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -57,21 +57,22 @@ public interface PackageService {
 	void deleteResourcePackageVersion(OverrideConfigEntity overrideConfigEntity);
 
 	/**
-	 * Upload the zip file containing the different bundles/package of the version to add
-	 * @param fileData InputStream corresponding to the zip file to extract
+	 * Upload the zip file containing the different bundles/package of the version to add.
+	 * The zip file is read once uploaded: it can be removed once the method returns.
+	 * @param packageFile Zip file to extract
 	 * @param versionToUpload Version to upload
 	 */
-	void handlePackageVersionToUpload(InputStream fileData, String versionToUpload);
+	void handlePackageVersionToUpload(Path packageFile, String versionToUpload);
 
 	/**
 	 * Determine the version to upload: check if the zip file to import has the
 	 * appropriate version format in the property weasis.version of the file
 	 * config.properties and if yes return the version filled otherwise null
-	 * @param fileData InputStream corresponding to the zip file to extract
+	 * @param packageFile Zip file to extract
 	 * @return null if incorrect format of the version, otherwise return the version to
 	 * upload
 	 */
-	String checkWeasisNativeVersionToUpload(InputStream fileData);
+	String checkWeasisNativeVersionToUpload(Path packageFile);
 
 	/**
 	 * Retrieve package version
@@ -97,10 +98,10 @@ public interface PackageService {
 	/**
 	 * Check if the import of the package version is coherent: version already installed
 	 * or incoherent version compatibility file
-	 * @param fileData Import to check
+	 * @param packageFile Zip file of the import to check
 	 * @return true if the import is coherent
 	 */
-	boolean isImportCoherent(InputStream fileData);
+	boolean isImportCoherent(Path packageFile);
 
 	/**
 	 * Delete the file mapping-minimal-version.json in S3
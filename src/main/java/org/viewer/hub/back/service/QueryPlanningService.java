@@ -0,0 +1,32 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service;
+
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
+import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
+
+/**
+ * Service used to determine the level of information to retrieve from the connectors
+ * depending on the viewer to launch
+ */
+public interface QueryPlanningService {
+
+	/**
+	 * Determine the deepest level of information needed to launch the viewer of the
+	 * request and to apply the search criteria filters
+	 * @param searchCriteria Search criteria of the request
+	 * @return Deepest level to retrieve from the connectors, null if the sop instances
+	 * are needed
+	 */
+	DicomWebLevelLimitType determineQueryLevelLimit(SearchCriteria searchCriteria);
+
+}
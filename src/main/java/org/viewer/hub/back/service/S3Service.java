@@ -11,12 +11,14 @@
 
 package org.viewer.hub.back.service;
 
+import org.viewer.hub.back.config.s3.S3UploadOutputStream;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +50,35 @@ public interface S3Service {
 	 */
 	Map<String, Instant> retrieveS3ObjectsLastModifiedFromPrefix(String prefix);
 
+	/**
+	 * Retrieve S3 object keys and their ETag from prefix
+	 * @param prefix Prefix to evaluate
+	 * @return Map of S3 key to ETag
+	 */
+	Map<String, String> retrieveS3ObjectsETagFromPrefix(String prefix);
+
+	/**
+	 * Retrieve the keys of the objects directly in the folder in parameter (objects of
+	 * its sub-folders excluded) and their ETag
+	 * @param folder Folder to evaluate
+	 * @return Map of S3 key to ETag
+	 */
+	Map<String, String> retrieveS3ObjectsETagFromFolder(String folder);
+
+	/**
+	 * Retrieve the last modification of the S3 object from S3, not from the cache
+	 * @param key Key to evaluate
+	 * @return last modified instant, null if the object does not exist
+	 */
+	Instant retrieveS3ObjectLastModified(String key);
+
+	/**
+	 * Retrieve the last reuse of the blob by an upload, from S3
+	 * @param key Key of the blob
+	 * @return last reuse instant, null if the blob has never been reused or does not exist
+	 */
+	Instant retrieveS3BlobLastReused(String key);
+
 	/**
 	 * Retrieve InputStream of a S3 object from the key in parameter
 	 * @param key Key to evaluate
@@ -63,6 +94,35 @@ public interface S3Service {
 	 */
 	CompletableFuture<PutObjectResponse> uploadObjectInS3(ByteArrayInputStream inputStream, String key);
 
+	/**
+	 * Open a stream uploading in S3 the bytes written, with a bounded memory whatever the
+	 * size of the object: the object is stored once the stream is closed
+	 * @param key Key used for upload
+	 * @return stream to write the object in, null if the key is blank
+	 */
+	S3UploadOutputStream openUploadStreamInS3(String key);
+
+	/**
+	 * Open a stream uploading in S3 the bytes written like
+	 * {@link #openUploadStreamInS3(String)}, uploading as well a gzip variant of them next
+	 * to the object (key suffixed by .gz) if the file is a compressible one
+	 * @param key Key used for upload
+	 * @return stream to write the object in, null if the key is blank
+	 */
+	S3UploadOutputStream openUploadStreamWithGzipVariantInS3(String key);
+
+	/**
+	 * Upload a local file in S3 as the content-addressed blob with the key in parameter,
+	 * unless the blob already exists: a blob key being the digest of its content, an
+	 * existing blob has the same content. An existing blob reused gets the instant of its
+	 * reuse recorded in its tags, so that the retention keeps it during the grace period
+	 * like a blob just uploaded
+	 * @param file File to upload
+	 * @param key Key of the blob
+	 * @return CompletableFuture, completed at once if the blob already exists
+	 */
+	CompletableFuture<Void> uploadBlobInS3(Path file, String key);
+
 	/**
 	 * Copy an S3 object from one key to another
 	 * @param sourceKey Source
@@ -78,4 +138,11 @@ public interface S3Service {
 	 */
 	CompletableFuture<DeleteObjectsResponse> deleteS3Objects(String prefixKey);
 
+	/**
+	 * Delete S3 objects from their keys, by batches deleted concurrently
+	 * @param keys Keys to delete
+	 * @return CompletableFuture
+	 */
+	CompletableFuture<DeleteObjectsResponse> deleteS3Keys(Set<String> keys);
+
 }
@@ -79,14 +79,8 @@ public interface TargetService {
 	boolean targetExistsByName(String targetName);
 
 	/**
-	 * Check if the list of target names in parameter contains a group
-	 * @param targets List of target names
-	 * @return true if there is at least one group in the list of target names
-	 */
-	boolean containsAGroup(List<TargetEntity> targets);
-
-	/**
-	 * Check potential errors in the input of the request
+	 * Check potential errors in the input of the request: the members are targets of the
+	 * type in parameter or groups of this type
 	 * @param groupName Group name
 	 * @param targets Targets to associate
 	 * @param targetType Target type
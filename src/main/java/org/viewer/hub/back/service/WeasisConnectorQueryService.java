@@ -13,6 +13,7 @@ package org.viewer.hub.back.service;
 
 import org.springframework.security.core.Authentication;
 import org.viewer.hub.back.model.manifest.Manifest;
+import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
 
 import java.util.LinkedHashSet;
@@ -23,6 +24,17 @@ import java.util.Set;
  */
 public interface WeasisConnectorQueryService {
 
+	/**
+	 * Fill manifest from the sop instance uids, serie instance uids, study accession
+	 * numbers, study instance uids and patient ids of the search criteria: the queries of
+	 * all these levels are executed in parallel
+	 * @param manifest Manifest to fill
+	 * @param searchCriteria Search criteria
+	 * @param authentication Authentication
+	 */
+	void buildFromArchiveSearchCriteria(Manifest manifest, ArchiveSearchCriteria searchCriteria,
+			Authentication authentication);
+
 	/**
 	 * Fill manifest from patients ids requests
 	 * @param manifest Manifest to fill
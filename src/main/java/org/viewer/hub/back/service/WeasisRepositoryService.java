@@ -17,7 +17,7 @@ import org.springframework.data.domain.Pageable;
 import org.viewer.hub.back.model.asset.WeasisAssetModel;
 import org.viewer.hub.front.views.weasis.bundle.repository.component.WeasisAssetFilter;
 
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -44,11 +44,11 @@ public interface WeasisRepositoryService {
 	int countWeasisAssets(WeasisAssetFilter filter);
 
 	/**
-	 * Download from Weasis Nexus repository the asset in parameter
+	 * Download from Weasis Nexus repository the asset in parameter in a local file
 	 * @param weasisAssetModel Asset to retrieve
-	 * @return InputStream of the asset
+	 * @return local file of the asset, to delete once imported
 	 */
-	InputStream downloadWeasisAsset(WeasisAssetModel weasisAssetModel);
+	Path downloadWeasisAsset(WeasisAssetModel weasisAssetModel);
 
 	/**
 	 * Remove all the package versions corresponding to the asset in parameter
@@ -12,7 +12,6 @@
 package org.viewer.hub.back.service;
 
 import org.springframework.security.core.Authentication;
-import org.viewer.hub.back.model.manifest.Manifest;
 import org.viewer.hub.back.model.patient.Patient;
 import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
 
@@ -36,10 +35,4 @@ public interface WeasisService {
 	void buildManifest(String key, SearchCriteria searchCriteria, Map<String, Set<Patient>> patientsByArchive,
 			Authentication authentication);
 
-	/**
-	 * Retrieve manifest from the cache
-	 * @param key Cache key
-	 */
-	Manifest retrieveManifest(String key);
-
 }
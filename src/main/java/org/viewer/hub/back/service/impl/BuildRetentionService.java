@@ -18,7 +18,11 @@ import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.viewer.hub.back.service.S3Service;
+import org.viewer.hub.back.util.JacksonMappers;
 import org.viewer.hub.back.util.PackageUtil;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import tools.jackson.core.JacksonException;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,7 +33,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * Garbage-collects obsolete build-stamped sub-directories.
@@ -46,22 +49,26 @@ import java.util.regex.Pattern;
  * later than that flip, so once the flip itself is older than the grace period all
  * obsolete builds are safe to remove - regardless of when their individual files were
  * written.
+ * <p>
+ * The jars of the builds are content-addressed blobs shared by the builds: once the
+ * obsolete builds are removed, the blobs referenced by the manifest of no remaining build
+ * are removed as well, unless uploaded or reused within the grace period (by an upload
+ * not published yet, the reuse being recorded in the tags of the blob).
  */
 @Service
 @Slf4j
 @RefreshScope
 public class BuildRetentionService {
 
-	/** buildId format used at upload time: {@link java.util.UUID#randomUUID()}. */
-	private static final Pattern BUILD_ID_PATTERN = Pattern
-		.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
-
 	@Value("${viewer-hub.resources-packages.weasis.package.path}")
 	private String packagePath;
 
 	@Value("${viewer-hub.resources-packages.weasis.i18n.path}")
 	private String i18nPath;
 
+	@Value("${viewer-hub.resources-packages.weasis.blobs.path}")
+	private String blobsPath;
+
 	@Value("${viewer-hub.resources-packages.build-retention.enabled:true}")
 	private boolean enabled;
 
@@ -87,6 +94,64 @@ public class BuildRetentionService {
 		}
 		this.cleanObsoleteBuildsForBasePath(this.packagePath);
 		this.cleanObsoleteBuildsForBasePath(this.i18nPath);
+		this.cleanUnreferencedBlobs();
+	}
+
+	/**
+	 * Remove the blobs referenced by the manifest of no build, uploaded and last reused
+	 * before the grace period.
+	 * <p>
+	 * The manifests are read before the last reuse of the blobs is checked: a blob reused
+	 * by an upload whose manifest is not read has then its reuse recorded when checked
+	 * before its deletion.
+	 */
+	void cleanUnreferencedBlobs() {
+		if (this.blobsPath == null || this.blobsPath.isBlank()) {
+			return;
+		}
+		Instant now = Instant.now();
+		// Blobs referenced by the manifests of the builds still present
+		Set<String> referencedBlobKeys = new HashSet<>();
+		for (String key : this.s3Service.retrieveS3KeysFromPrefix(this.packagePath)) {
+			if (key.endsWith("/" + PackageUtil.BLOB_MANIFEST_FILE)) {
+				Map<String, String> manifest = this.readBlobManifest(key);
+				if (manifest == null) {
+					// Do not risk deleting a blob referenced by an unreadable manifest
+					LOG.warn("Skipping blob retention: manifest {} unreadable", key);
+					return;
+				}
+				manifest.values()
+					.forEach(digest -> referencedBlobKeys.add(PackageUtil.retrieveBlobKey(this.blobsPath, digest)));
+			}
+		}
+
+		Set<String> unreferencedKeys = new HashSet<>();
+		this.s3Service.retrieveS3ObjectsLastModifiedFromPrefix(this.blobsPath).forEach((key, lastModified) -> {
+			// Last modification checked again in S3: the blob may have been uploaded again
+			// since listed
+			if (!referencedBlobKeys.contains(key) && this.isOlderThanGracePeriod(lastModified, now)
+					&& this.isOlderThanGracePeriod(this.s3Service.retrieveS3ObjectLastModified(key), now)) {
+				Instant lastReused = this.s3Service.retrieveS3BlobLastReused(key);
+				if (lastReused == null || this.isOlderThanGracePeriod(lastReused, now)) {
+					unreferencedKeys.add(key);
+				}
+			}
+		});
+		if (!unreferencedKeys.isEmpty()) {
+			LOG.info("Blob retention: deleting {} blobs referenced by no build under {}", unreferencedKeys.size(),
+					this.blobsPath);
+			this.deleteKeys(unreferencedKeys, this.blobsPath);
+		}
+	}
+
+	/**
+	 * Check if the last modification is older than the grace period
+	 * @param lastModified Last modification, null if the object does not exist anymore
+	 * @param now Current instant
+	 * @return true if the last modification is older than the grace period
+	 */
+	private boolean isOlderThanGracePeriod(Instant lastModified, Instant now) {
+		return lastModified != null && Duration.between(lastModified, now).compareTo(this.gracePeriod) >= 0;
 	}
 
 	/**
@@ -101,10 +166,10 @@ public class BuildRetentionService {
 		Map<String, Instant> objects = this.s3Service.retrieveS3ObjectsLastModifiedFromPrefix(basePath);
 
 		// Group objects per version: last-modified of the <version>/current pointer, and
-		// the set of
-		// build ids (immediate UUID sub-directories) present for the version.
+		// the keys of each build id (immediate UUID sub-directories) present for the
+		// version.
 		Map<String, Instant> pointerLastModifiedByVersion = new HashMap<>();
-		Map<String, Set<String>> buildIdsByVersion = new HashMap<>();
+		Map<String, Map<String, Set<String>>> keysByBuildIdByVersion = new HashMap<>();
 		int prefixLength = basePath.length() + 1;
 		for (Map.Entry<String, Instant> object : objects.entrySet()) {
 			String key = object.getKey();
@@ -131,33 +196,60 @@ public class BuildRetentionService {
 					// Only UUID sub-directories are considered builds: this leaves legacy
 					// top-level
 					// content (bundle/, conf/, resources/, resources.zip, ...) untouched.
-					if (BUILD_ID_PATTERN.matcher(candidateBuildId).matches()) {
-						buildIdsByVersion.computeIfAbsent(version, v -> new HashSet<>()).add(candidateBuildId);
+					if (PackageUtil.BUILD_ID_PATTERN.matcher(candidateBuildId).matches()) {
+						keysByBuildIdByVersion.computeIfAbsent(version, v -> new HashMap<>())
+							.computeIfAbsent(candidateBuildId, b -> new HashSet<>())
+							.add(key);
 					}
 				}
 			}
 		}
 
-		buildIdsByVersion.forEach((version, buildIds) -> this.cleanObsoleteBuildsForVersion(basePath, version, buildIds,
-				pointerLastModifiedByVersion.get(version), now));
+		// Keys of the obsolete builds of every version, deleted together by batches
+		Set<String> obsoleteKeys = new HashSet<>();
+		keysByBuildIdByVersion.forEach((version, keysByBuildId) -> obsoleteKeys.addAll(this
+			.retrieveObsoleteBuildsKeysForVersion(basePath, version, keysByBuildId,
+					pointerLastModifiedByVersion.get(version), now)));
+		if (!obsoleteKeys.isEmpty()) {
+			LOG.info("Build retention: deleting {} objects of obsolete builds under {}", obsoleteKeys.size(),
+					basePath);
+			this.deleteKeys(obsoleteKeys, basePath);
+		}
+	}
+
+	/**
+	 * Delete the keys and wait for the deletion so that the keys not deleted are reported:
+	 * they are deleted again by the next run
+	 * @param keys Keys to delete
+	 * @param basePath Base S3 path of the keys
+	 */
+	private void deleteKeys(Set<String> keys, String basePath) {
+		DeleteObjectsResponse response = this.s3Service.deleteS3Keys(keys).join();
+		if (response != null && response.hasErrors() && !response.errors().isEmpty()) {
+			S3Error error = response.errors().getFirst();
+			LOG.error("Retention: {} objects on {} not deleted under {}, e.g. {}: {} {}", response.errors().size(),
+					keys.size(), basePath, error.key(), error.code(), error.message());
+		}
 	}
 
 	/**
-	 * Delete the obsolete builds of a single version, respecting the grace period.
+	 * Retrieve the keys of the obsolete builds of a single version, respecting the grace
+	 * period.
 	 * @param basePath Base S3 path
 	 * @param version Version folder name
-	 * @param buildIds Build ids present for the version
+	 * @param keysByBuildId Keys of each build id present for the version
 	 * @param pointerLastModified Last-modified of the &lt;version&gt;/current pointer
 	 * (may be null)
 	 * @param now Current instant
+	 * @return keys of the obsolete builds to delete
 	 */
-	private void cleanObsoleteBuildsForVersion(String basePath, String version, Set<String> buildIds,
-			Instant pointerLastModified, Instant now) {
+	private Set<String> retrieveObsoleteBuildsKeysForVersion(String basePath, String version,
+			Map<String, Set<String>> keysByBuildId, Instant pointerLastModified, Instant now) {
 		if (pointerLastModified == null) {
 			// No current pointer: do not risk deleting a build without knowing which one
 			// is active
 			LOG.warn("Skipping build retention for {}/{}: no current pointer found", basePath, version);
-			return;
+			return Set.of();
 		}
 		// Transition window: keep every build until the last publish (pointer flip) is
 		// older than
@@ -165,23 +257,21 @@ public class BuildRetentionService {
 		// downloading.
 		if (Duration.between(pointerLastModified, now).compareTo(this.gracePeriod) < 0) {
 			LOG.debug("Skipping build retention for {}/{}: last publish is within the grace period", basePath, version);
-			return;
+			return Set.of();
 		}
 		String currentBuildId = this.readCurrentBuildPointer(basePath, version);
 		if (currentBuildId == null) {
 			LOG.warn("Skipping build retention for {}/{}: current pointer unreadable", basePath, version);
-			return;
+			return Set.of();
 		}
-		for (String buildId : buildIds) {
-			if (buildId.equals(currentBuildId)) {
-				continue;
+		Set<String> obsoleteKeys = new HashSet<>();
+		keysByBuildId.forEach((buildId, keys) -> {
+			if (!buildId.equals(currentBuildId)) {
+				LOG.info("Build retention: deleting obsolete build {}/{}/{}/", basePath, version, buildId);
+				obsoleteKeys.addAll(keys);
 			}
-			String obsoleteBuildPrefix = "%s/%s/%s/".formatted(basePath, version, buildId);
-			LOG.info("Build retention: deleting obsolete build {}", obsoleteBuildPrefix);
-			// Wait for the deletion so an error is surfaced and the cleanup stays
-			// sequential
-			this.s3Service.deleteS3Objects(obsoleteBuildPrefix).join();
-		}
+		});
+		return obsoleteKeys;
 	}
 
 	/**
@@ -208,4 +298,23 @@ public class BuildRetentionService {
 		}
 	}
 
+	/**
+	 * Read the manifest of a build mapping the paths of its jars to the digest of their
+	 * blob.
+	 * @param manifestKey S3 key of the manifest
+	 * @return the manifest, or null when it cannot be read
+	 */
+	private Map<String, String> readBlobManifest(String manifestKey) {
+		try (InputStream is = this.s3Service.retrieveS3Object(manifestKey)) {
+			if (is == null) {
+				return null;
+			}
+			return JacksonMappers.BLOB_MANIFEST_READER.readValue(is);
+		}
+		catch (IOException | JacksonException e) {
+			LOG.error("Issue when reading blob manifest {}:{}", manifestKey, e.getMessage());
+			return null;
+		}
+	}
+
 }
\ No newline at end of file
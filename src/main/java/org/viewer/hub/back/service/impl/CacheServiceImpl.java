@@ -17,21 +17,58 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import org.viewer.hub.back.constant.CacheName;
+import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.entity.PackageVersionEntity;
 import org.viewer.hub.back.model.manifest.Manifest;
 import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
 import org.viewer.hub.back.service.CacheService;
+import org.viewer.hub.back.util.JacksonMappers;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Service
 public class CacheServiceImpl implements CacheService {
 
 	private static final String KEY_SEPARATOR = "::";
 
+	// Lock preventing concurrent builds of the same manifest: expires if the instance
+	// building the manifest stops before releasing it
+	private static final Duration MANIFEST_BUILD_LOCK_TTL = Duration.ofMinutes(3);
+
+	private static final String MANIFEST_BUILD_LOCK_PREFIX = "%s.lock%s".formatted(CacheName.MANIFEST, KEY_SEPARATOR);
+
+	// Delete the lock only if still held with the token of the acquisition: once expired,
+	// the lock may have been acquired by another instance
+	private static final RedisScript<Long> RELEASE_MANIFEST_BUILD_LOCK_SCRIPT = RedisScript.of(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+			Long.class);
+
+	// Search criteria properties where the order of the values is meaningful: values of
+	// the other collections are sorted to build the manifest key
+	private static final Set<String> ORDERED_SEARCH_CRITERIA_PROPERTIES = Set.of("archive", "pro", "arg");
+
+	private static final JsonMapper CANONICAL_JSON_MAPPER = JacksonMappers.JSON_MAPPER;
+
 	private final Cache manifestCache;
 
 	private final Cache packageVersionCache;
@@ -40,8 +77,13 @@ public class CacheServiceImpl implements CacheService {
 
 	private final RedisTemplate<String, PackageVersionEntity> packageVersionRedisTemplate;
 
+	private final StringRedisTemplate stringRedisTemplate;
+
 	private final RedisCacheManager redisCacheManager;
 
+	// Manifest keys in build on this instance with the token of the lock acquired
+	private final Map<String, String> manifestBuildLockTokens = new ConcurrentHashMap<>();
+
 	private final String prefixKeySearchManifestCache;
 
 	private final String prefixKeySearchPackageVersionCache;
@@ -52,12 +94,14 @@ public class CacheServiceImpl implements CacheService {
 
 	@Autowired
 	public CacheServiceImpl(RedisCacheManager redisCacheManager, RedisTemplate<String, Manifest> manifestRedisTemplate,
-			RedisTemplate<String, PackageVersionEntity> packageVersionRedisTemplate) {
+			RedisTemplate<String, PackageVersionEntity> packageVersionRedisTemplate,
+			StringRedisTemplate stringRedisTemplate) {
 		this.redisCacheManager = redisCacheManager;
 		this.manifestCache = redisCacheManager.getCache(CacheName.MANIFEST);
 		this.packageVersionCache = redisCacheManager.getCache(CacheName.PACKAGE_VERSION);
 		this.manifestRedisTemplate = manifestRedisTemplate;
 		this.packageVersionRedisTemplate = packageVersionRedisTemplate;
+		this.stringRedisTemplate = stringRedisTemplate;
 		this.prefixKeySearchManifestCache = "%s%s".formatted(CacheName.MANIFEST, KEY_SEPARATOR);
 		this.prefixKeySearchPackageVersionCache = "%s%s".formatted(CacheName.PACKAGE_VERSION, KEY_SEPARATOR);
 		this.patternSearchAllKeysManifestCache = "%s*".formatted(this.prefixKeySearchManifestCache);
@@ -68,7 +112,53 @@ public class CacheServiceImpl implements CacheService {
 
 	@Override
 	public String constructManifestKeyDependingOnSearchParameters(@Valid SearchCriteria searchCriteria) {
-		return String.valueOf(searchCriteria.hashCode());
+		// Canonical form of the search criteria: properties sorted by name, empty values
+		// removed and values of unordered collections sorted
+		Map<String, Object> properties = CANONICAL_JSON_MAPPER.convertValue(searchCriteria, new TypeReference<>() {
+		});
+		String canonicalSearchCriteria = "%s%s%s".formatted(searchCriteria.getClass().getSimpleName(), KEY_SEPARATOR,
+				CANONICAL_JSON_MAPPER.writeValueAsString(canonicalize(null, properties)));
+
+		// Hash the canonical form
+		try {
+			return HexFormat.of()
+				.formatHex(MessageDigest.getInstance("SHA-256")
+					.digest(canonicalSearchCriteria.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new TechnicalException("Not able to build the manifest key: %s".formatted(e.getMessage()));
+		}
+	}
+
+	@Override
+	public boolean acquireManifestBuildLock(String key) {
+		// Build already in progress on this instance
+		String token = UUID.randomUUID().toString();
+		if (this.manifestBuildLockTokens.putIfAbsent(key, token) != null) {
+			return false;
+		}
+		// Build already in progress on another instance
+		if (!Boolean.TRUE.equals(this.stringRedisTemplate.opsForValue()
+			.setIfAbsent(MANIFEST_BUILD_LOCK_PREFIX + key, token, MANIFEST_BUILD_LOCK_TTL))) {
+			this.manifestBuildLockTokens.remove(key, token);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void releaseManifestBuildLock(String key) {
+		String token = this.manifestBuildLockTokens.remove(key);
+		if (token != null) {
+			this.stringRedisTemplate.execute(RELEASE_MANIFEST_BUILD_LOCK_SCRIPT,
+					List.of(MANIFEST_BUILD_LOCK_PREFIX + key), token);
+		}
+	}
+
+	@Override
+	public boolean isManifestBuildLocked(String key) {
+		return this.manifestBuildLockTokens.containsKey(key)
+				|| Boolean.TRUE.equals(this.stringRedisTemplate.hasKey(MANIFEST_BUILD_LOCK_PREFIX + key));
 	}
 
 	@Override
@@ -159,4 +249,34 @@ public class CacheServiceImpl implements CacheService {
 			.forEach(k -> this.removePackageVersion(k.substring(this.prefixKeySearchPackageVersionCache.length())));
 	}
 
+	/**
+	 * Build the canonical form of a search criteria value
+	 * @param propertyName Name of the property containing the value
+	 * @param value Value to transform
+	 * @return canonical value, null if the value is empty
+	 */
+	private static Object canonicalize(String propertyName, Object value) {
+		if (value instanceof Map<?, ?> map) {
+			Map<String, Object> canonicalMap = new TreeMap<>();
+			map.forEach((k, v) -> {
+				Object canonicalValue = canonicalize(String.valueOf(k), v);
+				if (canonicalValue != null) {
+					canonicalMap.put(String.valueOf(k), canonicalValue);
+				}
+			});
+			return canonicalMap.isEmpty() ? null : canonicalMap;
+		}
+		if (value instanceof Collection<?> collection) {
+			Stream<Object> canonicalValues = collection.stream()
+				.map(v -> canonicalize(propertyName, v))
+				.filter(Objects::nonNull);
+			if (!ORDERED_SEARCH_CRITERIA_PROPERTIES.contains(propertyName)) {
+				canonicalValues = canonicalValues.sorted(Comparator.comparing(String::valueOf));
+			}
+			List<Object> canonicalList = canonicalValues.toList();
+			return canonicalList.isEmpty() ? null : canonicalList;
+		}
+		return value;
+	}
+
 }
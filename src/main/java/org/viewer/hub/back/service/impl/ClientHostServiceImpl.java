@@ -0,0 +1,266 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.viewer.hub.back.config.properties.ClientHostResolutionConfigurationProperties;
+import org.viewer.hub.back.service.ClientHostService;
+import org.viewer.hub.back.util.InetUtil;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Service resolving the host of the clients with a reverse DNS lookup on their address.
+ * <p>
+ * The hosts found are kept in a bounded cache: an address without host is kept for a
+ * shorter duration than a host found, and a host found is resolved again in background
+ * before its expiration. A request waits for a lookup at most the lookup timeout and
+ * continues without host afterwards, the lookup completing in background for the next
+ * requests: a slow DNS does not delay the launches.
+ */
+@Service
+@Slf4j
+public class ClientHostServiceImpl implements ClientHostService {
+
+	private static final String METRIC_LOOKUP = "viewer.hub.client.host.lookup";
+
+	private static final String METRIC_RESOLUTION = "viewer.hub.client.host.resolution";
+
+	private final ClientHostResolutionConfigurationProperties clientHostResolutionConfigurationProperties;
+
+	// Hosts found by address
+	private final Map<String, CachedHost> cache = new ConcurrentHashMap<>();
+
+	// Lookups in progress by address: concurrent requests share the same lookup
+	private final Map<String, CompletableFuture<CachedHost>> lookups = new ConcurrentHashMap<>();
+
+	private final ExecutorService executorService;
+
+	// Blocking lookup of the canonical host name of an address
+	private final UnaryOperator<String> canonicalHostNameLookup;
+
+	// Metrics
+	private final Counter hitCounter;
+
+	private final Counter missCounter;
+
+	private final Counter timeoutCounter;
+
+	private final Timer resolvedTimer;
+
+	private final Timer unresolvedTimer;
+
+	/**
+	 * Autowired constructor
+	 * @param clientHostResolutionConfigurationProperties Configuration of the cache
+	 * @param meterRegistry Registry of the metrics
+	 */
+	@Autowired
+	public ClientHostServiceImpl(
+			final ClientHostResolutionConfigurationProperties clientHostResolutionConfigurationProperties,
+			final MeterRegistry meterRegistry) {
+		this(clientHostResolutionConfigurationProperties, meterRegistry, InetUtil::lookupCanonicalHostName);
+	}
+
+	/**
+	 * Constructor
+	 * @param clientHostResolutionConfigurationProperties Configuration of the cache
+	 * @param meterRegistry Registry of the metrics
+	 * @param canonicalHostNameLookup Blocking lookup of the canonical host name of an
+	 * address
+	 */
+	ClientHostServiceImpl(ClientHostResolutionConfigurationProperties clientHostResolutionConfigurationProperties,
+			MeterRegistry meterRegistry, UnaryOperator<String> canonicalHostNameLookup) {
+		this.clientHostResolutionConfigurationProperties = clientHostResolutionConfigurationProperties;
+		this.canonicalHostNameLookup = canonicalHostNameLookup;
+		this.executorService = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("client-host-resolver-", 0).factory());
+		this.hitCounter = lookupCounter(meterRegistry, "hit");
+		this.missCounter = lookupCounter(meterRegistry, "miss");
+		this.timeoutCounter = lookupCounter(meterRegistry, "timeout");
+		this.resolvedTimer = resolutionTimer(meterRegistry, "resolved");
+		this.unresolvedTimer = resolutionTimer(meterRegistry, "unresolved");
+		meterRegistry.gaugeMapSize("viewer.hub.client.host.cache.size", Tags.empty(), this.cache);
+	}
+
+	@Override
+	public String retrieveClientHost(HttpServletRequest request, Optional<String> optHostAddr, String bypass) {
+		return optHostAddr.isPresent() ? this.resolveClientHost(optHostAddr.get(), bypass)
+				: this.retrieveClientHostFromRequest(request);
+	}
+
+	@Override
+	public String retrieveClientHostFromRequest(HttpServletRequest request) {
+		return this.resolveClientHost(InetUtil.getClientIpAddr(request), null);
+	}
+
+	@Override
+	public String resolveClientHost(String addr, String bypass) {
+		if (addr == null || addr.isEmpty() || addr.equalsIgnoreCase(bypass)) {
+			// avoids resolving localhost loopback interface when supplied clientIP is null
+			return null;
+		}
+		String key = addr.toLowerCase(Locale.ROOT);
+		long now = System.nanoTime();
+
+		CachedHost cachedHost = this.cache.get(key);
+		if (cachedHost != null && now - cachedHost.expiresAt() < 0) {
+			this.hitCounter.increment();
+			if (cachedHost.resolved() && now - cachedHost.refreshAt() >= 0) {
+				// Refresh ahead: the host cached is returned meanwhile
+				this.lookup(key);
+			}
+			return cachedHost.host();
+		}
+
+		this.missCounter.increment();
+		try {
+			return this.lookup(key)
+				.get(this.clientHostResolutionConfigurationProperties.getLookupTimeout().toMillis(),
+						TimeUnit.MILLISECONDS)
+				.host();
+		}
+		catch (TimeoutException e) {
+			this.timeoutCounter.increment();
+			LOG.warn("Host of the address [{}] not resolved after {}: continue without host", addr,
+					this.clientHostResolutionConfigurationProperties.getLookupTimeout());
+			return null;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (ExecutionException e) {
+			LOG.warn("Host of the address [{}] not resolved: {}", addr, e.getCause().getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Start the lookup of the address in background, unless a lookup of this address is
+	 * already in progress
+	 * @param key Address in lower case
+	 * @return lookup of the address
+	 */
+	private CompletableFuture<CachedHost> lookup(String key) {
+		CompletableFuture<CachedHost> lookup = new CompletableFuture<>();
+		CompletableFuture<CachedHost> lookupInProgress = this.lookups.putIfAbsent(key, lookup);
+		if (lookupInProgress != null) {
+			return lookupInProgress;
+		}
+		CompletableFuture.supplyAsync(() -> this.resolve(key), this.executorService)
+			.whenComplete((cachedHost, e) -> {
+				this.lookups.remove(key, lookup);
+				if (e != null) {
+					lookup.completeExceptionally(e);
+				}
+				else {
+					lookup.complete(cachedHost);
+				}
+			});
+		return lookup;
+	}
+
+	/**
+	 * Blocking lookup of the host of the address and storage in cache
+	 * @param key Address in lower case
+	 * @return host found
+	 */
+	private CachedHost resolve(String key) {
+		long start = System.nanoTime();
+		String canonicalHostName = this.canonicalHostNameLookup.apply(key);
+		long end = System.nanoTime();
+
+		// Without PTR record the literal address is returned
+		boolean resolved = canonicalHostName != null && !canonicalHostName.equalsIgnoreCase(key);
+		(resolved ? this.resolvedTimer : this.unresolvedTimer).record(end - start, TimeUnit.NANOSECONDS);
+
+		CachedHost cachedHost = new CachedHost(InetUtil.simplifyHostName(canonicalHostName), resolved,
+				end + this.clientHostResolutionConfigurationProperties.getRefreshAhead().toNanos(),
+				end + (resolved ? this.clientHostResolutionConfigurationProperties.getPositiveTtl()
+						: this.clientHostResolutionConfigurationProperties.getNegativeTtl())
+					.toNanos());
+		this.store(key, cachedHost);
+		return cachedHost;
+	}
+
+	/**
+	 * Store the host in cache: when the cache is full, the expired hosts are removed and
+	 * then, if needed, the host expiring first
+	 * @param key Address in lower case
+	 * @param cachedHost Host to store
+	 */
+	private void store(String key, CachedHost cachedHost) {
+		if (!this.cache.containsKey(key)
+				&& this.cache.size() >= this.clientHostResolutionConfigurationProperties.getMaximumSize()) {
+			long now = System.nanoTime();
+			this.cache.values().removeIf(c -> now - c.expiresAt() >= 0);
+			while (this.cache.size() >= this.clientHostResolutionConfigurationProperties.getMaximumSize()) {
+				this.cache.entrySet()
+					.stream()
+					.min(Comparator.comparingLong(e -> e.getValue().expiresAt() - now))
+					.map(Map.Entry::getKey)
+					.ifPresent(this.cache::remove);
+			}
+		}
+		this.cache.put(key, cachedHost);
+	}
+
+	private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder(METRIC_LOOKUP)
+			.description("Resolutions of the host of the clients by result in cache")
+			.tag("result", result)
+			.register(meterRegistry);
+	}
+
+	private static Timer resolutionTimer(MeterRegistry meterRegistry, String outcome) {
+		return Timer.builder(METRIC_RESOLUTION)
+			.description("Duration of the reverse DNS lookups of the host of the clients")
+			.tag("outcome", outcome)
+			.register(meterRegistry);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		this.executorService.shutdownNow();
+	}
+
+	/**
+	 * Host cached for an address
+	 * @param host Host found, null if the address cannot be resolved
+	 * @param resolved False when no host has been found for the address
+	 * @param refreshAt Nano time after which the host is resolved again in background
+	 * @param expiresAt Nano time after which the host is no longer used
+	 */
+	private record CachedHost(String host, boolean resolved, long refreshAt, long expiresAt) {
+	}
+
+}
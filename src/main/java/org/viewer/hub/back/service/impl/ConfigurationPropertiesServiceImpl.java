@@ -0,0 +1,232 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.entity.OverrideConfigEntity;
+import org.viewer.hub.back.entity.PackageVersionEntity;
+import org.viewer.hub.back.entity.WeasisPropertyEntity;
+import org.viewer.hub.back.entity.serializer.WeasisPropertyEntitySerializer;
+import org.viewer.hub.back.model.launch.ConfigurationPropertiesPayload;
+import org.viewer.hub.back.service.ConfigurationPropertiesService;
+import org.viewer.hub.back.service.LaunchConfigurationSnapshotService;
+import org.viewer.hub.back.service.OverrideConfigService;
+import org.viewer.hub.back.service.PackageService;
+import org.viewer.hub.back.util.JacksonUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Service serializing the configuration properties of Weasis: the payload of each
+ * package version, launch config and group is kept in memory for the version of the
+ * launch configuration it has been built from. The payloads are evicted after a change
+ * of the launch configuration, or when the least recently served once the maximum number
+ * of payloads is reached.
+ */
+@Service
+@Slf4j
+public class ConfigurationPropertiesServiceImpl implements ConfigurationPropertiesService {
+
+	// Maximum number of payloads kept in memory
+	private static final int MAXIMUM_PAYLOADS = 1000;
+
+	// Payloads in build or built by package version/launch config/group, in access
+	// order: guarded by itself
+	private final Map<PayloadKey, CompletableFuture<ConfigurationPropertiesPayload>> payloads = new LinkedHashMap<>(
+			16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<PayloadKey, CompletableFuture<ConfigurationPropertiesPayload>> eldest) {
+			return this.size() > MAXIMUM_PAYLOADS;
+		}
+	};
+
+	// Version of the launch configuration the payloads are built from: guarded by the
+	// payloads
+	private long payloadsVersion = Long.MIN_VALUE;
+
+	// Services
+	private final OverrideConfigService overrideConfigService;
+
+	private final PackageService packageService;
+
+	private final LaunchConfigurationSnapshotService launchConfigurationSnapshotService;
+
+	/**
+	 * Autowired constructor
+	 * @param overrideConfigService Service managing override of Weasis configuration
+	 * @param packageService Service managing package versions
+	 * @param launchConfigurationSnapshotService Service providing the version of the
+	 * launch configuration
+	 */
+	@Autowired
+	public ConfigurationPropertiesServiceImpl(final OverrideConfigService overrideConfigService,
+			final PackageService packageService,
+			final LaunchConfigurationSnapshotService launchConfigurationSnapshotService) {
+		this.overrideConfigService = overrideConfigService;
+		this.packageService = packageService;
+		this.launchConfigurationSnapshotService = launchConfigurationSnapshotService;
+	}
+
+	@Override
+	public ConfigurationPropertiesPayload retrieveConfigurationProperties(Long packageVersionId, Long launchConfigId,
+			Long groupId) {
+		// Version read before the build: a change during the build triggers a new one
+		long version = this.launchConfigurationSnapshotService.retrieveChangeVersion();
+		PayloadKey key = new PayloadKey(packageVersionId, launchConfigId, groupId);
+
+		CompletableFuture<ConfigurationPropertiesPayload> payload;
+		boolean toBuild = false;
+		synchronized (this.payloads) {
+			if (version < this.payloadsVersion) {
+				// Launch configuration changed since the version was read: payload built
+				// without being kept
+				payload = null;
+			}
+			else {
+				if (version > this.payloadsVersion) {
+					// Payloads built from a previous version of the launch configuration
+					this.payloads.clear();
+					this.payloadsVersion = version;
+				}
+				// Clients starting at the same time wait for a single build of the
+				// payload
+				payload = this.payloads.get(key);
+				if (payload == null) {
+					payload = new CompletableFuture<>();
+					this.payloads.put(key, payload);
+					toBuild = true;
+				}
+			}
+		}
+		if (payload == null) {
+			return this.buildPayload(key, version);
+		}
+
+		// Payload built outside the lock of the payloads
+		if (toBuild) {
+			try {
+				ConfigurationPropertiesPayload built = this.buildPayload(key, version);
+				if (built == null) {
+					// Configuration not existing: not kept
+					this.evictPayload(key, payload);
+				}
+				payload.complete(built);
+			}
+			catch (RuntimeException e) {
+				this.evictPayload(key, payload);
+				payload.completeExceptionally(e);
+				throw e;
+			}
+		}
+		try {
+			return payload.join();
+		}
+		catch (CompletionException e) {
+			// Build failed for the client which launched it
+			throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+		}
+	}
+
+	/**
+	 * Evict the payload of the key if not replaced since
+	 * @param key Package version/launch config/group
+	 * @param payload Payload to evict
+	 */
+	private void evictPayload(PayloadKey key, CompletableFuture<ConfigurationPropertiesPayload> payload) {
+		synchronized (this.payloads) {
+			this.payloads.remove(key, payload);
+		}
+	}
+
+	/**
+	 * Build the payload of the package version, launch config and group
+	 * @param key Package version/launch config/group
+	 * @param version Version of the launch configuration
+	 * @return payload built, null if the package version or the configuration of the
+	 * launch config and group does not exist
+	 */
+	private ConfigurationPropertiesPayload buildPayload(PayloadKey key, long version) {
+		// Retrieve the package version entity corresponding to the id in the request
+		PackageVersionEntity packageVersionEntity = this.packageService
+			.retrievePackageVersion(key.packageVersionId());
+		if (packageVersionEntity == null) {
+			return null;
+		}
+		boolean json = this.packageService.shouldUseJsonParsing(packageVersionEntity);
+
+		// Retrieve the corresponding properties and build properties or json bytes
+		OverrideConfigEntity overrideConfigEntity = this.overrideConfigService
+			.retrieveProperties(key.packageVersionId(), key.launchConfigId(), key.groupId());
+		if (overrideConfigEntity == null) {
+			return null;
+		}
+		List<WeasisPropertyEntity> weasisPropertyEntities = overrideConfigEntity.getWeasisPropertyEntities();
+		byte[] content;
+		if (json) {
+			content = JacksonUtil
+				.serializeIntoJson(
+						OverrideConfigEntity.builder().weasisPropertyEntities(weasisPropertyEntities).build())
+				.getBytes(StandardCharsets.UTF_8);
+		}
+		else {
+			content = weasisPropertyEntities.stream()
+				.map(p -> JacksonUtil.customPropertiesSerializer(p,
+						new WeasisPropertyEntitySerializer(WeasisPropertyEntity.class), WeasisPropertyEntity.class))
+				.collect(Collectors.joining())
+				// modify String encoding to ISO-8859-1 for Weasis versions using properties
+				// file
+				.getBytes(StandardCharsets.ISO_8859_1);
+		}
+
+		LOG.debug("Configuration properties of {} built for version {}", key, version);
+		return new ConfigurationPropertiesPayload(content, json, buildETag(content));
+	}
+
+	/**
+	 * Build the strong entity tag of a content: SHA-256 of the content, so that the tag
+	 * does not change when a change of the launch configuration does not affect the
+	 * content
+	 * @param content Content
+	 * @return quoted entity tag
+	 */
+	private static String buildETag(byte[] content) {
+		try {
+			return "\"%s\"".formatted(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new TechnicalException("Not able to build the entity tag: %s".formatted(e.getMessage()));
+		}
+	}
+
+	/**
+	 * Key of a payload
+	 * @param packageVersionId Id of the package version
+	 * @param launchConfigId Id of the launch config
+	 * @param groupId Id of the group
+	 */
+	private record PayloadKey(Long packageVersionId, Long launchConfigId, Long groupId) {
+	}
+
+}
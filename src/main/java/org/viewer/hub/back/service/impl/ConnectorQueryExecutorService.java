@@ -0,0 +1,247 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+
+package org.viewer.hub.back.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.viewer.hub.back.config.properties.ConnectorQueryConfigurationProperties;
+import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.enums.ConnectorType;
+import org.viewer.hub.back.enums.QueryLevelType;
+import org.viewer.hub.back.model.connector.ConnectorQueryResult;
+import org.viewer.hub.back.model.connector.ConnectorQueryTask;
+import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.property.ConnectorProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Dispatch the archive queries in parallel.
+ * <p>
+ * Each query runs on its own virtual thread once it got a permit for its connector
+ * (protects the archive) and a global permit (protects viewer-hub). A query not completed
+ * within the connector timeout is cancelled, and the results of the queries not completed
+ * before the global deadline are discarded: the duration of a fan-out tracks the slowest
+ * archive instead of the sum of all the queries.
+ * <p>
+ * Results are returned in the order of the tasks so that the merge made by the callers
+ * stays deterministic whatever the completion order.
+ */
+@Service
+@Slf4j
+public class ConnectorQueryExecutorService {
+
+	private final ConnectorQueryConfigurationProperties connectorQueryConfigurationProperties;
+
+	private final ExecutorService executorService;
+
+	private final Semaphore globalPermits;
+
+	private final Map<String, Semaphore> connectorPermits = new ConcurrentHashMap<>();
+
+	@Autowired
+	public ConnectorQueryExecutorService(
+			final ConnectorQueryConfigurationProperties connectorQueryConfigurationProperties) {
+		this.connectorQueryConfigurationProperties = connectorQueryConfigurationProperties;
+		this.executorService = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("connector-query-", 0).factory());
+		this.globalPermits = new Semaphore(connectorQueryConfigurationProperties.getMaxConcurrentQueries(), true);
+	}
+
+	/**
+	 * Create the tasks retrieving the patients from the connectors in parameter. DB
+	 * connectors look for all the values in a single query, DICOM and DICOM_WEB
+	 * connectors get one query per value. Connectors having deactivated the query level
+	 * are skipped.
+	 * @param connectors Connectors to query
+	 * @param searchValues Values to look for
+	 * @param queryLevelType Query level of the values
+	 * @param dbConnectorQuery Query to run for a DB connector
+	 * @param dicomConnectorQuery Query to run for a DICOM or DICOM_WEB connector
+	 * @return tasks ordered by connector then by value
+	 */
+	public List<ConnectorQueryTask<Set<Patient>>> createPatientQueryTasks(Collection<ConnectorProperty> connectors,
+			Set<String> searchValues, QueryLevelType queryLevelType,
+			BiFunction<Set<String>, ConnectorProperty, Set<Patient>> dbConnectorQuery,
+			BiFunction<Set<String>, ConnectorProperty, Set<Patient>> dicomConnectorQuery) {
+		List<ConnectorQueryTask<Set<Patient>>> tasks = new ArrayList<>();
+		connectors.stream()
+			.filter(connector -> !connector.getSearchCriteria().getDeactivated().contains(queryLevelType))
+			.forEach(connector -> {
+				if (Objects.equals(ConnectorType.DB, connector.getType())) {
+					tasks.add(new ConnectorQueryTask<>(connector, () -> dbConnectorQuery.apply(searchValues, connector)));
+				}
+				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
+						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
+					searchValues.forEach(searchValue -> tasks.add(new ConnectorQueryTask<>(connector,
+							() -> dicomConnectorQuery.apply(Set.of(searchValue), connector))));
+				}
+			});
+		return tasks;
+	}
+
+	/**
+	 * Execute the tasks in parallel and wait for their results
+	 * @param tasks Tasks to execute
+	 * @param <T> Type of the result of the tasks
+	 * @return results of the tasks completed in time, in the order of the tasks
+	 */
+	public <T> List<ConnectorQueryResult<T>> executeAll(List<ConnectorQueryTask<T>> tasks) {
+		List<ConnectorQueryResult<T>> results = new ArrayList<>();
+		if (tasks.isEmpty()) {
+			return results;
+		}
+
+		// Dispatch
+		long globalDeadline = System.nanoTime()
+				+ this.connectorQueryConfigurationProperties.getGlobalTimeout().toNanos();
+		Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+		List<Future<T>> futures = tasks.stream()
+			.map(task -> this.executorService.submit(() -> this.executeBounded(task, mdcContext)))
+			.toList();
+
+		// Collect in the order of the tasks
+		try {
+			for (int i = 0; i < tasks.size(); i++) {
+				ConnectorQueryTask<T> task = tasks.get(i);
+				Future<T> future = futures.get(i);
+				try {
+					results.add(new ConnectorQueryResult<>(task.connector(),
+							future.get(Math.max(0, globalDeadline - System.nanoTime()), TimeUnit.NANOSECONDS)));
+				}
+				catch (TimeoutException e) {
+					future.cancel(true);
+					LOG.warn("Query on connector {} not completed before the global deadline of {}: result ignored",
+							task.connector().getId(), this.connectorQueryConfigurationProperties.getGlobalTimeout());
+				}
+				catch (ExecutionException e) {
+					if (e.getCause() instanceof TimeoutException) {
+						LOG.warn("Query on connector {} not completed within {}: result ignored",
+								task.connector().getId(),
+								this.connectorQueryConfigurationProperties.getConnectorTimeout());
+					}
+					else if (e.getCause() instanceof RuntimeException runtimeException) {
+						throw runtimeException;
+					}
+					else {
+						throw new TechnicalException(
+								"Issue when querying connector %s: %s".formatted(task.connector().getId(),
+										e.getCause().getMessage()));
+					}
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalException("Interrupted while querying the connectors");
+		}
+		finally {
+			// Nothing is waiting anymore for the remaining queries
+			futures.forEach(future -> future.cancel(true));
+		}
+		return results;
+	}
+
+	/**
+	 * Execute the task once a permit has been granted for its connector and globally.
+	 * The query itself runs on a dedicated thread so that it can be cancelled when the
+	 * connector timeout is reached. The permits are released when the query actually
+	 * completes: a query ignoring its cancellation keeps counting against the limits.
+	 * @param task Task to execute
+	 * @param mdcContext Logging context of the calling thread
+	 * @param <T> Type of the result of the task
+	 * @return result of the task
+	 */
+	private <T> T executeBounded(ConnectorQueryTask<T> task, Map<String, String> mdcContext) throws Exception {
+		Semaphore connectorSemaphore = this.connectorPermits.computeIfAbsent(task.connector().getId(),
+				id -> new Semaphore(this.connectorQueryConfigurationProperties.getMaxConcurrentQueriesPerConnector(),
+						true));
+		// Connector permit first: a query waiting for a busy archive does not hold a
+		// global permit
+		connectorSemaphore.acquire();
+		try {
+			this.globalPermits.acquire();
+		}
+		catch (InterruptedException e) {
+			connectorSemaphore.release();
+			throw e;
+		}
+		Runnable releasePermits = () -> {
+			this.globalPermits.release();
+			connectorSemaphore.release();
+		};
+
+		// Whoever claims the permits first releases them: the query once it completes, or
+		// this thread when the query has been cancelled before starting
+		AtomicBoolean permitsClaimed = new AtomicBoolean();
+		Future<T> query;
+		try {
+			query = this.executorService.submit(() -> {
+				if (!permitsClaimed.compareAndSet(false, true)) {
+					return null;
+				}
+				if (mdcContext != null) {
+					MDC.setContextMap(mdcContext);
+				}
+				try {
+					return task.query().get();
+				}
+				finally {
+					MDC.clear();
+					releasePermits.run();
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			releasePermits.run();
+			throw e;
+		}
+		try {
+			return query.get(this.connectorQueryConfigurationProperties.getConnectorTimeout().toNanos(),
+					TimeUnit.NANOSECONDS);
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof Exception exception ? exception : e;
+		}
+		finally {
+			query.cancel(true);
+			if (permitsClaimed.compareAndSet(false, true)) {
+				releasePermits.run();
+			}
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		this.executorService.shutdownNow();
+	}
+
+}
@@ -14,18 +14,23 @@ package org.viewer.hub.back.service.impl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.viewer.hub.back.enums.ConnectorType;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
 import org.viewer.hub.back.enums.IHERequestType;
 import org.viewer.hub.back.enums.QueryLevelType;
+import org.viewer.hub.back.model.connector.ConnectorQueryResult;
+import org.viewer.hub.back.model.connector.ConnectorQueryTask;
 import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.property.ConnectorProperty;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.IHESearchCriteria;
+import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
 import org.viewer.hub.back.service.ConnectorQueryService;
 import org.viewer.hub.back.service.ConnectorService;
 import org.viewer.hub.back.service.DbConnectorQueryService;
 import org.viewer.hub.back.service.DicomConnectorQueryService;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 @Service
 public class ConnectorQueryServiceImpl implements ConnectorQueryService {
@@ -37,67 +42,48 @@ public class ConnectorQueryServiceImpl implements ConnectorQueryService {
 
 	private final ConnectorService connectorService;
 
+	private final ConnectorQueryExecutorService connectorQueryExecutorService;
+
 	@Autowired
 	public ConnectorQueryServiceImpl(final DbConnectorQueryService dbConnectorQueryService,
-			final DicomConnectorQueryService dicomConnectorQueryService, final ConnectorService connectorService) {
+			final DicomConnectorQueryService dicomConnectorQueryService, final ConnectorService connectorService,
+			final ConnectorQueryExecutorService connectorQueryExecutorService) {
 		this.dbConnectorQueryService = dbConnectorQueryService;
 		this.dicomConnectorQueryService = dicomConnectorQueryService;
 		this.connectorService = connectorService;
+		this.connectorQueryExecutorService = connectorQueryExecutorService;
 	}
 
 	@Override
 	public Map<String, Set<Patient>> retrievePatientsByArchiveWithoutIHESearchCriteria(
-			ArchiveSearchCriteria searchCriteria, Authentication authentication) {
-		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(searchCriteria.getArchive())).forEach(archive -> {
-			Set<Patient> patients = retrievePatientsWithoutIHESearchCriteria(searchCriteria, Set.of(archive.getId()),
-					authentication);
-			if (!patients.isEmpty()) {
-				patientsByArchive.put(archive.getId(), patients);
-			}
-		});
-		return patientsByArchive;
+			ArchiveSearchCriteria searchCriteria, DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		// Query all the archives at once
+		List<ConnectorQueryResult<Set<Patient>>> results = this.connectorQueryExecutorService
+			.executeAll(this.createTasksWithoutIHESearchCriteria(searchCriteria,
+					this.connectorService.retrieveConnectors(new LinkedHashSet<>(searchCriteria.getArchive())),
+					levelLimit, authentication));
+		return this.groupPatientsByArchive(results, searchCriteria::applyPatientRequestSearchCriteriaFilters);
 	}
 
 	@Override
 	public Map<String, Set<Patient>> retrievePatientsByArchiveWithIHESearchCriteria(IHESearchCriteria searchCriteria,
-			Authentication authentication) {
-		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(searchCriteria.getArchive())).forEach(archive -> {
-			Set<Patient> patients = retrievePatientsWithIHESearchCriteria(searchCriteria, Set.of(archive.getId()),
-					authentication);
-			if (!patients.isEmpty()) {
-				patientsByArchive.put(archive.getId(), patients);
-			}
-		});
-		return patientsByArchive;
+			DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		// Query all the archives at once
+		List<ConnectorQueryResult<Set<Patient>>> results = this.connectorQueryExecutorService
+			.executeAll(this.createTasksWithIHESearchCriteria(searchCriteria,
+					this.connectorService.retrieveConnectors(new LinkedHashSet<>(searchCriteria.getArchive())),
+					levelLimit, authentication));
+		return this.groupPatientsByArchive(results, searchCriteria::applyPatientRequestSearchCriteriaFilters);
 	}
 
 	@Override
 	public Set<Patient> retrievePatientsWithoutIHESearchCriteria(ArchiveSearchCriteria searchCriteria,
 			Set<String> archives, Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
-
-		// Sop Instance Uid
-		if (!searchCriteria.getObjectUID().isEmpty()) {
-			buildFromSopInstanceUids(patients, searchCriteria.getObjectUID(), archives, authentication);
-		}
-		// Series Instance Uid
-		if (!searchCriteria.getSeriesUID().isEmpty()) {
-			buildFromSeriesInstanceUids(patients, searchCriteria.getSeriesUID(), archives, authentication);
-		}
-		// Accession Number
-		if (!searchCriteria.getAccessionNumber().isEmpty()) {
-			buildFromStudyAccessionNumbers(patients, searchCriteria.getAccessionNumber(), archives, authentication);
-		}
-		// Study Uid
-		if (!searchCriteria.getStudyUID().isEmpty()) {
-			buildFromStudyInstanceUids(patients, searchCriteria.getStudyUID(), archives, authentication);
-		}
-		// Patient ID
-		if (!searchCriteria.getPatientID().isEmpty()) {
-			buildFromPatientIds(patients, searchCriteria.getPatientID(), archives, authentication);
-		}
+		Set<Patient> patients = new LinkedHashSet<>();
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createTasksWithoutIHESearchCriteria(searchCriteria,
+						this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)), null,
+						authentication)));
 
 		// Apply search criteria filters
 		return searchCriteria.applyPatientRequestSearchCriteriaFilters(patients);
@@ -106,21 +92,11 @@ public class ConnectorQueryServiceImpl implements ConnectorQueryService {
 	@Override
 	public Set<Patient> retrievePatientsWithIHESearchCriteria(IHESearchCriteria searchCriteria, Set<String> archives,
 			Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
-
-		// Study level
-		if (searchCriteria.getRequestType() == IHERequestType.STUDY) {
-			if (!searchCriteria.getAccessionNumber().isEmpty()) {
-				buildFromStudyAccessionNumbers(patients, searchCriteria.getAccessionNumber(), archives, authentication);
-			}
-			else if (!searchCriteria.getStudyUID().isEmpty()) {
-				buildFromStudyInstanceUids(patients, searchCriteria.getStudyUID(), archives, authentication);
-			}
-		}
-		// Patient level
-		else if (searchCriteria.getRequestType() == IHERequestType.PATIENT) {
-			buildFromPatientIds(patients, Set.of(searchCriteria.getPatientID()), archives, authentication);
-		}
+		Set<Patient> patients = new LinkedHashSet<>();
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createTasksWithIHESearchCriteria(searchCriteria,
+						this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)), null,
+						authentication)));
 
 		// Apply search criteria filters
 		return searchCriteria.applyPatientRequestSearchCriteriaFilters(patients);
@@ -130,106 +106,193 @@ public class ConnectorQueryServiceImpl implements ConnectorQueryService {
 	public void buildFromSopInstanceUids(Set<Patient> patients, Set<String> sopInstanceUids, Set<String> archives,
 			Authentication authentication) {
 		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.SOP_INSTANCE_UID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dbConnectorQueryService
-						.retrievePatientsFromSopInstanceUidsDbConnector(sopInstanceUids, connector));
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dicomConnectorQueryService
-						.retrievePatientsFromSopInstanceUidsDicomConnector(sopInstanceUids, connector, authentication));
-				}
-			}
-		});
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createSopInstanceUidsTasks(sopInstanceUids,
+						this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)), authentication)));
 	}
 
 	@Override
 	public void buildFromSeriesInstanceUids(Set<Patient> patients, Set<String> seriesUids, Set<String> archives,
 			Authentication authentication) {
 		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.SERIE_INSTANCE_UID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dbConnectorQueryService
-						.retrievePatientsFromSeriesInstanceUidsDbConnector(seriesUids, connector));
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dicomConnectorQueryService
-						.retrievePatientsFromSeriesInstanceUidsDicomConnector(seriesUids, connector, authentication));
-				}
-			}
-		});
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createSeriesInstanceUidsTasks(seriesUids, null,
+						this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)), authentication)));
 	}
 
 	@Override
 	public void buildFromStudyAccessionNumbers(Set<Patient> patients, Set<String> accessionNumbers,
 			Set<String> archives, Authentication authentication) {
 		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.STUDY_ACCESSION_NUMBER)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dbConnectorQueryService
-						.retrievePatientsFromStudyAccessionNumbersDbConnector(accessionNumbers, connector));
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients,
-							this.dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(
-									accessionNumbers, connector, authentication));
-				}
-			}
-		});
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createStudyAccessionNumbersTasks(accessionNumbers,
+						null, this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)),
+						authentication)));
 	}
 
 	@Override
 	public void buildFromStudyInstanceUids(Set<Patient> patients, Set<String> studyUids, Set<String> archives,
 			Authentication authentication) {
 		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.STUDY_INSTANCE_UID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dbConnectorQueryService
-						.retrievePatientsFromStudyInstanceUidsDbConnector(studyUids, connector));
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dicomConnectorQueryService
-						.retrievePatientsFromStudyInstanceUidsDicomConnector(studyUids, connector, authentication));
-				}
-			}
-		});
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createStudyInstanceUidsTasks(studyUids, null,
+						this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)), authentication)));
 	}
 
 	@Override
 	public void buildFromPatientIds(Set<Patient> patients, Set<String> patientIds, Set<String> archives,
 			Authentication authentication) {
 		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.PATIENT_ID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dbConnectorQueryService
-						.retrievePatientsFromPatientIdsDbConnector(patientIds, connector));
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update list with patients found
-					Patient.mergePatients(patients, this.dicomConnectorQueryService
-						.retrievePatientsFromPatientIdsDicomConnector(patientIds, connector, authentication));
-				}
+		this.mergeResults(patients,
+				this.connectorQueryExecutorService.executeAll(this.createPatientIdsTasks(patientIds, null, null,
+						this.connectorService.retrieveConnectors(new LinkedHashSet<>(archives)), authentication)));
+	}
+
+	/**
+	 * Create the tasks corresponding to the non-IHE search criteria
+	 * @param searchCriteria ArchiveSearchCriteria
+	 * @param connectors Connectors to query
+	 * @param levelLimit Deepest level to retrieve, null if no limit
+	 * @param authentication Authentication
+	 * @return tasks ordered by query level, connector and value
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createTasksWithoutIHESearchCriteria(
+			ArchiveSearchCriteria searchCriteria, Set<ConnectorProperty> connectors, DicomWebLevelLimitType levelLimit,
+			Authentication authentication) {
+		List<ConnectorQueryTask<Set<Patient>>> tasks = new ArrayList<>();
+
+		// Sop Instance Uid
+		if (!searchCriteria.getObjectUID().isEmpty()) {
+			tasks.addAll(this.createSopInstanceUidsTasks(searchCriteria.getObjectUID(), connectors, authentication));
+		}
+		// Series Instance Uid
+		if (!searchCriteria.getSeriesUID().isEmpty()) {
+			tasks.addAll(this.createSeriesInstanceUidsTasks(searchCriteria.getSeriesUID(), levelLimit, connectors,
+					authentication));
+		}
+		// Accession Number
+		if (!searchCriteria.getAccessionNumber().isEmpty()) {
+			tasks.addAll(this.createStudyAccessionNumbersTasks(searchCriteria.getAccessionNumber(), levelLimit,
+					connectors, authentication));
+		}
+		// Study Uid
+		if (!searchCriteria.getStudyUID().isEmpty()) {
+			tasks.addAll(this.createStudyInstanceUidsTasks(searchCriteria.getStudyUID(), levelLimit, connectors,
+					authentication));
+		}
+		// Patient ID
+		if (!searchCriteria.getPatientID().isEmpty()) {
+			tasks.addAll(this.createPatientIdsTasks(searchCriteria.getPatientID(), searchCriteria, levelLimit,
+					connectors, authentication));
+		}
+		return tasks;
+	}
+
+	/**
+	 * Create the tasks corresponding to the IHE search criteria
+	 * @param searchCriteria IHESearchCriteria
+	 * @param connectors Connectors to query
+	 * @param levelLimit Deepest level to retrieve, null if no limit
+	 * @param authentication Authentication
+	 * @return tasks ordered by connector and value
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createTasksWithIHESearchCriteria(IHESearchCriteria searchCriteria,
+			Set<ConnectorProperty> connectors, DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		List<ConnectorQueryTask<Set<Patient>>> tasks = new ArrayList<>();
+
+		// Study level
+		if (searchCriteria.getRequestType() == IHERequestType.STUDY) {
+			if (!searchCriteria.getAccessionNumber().isEmpty()) {
+				tasks.addAll(this.createStudyAccessionNumbersTasks(searchCriteria.getAccessionNumber(), levelLimit,
+						connectors, authentication));
+			}
+			else if (!searchCriteria.getStudyUID().isEmpty()) {
+				tasks.addAll(this.createStudyInstanceUidsTasks(searchCriteria.getStudyUID(), levelLimit, connectors,
+						authentication));
 			}
-		});
+		}
+		// Patient level
+		else if (searchCriteria.getRequestType() == IHERequestType.PATIENT) {
+			tasks.addAll(this.createPatientIdsTasks(Set.of(searchCriteria.getPatientID()), searchCriteria, levelLimit,
+					connectors, authentication));
+		}
+		return tasks;
+	}
+
+	private List<ConnectorQueryTask<Set<Patient>>> createSopInstanceUidsTasks(Set<String> sopInstanceUids,
+			Set<ConnectorProperty> connectors, Authentication authentication) {
+		return this.connectorQueryExecutorService.createPatientQueryTasks(connectors, sopInstanceUids,
+				QueryLevelType.SOP_INSTANCE_UID,
+				this.dbConnectorQueryService::retrievePatientsFromSopInstanceUidsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromSopInstanceUidsDicomConnector(values, connector, authentication));
+	}
+
+	private List<ConnectorQueryTask<Set<Patient>>> createSeriesInstanceUidsTasks(Set<String> seriesUids,
+			DicomWebLevelLimitType levelLimit, Set<ConnectorProperty> connectors, Authentication authentication) {
+		return this.connectorQueryExecutorService.createPatientQueryTasks(connectors, seriesUids,
+				QueryLevelType.SERIE_INSTANCE_UID,
+				this.dbConnectorQueryService::retrievePatientsFromSeriesInstanceUidsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromSeriesInstanceUidsDicomConnector(values, levelLimit, connector,
+							authentication));
+	}
+
+	private List<ConnectorQueryTask<Set<Patient>>> createStudyAccessionNumbersTasks(Set<String> accessionNumbers,
+			DicomWebLevelLimitType levelLimit, Set<ConnectorProperty> connectors, Authentication authentication) {
+		return this.connectorQueryExecutorService.createPatientQueryTasks(connectors, accessionNumbers,
+				QueryLevelType.STUDY_ACCESSION_NUMBER,
+				this.dbConnectorQueryService::retrievePatientsFromStudyAccessionNumbersDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromStudyAccessionNumbersDicomConnector(values, levelLimit, connector,
+							authentication));
+	}
+
+	private List<ConnectorQueryTask<Set<Patient>>> createStudyInstanceUidsTasks(Set<String> studyUids,
+			DicomWebLevelLimitType levelLimit, Set<ConnectorProperty> connectors, Authentication authentication) {
+		return this.connectorQueryExecutorService.createPatientQueryTasks(connectors, studyUids,
+				QueryLevelType.STUDY_INSTANCE_UID,
+				this.dbConnectorQueryService::retrievePatientsFromStudyInstanceUidsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromStudyInstanceUidsDicomConnector(values, levelLimit, connector,
+							authentication));
+	}
+
+	private List<ConnectorQueryTask<Set<Patient>>> createPatientIdsTasks(Set<String> patientIds,
+			SearchCriteria searchCriteria, DicomWebLevelLimitType levelLimit, Set<ConnectorProperty> connectors,
+			Authentication authentication) {
+		return this.connectorQueryExecutorService.createPatientQueryTasks(connectors, patientIds,
+				QueryLevelType.PATIENT_ID, this.dbConnectorQueryService::retrievePatientsFromPatientIdsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromPatientIdsDicomConnector(values, searchCriteria, levelLimit, connector,
+							authentication));
+	}
+
+	/**
+	 * Merge the results in the list of patients, in the order of the results
+	 * @param patients Patients to update
+	 * @param results Results of the connector queries
+	 */
+	private void mergeResults(Set<Patient> patients, List<ConnectorQueryResult<Set<Patient>>> results) {
+		results.forEach(result -> Patient.mergePatients(patients, result.result()));
+	}
+
+	/**
+	 * Group the results by archive, apply the filters and keep only the archives with
+	 * patients found
+	 * @param results Results of the connector queries
+	 * @param filters Filters to apply on the patients of each archive
+	 * @return patients by archive
+	 */
+	private Map<String, Set<Patient>> groupPatientsByArchive(List<ConnectorQueryResult<Set<Patient>>> results,
+			UnaryOperator<Set<Patient>> filters) {
+		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
+		results.forEach(result -> Patient.mergePatients(
+				patientsByArchive.computeIfAbsent(result.connector().getId(), archiveId -> new LinkedHashSet<>()),
+				result.result()));
+		patientsByArchive.replaceAll((archiveId, patients) -> filters.apply(patients));
+		patientsByArchive.values().removeIf(Set::isEmpty);
+		return patientsByArchive;
 	}
 
 }
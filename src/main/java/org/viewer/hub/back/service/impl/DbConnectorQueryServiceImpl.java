@@ -13,23 +13,18 @@ package org.viewer.hub.back.service.impl;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Service;
 import org.viewer.hub.back.config.tenant.TenantIdentifierResolver;
 import org.viewer.hub.back.constant.DbQueryConstant;
-import org.viewer.hub.back.model.connector.DbConnectorResult;
+import org.viewer.hub.back.model.connector.DbConnectorPatientsBuilder;
 import org.viewer.hub.back.model.patient.*;
 import org.viewer.hub.back.model.property.ConnectorProperty;
 import org.viewer.hub.back.service.DbConnectorQueryService;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class DbConnectorQueryServiceImpl implements DbConnectorQueryService {
@@ -100,63 +95,17 @@ public class DbConnectorQueryServiceImpl implements DbConnectorQueryService {
 		// Request connector db with requested parameters
 		SqlParameterSource parameters = new MapSqlParameterSource(paramName, searchValues);
 
-		// Execute query
-		List<DbConnectorResult> dbConnectorResults = this.namedParameterJdbcTemplate
-			.query(connector.getDbConnector().getQuery().getSelect() + DbQueryConstant.AND + searchColumnName
-					+ inParamName, parameters, new BeanPropertyRowMapper<>(DbConnectorResult.class));
+		// Execute query: the patients are built while the rows are read
+		DbConnectorPatientsBuilder patientsBuilder = new DbConnectorPatientsBuilder(
+				connector.getWeasis().getManifest().getTransferSyntaxUid(),
+				connector.getWeasis().getManifest().getCompressionRate());
+		this.namedParameterJdbcTemplate.query(connector.getDbConnector().getQuery().getSelect() + DbQueryConstant.AND
+				+ searchColumnName + inParamName, parameters, patientsBuilder);
 
 		// Route to Viewer-Hub default db
 		this.currentTenant.clear();
 
-		// Transform results found to patients
-		return this.transformDBConnectorResultsToPatients(dbConnectorResults, connector);
-	}
-
-	/**
-	 * Transform results found to patients
-	 * @param dbConnectorResults Results
-	 * @param connector Connector used to execute the query
-	 * @return List of patients found from request
-	 */
-	private Set<Patient> transformDBConnectorResultsToPatients(List<DbConnectorResult> dbConnectorResults,
-			ConnectorProperty connector) {
-		Set<Patient> patients = new HashSet<>();
-
-		if (dbConnectorResults != null) {
-			// Patients
-			patients = dbConnectorResults.stream()
-				.map(rs -> new Patient(rs.getPatientId(), rs.getPatientName(), rs.getPatientBirthDate(),
-						rs.getPatientSex() != null ? DicomPatientSex.valueOf(rs.getPatientSex()) : null))
-				.collect(Collectors.toSet());
-
-			// Studies
-			patients.forEach(patient -> patient.setStudies(dbConnectorResults.stream()
-				.filter(rs -> Objects.equals(rs.getPatientId(), patient.getPatientID()))
-				.map(rsp -> new Study(rsp.getStudyInstanceUid(), rsp.getStudyDescription(), rsp.getStudyDateTime(),
-						rsp.getAccessionNumber(), rsp.getStudyId(), rsp.getReferringPhysicianName()))
-				.collect(Collectors.toSet())));
-
-			// Series
-			patients.forEach(patient -> patient.getStudies()
-				.forEach(study -> study.setSeries(dbConnectorResults.stream()
-					.filter(rs -> Objects.equals(rs.getStudyInstanceUid(), study.getStudyInstanceUID()))
-					.map(rss -> new Serie(rss.getSeriesInstanceUid(), rss.getSeriesDescription(), rss.getSeriesNumber(),
-							rss.getModality(), rss.getSeriesDateTime(),
-							connector.getWeasis().getManifest().getTransferSyntaxUid(),
-							connector.getWeasis().getManifest().getCompressionRate()))
-					.collect(Collectors.toSet()))));
-
-			// Instance
-			patients.forEach(patient -> patient.getStudies()
-				.forEach(study -> study.getSeries()
-					.forEach(serie -> serie.setInstances(dbConnectorResults.stream()
-						.filter(rs -> Objects.equals(rs.getSeriesInstanceUid(), serie.getSeriesInstanceUID()))
-						.map(rss -> new Instance(rss.getSopInstanceUid(), rss.getSopClassUid(), rss.getInstanceNumber(),
-								null))
-						.collect(Collectors.toSet())))));
-		}
-
-		return patients;
+		return patientsBuilder.build();
 	}
 
 }
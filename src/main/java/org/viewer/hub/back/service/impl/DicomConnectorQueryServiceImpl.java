@@ -18,6 +18,8 @@ import org.dcm4che3.data.Tag;
 import org.dcm4che3.net.service.QueryRetrieveLevel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -29,6 +31,7 @@ import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriBuilder;
+import org.viewer.hub.back.config.dicom.DicomAssociationPool;
 import org.viewer.hub.back.config.properties.ConnectorConfigurationProperties;
 import org.viewer.hub.back.constant.EndPoint;
 import org.viewer.hub.back.constant.Message;
@@ -38,21 +41,26 @@ import org.viewer.hub.back.enums.*;
 import org.viewer.hub.back.model.patient.*;
 import org.viewer.hub.back.model.property.ConnectorAuthenticationProperty;
 import org.viewer.hub.back.model.property.ConnectorProperty;
+import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
+import org.viewer.hub.back.model.searchcriteria.StudyQueryFilter;
 import org.viewer.hub.back.service.DicomConnectorQueryService;
 import org.viewer.hub.back.service.DicomWebClientService;
 import org.viewer.hub.back.util.ConnectorUtil;
 import org.viewer.hub.back.util.DateTimeUtil;
 import org.viewer.hub.back.util.JsonUtil;
+import org.viewer.hub.back.util.MergeUtil;
 import org.viewer.hub.back.util.MonoUtil;
 import org.weasis.dicom.op.CFind;
-import org.weasis.dicom.param.DicomNode;
 import org.weasis.dicom.param.DicomParam;
-import org.weasis.dicom.param.DicomState;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -63,6 +71,9 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 
 	private static final int DICOM_WEB_PAGE_SIZE = 1000;
 
+	// Number of network buffers requested in advance while parsing a dicom-web response
+	private static final int DICOM_WEB_BUFFER_DEMAND = 16;
+
 	private final DicomWebClientService dicomWebClientService;
 
 	private final ConnectorConfigurationProperties connectorConfigurationProperties;
@@ -71,6 +82,8 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 
 	private final ClientRegistrationRepository clientRegistrationRepository;
 
+	private final DicomAssociationPool dicomAssociationPool;
+
 	@Value("${timeout.dicom-web}")
 	private String dicomWebTimeoutDuration;
 
@@ -85,44 +98,52 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	public DicomConnectorQueryServiceImpl(final ConnectorConfigurationProperties connectorConfigurationProperties,
 			final DicomWebClientService dicomWebClientService,
 			final OAuth2AuthorizedClientService oAuth2AuthorizedClientService,
-			final ClientRegistrationRepository clientRegistrationRepository) {
+			final ClientRegistrationRepository clientRegistrationRepository,
+			final DicomAssociationPool dicomAssociationPool) {
 		this.dicomWebClientService = dicomWebClientService;
 		this.connectorConfigurationProperties = connectorConfigurationProperties;
 		this.oAuth2AuthorizedClientService = oAuth2AuthorizedClientService;
 		this.clientRegistrationRepository = clientRegistrationRepository;
+		this.dicomAssociationPool = dicomAssociationPool;
 	}
 
 	@Override
 	public Set<Patient> retrievePatientsFromStudyAccessionNumbersDicomConnector(Set<String> studyAccessionNumbers,
-			@Valid ConnectorProperty connector, Authentication authentication) {
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication) {
 		return this.retrieveDicomConnectorResults(connector, studyAccessionNumbers, SearchCriteriaType.ACCESSION_NUMBER,
-				authentication);
+				levelLimit, authentication);
 	}
 
 	@Override
 	public Set<Patient> retrievePatientsFromPatientIdsDicomConnector(Set<String> patientIds,
-			@Valid ConnectorProperty connector, Authentication authentication) {
-		return this.retrieveDicomConnectorResults(connector, patientIds, SearchCriteriaType.PATIENT_ID, authentication);
+			SearchCriteria searchCriteria, DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector,
+			Authentication authentication) {
+		// Filters of the search criteria applied directly by the connector
+		StudyQueryFilter studyQueryFilter = StudyQueryFilter.of(searchCriteria,
+				connector.getSearchCriteria().getPushDown());
+		return this.retrieveDicomConnectorResultsFromPatientIds(connector, patientIds, studyQueryFilter, levelLimit,
+				authentication);
 	}
 
 	@Override
 	public Set<Patient> retrievePatientsFromStudyInstanceUidsDicomConnector(Set<String> studyInstanceUids,
-			@Valid ConnectorProperty connector, Authentication authentication) {
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication) {
 		return this.retrieveDicomConnectorResults(connector, studyInstanceUids, SearchCriteriaType.STUDY_INSTANCE_UID,
-				authentication);
+				levelLimit, authentication);
 	}
 
 	@Override
 	public Set<Patient> retrievePatientsFromSeriesInstanceUidsDicomConnector(Set<String> seriesInstanceUids,
-			@Valid ConnectorProperty connector, Authentication authentication) {
+			DicomWebLevelLimitType levelLimit, @Valid ConnectorProperty connector, Authentication authentication) {
 		return this.retrieveDicomConnectorResults(connector, seriesInstanceUids, SearchCriteriaType.SERIE_INSTANCE_UID,
-				authentication);
+				levelLimit, authentication);
 	}
 
 	@Override
 	public Set<Patient> retrievePatientsFromSopInstanceUidsDicomConnector(Set<String> sopInstanceUids,
 			@Valid ConnectorProperty connector, Authentication authentication) {
-		return this.retrieveDicomConnectorResults(connector, sopInstanceUids, SearchCriteriaType.SOP_INSTANCE_UID,
+		// Sop instances are the deepest level: no level limit
+		return this.retrieveDicomConnectorResults(connector, sopInstanceUids, SearchCriteriaType.SOP_INSTANCE_UID, null,
 				authentication);
 	}
 
@@ -144,25 +165,27 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 * @param connector Connector
 	 * @param searchValues Search criteria
 	 * @param searchCriteriaType Level of search
+	 * @param levelLimit Deepest level to retrieve, null if no limit
 	 * @return Set of patients found
 	 */
 	private Set<Patient> retrieveDicomConnectorResults(ConnectorProperty connector, Set<String> searchValues,
-			SearchCriteriaType searchCriteriaType, Authentication authentication) {
+			SearchCriteriaType searchCriteriaType, DicomWebLevelLimitType levelLimit, Authentication authentication) {
 		Set<Patient> patientsFound = new HashSet<>();
 		if (Objects.equals(SearchCriteriaType.ACCESSION_NUMBER, searchCriteriaType)) {
 			patientsFound = this.retrieveDicomConnectorResultsFromAccessionNumbers(connector, searchValues,
-					authentication);
+					levelLimit, authentication);
 		}
 		else if (Objects.equals(SearchCriteriaType.PATIENT_ID, searchCriteriaType)) {
-			patientsFound = this.retrieveDicomConnectorResultsFromPatientIds(connector, searchValues, authentication);
+			patientsFound = this.retrieveDicomConnectorResultsFromPatientIds(connector, searchValues,
+					StudyQueryFilter.NONE, levelLimit, authentication);
 		}
 		else if (Objects.equals(SearchCriteriaType.STUDY_INSTANCE_UID, searchCriteriaType)) {
 			patientsFound = this.retrieveDicomConnectorResultsFromStudyInstanceUids(connector, searchValues,
-					authentication);
+					levelLimit, authentication);
 		}
 		else if (Objects.equals(SearchCriteriaType.SERIE_INSTANCE_UID, searchCriteriaType)) {
 			patientsFound = this.retrieveDicomConnectorResultsFromSerieInstanceUids(connector, searchValues,
-					authentication);
+					levelLimit, authentication);
 		}
 		else if (Objects.equals(SearchCriteriaType.SOP_INSTANCE_UID, searchCriteriaType)) {
 			patientsFound = this.retrieveDicomConnectorResultsFromSopInstanceUids(connector, searchValues,
@@ -176,11 +199,12 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 * criteria
 	 * @param connector Connector
 	 * @param accessionNumbers Accession numbers to look for
+	 * @param levelLimit Deepest level to retrieve, null if no limit
 	 * @return Set of patients found
 	 */
 	private Set<Patient> retrieveDicomConnectorResultsFromAccessionNumbers(ConnectorProperty connector,
-			Set<String> accessionNumbers, Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
+			Set<String> accessionNumbers, DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		Map<String, Patient> patients = new LinkedHashMap<>();
 		accessionNumbers.stream()
 			// Retrieve studies and patient
 			.map(accessionNumber -> this.retrieveDicomPatientWithStudiesFromAccessionNumber(accessionNumber, connector,
@@ -188,27 +212,31 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 			.filter(Objects::nonNull)
 			// Retrieve series and sop instances
 			.forEach(patient -> this.retrieveDicomSeriesSopInstancesAndUpdatePatients(connector, patients, patient,
-					authentication));
-		return patients;
+					levelLimit, authentication));
+		return new LinkedHashSet<>(patients.values());
 	}
 
 	/**
 	 * Retrieve the list of patients found from dicom requests with patient ids criteria
 	 * @param connector Connector
 	 * @param patientIds Patient ids to look for
+	 * @param studyQueryFilter Filters applied in the study queries
+	 * @param levelLimit Deepest level to retrieve, null if no limit
 	 * @return Set of patients found
 	 */
 	private Set<Patient> retrieveDicomConnectorResultsFromPatientIds(ConnectorProperty connector,
-			Set<String> patientIds, Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
+			Set<String> patientIds, StudyQueryFilter studyQueryFilter, DicomWebLevelLimitType levelLimit,
+			Authentication authentication) {
+		Map<String, Patient> patients = new LinkedHashMap<>();
 		patientIds.stream()
 			// Retrieve studies and patient
-			.map(patientId -> this.retrieveDicomPatientStudiesFromPatientId(patientId, connector, authentication))
+			.map(patientId -> this.retrieveDicomPatientStudiesFromPatientId(patientId, connector, studyQueryFilter,
+					authentication))
 			.filter(Objects::nonNull)
 			// Retrieve series and sop instances
 			.forEach(patient -> this.retrieveDicomSeriesSopInstancesAndUpdatePatients(connector, patients, patient,
-					authentication));
-		return patients;
+					levelLimit, authentication));
+		return new LinkedHashSet<>(patients.values());
 	}
 
 	/**
@@ -216,11 +244,12 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 * criteria
 	 * @param connector Connector
 	 * @param studyInstanceUids Study instance uids to look for
+	 * @param levelLimit Deepest level to retrieve, null if no limit
 	 * @return Set of patients found
 	 */
 	private Set<Patient> retrieveDicomConnectorResultsFromStudyInstanceUids(ConnectorProperty connector,
-			Set<String> studyInstanceUids, Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
+			Set<String> studyInstanceUids, DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		Map<String, Patient> patients = new LinkedHashMap<>();
 		studyInstanceUids.stream()
 			// Retrieve studies and patient
 			.map(studyInstanceUid -> this.retrieveDicomPatientStudiesFromStudyInstanceUid(studyInstanceUid, connector,
@@ -228,8 +257,8 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 			.filter(Objects::nonNull)
 			// Retrieve series and sop instances
 			.forEach(patient -> this.retrieveDicomSeriesSopInstancesAndUpdatePatients(connector, patients, patient,
-					authentication));
-		return patients;
+					levelLimit, authentication));
+		return new LinkedHashSet<>(patients.values());
 	}
 
 	/**
@@ -237,11 +266,12 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 * criteria
 	 * @param connector Connector
 	 * @param serieInstanceUids Serie instance uids to look for
+	 * @param levelLimit Deepest level to retrieve, null if no limit
 	 * @return Set of patients found
 	 */
 	private Set<Patient> retrieveDicomConnectorResultsFromSerieInstanceUids(ConnectorProperty connector,
-			Set<String> serieInstanceUids, Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
+			Set<String> serieInstanceUids, DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		Map<String, Patient> patients = new LinkedHashMap<>();
 		serieInstanceUids.stream()
 			// Retrieve serie, study and patient
 			.map(serieInstanceUid -> this.retrieveDicomPatientStudySerieFromSerieInstanceUid(serieInstanceUid,
@@ -249,8 +279,8 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 			.filter(Objects::nonNull)
 			// Retrieve sop instances
 			.forEach(patient -> this.retrieveDicomSopInstancesAndUpdatePatients(connector, patients, patient,
-					authentication));
-		return patients;
+					levelLimit, authentication));
+		return new LinkedHashSet<>(patients.values());
 	}
 
 	/**
@@ -262,7 +292,7 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 */
 	private Set<Patient> retrieveDicomConnectorResultsFromSopInstanceUids(ConnectorProperty connector,
 			Set<String> sopInstanceUids, Authentication authentication) {
-		Set<Patient> patients = new HashSet<>();
+		Map<String, Patient> patients = new LinkedHashMap<>();
 		sopInstanceUids.stream()
 			// Retrieve serie, study and patient
 			.map(sopInstanceUid -> this.retrieveDicomPatientStudySerieSopInstanceUidFromSopInstanceUid(sopInstanceUid,
@@ -270,22 +300,38 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 			.filter(Objects::nonNull)
 			// Merge in existing patient or add in list of patients
 			.forEach(patient -> mergeOrAddInPatients(patients, patient));
-		return patients;
+		return new LinkedHashSet<>(patients.values());
+	}
+
+	/**
+	 * Determine the deepest level to retrieve for a connector: the most restrictive
+	 * between the level requested and the limit configured for the DICOM_WEB connectors
+	 * @param connector Connector
+	 * @param levelLimit Deepest level requested, null if no limit
+	 * @return level limit to apply, null if no limit
+	 */
+	private DicomWebLevelLimitType determineLevelLimit(ConnectorProperty connector,
+			DicomWebLevelLimitType levelLimit) {
+		DicomWebLevelLimitType configuredLevelLimit = Objects.equals(connector.getType(), ConnectorType.DICOM_WEB)
+				? this.dicomWebLevelLimitType : null;
+		if (levelLimit == null || configuredLevelLimit == null) {
+			return levelLimit != null ? levelLimit : configuredLevelLimit;
+		}
+		return levelLimit.compareTo(configuredLevelLimit) <= 0 ? levelLimit : configuredLevelLimit;
 	}
 
 	/**
-	 * Retrieve Sop Instances From Study/Serie Instance Uids and update patients If
-	 * DICOM_WEB connector and a limitation is set on the weasis manifest configuration to
-	 * limit to serie, the request is not made
+	 * Retrieve Sop Instances From Study/Serie Instance Uids and update patients If a
+	 * limitation to serie or study is requested, or set on the weasis manifest
+	 * configuration for a DICOM_WEB connector, the request is not made
 	 * @param connector Connector
-	 * @param patients Patients to update
+	 * @param patients Patients to update, indexed by patient id
 	 * @param patient Patient result to add/merge
+	 * @param levelLimit Deepest level requested, null if no limit
 	 */
-	private void retrieveDicomSopInstancesAndUpdatePatients(ConnectorProperty connector, Set<Patient> patients,
-			Patient patient, Authentication authentication) {
-		if (!(Objects.equals(connector.getType(), ConnectorType.DICOM_WEB)
-				&& (Objects.equals(dicomWebLevelLimitType, DicomWebLevelLimitType.SERIE)
-						|| Objects.equals(dicomWebLevelLimitType, DicomWebLevelLimitType.STUDY)))) {
+	private void retrieveDicomSopInstancesAndUpdatePatients(ConnectorProperty connector, Map<String, Patient> patients,
+			Patient patient, DicomWebLevelLimitType levelLimit, Authentication authentication) {
+		if (this.determineLevelLimit(connector, levelLimit) == null) {
 			// Retrieve sop instances
 			this.retrieveDicomSopInstancesFromStudySerieInstanceUids(patient, connector, authentication);
 		}
@@ -294,22 +340,23 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	}
 
 	/**
-	 * Retrieve Series and Sop Instances and update patients. If DICOM_WEB connector and a
-	 * limitation is set on the weasis manifest configuration to limit to serie or study,
-	 * the requests are not made
+	 * Retrieve Series and Sop Instances and update patients. If a limitation to serie or
+	 * study is requested, or set on the weasis manifest configuration for a DICOM_WEB
+	 * connector, the requests are not made
 	 * @param connector Connector
-	 * @param patients Patients to update
+	 * @param patients Patients to update, indexed by patient id
 	 * @param patient Patient result to add/merge
+	 * @param levelLimit Deepest level requested, null if no limit
 	 */
-	private void retrieveDicomSeriesSopInstancesAndUpdatePatients(ConnectorProperty connector, Set<Patient> patients,
-			Patient patient, Authentication authentication) {
-		if (!(Objects.equals(connector.getType(), ConnectorType.DICOM_WEB)
-				&& Objects.equals(dicomWebLevelLimitType, DicomWebLevelLimitType.STUDY))) {
+	private void retrieveDicomSeriesSopInstancesAndUpdatePatients(ConnectorProperty connector,
+			Map<String, Patient> patients, Patient patient, DicomWebLevelLimitType levelLimit,
+			Authentication authentication) {
+		DicomWebLevelLimitType effectiveLevelLimit = this.determineLevelLimit(connector, levelLimit);
+		if (!Objects.equals(effectiveLevelLimit, DicomWebLevelLimitType.STUDY)) {
 			// Retrieve series
 			this.retrieveDicomSeriesFromStudyInstanceUid(patient, connector, authentication);
 
-			if (!(Objects.equals(connector.getType(), ConnectorType.DICOM_WEB)
-					&& Objects.equals(dicomWebLevelLimitType, DicomWebLevelLimitType.SERIE))) {
+			if (!Objects.equals(effectiveLevelLimit, DicomWebLevelLimitType.SERIE)) {
 				// Retrieve sop instances
 				this.retrieveDicomSopInstancesFromStudySerieInstanceUids(patient, connector, authentication);
 			}
@@ -405,34 +452,50 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 * Retrieve patient with studies from patient id and create patient
 	 * @param patientId Patient id
 	 * @param connector Connector
+	 * @param studyQueryFilter Filters applied in the study queries
 	 * @return Patient created
 	 */
 	private Patient retrieveDicomPatientStudiesFromPatientId(String patientId, ConnectorProperty connector,
-			Authentication authentication) {
+			StudyQueryFilter studyQueryFilter, Authentication authentication) {
 		List<Attributes> patientStudiesAttributes;
 		// Dicom request
 		if (Objects.equals(connector.getType(), ConnectorType.DICOM)) {
 			patientStudiesAttributes = this.retrieveDicomQueryResults(connector, QueryRetrieveLevel.STUDY,
-					this.definePatientStudiesDicomParamsFromPatientId(patientId), false);
+					this.definePatientStudiesDicomParamsFromPatientId(patientId, studyQueryFilter), false);
 		}
 		else {
 			// Dicom-web request
 			// Qido-rs to retrieve studies metadata
-			Function<UriBuilder, URI> uriBuilderURIFunction = ConnectorUtil
-				.determineIssuerPatientIdDependingHl7Syntax(patientId) != null
-						? (uriBuilder -> uriBuilder.path(EndPoint.STUDIES_PATH)
-							.queryParam(ParamName.DICOM_WEB_PATIENT_ID,
-									ConnectorUtil.determinePatientIdDependingHl7Syntax(patientId))
-							.queryParam(ParamName.DICOM_WEB_ISSUER_OF_PATIENT_ID,
-									ConnectorUtil.determineIssuerPatientIdDependingHl7Syntax(patientId))
-							.build())
-						: (uriBuilder -> uriBuilder.path(EndPoint.STUDIES_PATH)
-							.queryParam(ParamName.DICOM_WEB_PATIENT_ID, patientId)
-							.build());
-
-			patientStudiesAttributes = this.retrieveDicomWebQueryResults(
-					connector.getDicomWebConnector().getWebClientQidoRs(), uriBuilderURIFunction,
-					connector.getDicomWebConnector().getQidoRs().getAuthentication(), authentication);
+			String issuerOfPatientId = ConnectorUtil.determineIssuerPatientIdDependingHl7Syntax(patientId);
+			Function<UriBuilder, URI> uriBuilderURIFunction = uriBuilder -> {
+				uriBuilder.path(EndPoint.STUDIES_PATH);
+				if (issuerOfPatientId != null) {
+					uriBuilder
+						.queryParam(ParamName.DICOM_WEB_PATIENT_ID,
+								ConnectorUtil.determinePatientIdDependingHl7Syntax(patientId))
+						.queryParam(ParamName.DICOM_WEB_ISSUER_OF_PATIENT_ID, issuerOfPatientId);
+				}
+				else {
+					uriBuilder.queryParam(ParamName.DICOM_WEB_PATIENT_ID, patientId);
+				}
+				// Filters pushed down
+				if (studyQueryFilter.studyDateRange() != null) {
+					uriBuilder.queryParam(ParamName.DICOM_WEB_STUDY_DATE, studyQueryFilter.studyDateRange());
+				}
+				if (!studyQueryFilter.modalitiesInStudy().isEmpty()) {
+					uriBuilder.queryParam(ParamName.DICOM_WEB_MODALITIES_IN_STUDY,
+							String.join(",", studyQueryFilter.modalitiesInStudy()));
+				}
+				if (studyQueryFilter.mostRecentResults() != null) {
+					uriBuilder.queryParam(ParamName.ORDER_BY, ParamName.ORDER_BY_MOST_RECENT_STUDIES);
+				}
+				return uriBuilder.build();
+			};
+
+			patientStudiesAttributes = new ArrayList<>();
+			this.streamDicomWebQueryResults(connector.getDicomWebConnector().getWebClientQidoRs(),
+					uriBuilderURIFunction, connector.getDicomWebConnector().getQidoRs().getAuthentication(),
+					authentication, studyQueryFilter.mostRecentResults(), patientStudiesAttributes::add);
 		}
 
 		return createPatientFromPatientStudiesAttributes(patientStudiesAttributes);
@@ -579,6 +642,41 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	private List<Attributes> retrieveDicomWebQueryResults(WebClient webClient,
 			Function<UriBuilder, URI> uriBuilderURIFunction,
 			ConnectorAuthenticationProperty connectorAuthenticationProperty, Authentication authentication) {
+		List<Attributes> attributes = new ArrayList<>();
+		this.streamDicomWebQueryResults(webClient, uriBuilderURIFunction, connectorAuthenticationProperty,
+				authentication, attributes::add);
+		return attributes;
+	}
+
+	/**
+	 * Execute dicom-web queries and provide the attributes found one by one, while the
+	 * response is read: the response is never buffered as a whole
+	 * @param webClient WebClient
+	 * @param uriBuilderURIFunction Function containing uri to apply
+	 * @param connectorAuthenticationProperty ConnectorAuthenticationProperty
+	 * @param authentication Authentication
+	 * @param attributesConsumer Consumer of the attributes found
+	 */
+	private void streamDicomWebQueryResults(WebClient webClient, Function<UriBuilder, URI> uriBuilderURIFunction,
+			ConnectorAuthenticationProperty connectorAuthenticationProperty, Authentication authentication,
+			Consumer<Attributes> attributesConsumer) {
+		this.streamDicomWebQueryResults(webClient, uriBuilderURIFunction, connectorAuthenticationProperty,
+				authentication, null, attributesConsumer);
+	}
+
+	/**
+	 * Execute dicom-web queries and provide the attributes found one by one, while the
+	 * response is read, up to a maximum number of results
+	 * @param webClient WebClient
+	 * @param uriBuilderURIFunction Function containing uri to apply
+	 * @param connectorAuthenticationProperty ConnectorAuthenticationProperty
+	 * @param authentication Authentication
+	 * @param maxResults Maximum number of results to retrieve, null if no maximum
+	 * @param attributesConsumer Consumer of the attributes found
+	 */
+	private void streamDicomWebQueryResults(WebClient webClient, Function<UriBuilder, URI> uriBuilderURIFunction,
+			ConnectorAuthenticationProperty connectorAuthenticationProperty, Authentication authentication,
+			Integer maxResults, Consumer<Attributes> attributesConsumer) {
 		// Build Get Web Client
 		WebClient.RequestHeadersUriSpec<?> webClientGet = webClient.get();
 
@@ -594,69 +692,73 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 			}
 		}
 
-		// Call pacs api in dicom-web to retrieve Attributes
-		return retrieveDicomWebQueryResultsRequest(uriBuilderURIFunction, webClientGet, 0, new ArrayList<>()).block();
+		// One deadline for the whole query: the timer starts with the first page and is
+		// shared by the next ones
+		Mono<Long> deadline = Mono.delay(Duration.ofSeconds(Long.parseLong(this.dicomWebTimeoutDuration))).cache();
+
+		// Call pacs api in dicom-web to retrieve Attributes, page by page: if the
+		// retrieved page is full that means that there is maybe another page
+		int offset = 0;
+		int limit;
+		int pageSize;
+		do {
+			limit = maxResults != null ? Math.min(DICOM_WEB_PAGE_SIZE, maxResults - offset) : DICOM_WEB_PAGE_SIZE;
+			pageSize = this.streamDicomWebQueryResultsPage(uriBuilderURIFunction, webClientGet, offset, limit,
+					deadline, attributesConsumer);
+			offset += pageSize;
+		}
+		while (pageSize == limit && (maxResults == null || offset < maxResults));
 	}
 
 	/**
-	 * Execute dicom-web queries using pagination by calling recursive method
+	 * Execute a dicom-web query for one page and parse the response while it is received
 	 * @param uriBuilderURIFunction Function to determine uri
 	 * @param webClientGet GET WeClient
 	 * @param offset Pagination offset
-	 * @param accumulator Used to store the intermediate results when calling recursive
-	 * method
-	 * @return attributes found
-	 */
-	private Mono<List<Attributes>> retrieveDicomWebQueryResultsRequest(Function<UriBuilder, URI> uriBuilderURIFunction,
-			WebClient.RequestHeadersUriSpec<?> webClientGet, int offset, List<Attributes> accumulator) {
-		// Recursive request
-		// Modify the function to handle page
-		return webClientGet
-			.uri(uriBuilder -> uriBuilderURIFunction.apply(
-					uriBuilder.queryParam(ParamName.LIMIT, DICOM_WEB_PAGE_SIZE).queryParam(ParamName.OFFSET, offset)))
+	 * @param limit Pagination limit
+	 * @param deadline Deadline of the whole query, shared by its pages
+	 * @param attributesConsumer Consumer of the attributes found
+	 * @return number of attributes found in the page
+	 */
+	private int streamDicomWebQueryResultsPage(Function<UriBuilder, URI> uriBuilderURIFunction,
+			WebClient.RequestHeadersUriSpec<?> webClientGet, int offset, int limit, Mono<Long> deadline,
+			Consumer<Attributes> attributesConsumer) {
+		Flux<DataBuffer> body = webClientGet
+			.uri(uriBuilder -> uriBuilderURIFunction
+				.apply(uriBuilder.queryParam(ParamName.LIMIT, limit).queryParam(ParamName.OFFSET, offset)))
 			.header(HttpHeaders.ACCEPT, HeaderType.APPLICATION_DICOM_JSON.getCode())
 			.retrieve()
 			.onStatus(httpStatus -> Objects.equals(HttpStatus.FORBIDDEN.value(), httpStatus.value()),
 					MonoUtil.buildMonoError(Message.PACS_API_NO_ACCESS))
 			.onStatus(HttpStatusCode::is4xxClientError, MonoUtil.buildMonoError(Message.PACS_API_CLIENT_ERROR))
 			.onStatus(HttpStatusCode::is5xxServerError, MonoUtil.buildMonoError(Message.PACS_API_SERVER_ERROR))
-			.bodyToMono(String.class)
-			.map(JsonUtil::transformJsonToAttributes)
-			.flatMapIterable(Function.identity())
-			.collectList()
-			.flatMap(pageList -> {
-				// Add current page in the accumulator
-				accumulator.addAll(pageList);
-				// If the retrieved page contains exactly the DICOM_WEB_PAGE_SIZE elements
-				// that means that there is maybe another page
-				// Otherwise last page, return the completed accumulator
-				return pageList.size() == DICOM_WEB_PAGE_SIZE
-						? retrieveDicomWebQueryResultsRequest(uriBuilderURIFunction, webClientGet,
-								offset + DICOM_WEB_PAGE_SIZE, accumulator)
-						: Mono.just(accumulator);
-			})
-			.timeout(Duration.ofSeconds(Long.parseLong(this.dicomWebTimeoutDuration)),
-					Mono.error(new TechnicalException(Message.PACS_SERVER_NOT_AVAILABLE)));
-	}
-
-	/**
-	 * Merge patient found in the list of existing patient list
-	 * @param patients Patients to update
-	 * @param patient Patient result to add/merge
-	 */
-	private static void mergeOrAddInPatients(Set<Patient> patients, Patient patient) {
-		// Merge in existing patient or add in list of patients
-		Optional<Patient> optionalPatient = patients.stream()
-			.filter(p -> Objects.equals(p.getPatientID(), patient.getPatientID()))
-			.findFirst();
-		if (optionalPatient.isPresent()) {
-			optionalPatient.get().merge(patient);
+			.bodyToFlux(DataBuffer.class)
+			.timeout(deadline, dataBuffer -> deadline,
+					Flux.error(new TechnicalException(Message.PACS_SERVER_NOT_AVAILABLE)));
+
+		// Buffers are requested from the network as the parser consumes them
+		try (InputStream inputStream = DataBufferUtils.subscriberInputStream(body, DICOM_WEB_BUFFER_DEMAND)) {
+			return JsonUtil.readJsonAttributes(inputStream, attributesConsumer);
 		}
-		else {
-			patients.add(patient);
+		catch (IOException e) {
+			// Keep the error raised by the status handlers or the timeout
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new TechnicalException("%s: %s".formatted(Message.PACS_SERVER_NOT_AVAILABLE, e.getMessage()));
 		}
 	}
 
+	/**
+	 * Merge patient found in the existing patients
+	 * @param patients Patients to update, indexed by patient id
+	 * @param patient Patient result to add/merge
+	 */
+	private static void mergeOrAddInPatients(Map<String, Patient> patients, Patient patient) {
+		// Merge in existing patient or add in patients
+		MergeUtil.mergeByKey(patients, patient, Patient::getPatientID, Patient::merge);
+	}
+
 	/**
 	 * Create patient from Patient/Study Attributes
 	 * @param patientStudiesAttributes Attributes to use
@@ -671,7 +773,7 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 					studyFound.getString(Tag.StudyDescription), studyFound.getDate(Tag.StudyDate),
 					studyFound.getDate(Tag.StudyTime), studyFound.getString(Tag.AccessionNumber),
 					studyFound.getString(Tag.StudyID), studyFound.getString(Tag.ReferringPhysicianName)))
-			.collect(Collectors.toSet());
+			.collect(Collectors.toCollection(LinkedHashSet::new));
 
 		Optional<Attributes> optionalPatient = patientStudiesAttributes.stream().findFirst();
 		if (optionalPatient.isPresent()) {
@@ -755,14 +857,9 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	 */
 	private List<Attributes> retrieveDicomQueryResults(ConnectorProperty connector,
 			QueryRetrieveLevel queryRetrieveLevel, List<DicomParam> dicomParams, boolean useQueryRelational) {
-		DicomState state = CFind.process(
-				connector.getDicomConnector().getDimse().retrieveAdvancedParamsFromProperties(useQueryRelational),
-				new DicomNode(connector.getDicomConnector().getDimse().getCallingAet()),
-				connector.getDicomConnector().getDimse().retrieveDicomNodeFromProperties(), 0, queryRetrieveLevel,
-				dicomParams.toArray(new DicomParam[] {}));
-
-		// Retrieve query results from dicom
-		return state.getDicomRSP();
+		// Retrieve query results from dicom, reusing a pooled association
+		return this.dicomAssociationPool.cfind(connector.getDicomConnector().getDimse(), queryRetrieveLevel,
+				dicomParams, useQueryRelational);
 	}
 
 	/**
@@ -834,27 +931,32 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	private void retrieveDicomSeriesFromStudyInstanceUid(Patient patient, ConnectorProperty connector,
 			Authentication authentication) {
 		patient.getStudies().forEach(study -> {
+			// Build the series as soon as their attributes are read
+			Set<Serie> series = new LinkedHashSet<>();
+			Consumer<Attributes> addSerie = s -> series.add(new Serie(s.getString(Tag.SeriesInstanceUID),
+					s.getString(Tag.SeriesDescription),
+					s.getString(Tag.SeriesNumber) == null ? null : Integer.parseInt(s.getString(Tag.SeriesNumber)),
+					s.getString(Tag.Modality), s.getDate(Tag.SeriesDate), s.getDate(Tag.SeriesTime),
+					connector.getWeasis().getManifest().getTransferSyntaxUid(),
+					connector.getWeasis().getManifest().getCompressionRate()));
+
+			if (Objects.equals(connector.getType(), ConnectorType.DICOM)) {
+				// Define and process dicom query to retrieve series from study instance uid
+				this.retrieveDicomQueryResults(connector, QueryRetrieveLevel.SERIES,
+						this.defineSeriesDicomParamsFromStudyInstanceUid(study.getStudyInstanceUID()), false)
+					.forEach(addSerie);
+			}
+			else {
+				// Dicom-web query
+				this.streamDicomWebQueryResults(connector.getDicomWebConnector().getWebClientQidoRs(),
+						uriBuilder -> uriBuilder.path(EndPoint.STUDIES_SERIES_PATH)
+							.queryParam(ParamName.INCLUDE_FIELD, ParamName.INCLUDE_FIELD_SERIE_ATTRIBUTES)
+							.build(study.getStudyInstanceUID()),
+						connector.getDicomWebConnector().getQidoRs().getAuthentication(), authentication, addSerie);
+			}
 
-			List<Attributes> seriesAttributes = Objects.equals(connector.getType(), ConnectorType.DICOM) ?
-			// Define and process dicom query to retrieve series from study instance uid
-					this.retrieveDicomQueryResults(connector, QueryRetrieveLevel.SERIES,
-							this.defineSeriesDicomParamsFromStudyInstanceUid(study.getStudyInstanceUID()), false)
-					:
-			// Dicom-web query
-					this.retrieveDicomWebQueryResults(connector.getDicomWebConnector().getWebClientQidoRs(),
-							uriBuilder -> uriBuilder.path(EndPoint.STUDIES_SERIES_PATH)
-								.queryParam(ParamName.INCLUDE_FIELD, ParamName.INCLUDE_FIELD_SERIE_ATTRIBUTES)
-								.build(study.getStudyInstanceUID()),
-							connector.getDicomWebConnector().getQidoRs().getAuthentication(), authentication);
-
-			// Retrieve series from attributes and update study
-			study.setSeries(seriesAttributes.stream()
-				.map(s -> new Serie(s.getString(Tag.SeriesInstanceUID), s.getString(Tag.SeriesDescription),
-						s.getString(Tag.SeriesNumber) == null ? null : Integer.parseInt(s.getString(Tag.SeriesNumber)),
-						s.getString(Tag.Modality), s.getDate(Tag.SeriesDate), s.getDate(Tag.SeriesTime),
-						connector.getWeasis().getManifest().getTransferSyntaxUid(),
-						connector.getWeasis().getManifest().getCompressionRate()))
-				.collect(Collectors.toSet()));
+			// Update study
+			study.setSeries(series);
 		});
 	}
 
@@ -867,29 +969,33 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	private void retrieveDicomSopInstancesFromStudySerieInstanceUids(Patient patient, ConnectorProperty connector,
 			Authentication authentication) {
 		patient.getStudies().forEach(study -> study.getSeries().forEach(serie -> {
-			// Define and process dicom query to retrieve sop instances from serie
-			// instance uid and study instance uid
-			List<Attributes> sopInstancesAttributes = Objects.equals(connector.getType(), ConnectorType.DICOM) ?
-			// Define and process dicom query to retrieve sop instances from serie
-			// instance uid and study instance uid
-					this.retrieveDicomQueryResults(connector, QueryRetrieveLevel.IMAGE,
-							this.defineSopInstanceDicomParamsFromStudySerieInstanceUids(study.getStudyInstanceUID(),
-									serie.getSeriesInstanceUID()),
-							false)
-					:
-			// Dicom-web query
-					this.retrieveDicomWebQueryResults(connector.getDicomWebConnector().getWebClientQidoRs(),
-							uriBuilder -> uriBuilder.path(EndPoint.STUDIES_SERIES_INSTANCES_PATH)
-								.build(study.getStudyInstanceUID(), serie.getSeriesInstanceUID()),
-							connector.getDicomWebConnector().getQidoRs().getAuthentication(), authentication);
-
-			// Retrieve instances from attributes and update serie
-			serie.setInstances(sopInstancesAttributes.stream()
-				.map(s -> new Instance(s.getString(Tag.SOPInstanceUID), s.getString(Tag.SOPClassUID),
-						s.getString(Tag.InstanceNumber) == null ? null
-								: Integer.parseInt(s.getString(Tag.InstanceNumber)),
-						null))
-				.collect(Collectors.toSet()));
+			// Build the instances as soon as their attributes are read
+			Set<Instance> instances = new LinkedHashSet<>();
+			Consumer<Attributes> addInstance = s -> instances.add(new Instance(s.getString(Tag.SOPInstanceUID),
+					s.getString(Tag.SOPClassUID),
+					s.getString(Tag.InstanceNumber) == null ? null : Integer.parseInt(s.getString(Tag.InstanceNumber)),
+					null));
+
+			if (Objects.equals(connector.getType(), ConnectorType.DICOM)) {
+				// Define and process dicom query to retrieve sop instances from serie
+				// instance uid and study instance uid
+				this.retrieveDicomQueryResults(connector, QueryRetrieveLevel.IMAGE,
+						this.defineSopInstanceDicomParamsFromStudySerieInstanceUids(study.getStudyInstanceUID(),
+								serie.getSeriesInstanceUID()),
+						false)
+					.forEach(addInstance);
+			}
+			else {
+				// Dicom-web query
+				this.streamDicomWebQueryResults(connector.getDicomWebConnector().getWebClientQidoRs(),
+						uriBuilder -> uriBuilder.path(EndPoint.STUDIES_SERIES_INSTANCES_PATH)
+							.build(study.getStudyInstanceUID(), serie.getSeriesInstanceUID()),
+						connector.getDicomWebConnector().getQidoRs().getAuthentication(), authentication,
+						addInstance);
+			}
+
+			// Update serie
+			serie.setInstances(instances);
 		}));
 	}
 
@@ -943,9 +1049,11 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 	/**
 	 * Define dicom params with PatientID and IssuerOfPatientID as search criteria
 	 * @param patientId search criteria
+	 * @param studyQueryFilter Filters applied in the study query
 	 * @return List of DicomParam search criteria created
 	 */
-	private List<DicomParam> definePatientStudiesDicomParamsFromPatientId(String patientId) {
+	private List<DicomParam> definePatientStudiesDicomParamsFromPatientId(String patientId,
+			StudyQueryFilter studyQueryFilter) {
 		// Determine dicom params patient id / issuer of patient id depending on the HL7
 		// syntax
 		DicomParam dicomParamPatientID = new DicomParam(Tag.PatientID,
@@ -953,12 +1061,21 @@ public class DicomConnectorQueryServiceImpl implements DicomConnectorQueryServic
 		DicomParam dicomParamIssuerOfPatientID = new DicomParam(Tag.IssuerOfPatientID,
 				ConnectorUtil.determineIssuerPatientIdDependingHl7Syntax(patientId));
 
-		return Arrays.asList(
+		List<DicomParam> dicomParams = new ArrayList<>(List.of(
 				// Matching Keys
 				dicomParamPatientID, dicomParamIssuerOfPatientID,
 				// Return Keys
 				CFind.PatientName, CFind.PatientBirthDate, CFind.PatientSex, CFind.ReferringPhysicianName,
-				CFind.StudyDescription, CFind.StudyDate, CFind.StudyTime, CFind.StudyInstanceUID, CFind.StudyID);
+				CFind.StudyDescription, CFind.StudyTime, CFind.StudyInstanceUID, CFind.StudyID));
+
+		// Matching Keys of the filters pushed down
+		dicomParams.add(studyQueryFilter.studyDateRange() != null
+				? new DicomParam(Tag.StudyDate, studyQueryFilter.studyDateRange()) : CFind.StudyDate);
+		if (!studyQueryFilter.modalitiesInStudy().isEmpty()) {
+			dicomParams.add(new DicomParam(Tag.ModalitiesInStudy,
+					studyQueryFilter.modalitiesInStudy().toArray(String[]::new)));
+		}
+		return dicomParams;
 	}
 
 	/**
@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.viewer.hub.back.controller.exception.ParameterException;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
 import org.viewer.hub.back.enums.ViewerType;
 import org.viewer.hub.back.model.patient.Patient;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
@@ -42,38 +43,53 @@ public class DisplayServiceImpl implements DisplayService {
 
 	private final ConnectorQueryService connectorQueryService;
 
+	private final QueryPlanningService queryPlanningService;
+
 	@Autowired
 	public DisplayServiceImpl(final ViewerSelectionService viewerSelectionService,
 			final WeasisDisplayService weasisDisplayService, final OhifDisplayService ohifDisplayService,
 			final SlicerDisplayService slicerDisplayService, final MicroDicomDisplayService microDicomDisplayService,
-			final ConnectorQueryService connectorQueryService) {
+			final ConnectorQueryService connectorQueryService, final QueryPlanningService queryPlanningService) {
 		this.viewerSelectionService = viewerSelectionService;
 		this.weasisDisplayService = weasisDisplayService;
 		this.ohifDisplayService = ohifDisplayService;
 		this.slicerDisplayService = slicerDisplayService;
 		this.microDicomDisplayService = microDicomDisplayService;
 		this.connectorQueryService = connectorQueryService;
+		this.queryPlanningService = queryPlanningService;
 	}
 
 	@Override
 	public String viewerLaunchUrl(SearchCriteria searchCriteria, Authentication authentication) {
 		Map<String, Set<Patient>> patientsByArchive = null;
+		DicomWebLevelLimitType levelLimit = null;
 		// Specific case for Weasis: if Weasis directly requested as a viewer, determine
 		// patients later in the process in a
 		// separated thread in order to increase launch speed of Weasis
 		if (!Objects.equals(searchCriteria.getViewer(), ViewerType.WEASIS)) {
+			// Retrieve only the levels needed by the viewer
+			levelLimit = this.queryPlanningService.determineQueryLevelLimit(searchCriteria);
+
 			// Retrieve patients map depending on search criteria
 			patientsByArchive = searchCriteria instanceof ArchiveSearchCriteria
 					? this.connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(
-							(ArchiveSearchCriteria) searchCriteria, authentication)
+							(ArchiveSearchCriteria) searchCriteria, levelLimit, authentication)
 					: this.connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(
-							(IHESearchCriteria) searchCriteria, authentication);
+							(IHESearchCriteria) searchCriteria, levelLimit, authentication);
+		}
+
+		// Select viewer
+		ViewerType viewerType = viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(searchCriteria,
+				patientsByArchive);
+
+		// Weasis manifest needs the sop instances: if the patients have been retrieved
+		// without them, Weasis retrieves the patients in its separated thread
+		if (Objects.equals(viewerType, ViewerType.WEASIS) && levelLimit != null) {
+			patientsByArchive = null;
 		}
 
-		// Select viewer and retrieve viewer launch URL
-		return retrieveViewerLaunchUrl(
-				viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(searchCriteria, patientsByArchive),
-				searchCriteria, patientsByArchive, authentication);
+		// Retrieve viewer launch URL
+		return retrieveViewerLaunchUrl(viewerType, searchCriteria, patientsByArchive, authentication);
 	}
 
 	/**
@@ -16,18 +16,35 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.viewer.hub.back.controller.exception.ParameterException;
+import org.viewer.hub.back.entity.GroupClosureEntity;
+import org.viewer.hub.back.entity.GroupClosureEntityPK;
 import org.viewer.hub.back.entity.GroupEntity;
 import org.viewer.hub.back.entity.GroupEntityPK;
 import org.viewer.hub.back.entity.TargetEntity;
+import org.viewer.hub.back.enums.TargetType;
+import org.viewer.hub.back.repository.GroupClosureRepository;
 import org.viewer.hub.back.repository.GroupRepository;
+import org.viewer.hub.back.repository.TargetRepository;
 import org.viewer.hub.back.service.GroupService;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Service managing the groups
+ * Service managing the groups. A group can be a member of another group: the transitive
+ * closure of the groups is updated at each change of the groups, for the members
+ * affected, so that nested groups are resolved with a single query.
  */
 @Service
 @Transactional
@@ -37,9 +54,16 @@ public class GroupServiceImpl implements GroupService {
 	// Repositories
 	private final GroupRepository groupRepository;
 
+	private final GroupClosureRepository groupClosureRepository;
+
+	private final TargetRepository targetRepository;
+
 	@Autowired
-	public GroupServiceImpl(GroupRepository groupRepository) {
+	public GroupServiceImpl(GroupRepository groupRepository, GroupClosureRepository groupClosureRepository,
+			TargetRepository targetRepository) {
 		this.groupRepository = groupRepository;
+		this.groupClosureRepository = groupClosureRepository;
+		this.targetRepository = targetRepository;
 	}
 
 	@Override
@@ -49,6 +73,14 @@ public class GroupServiceImpl implements GroupService {
 		return this.groupRepository.findByGroupEntityPKMemberId(Objects.nonNull(member) ? member.getId() : null);
 	}
 
+	@Override
+	public List<GroupClosureEntity> retrieveEffectiveGroupsByMember(@Valid TargetEntity member) {
+		LOG.debug("retrieveEffectiveGroupsByMember");
+		// Retrieve the groups and the nested groups from DB
+		return this.groupClosureRepository
+			.findByGroupClosureEntityPKDescendantIdOrderByDepthAsc(Objects.nonNull(member) ? member.getId() : null);
+	}
+
 	@Override
 	public List<GroupEntity> retrieveGroupsByGroup(@Valid TargetEntity group) {
 		LOG.debug("retrieveGroupsByGroup");
@@ -61,13 +93,23 @@ public class GroupServiceImpl implements GroupService {
 			@Valid List<TargetEntity> targetEntities) {
 		LOG.debug("createGroupAssociation");
 
+		// A group cannot be a member of itself or of one of its members: would be a cycle
+		if (targetEntities.stream()
+			.anyMatch(t -> Objects.equals(t.getId(), groupEntity.getId()) || this.groupClosureRepository
+				.existsById(new GroupClosureEntityPK(t.getId(), groupEntity.getId())))) {
+			throw new ParameterException(
+					"Associations not created: the group is one of the members or is contained in one of them");
+		}
+
 		// Create the group association
 		List<GroupEntity> groups = targetEntities.stream()
 			.map(t -> this.createGroup(groupEntity, t))
 			.collect(Collectors.toList());
 
 		// Save in database
-		return this.groupRepository.saveAll(groups);
+		List<GroupEntity> groupsSaved = this.groupRepository.saveAll(groups);
+		this.refreshGroupClosure(targetEntities.stream().map(TargetEntity::getId).toList());
+		return groupsSaved;
 	}
 
 	@Override
@@ -89,6 +131,8 @@ public class GroupServiceImpl implements GroupService {
 
 		// Delete associations
 		this.groupRepository.deleteAll(groupAssociationsToDelete);
+		this.refreshGroupClosure(
+				groupAssociationsToDelete.stream().map(g -> g.getGroupEntityPK().getMemberId()).toList());
 	}
 
 	@Override
@@ -100,6 +144,7 @@ public class GroupServiceImpl implements GroupService {
 
 		// Delete associations
 		this.groupRepository.deleteAll(groupAssociationsToDelete);
+		this.refreshGroupClosure(List.of(member.getId()));
 	}
 
 	@Override
@@ -113,6 +158,7 @@ public class GroupServiceImpl implements GroupService {
 
 		// Delete in database
 		this.groupRepository.deleteAll(groupEntities);
+		this.refreshGroupClosure(members.stream().map(TargetEntity::getId).toList());
 	}
 
 	@Override
@@ -126,6 +172,84 @@ public class GroupServiceImpl implements GroupService {
 
 		// Delete in database
 		this.groupRepository.deleteAll(groupEntities);
+		this.refreshGroupClosure(List.of(member.getId()));
+	}
+
+	/**
+	 * Compute again the effective groups of the members whose groups changed, and of their
+	 * own members, and apply the differences to the table group_closure. The other rows
+	 * of the closure are not affected by the change.
+	 * <p>
+	 * The refreshes are serialised by locking the default target until the end of the
+	 * transaction, so that two concurrent changes do not insert the same rows.
+	 * @param memberIds Ids of the members whose groups changed
+	 */
+	private void refreshGroupClosure(Collection<Long> memberIds) {
+		if (this.targetRepository.findLockedByNameAndType(TargetType.DEFAULT.getCode(), TargetType.DEFAULT)
+			.isEmpty()) {
+			LOG.warn("Default target not found: group closure refreshed without lock");
+		}
+
+		// Members affected: the members changed and the members of their nested groups
+		Set<Long> descendantIds = new LinkedHashSet<>(memberIds);
+		memberIds.forEach(memberId -> this.groupClosureRepository.findByGroupClosureEntityPKAncestorId(memberId)
+			.forEach(groupClosure -> descendantIds.add(groupClosure.getGroupClosureEntityPK().getDescendantId())));
+
+		// Direct groups by member id, read once per member
+		Map<Long, List<Long>> groupIdsByMemberId = new HashMap<>();
+		Function<Long, List<Long>> groupIdsOfMember = memberId -> groupIdsByMemberId.computeIfAbsent(memberId,
+				id -> this.groupRepository.findByGroupEntityPKMemberId(id)
+					.stream()
+					.map(g -> g.getGroupEntityPK().getGroupId())
+					.toList());
+
+		// Entries no longer valid are deleted, depths changed are updated, others are new
+		List<GroupClosureEntity> groupClosuresToDelete = new ArrayList<>();
+		List<GroupClosureEntity> groupClosuresToCreate = new ArrayList<>();
+		descendantIds.forEach(descendantId -> {
+			Map<Long, Integer> depthByGroupId = computeEffectiveGroups(descendantId, groupIdsOfMember);
+			this.groupClosureRepository.findByGroupClosureEntityPKDescendantIdOrderByDepthAsc(descendantId)
+				.forEach(existing -> {
+					Integer depth = depthByGroupId.remove(existing.getGroupClosureEntityPK().getAncestorId());
+					if (depth == null) {
+						groupClosuresToDelete.add(existing);
+					}
+					else if (depth != existing.getDepth()) {
+						existing.setDepth(depth);
+					}
+				});
+			depthByGroupId.forEach((groupId, depth) -> groupClosuresToCreate
+				.add(new GroupClosureEntity(groupId, descendantId, depth)));
+		});
+		this.groupClosureRepository.deleteAll(groupClosuresToDelete);
+		this.groupClosureRepository.saveAll(groupClosuresToCreate);
+		LOG.debug("Group closure of {} members refreshed: {} entries deleted, {} entries created",
+				descendantIds.size(), groupClosuresToDelete.size(), groupClosuresToCreate.size());
+	}
+
+	/**
+	 * Compute the effective groups of a member: the groups reached by following the groups
+	 * of its groups, with the shortest number of levels. Cycles in the groups are ignored.
+	 * @param memberId Id of the member
+	 * @param groupIdsOfMember Direct groups of a member
+	 * @return depth by group id
+	 */
+	static Map<Long, Integer> computeEffectiveGroups(Long memberId, Function<Long, List<Long>> groupIdsOfMember) {
+		// Breadth first walk: the first time a group is reached gives its depth
+		Map<Long, Integer> depthByGroupId = new HashMap<>();
+		Deque<Long> toVisit = new ArrayDeque<>(List.of(memberId));
+		int depth = 0;
+		while (!toVisit.isEmpty()) {
+			depth++;
+			for (int i = toVisit.size(); i > 0; i--) {
+				for (Long groupId : groupIdsOfMember.apply(toVisit.poll())) {
+					if (!Objects.equals(groupId, memberId) && depthByGroupId.putIfAbsent(groupId, depth) == null) {
+						toVisit.add(groupId);
+					}
+				}
+			}
+		}
+		return depthByGroupId;
 	}
 
 }
@@ -20,6 +20,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.viewer.hub.back.config.s3.S3UploadOutputStream;
 import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.entity.I18nEntity;
 import org.viewer.hub.back.repository.I18nRepository;
@@ -33,7 +34,6 @@ import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -99,8 +99,7 @@ public class I18nServiceImpl implements I18nService {
 			Path outDir = Paths.get(this.viewerHubResourcesPackagesWeasisI18nPath).resolve(version).resolve(buildId);
 
 			// Upload files in S3
-			List<CompletableFuture<PutObjectResponse>> completableFutures = this.extractI18nFilesToUploadInS3(fileData,
-					outDir);
+			List<CompletableFuture<Void>> completableFutures = this.extractI18nFilesToUploadInS3(fileData, outDir);
 
 			CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[0]))
 				// Atomic publish: only once every file of the build is durably written,
@@ -254,51 +253,39 @@ public class I18nServiceImpl implements I18nService {
 	}
 
 	/**
-	 * Upload i18n files in folders
+	 * Upload i18n files in folders: each file is streamed in S3 part by part, text files
+	 * with their gzip variant
 	 * @param fileData Files
 	 * @param outDir Output directory
 	 */
-	private List<CompletableFuture<PutObjectResponse>> extractI18nFilesToUploadInS3(InputStream fileData, Path outDir) {
-		List<CompletableFuture<PutObjectResponse>> futures = new ArrayList<>();
+	private List<CompletableFuture<Void>> extractI18nFilesToUploadInS3(InputStream fileData, Path outDir) {
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		S3UploadOutputStream fileUpload = null;
 		try (ZipInputStream zis = new ZipInputStream(fileData)) {
 			ZipEntry ze;
 			while ((ze = zis.getNextEntry()) != null) {
 				Path filePath = outDir.resolve(ze.getName());
 				if (!ze.isDirectory()) {
 					// Copy file from zip to S3
-					CompletableFuture<PutObjectResponse> completableFuture = this.extractZippedFileToS3(zis, filePath);
-					if (completableFuture != null) {
-						// add in list to wait all the futures to be processed
-						futures.add(completableFuture);
-					}
+					fileUpload = this.s3Service.openUploadStreamWithGzipVariantInS3(filePath.toString());
+					zis.transferTo(fileUpload);
+					fileUpload.close();
+					// add in list to wait all the futures to be processed
+					futures.add(fileUpload.getCompletion());
+					fileUpload = null;
 				}
 			}
 			return futures;
 		}
 		catch (IOException e) {
+			// Nothing is published: discard the upload in progress
+			if (fileUpload != null) {
+				fileUpload.abort();
+			}
 			throw new TechnicalException("Issue when uploading i18n version:%s".formatted(e.getMessage()));
 		}
 	}
 
-	/**
-	 * Copy file from zip to S3
-	 * @param zis ZipInputStream
-	 * @param path Path
-	 * @return
-	 */
-	private CompletableFuture<PutObjectResponse> extractZippedFileToS3(ZipInputStream zis, Path path) {
-		try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-			// Extract zip file
-			zis.transferTo(baos);
-
-			// Upload object in S3
-			return this.s3Service.uploadObjectInS3(new ByteArrayInputStream(baos.toByteArray()), path.toString());
-		}
-		catch (IOException e) {
-			throw new TechnicalException("Issue when extracting zip file:%s".formatted(e.getMessage()));
-		}
-	}
-
 	/**
 	 * Delete i18n version in db
 	 * @param i18nEntity I18nEntity to evaluate
@@ -0,0 +1,226 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.viewer.hub.back.constant.CacheName;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationChangedEvent;
+import org.viewer.hub.back.model.launch.LaunchConfigurationSnapshot;
+import org.viewer.hub.back.repository.GroupClosureRepository;
+import org.viewer.hub.back.repository.I18nRepository;
+import org.viewer.hub.back.repository.LaunchConfigRepository;
+import org.viewer.hub.back.repository.LaunchPreferredRepository;
+import org.viewer.hub.back.repository.LaunchRepository;
+import org.viewer.hub.back.repository.OverrideConfigRepository;
+import org.viewer.hub.back.repository.TargetRepository;
+import org.viewer.hub.back.service.LaunchConfigurationSnapshotService;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Service keeping in memory the snapshot used to resolve the launch configuration of
+ * Weasis: the snapshot is built again on the first read following a change of the
+ * targets, groups, launches, launch configs, override configs or i18n versions. Changes
+ * are detected by an entity listener and published on a redis channel so that every
+ * instance invalidates its own snapshot. As a notification can be lost (redis not
+ * reachable, subscriber disconnected), the data is also read again once the version has
+ * been served for longer than a maximum age.
+ */
+@Service
+@Slf4j
+public class LaunchConfigurationSnapshotServiceImpl implements LaunchConfigurationSnapshotService {
+
+	// Maximum duration a version of the data is served without being read again
+	private static final Duration CHANGE_VERSION_MAXIMUM_AGE = Duration.ofMinutes(5);
+
+	// Id of this instance in the notifications sent
+	private final String instanceId = UUID.randomUUID().toString();
+
+	// Version of the data, incremented at each change
+	private final AtomicLong changeVersion = new AtomicLong();
+
+	// Nano time of the last increment of the version
+	private volatile long changeVersionTime;
+
+	// Current time in nanoseconds
+	private final LongSupplier nanoTime;
+
+	// Lock preventing concurrent builds of the snapshot
+	private final Object buildLock = new Object();
+
+	// Snapshot built, null until the first read
+	private volatile LaunchConfigurationSnapshot snapshot;
+
+	// Repositories
+	private final TargetRepository targetRepository;
+
+	private final GroupClosureRepository groupClosureRepository;
+
+	private final LaunchConfigRepository launchConfigRepository;
+
+	private final LaunchPreferredRepository launchPreferredRepository;
+
+	private final LaunchRepository launchRepository;
+
+	private final OverrideConfigRepository overrideConfigRepository;
+
+	private final I18nRepository i18nRepository;
+
+	private final StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * Autowired constructor
+	 * @param targetRepository Target repository
+	 * @param groupClosureRepository Group closure repository
+	 * @param launchConfigRepository Launch config repository
+	 * @param launchPreferredRepository Launch preferred repository
+	 * @param launchRepository Launch repository
+	 * @param overrideConfigRepository Override config repository
+	 * @param i18nRepository I18n repository
+	 * @param stringRedisTemplate Redis template used to publish the notifications
+	 */
+	@Autowired
+	public LaunchConfigurationSnapshotServiceImpl(final TargetRepository targetRepository,
+			final GroupClosureRepository groupClosureRepository, final LaunchConfigRepository launchConfigRepository,
+			final LaunchPreferredRepository launchPreferredRepository, final LaunchRepository launchRepository,
+			final OverrideConfigRepository overrideConfigRepository, final I18nRepository i18nRepository,
+			final StringRedisTemplate stringRedisTemplate) {
+		this(targetRepository, groupClosureRepository, launchConfigRepository, launchPreferredRepository,
+				launchRepository, overrideConfigRepository, i18nRepository, stringRedisTemplate, System::nanoTime);
+	}
+
+	/**
+	 * Constructor
+	 * @param targetRepository Target repository
+	 * @param groupClosureRepository Group closure repository
+	 * @param launchConfigRepository Launch config repository
+	 * @param launchPreferredRepository Launch preferred repository
+	 * @param launchRepository Launch repository
+	 * @param overrideConfigRepository Override config repository
+	 * @param i18nRepository I18n repository
+	 * @param stringRedisTemplate Redis template used to publish the notifications
+	 * @param nanoTime Current time in nanoseconds
+	 */
+	LaunchConfigurationSnapshotServiceImpl(TargetRepository targetRepository,
+			GroupClosureRepository groupClosureRepository, LaunchConfigRepository launchConfigRepository,
+			LaunchPreferredRepository launchPreferredRepository, LaunchRepository launchRepository,
+			OverrideConfigRepository overrideConfigRepository, I18nRepository i18nRepository,
+			StringRedisTemplate stringRedisTemplate, LongSupplier nanoTime) {
+		this.nanoTime = nanoTime;
+		this.changeVersionTime = nanoTime.getAsLong();
+		this.targetRepository = targetRepository;
+		this.groupClosureRepository = groupClosureRepository;
+		this.launchConfigRepository = launchConfigRepository;
+		this.launchPreferredRepository = launchPreferredRepository;
+		this.launchRepository = launchRepository;
+		this.overrideConfigRepository = overrideConfigRepository;
+		this.i18nRepository = i18nRepository;
+		this.stringRedisTemplate = stringRedisTemplate;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public LaunchConfigurationSnapshot retrieveSnapshot() {
+		LaunchConfigurationSnapshot current = this.snapshot;
+		if (current != null && current.getVersion() == this.retrieveChangeVersion()) {
+			return current;
+		}
+		synchronized (this.buildLock) {
+			// Version read before the build: a change during the build triggers a new one
+			long version = this.retrieveChangeVersion();
+			current = this.snapshot;
+			if (current == null || current.getVersion() != version) {
+				current = this.buildSnapshot(version);
+				this.snapshot = current;
+			}
+			return current;
+		}
+	}
+
+	@Override
+	public long retrieveChangeVersion() {
+		long version = this.changeVersion.get();
+		// Changes notified by the other instances may have been lost: renew the version
+		// once it has been served for too long so that the data is read again
+		if (this.nanoTime.getAsLong() - this.changeVersionTime > CHANGE_VERSION_MAXIMUM_AGE.toNanos()
+				&& this.changeVersion.compareAndSet(version, version + 1)) {
+			this.changeVersionTime = this.nanoTime.getAsLong();
+			LOG.debug("Launch configuration version {} older than {}: renewed", version, CHANGE_VERSION_MAXIMUM_AGE);
+		}
+		return this.changeVersion.get();
+	}
+
+	/**
+	 * Invalidate the snapshot when the launch configuration has changed: the event is
+	 * published once the transaction having changed it is committed
+	 * @param event Event describing the change
+	 */
+	@EventListener
+	public void onLaunchConfigurationChanged(LaunchConfigurationChangedEvent event) {
+		LOG.debug("Launch configuration changed by entities {}", event.entityNames());
+		this.notifyLaunchConfigurationChanged();
+	}
+
+	@Override
+	public void notifyLaunchConfigurationChanged() {
+		this.incrementChangeVersion();
+		try {
+			this.stringRedisTemplate.convertAndSend(CacheName.LAUNCH_CONFIGURATION_CHANGED_CHANNEL, this.instanceId);
+		}
+		catch (RuntimeException e) {
+			// Other instances keep their snapshot until their next change or until the
+			// maximum age of their version
+			LOG.warn("Not able to publish the change of the launch configuration: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void invalidateSnapshot(String instanceId) {
+		if (!Objects.equals(this.instanceId, instanceId)) {
+			this.incrementChangeVersion();
+		}
+	}
+
+	/**
+	 * Increment the version of the data following a change
+	 */
+	private void incrementChangeVersion() {
+		this.changeVersion.incrementAndGet();
+		this.changeVersionTime = this.nanoTime.getAsLong();
+	}
+
+	/**
+	 * Build the snapshot from the database
+	 * @param version Version of the data
+	 * @return snapshot built
+	 */
+	private LaunchConfigurationSnapshot buildSnapshot(long version) {
+		long start = System.currentTimeMillis();
+		LaunchConfigurationSnapshot built = LaunchConfigurationSnapshot.of(version, this.targetRepository.findAll(),
+				this.groupClosureRepository.findAll(), this.launchConfigRepository.findAll(),
+				this.launchPreferredRepository.findAll(), this.launchRepository.findAll(),
+				this.overrideConfigRepository.findAllIds(), this.i18nRepository.findAll());
+		LOG.info("Launch configuration snapshot version {} built in {} ms", version,
+				System.currentTimeMillis() - start);
+		return built;
+	}
+
+}
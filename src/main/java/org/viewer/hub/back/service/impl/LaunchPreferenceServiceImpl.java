@@ -24,7 +24,7 @@ import org.viewer.hub.back.controller.exception.ConstraintException;
 import org.viewer.hub.back.controller.exception.ParameterException;
 import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.controller.exception.WeasisException;
-import org.viewer.hub.back.entity.GroupEntity;
+import org.viewer.hub.back.entity.GroupClosureEntity;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.LaunchEntity;
 import org.viewer.hub.back.entity.LaunchEntityPK;
@@ -37,6 +37,7 @@ import org.viewer.hub.back.enums.LaunchConfigType;
 import org.viewer.hub.back.enums.PreferredType;
 import org.viewer.hub.back.enums.TargetType;
 import org.viewer.hub.back.enums.WeasisLevelMessageType;
+import org.viewer.hub.back.model.launch.LaunchConfigurationSnapshot;
 import org.viewer.hub.back.model.weasis.WeasisMessage;
 import org.viewer.hub.back.repository.LaunchConfigRepository;
 import org.viewer.hub.back.repository.LaunchPreferredRepository;
@@ -44,9 +45,8 @@ import org.viewer.hub.back.repository.LaunchRepository;
 import org.viewer.hub.back.repository.TargetRepository;
 import org.viewer.hub.back.repository.specification.LaunchByTargetConfigPreferredSpecification;
 import org.viewer.hub.back.service.GroupService;
-import org.viewer.hub.back.service.I18nService;
+import org.viewer.hub.back.service.LaunchConfigurationSnapshotService;
 import org.viewer.hub.back.service.LaunchPreferenceService;
-import org.viewer.hub.back.service.OverrideConfigService;
 import org.viewer.hub.back.service.PackageService;
 import org.viewer.hub.back.util.JacksonUtil;
 import org.viewer.hub.back.util.MultiValueMapUtil;
@@ -83,14 +83,12 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 
 	private final TargetRepository targetRepository;
 
-	private final OverrideConfigService overrideConfigService;
-
 	// Services
 	private final GroupService groupService;
 
 	private final PackageService packageService;
 
-	private final I18nService i18nService;
+	private final LaunchConfigurationSnapshotService launchConfigurationSnapshotService;
 
 	/**
 	 * Autowired constructor with parameters
@@ -98,21 +96,24 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 	 * @param launchConfigRepository LaunchConfig Repository
 	 * @param launchPreferredRepository LaunchPreferred Repository
 	 * @param targetRepository Target Repository
+	 * @param groupService Group Service
+	 * @param packageService Package Service
+	 * @param launchConfigurationSnapshotService Service providing the snapshot of the
+	 * launch configuration
 	 */
 	@Autowired
 	public LaunchPreferenceServiceImpl(final LaunchRepository launchRepository,
 			final LaunchConfigRepository launchConfigRepository,
 			final LaunchPreferredRepository launchPreferredRepository, final TargetRepository targetRepository,
 			final GroupService groupService, final PackageService packageService,
-			final OverrideConfigService overrideConfigService, final I18nService i18nService) {
+			final LaunchConfigurationSnapshotService launchConfigurationSnapshotService) {
 		this.launchRepository = launchRepository;
 		this.launchConfigRepository = launchConfigRepository;
 		this.launchPreferredRepository = launchPreferredRepository;
 		this.targetRepository = targetRepository;
 		this.groupService = groupService;
 		this.packageService = packageService;
-		this.overrideConfigService = overrideConfigService;
-		this.i18nService = i18nService;
+		this.launchConfigurationSnapshotService = launchConfigurationSnapshotService;
 	}
 
 	@Override
@@ -135,10 +136,16 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 	@Override
 	public MultiValueMap<String, String> buildLaunchConfiguration(MultiValueMap<String, String> launchPropertiesMap,
 			String user, String host, String config, String version) {
+		// Launch configuration resolved in memory, without database access
+		LaunchConfigurationSnapshot snapshot = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Retrieve targets to look for: current target + groups of the target
+		List<TargetEntity> targetsToLookFor = this.retrieveTargetsToLookFor(snapshot, host, user);
 
-		// Retrieve Launches in DB and sort them by order of targets
-		List<LaunchEntity> launchesSorted = this.retrieveLaunchesByHostUserConfigPreferedTypeOrderByTargets(host, user,
-				config, null);
+		// Retrieve Launches and sort them by order of targets
+		List<LaunchEntity> launchesSorted = snapshot.retrieveLaunches(targetsToLookFor,
+				snapshot.retrieveLaunchConfig(config));
+		launchesSorted.sort(new LaunchByTargetOrderComparator());
 
 		// Filter to have only one unique prefered name
 		List<LaunchEntity> launchesSortedAndFiltered =
@@ -156,7 +163,8 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 
 		// Determine the url which will be used to retrieve the configuration properties
 		// for the package version/ launch config/group of the user/host requested
-		this.determineConfigurationPropertiesUrl(user, host, config, launchProperties, packageVersionToUse);
+		this.determineConfigurationPropertiesUrl(snapshot, targetsToLookFor, config, launchProperties,
+				packageVersionToUse);
 
 		return launchProperties;
 	}
@@ -164,40 +172,40 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 	/**
 	 * Determine the url which will be used to retrieve the configuration properties for
 	 * the package version/ launch config/group of the user/host requested
-	 * @param user User
-	 * @param host Host
+	 * @param snapshot Snapshot of the launch configuration
+	 * @param targetsToLookFor Targets of the user/host and their groups
 	 * @param config Config
 	 * @param launchProperties Launch properties
 	 * @param packageVersionToUse Package version
 	 */
-	private void determineConfigurationPropertiesUrl(String user, String host, String config,
-			MultiValueMap<String, String> launchProperties, PackageVersionEntity packageVersionToUse) {
+	private void determineConfigurationPropertiesUrl(LaunchConfigurationSnapshot snapshot,
+			List<TargetEntity> targetsToLookFor, String config, MultiValueMap<String, String> launchProperties,
+			PackageVersionEntity packageVersionToUse) {
 		// Get the config corresponding to the name requested
-		LaunchConfigEntity launchConfigEntity = this.launchConfigRepository.findOptionalByNameIgnoreCase(config)
-			.orElse(null);
+		LaunchConfigEntity launchConfigEntity = snapshot.retrieveLaunchConfigIgnoreCase(config);
 
 		// Retrieve the groups of the host/user and sort them by priority
-		List<TargetEntity> targetsToLookFor = new ArrayList<>(this.retrieveTargetsToLookFor(host, user)
-			.stream()
+		List<TargetEntity> groups = new ArrayList<>(targetsToLookFor.stream()
 			.filter(g -> Objects.equals(g.getType(), TargetType.USER_GROUP)
 					|| Objects.equals(g.getType(), TargetType.HOST_GROUP))
 			.toList());
-		targetsToLookFor.sort(new TargetOrderComparator());
+		groups.sort(new TargetOrderComparator());
 
 		// Set in the variables of freemarker
-		this.fillFreeMarkerMapForLaunchPackageGroupToUse(packageVersionToUse, launchConfigEntity, targetsToLookFor,
+		this.fillFreeMarkerMapForLaunchPackageGroupToUse(snapshot, packageVersionToUse, launchConfigEntity, groups,
 				launchProperties);
 	}
 
 	/**
 	 * Fill in the MultiValueMap the package version, group and launch config id in order
 	 * to use them in the freemarker template
+	 * @param snapshot Snapshot of the launch configuration
 	 * @param packageVersion Package version to evaluate
 	 * @param launchConfig Launch config to evaluate
 	 * @param groups Groups of the user/host
 	 */
-	public void fillFreeMarkerMapForLaunchPackageGroupToUse(PackageVersionEntity packageVersion,
-			LaunchConfigEntity launchConfig, List<TargetEntity> groups,
+	public void fillFreeMarkerMapForLaunchPackageGroupToUse(LaunchConfigurationSnapshot snapshot,
+			PackageVersionEntity packageVersion, LaunchConfigEntity launchConfig, List<TargetEntity> groups,
 			MultiValueMap<String, String> launchProperties) {
 		// Package version never null otherwise should have thrown an exception before:
 		// set directly the package version
@@ -213,7 +221,7 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 		String i18nVersion = packageVersion.getI18nVersion();
 		String i18nSegment = i18nVersion;
 		if (i18nVersion != null && !i18nVersion.isBlank()) {
-			String i18nBuildId = this.i18nService.retrieveI18nBuildId(i18nVersion);
+			String i18nBuildId = snapshot.retrieveI18nBuildId(i18nVersion);
 			if (i18nBuildId != null && !i18nBuildId.isBlank()) {
 				i18nSegment = i18nVersion + "/" + i18nBuildId;
 			}
@@ -221,20 +229,19 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 		launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_I18N_VERSION, i18nSegment);
 
 		if (launchConfig == null) {
-			this.fillFreeMarkerPropertiesDefaultLaunchConfig(launchProperties);
-			this.fillFreeMarkerPropertiesDefaultTarget(launchProperties);
+			this.fillFreeMarkerPropertiesDefaultLaunchConfig(snapshot, launchProperties);
+			this.fillFreeMarkerPropertiesDefaultTarget(snapshot, launchProperties);
 		}
 		else if (groups.isEmpty()) {
 			launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_LAUNCH_CONFIG_ID, launchConfig.getId().toString());
 			launchProperties.add(PackageUtil.PROPERTIES_LAUNCH_CONFIG_NAME, launchConfig.getName());
-			this.fillFreeMarkerPropertiesDefaultTarget(launchProperties);
+			this.fillFreeMarkerPropertiesDefaultTarget(snapshot, launchProperties);
 		}
 		else {
 			TargetEntity groupToUse = groups.stream()
-				.filter(group -> this.overrideConfigService.existOverrideConfigWithVersionConfigTarget(packageVersion,
-						launchConfig, group))
+				.filter(group -> snapshot.existOverrideConfig(packageVersion, launchConfig, group))
 				.findFirst()
-				.orElse(this.retrieveDefaultTarget());
+				.orElseGet(() -> this.retrieveDefaultTarget(snapshot));
 			launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_LAUNCH_CONFIG_ID, launchConfig.getId().toString());
 			launchProperties.add(PackageUtil.PROPERTIES_LAUNCH_CONFIG_NAME, launchConfig.getName());
 			launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_GROUP_ID, groupToUse.getId().toString());
@@ -242,10 +249,10 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 		}
 	}
 
-	private void fillFreeMarkerPropertiesDefaultLaunchConfig(MultiValueMap<String, String> launchProperties) {
-		LaunchConfigEntity defaultLaunchConfigEntity = this.launchConfigRepository
-			.findOptionalByNameIgnoreCase(LaunchConfigType.DEFAULT.getCode())
-			.orElse(null);
+	private void fillFreeMarkerPropertiesDefaultLaunchConfig(LaunchConfigurationSnapshot snapshot,
+			MultiValueMap<String, String> launchProperties) {
+		LaunchConfigEntity defaultLaunchConfigEntity = snapshot
+			.retrieveLaunchConfigIgnoreCase(LaunchConfigType.DEFAULT.getCode());
 		if (defaultLaunchConfigEntity != null) {
 			launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_LAUNCH_CONFIG_ID,
 					defaultLaunchConfigEntity.getId().toString());
@@ -256,16 +263,15 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 		}
 	}
 
-	private void fillFreeMarkerPropertiesDefaultTarget(MultiValueMap<String, String> launchProperties) {
-		launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_GROUP_ID,
-				this.retrieveDefaultTarget().getId().toString());
-		launchProperties.add(PackageUtil.PROPERTIES_GROUP_NAME, this.retrieveDefaultTarget().getName());
+	private void fillFreeMarkerPropertiesDefaultTarget(LaunchConfigurationSnapshot snapshot,
+			MultiValueMap<String, String> launchProperties) {
+		TargetEntity defaultTargetEntity = this.retrieveDefaultTarget(snapshot);
+		launchProperties.add(PackageUtil.FREEMARKER_PROPERTIES_GROUP_ID, defaultTargetEntity.getId().toString());
+		launchProperties.add(PackageUtil.PROPERTIES_GROUP_NAME, defaultTargetEntity.getName());
 	}
 
-	private TargetEntity retrieveDefaultTarget() {
-		TargetEntity defaultTargetEntity = this.targetRepository
-			.findOptionalByNameIgnoreCase(TargetType.DEFAULT.getCode())
-			.orElse(null);
+	private TargetEntity retrieveDefaultTarget(LaunchConfigurationSnapshot snapshot) {
+		TargetEntity defaultTargetEntity = snapshot.retrieveTarget(TargetType.DEFAULT.getCode());
 		if (defaultTargetEntity == null) {
 			throw new TechnicalException("Default target not configured in database");
 		}
@@ -326,6 +332,43 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 		return targetsToLookFor;
 	}
 
+	/**
+	 * Retrieve targets to look for (targets of the host/user + groups of the targets)
+	 * from the snapshot of the launch configuration
+	 * @param snapshot Snapshot of the launch configuration
+	 * @param host Host
+	 * @param user User
+	 * @return targets to look for
+	 */
+	private List<TargetEntity> retrieveTargetsToLookFor(LaunchConfigurationSnapshot snapshot, String host,
+			String user) {
+		List<TargetEntity> targetsToLookFor = new ArrayList<>();
+		if (host != null && !host.isEmpty()) {
+			this.fillTargetsToLookFor(snapshot, host, TargetType.HOST, targetsToLookFor);
+		}
+		if (user != null && !user.isEmpty()) {
+			this.fillTargetsToLookFor(snapshot, user, TargetType.USER, targetsToLookFor);
+		}
+		return targetsToLookFor;
+	}
+
+	/**
+	 * Add the target corresponding to the name and type and its groups to the targets to
+	 * look for
+	 * @param snapshot Snapshot of the launch configuration
+	 * @param targetName Name of the target
+	 * @param targetType Target Type
+	 * @param targetsToLookFor List of targets to fill
+	 */
+	private void fillTargetsToLookFor(LaunchConfigurationSnapshot snapshot, String targetName,
+			TargetType targetType, List<TargetEntity> targetsToLookFor) {
+		TargetEntity target = snapshot.retrieveTarget(targetName, targetType);
+		if (target != null) {
+			targetsToLookFor.add(target);
+			targetsToLookFor.addAll(snapshot.retrieveGroups(target));
+		}
+	}
+
 	@Override
 	public void fillAssociatedEntitiesLaunches(@Valid List<TargetEntity> targets,
 			@Valid List<LaunchPreferredEntity> launchPrefered, @Valid List<LaunchConfigEntity> launchConfigs,
@@ -478,8 +521,8 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 	}
 
 	/**
-	 * Retrieve targets to look for (target + groups of the target) depending on the name
-	 * target in parameter
+	 * Retrieve targets to look for (target + groups of the target, direct or nested)
+	 * depending on the name target in parameter
 	 * @param targetName Name of the target
 	 * @param targetType Target Type
 	 * @param targetsToLookFor List of targets to fill
@@ -492,10 +535,10 @@ public class LaunchPreferenceServiceImpl implements LaunchPreferenceService {
 			// Add the target to look for
 			targetsToLookFor.add(target);
 
-			List<GroupEntity> groups = this.groupService.retrieveGroupsByMember(target);
+			List<GroupClosureEntity> groups = this.groupService.retrieveEffectiveGroupsByMember(target);
 			if (!groups.isEmpty()) {
 				List<TargetEntity> groupsTargets = groups.stream()
-					.map(g -> this.targetRepository.findById(g.getGroupEntityPK().getGroupId()))
+					.map(g -> this.targetRepository.findById(g.getGroupClosureEntityPK().getAncestorId()))
 					.filter(Optional::isPresent)
 					.map(Optional::get)
 					.toList();
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.viewer.hub.back.constant.CacheName;
+import org.viewer.hub.back.model.manifest.Manifest;
+import org.viewer.hub.back.service.CacheService;
+import org.viewer.hub.back.service.ManifestReadinessService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service notifying the clients waiting for a manifest when its build is over: waiting
+ * clients are registered as futures on this instance, the end of a build is published on
+ * a redis channel so that every instance completes its own futures
+ */
+@Service
+@Slf4j
+public class ManifestReadinessServiceImpl implements ManifestReadinessService {
+
+	// Services
+	private final CacheService cacheService;
+
+	private final StringRedisTemplate stringRedisTemplate;
+
+	// Futures waiting for a manifest by manifest key
+	private final Map<String, Set<CompletableFuture<Manifest>>> manifestWaiters = new ConcurrentHashMap<>();
+
+	/**
+	 * Autowired constructor
+	 * @param cacheService Cache service
+	 * @param stringRedisTemplate Redis template used to publish the notifications
+	 */
+	@Autowired
+	public ManifestReadinessServiceImpl(final CacheService cacheService,
+			final StringRedisTemplate stringRedisTemplate) {
+		this.cacheService = cacheService;
+		this.stringRedisTemplate = stringRedisTemplate;
+	}
+
+	@Override
+	public CompletableFuture<Manifest> awaitManifest(String key, Duration timeout) {
+		CompletableFuture<Manifest> waiter = new CompletableFuture<>();
+		this.manifestWaiters.compute(key, (k, waiters) -> {
+			Set<CompletableFuture<Manifest>> keyWaiters = waiters != null ? waiters : ConcurrentHashMap.newKeySet();
+			keyWaiters.add(waiter);
+			return keyWaiters;
+		});
+		waiter.whenComplete((manifest, e) -> this.removeManifestWaiter(key, waiter));
+
+		// Check the cache once registered so a notification sent in between is not missed
+		Manifest manifest = this.cacheService.getManifest(key);
+		// No wait when the manifest has been evicted from cache after ttl (= manifest is
+		// null), unless its build has been launched but not yet initialized
+		boolean buildInProgress = manifest != null ? manifest.isBuildInProgress()
+				: this.cacheService.isManifestBuildLocked(key);
+		if (!buildInProgress) {
+			waiter.complete(manifest);
+		}
+		return waiter.completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void notifyManifestReady(String key) {
+		try {
+			this.stringRedisTemplate.convertAndSend(CacheName.MANIFEST_READY_CHANNEL, key);
+		}
+		catch (RuntimeException e) {
+			// Waiters of other instances will stop at their timeout
+			LOG.warn("Not able to publish the end of the build of the manifest with key {}: {}", key,
+					e.getMessage());
+		}
+		// Do not wait for the redis message to complete the waiters of this instance
+		this.completeManifestWaiters(key);
+	}
+
+	@Override
+	public void completeManifestWaiters(String key) {
+		Set<CompletableFuture<Manifest>> waiters = this.manifestWaiters.remove(key);
+		if (waiters != null && !waiters.isEmpty()) {
+			Manifest manifest = this.cacheService.getManifest(key);
+			waiters.forEach(waiter -> waiter.complete(manifest));
+		}
+	}
+
+	/**
+	 * Remove a future completed from the futures waiting for the manifest
+	 * @param key Key of the manifest
+	 * @param waiter Future to remove
+	 */
+	private void removeManifestWaiter(String key, CompletableFuture<Manifest> waiter) {
+		this.manifestWaiters.computeIfPresent(key, (k, waiters) -> {
+			waiters.remove(waiter);
+			return waiters.isEmpty() ? null : waiters;
+		});
+	}
+
+}
@@ -23,12 +23,14 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.viewer.hub.back.config.properties.EnvironmentOverrideProperties;
+import org.viewer.hub.back.config.s3.S3UploadOutputStream;
 import org.viewer.hub.back.constant.PropertiesFileName;
 import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntityPK;
 import org.viewer.hub.back.entity.PackageVersionEntity;
+import org.viewer.hub.back.entity.S3InventoryEntity;
 import org.viewer.hub.back.entity.TargetEntity;
 import org.viewer.hub.back.entity.WeasisPropertyEntity;
 import org.viewer.hub.back.enums.LaunchConfigType;
@@ -37,11 +39,13 @@ import org.viewer.hub.back.enums.WeasisProperties;
 import org.viewer.hub.back.model.version.MinimalReleaseVersion;
 import org.viewer.hub.back.repository.LaunchConfigRepository;
 import org.viewer.hub.back.repository.PackageVersionRepository;
+import org.viewer.hub.back.repository.S3InventoryRepository;
 import org.viewer.hub.back.service.CacheService;
 import org.viewer.hub.back.service.OverrideConfigService;
 import org.viewer.hub.back.service.PackageService;
 import org.viewer.hub.back.service.S3Service;
 import org.viewer.hub.back.service.TargetService;
+import org.viewer.hub.back.util.JacksonMappers;
 import org.viewer.hub.back.util.JacksonUtil;
 import org.viewer.hub.back.util.PackageUtil;
 import org.viewer.hub.back.util.PathUrlUtil;
@@ -52,29 +56,31 @@ import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
 import tools.jackson.core.JacksonException;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.PropertyNamingStrategies;
-import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -99,6 +105,12 @@ public class PackageServiceImpl implements PackageService {
 
 	public static final String STARTING_VERSION_TO_USE_JSON_PARSING = "4.2.0";
 
+	// Size of the buffer used to copy the files of the zip to S3
+	private static final int COPY_BUFFER_SIZE = 8192;
+
+	// Prefix of the local files of the jars uploaded as content-addressed blobs
+	private static final String BLOB_FILE_PREFIX = "viewer-hub-blob-";
+
 	@Value("${weasis.package.version.default.number}")
 	private String defaultPackageVersionNumber;
 
@@ -111,6 +123,9 @@ public class PackageServiceImpl implements PackageService {
 	@Value("${viewer-hub.resources-packages.weasis.mapping-minimal-version.path}")
 	private String viewerHubResourcesPackagesWeasisMappingMinimalVersionPath;
 
+	@Value("${viewer-hub.resources-packages.weasis.blobs.path}")
+	private String viewerHubResourcesPackagesWeasisBlobsPath;
+
 	// Services
 	private final CacheService cacheService;
 
@@ -128,6 +143,12 @@ public class PackageServiceImpl implements PackageService {
 
 	private final EnvironmentOverrideProperties environmentOverrideProperties;
 
+	private final S3InventoryRepository s3InventoryRepository;
+
+	// The package version cache is built at the first refresh, then only when the package
+	// folders in S3 have changed
+	private volatile boolean packageVersionCacheBuilt;
+
 	/**
 	 * Autowired constructor
 	 */
@@ -136,7 +157,8 @@ public class PackageServiceImpl implements PackageService {
 			final OverrideConfigService overrideConfigService, final LaunchConfigRepository launchConfigRepository,
 			final TargetService targetService, final S3Service s3Service,
 			final ApplicationEventPublisher applicationEventPublisher,
-			final EnvironmentOverrideProperties environmentOverrideProperties) {
+			final EnvironmentOverrideProperties environmentOverrideProperties,
+			final S3InventoryRepository s3InventoryRepository) {
 		this.cacheService = cacheService;
 		this.packageVersionRepository = packageVersionRepository;
 		this.overrideConfigService = overrideConfigService;
@@ -145,117 +167,135 @@ public class PackageServiceImpl implements PackageService {
 		this.s3Service = s3Service;
 		this.applicationEventPublisher = applicationEventPublisher;
 		this.environmentOverrideProperties = environmentOverrideProperties;
+		this.s3InventoryRepository = s3InventoryRepository;
 	}
 
 	@Override
-	// Every 24h
-	@Scheduled(fixedRate = 24 * 60 * 60 * 1000)
-	public void refreshAvailablePackageVersion() {
-		// Check if json file containing the mapping of minimal versions is present
-		if (this.doesMappingMinimalVersionFileExists()) {
-
-			// Retrieve list of available Weasis package versions
-			Set<String> availableWeasisPackageVersions = this.retrieveS3AvailableWeasisPackageVersions();
-
-			// Read mapping minimal version from existing releases
-			List<MinimalReleaseVersion> minimalReleaseVersions = this
-				.retrieveS3MinimalReleaseVersions(this.viewerHubResourcesPackagesWeasisMappingMinimalVersionPath);
+	// Cheap enough to run on a short interval: only the version folders changed since the
+	// last refresh are reloaded
+	@Scheduled(fixedRateString = "${viewer-hub.resources-packages.inventory.refresh-interval:PT5M}")
+	public synchronized void refreshAvailablePackageVersion() {
+		// State of the package folders in S3: ETag of the current build pointer of each
+		// version folder and of the mapping of minimal versions
+		Map<String, String> s3Inventory = this.retrieveS3PackageInventory();
 
-			// Check if a package version is missing in DB and add it if necessary
-			this.refreshPackageVersionInDb(availableWeasisPackageVersions, minimalReleaseVersions);
+		// Check if json file containing the mapping of minimal versions is present
+		if (s3Inventory.containsKey(this.retrieveMappingMinimalVersionKey())) {
+			// State seen at the last refresh
+			Map<String, String> previousS3Inventory = this.retrievePreviousS3Inventory();
+
+			// Keys added or changed since the last refresh, and keys removed
+			Map<String, String> changedS3Inventory = new HashMap<>();
+			s3Inventory.forEach((key, eTag) -> {
+				if (!previousS3Inventory.containsKey(key) || !Objects.equals(previousS3Inventory.get(key), eTag)) {
+					changedS3Inventory.put(key, eTag);
+				}
+			});
+			Set<String> removedS3Keys = previousS3Inventory.keySet()
+				.stream()
+				.filter(key -> !s3Inventory.containsKey(key))
+				.collect(Collectors.toSet());
+
+			// Available Weasis package versions, and the ones to reconcile with the db:
+			// changed since the last refresh or missing in db
+			Set<String> availableWeasisPackageVersions = this.retrieveVersionFolderNames(s3Inventory.keySet());
+			Set<String> versionsInDb = this.packageVersionRepository.findAll()
+				.stream()
+				.map(PackageServiceImpl::retrieveVersionFolderName)
+				.collect(Collectors.toSet());
+			Set<String> versionsToReconcile = availableWeasisPackageVersions.stream()
+				.filter(version -> !versionsInDb.contains(version)
+						|| changedS3Inventory.containsKey(this.retrieveVersionFolderKey(version)))
+				.collect(Collectors.toSet());
+
+			if (!this.packageVersionCacheBuilt || !changedS3Inventory.isEmpty() || !removedS3Keys.isEmpty()
+					|| !versionsToReconcile.isEmpty()) {
+				// Read mapping minimal version from existing releases
+				List<MinimalReleaseVersion> minimalReleaseVersions = this
+					.retrieveS3MinimalReleaseVersions(this.viewerHubResourcesPackagesWeasisMappingMinimalVersionPath);
+
+				if (!versionsToReconcile.isEmpty()) {
+					// Add the missing package versions in db and update the build id of
+					// the re-uploaded ones
+					this.refreshPackageVersionInDb(versionsToReconcile, minimalReleaseVersions);
+
+					// Load configurations properties in db if not already present
+					this.loadS3ConfigurationPropertiesInDb(versionsToReconcile);
+				}
 
-			// Refresh cache
-			this.refreshPackageVersionCache(this.determineAvailablePackageVersionMapping(availableWeasisPackageVersions,
-					minimalReleaseVersions));
+				// Refresh cache
+				this.refreshPackageVersionCache(this
+					.determineAvailablePackageVersionMapping(availableWeasisPackageVersions, minimalReleaseVersions));
+				this.packageVersionCacheBuilt = true;
+			}
 
-			// Load configurations properties in db if not already present
-			this.loadS3ConfigurationPropertiesInDb(availableWeasisPackageVersions);
+			// Persist the state once reconciled: a failed refresh is done again at the
+			// next one
+			this.saveS3Inventory(changedS3Inventory, removedS3Keys);
 		}
 	}
 
 	@Override
-	public void handlePackageVersionToUpload(InputStream fileData, String versionToUpload) {
-		try (fileData) {
-			if (versionToUpload != null && !versionToUpload.isBlank()) {
-				// Each upload lands in its own immutable build-stamped sub-directory
-				// (<version>/<buildId>/...) so a re-uploaded (e.g. SNAPSHOT) version
-				// never
-				// overwrites files a client may currently be downloading.
-				String buildId = UUID.randomUUID().toString();
-				Path outDir = Paths.get(this.viewerHubResourcesPackagesWeasisPackagePath)
-					.resolve(versionToUpload)
-					.resolve(buildId);
-
-				// Upload version package in S3, then - strictly after every file is
-				// durably
-				// written - zip the resources folder, replace the
-				// mapping-minimal-version.json
-				// if a more recent one is provided, flip the <version>/current pointer to
-				// this
-				// build, and only then refresh the cache/db and the grid. Chaining the
-				// stages
-				// (instead of racing two independent allOf callbacks on the same futures
-				// list)
-				// guarantees the version never becomes visible/launchable until all of
-				// its files
-				// - including the generated resources.zip - are present in S3, so a
-				// client can
-				// never fetch a half-written package folder.
-
-				// 1. Upload version package files in S3
-				List<CompletableFuture<PutObjectResponse>> completableFutures = this.uploadVersionInS3(fileData,
-						outDir);
-
-				CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[0]))
-					// 2. Zip the resources folder at the root of the package folder
-					.thenCompose(unused -> {
-						resetInputStream(fileData);
-						return this.zipResourcesFolderToRootPackageFolder(fileData, outDir);
-					})
-					// 3. Replace mapping-minimal-version.json if a more recent one was
-					// imported
-					.thenCompose(unused -> this.compareReplaceMappingMinimalVersion(outDir))
-					// 4. Atomic publish: flip the <version>/current pointer to this build
-					// id
-					.thenCompose(unused -> this.writeCurrentBuildPointer(versionToUpload, buildId))
-					// 5. Everything is durably in S3: refresh cache/db and the front grid
-					.whenComplete((result, throwable) -> {
-						if (throwable == null) {
-							this.refreshAvailablePackageVersion();
-							this.applicationEventPublisher.publishEvent(new RefreshPackageGridEvent());
-						}
-						else {
-							throw new TechnicalException(
-									"Issue when uploading package version in S3, at least one future didn't end well:%s"
-										.formatted(throwable.getMessage()));
+	public void handlePackageVersionToUpload(Path packageFile, String versionToUpload) {
+		if (versionToUpload != null && !versionToUpload.isBlank()) {
+			// Each upload lands in its own immutable build-stamped sub-directory
+			// (<version>/<buildId>/...) so a re-uploaded (e.g. SNAPSHOT) version never
+			// overwrites files a client may currently be downloading.
+			String buildId = UUID.randomUUID().toString();
+			Path outDir = Paths.get(this.viewerHubResourcesPackagesWeasisPackagePath)
+				.resolve(versionToUpload)
+				.resolve(buildId);
+
+			// Upload version package in S3 together with the zipped resources
+			// folder, then - strictly after every file is durably written - replace
+			// the mapping-minimal-version.json if a more recent one is provided, flip
+			// the <version>/current pointer to this build, and only then refresh the
+			// cache/db and the grid. Chaining the stages guarantees the version never
+			// becomes visible/launchable until all of its files - including the
+			// generated resources.zip - are present in S3, so a client can never
+			// fetch a half-written package folder.
+
+			// 1. Stream the version package files and the zipped resources folder
+			// in S3 in a single pass over the zip
+			List<CompletableFuture<Void>> completableFutures = this.uploadVersionInS3(packageFile, outDir);
+			CompletableFuture<Void> uploads = CompletableFuture
+				.allOf(completableFutures.toArray(new CompletableFuture[0]));
+
+			uploads
+				// 2. Replace mapping-minimal-version.json if a more recent one was
+				// imported
+				.thenCompose(unused -> this.compareReplaceMappingMinimalVersion(outDir))
+				// 3. Atomic publish: flip the <version>/current pointer to this build
+				// id
+				.thenCompose(unused -> this.writeCurrentBuildPointer(versionToUpload, buildId))
+				// 4. Everything is durably in S3: refresh cache/db and the front grid
+				.whenComplete((result, throwable) -> {
+					if (throwable == null) {
+						this.refreshAvailablePackageVersion();
+						this.applicationEventPublisher.publishEvent(new RefreshPackageGridEvent());
+					}
+					else {
+						if (uploads.isCompletedExceptionally()) {
+							// Build not published: remove the files already uploaded
+							this.discardUnpublishedBuild(completableFutures, outDir);
 						}
-					});
-			}
-		}
-		catch (IOException e) {
-			throw new TechnicalException("Issue when uploading package version:%s".formatted(e.getMessage()));
+						throw new TechnicalException(
+								"Issue when uploading package version in S3, at least one future didn't end well:%s"
+									.formatted(throwable.getMessage()));
+					}
+				});
 		}
 	}
 
 	@Override
-	public String checkWeasisNativeVersionToUpload(InputStream fileData) {
+	public String checkWeasisNativeVersionToUpload(Path packageFile) {
 		// Check if we should use json or properties files parsing for the import
 		// depending on the presence of the base.json in the zip file
-		boolean useJsonParsing = this.shouldUseJsonParsing(fileData);
-
-		// Reset the input stream in order to start again the browsing of the zip file
-		// to import
-		resetInputStream(fileData);
+		boolean useJsonParsing = this.shouldUseJsonParsing(packageFile);
 
 		// Retrieve and check the version to import
-		String versionToReturn = useJsonParsing ? this.checkWeasisNativeVersionToUploadJsonFile(fileData)
-				: checkWeasisNativeVersionToUploadPropertiesFile(fileData);
-
-		// Reset the input stream in order to start again the browsing of the zip file
-		// to import
-		resetInputStream(fileData);
-
-		return versionToReturn;
+		return useJsonParsing ? this.checkWeasisNativeVersionToUploadJsonFile(packageFile)
+				: checkWeasisNativeVersionToUploadPropertiesFile(packageFile);
 	}
 
 	@Override
@@ -351,18 +391,18 @@ public class PackageServiceImpl implements PackageService {
 	}
 
 	@Override
-	public boolean isImportCoherent(InputStream fileData) {
+	public boolean isImportCoherent(Path packageFile) {
 		boolean isImportCoherent;
 
 		// Retrieve the version to import
-		String versionToImport = checkWeasisNativeVersionToUpload(fileData);
+		String versionToImport = checkWeasisNativeVersionToUpload(packageFile);
 
 		// Case version is already installed on the server
 		isImportCoherent = isImportCoherentVersionNotAlreadyInstalledOnServer(versionToImport);
 
 		// Incoherent version compatibility file
 		isImportCoherent = isImportCoherent
-				&& isImportCoherentVersionCompatibilityFileCoherent(fileData, versionToImport);
+				&& isImportCoherentVersionCompatibilityFileCoherent(packageFile, versionToImport);
 
 		return isImportCoherent;
 	}
@@ -370,15 +410,15 @@ public class PackageServiceImpl implements PackageService {
 	/**
 	 * If the compatibility file has to be imported, check if the version compatibility is
 	 * coherent
-	 * @param fileData File to check
+	 * @param packageFile Zip file to check
 	 * @param versionToImport Version currently being uploaded
 	 * @return true if the version compatibility is coherent
 	 */
-	private boolean isImportCoherentVersionCompatibilityFileCoherent(InputStream fileData, String versionToImport) {
+	private boolean isImportCoherentVersionCompatibilityFileCoherent(Path packageFile, String versionToImport) {
 		boolean isImportCoherentVersionCompatibilityFileCoherent;
 
 		// Retrieve the version compatibility file in the zip import
-		List<MinimalReleaseVersion> minimalReleaseVersionsFromImport = retrieveMinimalVersionsFromImport(fileData);
+		List<MinimalReleaseVersion> minimalReleaseVersionsFromImport = retrieveMinimalVersionsFromImport(packageFile);
 
 		// Check that no version declared in the compatibility file is greater than the
 		// version currently being uploaded
@@ -458,16 +498,11 @@ public class PackageServiceImpl implements PackageService {
 
 	/**
 	 * Retrieve the version compatibility file from the file to import
-	 * @param fileData File to import
+	 * @param packageFile Zip file to import
 	 * @return List<MinimalReleaseVersion> found
 	 */
-	private List<MinimalReleaseVersion> retrieveMinimalVersionsFromImport(InputStream fileData) {
-
-		// Reset the input stream in order to start again the browsing of the zip file
-		// to import
-		resetInputStream(fileData);
-
-		try (ZipInputStream zis = new ZipInputStream(fileData)) {
+	private List<MinimalReleaseVersion> retrieveMinimalVersionsFromImport(Path packageFile) {
+		try (ZipInputStream zis = new ZipInputStream(openPackageFile(packageFile))) {
 			ZipEntry ze;
 			while ((ze = zis.getNextEntry()) != null) {
 				if (!ze.isDirectory() && Objects.equals(ze.getName(), PropertiesFileName.VERSION_COMPATIBILITY_PATH)) {
@@ -480,11 +515,6 @@ public class PackageServiceImpl implements PackageService {
 			throw new TechnicalException("Issue when checking version of the zip file to import (using json file):%s"
 				.formatted(e.getMessage()));
 		}
-		finally {
-			// Reset the input stream in order to start again the browsing of the zip file
-			// to import
-			resetInputStream(fileData);
-		}
 		return null;
 	}
 
@@ -561,49 +591,104 @@ public class PackageServiceImpl implements PackageService {
 	}
 
 	/**
-	 * Manage zip of the resources folder when all future are terminated
-	 * @param fileData InputStream
-	 * @param completableFutures Futures to wait for
-	 * @param outDir Output path
+	 * Retrieve the state of the package folders in S3 from a single listing of the
+	 * package folder: the version folders with the ETag of their current build pointer
+	 * (null for a legacy version without pointer), and the mapping of minimal versions
+	 * with its ETag if present. The content of a version folder is only read afterwards
+	 * if its pointer changed
+	 * @return Map of S3 key to ETag
 	 */
-	private void handleZipResourceFolder(InputStream fileData,
-			List<CompletableFuture<PutObjectResponse>> completableFutures, Path outDir) {
-		CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[completableFutures.size()]))
-			.whenComplete((result, throwable) -> {
-				if (throwable == null) {
-					// Reset the stream
-					resetInputStream(fileData);
-
-					// Zip resources folder and set the zipped file at the root
-					// level of the package folder
-					completableFutures.add(this.zipResourcesFolderToRootPackageFolder(fileData, outDir));
+	private Map<String, String> retrieveS3PackageInventory() {
+		// HashMap: the ETag of a legacy version folder is null
+		Map<String, String> s3Inventory = new HashMap<>();
+		String packageFolderKey = "%s/"
+			.formatted(PathUrlUtil.pathWithS3Separator(this.viewerHubResourcesPackagesWeasisPackagePath));
+		this.s3Service.retrieveS3ObjectsETagFromPrefix(packageFolderKey).forEach((key, eTag) -> {
+			int versionFolderEnd = key.indexOf('/', packageFolderKey.length());
+			if (key.startsWith(packageFolderKey) && versionFolderEnd > packageFolderKey.length()) {
+				String versionFolderKey = key.substring(0, versionFolderEnd + 1);
+				if (Objects.equals(key, versionFolderKey + PackageUtil.CURRENT_BUILD_POINTER_FILE)) {
+					s3Inventory.put(versionFolderKey, eTag);
 				}
 				else {
-					throw new TechnicalException(
-							"Issue when uploading files in S3, at least one future didn't end well:%s"
-								.formatted(throwable.getMessage()));
+					s3Inventory.putIfAbsent(versionFolderKey, null);
 				}
-			});
+			}
+		});
+
+		String mappingMinimalVersionKey = this.retrieveMappingMinimalVersionKey();
+		String mappingMinimalVersionETag = this.s3Service
+			.retrieveS3ObjectsETagFromFolder(StringUtils.substringBeforeLast(mappingMinimalVersionKey, "/"))
+			.get(mappingMinimalVersionKey);
+		if (mappingMinimalVersionETag != null) {
+			s3Inventory.put(mappingMinimalVersionKey, mappingMinimalVersionETag);
+		}
+		return s3Inventory;
 	}
 
 	/**
-	 * Retrieve in S3 available Weasis package version
-	 * @return Set of versions available
+	 * Retrieve the state of the package folders in S3 seen at the last refresh
+	 * @return Map of S3 key to ETag
 	 */
-	private Set<String> retrieveS3AvailableWeasisPackageVersions() {
-		return this.s3Service.retrieveS3KeysFromPrefix(this.viewerHubResourcesPackagesWeasisPackagePath)
-			.stream()
-			.filter(Objects::nonNull)
-			.map(key -> {
-				// Transform resources/packages/weasis/package/4.1.0-QUALIFIER/... en
-				// 4.1.0-QUALIFIER/....
-				String versionFolderKeys = key.substring(this.viewerHubResourcesPackagesWeasisPackagePath.length() + 1);
-				// Transform 4.1.0-QUALIFIER/... en 4.1.0-QUALIFIER
-				return versionFolderKeys.substring(0, versionFolderKeys.indexOf("/"));
-			})
+	private Map<String, String> retrievePreviousS3Inventory() {
+		// HashMap: the ETag of a legacy version folder is null
+		Map<String, String> previousS3Inventory = new HashMap<>();
+		this.s3InventoryRepository.findAll()
+			.forEach(s3InventoryEntity -> previousS3Inventory.put(s3InventoryEntity.getS3Key(),
+					s3InventoryEntity.getETag()));
+		return previousS3Inventory;
+	}
+
+	/**
+	 * Persist the changes of the state of the package folders in S3
+	 * @param changedS3Inventory Keys added or changed with their ETag
+	 * @param removedS3Keys Keys removed
+	 */
+	private void saveS3Inventory(Map<String, String> changedS3Inventory, Set<String> removedS3Keys) {
+		if (!changedS3Inventory.isEmpty()) {
+			this.s3InventoryRepository.saveAll(changedS3Inventory.entrySet()
+				.stream()
+				.map(entry -> new S3InventoryEntity(entry.getKey(), entry.getValue()))
+				.toList());
+		}
+		if (!removedS3Keys.isEmpty()) {
+			this.s3InventoryRepository.deleteAllById(removedS3Keys);
+		}
+	}
+
+	/**
+	 * Retrieve the versions from the keys of the version folders
+	 * @param keys Keys to evaluate: resources/packages/weasis/package/4.1.0-QUALIFIER/
+	 * @return Set of versions: 4.1.0-QUALIFIER
+	 */
+	private Set<String> retrieveVersionFolderNames(Set<String> keys) {
+		String packageFolderKey = "%s/"
+			.formatted(PathUrlUtil.pathWithS3Separator(this.viewerHubResourcesPackagesWeasisPackagePath));
+		return keys.stream()
+			.filter(key -> key.startsWith(packageFolderKey))
+			.map(key -> StringUtils.removeEnd(key.substring(packageFolderKey.length()), "/"))
+			.filter(StringUtils::isNotBlank)
 			.collect(Collectors.toSet());
 	}
 
+	/**
+	 * Retrieve the key of the folder of a version as listed in S3
+	 * @param version Version folder name
+	 * @return Key of the folder: resources/packages/weasis/package/4.1.0-QUALIFIER/
+	 */
+	private String retrieveVersionFolderKey(String version) {
+		return "%s/%s/".formatted(PathUrlUtil.pathWithS3Separator(this.viewerHubResourcesPackagesWeasisPackagePath),
+				version);
+	}
+
+	/**
+	 * Retrieve the key of the mapping of minimal versions as listed in S3
+	 * @return Key of the mapping of minimal versions
+	 */
+	private String retrieveMappingMinimalVersionKey() {
+		return PathUrlUtil.pathWithS3Separator(this.viewerHubResourcesPackagesWeasisMappingMinimalVersionPath);
+	}
+
 	/**
 	 * Check if mapping-minimal-version.json should be overridden: if yes replace it with
 	 * the new version at the root level of the package to import
@@ -690,91 +775,9 @@ public class PackageServiceImpl implements PackageService {
 			.orElse(null);
 	}
 
-	/**
-	 * Zip resources folder from input zip file and set the zipped file at the root of the
-	 * package to import
-	 */
-	private CompletableFuture<PutObjectResponse> zipResourcesFolderToRootPackageFolder(InputStream zipFileInputStream,
-			Path outDir) {
-		// Path key where the zip generated will be uploaded in S3
-		Path zipFileOutPath = outDir.resolve(RESOURCES_ZIP_FILE_NAME);
-		// Object to upload in S3
-		byte[] zipFile;
-
-		// Build the zip output stream
-		try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-			try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-				// Process the input zip file and write in the zip output stream
-				processInputZipFileAndWriteInResourcesZipOutputStream(zipFileInputStream, outDir, zos);
-			}
-			// Retrieve the file generated
-			zipFile = baos.toByteArray();
-		}
-		catch (IOException e) {
-			throw new TechnicalException("Issue when zipping resources folder:%s".formatted(e.getMessage()));
-		}
-		// Upload the zip created in S3
-		if (zipFile.length != 0) {
-			return this.s3Service.uploadObjectInS3(new ByteArrayInputStream(zipFile), zipFileOutPath.toString());
-		}
-		return CompletableFuture.completedFuture(null);
-	}
-
-	/**
-	 * Process the input zip file and write in resources zip output stream
-	 * @param zipFileInputStream Input stream
-	 * @param outDir Output path
-	 * @param zos Zip output stream
-	 * @throws IOException issue when processing zip file
-	 */
-	private static void processInputZipFileAndWriteInResourcesZipOutputStream(InputStream zipFileInputStream,
-			Path outDir, ZipOutputStream zos) throws IOException {
-		try (ZipInputStream zis = new ZipInputStream(zipFileInputStream)) {
-			ZipEntry ze;
-			while ((ze = zis.getNextEntry()) != null) {
-				if (ze.getName().contains(BIN_DIST_WEASIS_RESOURCES_PATH)
-						&& !Objects.equals(ze.getName(), BIN_DIST_WEASIS_RESOURCES_PATH)) {
-					// Remove bin-dist/weasis/resources/ from destination path
-					Path filePath = outDir.resolve(ze.getName().substring(BIN_DIST_WEASIS_RESOURCES_PATH.length()));
-					if (!ze.isDirectory()) {
-						// Copy file from original zip to new zipped resources file
-						copyZipInputToZipOutput(outDir, zos, zis, filePath);
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Copy the zip entry to zip output stream
-	 * @param outDir Output path
-	 * @param zos ZipOutputStream
-	 * @param zis ZipInputStream
-	 * @param filePath Path of the input zip entry
-	 */
-	private static void copyZipInputToZipOutput(Path outDir, ZipOutputStream zos, ZipInputStream zis, Path filePath) {
-		try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-			// Extract zip file
-			zis.transferTo(byteArrayOutputStream);
-			try (InputStream inputStream = new ByteArrayInputStream(byteArrayOutputStream.toByteArray())) {
-				// Copy to zip output stream
-				zos.putNextEntry(new ZipEntry(
-						PathUrlUtil.pathWithS3Separator(Paths.get(PathUrlUtil.pathWithS3Separator(outDir.toString()))
-							.relativize(filePath)
-							.toString())));
-				zos.write(inputStream.readAllBytes());
-				zos.closeEntry();
-			}
-		}
-		catch (IOException e) {
-			throw new TechnicalException(
-					"Issue when copying the zip entry to zip output stream:%s".formatted(e.getMessage()));
-		}
-	}
-
 	@Nullable
-	private String checkWeasisNativeVersionToUploadJsonFile(InputStream fileData) {
-		try (ZipInputStream zis = new ZipInputStream(fileData)) {
+	private String checkWeasisNativeVersionToUploadJsonFile(Path packageFile) {
+		try (ZipInputStream zis = new ZipInputStream(openPackageFile(packageFile))) {
 			ZipEntry ze;
 			while ((ze = zis.getNextEntry()) != null) {
 				if (!ze.isDirectory()
@@ -796,8 +799,8 @@ public class PackageServiceImpl implements PackageService {
 	}
 
 	@Nullable
-	private static String checkWeasisNativeVersionToUploadPropertiesFile(InputStream fileData) {
-		try (ZipInputStream zis = new ZipInputStream(fileData)) {
+	private static String checkWeasisNativeVersionToUploadPropertiesFile(Path packageFile) {
+		try (ZipInputStream zis = new ZipInputStream(openPackageFile(packageFile))) {
 			ZipEntry ze;
 			while ((ze = zis.getNextEntry()) != null) {
 				if (!ze.isDirectory() && Objects.equals(ze.getName(),
@@ -838,11 +841,11 @@ public class PackageServiceImpl implements PackageService {
 	/**
 	 * Check if we should use json or properties files parsing for the import depending on
 	 * the presence of the base.json in the zip file
-	 * @param fileData InputStream to evaluate
-	 * @return true if base.json is present in the zip stream
+	 * @param packageFile Zip file to evaluate
+	 * @return true if base.json is present in the zip file
 	 */
-	private boolean shouldUseJsonParsing(InputStream fileData) {
-		try (ZipInputStream zis = new ZipInputStream(fileData)) {
+	private boolean shouldUseJsonParsing(Path packageFile) {
+		try (ZipInputStream zis = new ZipInputStream(openPackageFile(packageFile))) {
 			ZipEntry ze;
 			while ((ze = zis.getNextEntry()) != null) {
 				if (!ze.isDirectory()
@@ -859,84 +862,194 @@ public class PackageServiceImpl implements PackageService {
 	}
 
 	/**
-	 * Reset the input stream in order to start again the browsing of the stream
-	 * @param inputStream To reset
+	 * Open the zip file of the package to browse it from its start: the zip is read
+	 * from the file at each check, without being held in memory
+	 * @param packageFile Zip file of the package
+	 * @return InputStream of the file
+	 * @throws IOException if the file cannot be opened
 	 */
-	private static void resetInputStream(InputStream inputStream) {
-		try {
-			inputStream.reset();
-		}
-		catch (IOException e) {
-			throw new TechnicalException("Issue during reset of the inputStream:%s".formatted(e.getMessage()));
-		}
-	}
-
-	/**
-	 * Create an outputStream in order to duplicate InputStream
-	 * @param inputStream InputStream
-	 * @return ByteArrayOutputStream
-	 */
-	@NotNull
-	private static ByteArrayOutputStream copyInputStreamToOutputStream(InputStream inputStream) {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		try {
-			inputStream.transferTo(baos);
-		}
-		catch (IOException e) {
-			throw new TechnicalException("Issue when copying InputStream:" + e.getMessage());
-		}
-		return baos;
+	private static InputStream openPackageFile(Path packageFile) throws IOException {
+		return new BufferedInputStream(Files.newInputStream(packageFile));
 	}
 
 	/**
-	 * Upload package files in S3
-	 * @param fileData Files
+	 * Upload package files in S3 and zip the resources folder at the root of the package
+	 * folder, in a single pass over the zip: each file is streamed in S3 part by part, and
+	 * the files of the resources folder are copied at the same time in the resources zip,
+	 * itself streamed in S3. The memory used does not depend on the size of the package.
+	 * <p>
+	 * The jars are stored once as content-addressed blobs shared by the builds: each jar
+	 * is written in a local file while its digest is computed, then uploaded only if no
+	 * blob has this digest yet. The manifest of the build maps their paths to their
+	 * digest.
+	 * <p>
+	 * If the zip cannot be read or a file cannot be uploaded, the uploads in progress are
+	 * aborted and the files of the build already uploaded are removed once their upload
+	 * is over: the build is not published.
+	 * @param packageFile Zip file of the package
 	 * @param outDir Output directory
 	 * @return List of CompletableFuture generated
 	 */
-	private List<CompletableFuture<PutObjectResponse>> uploadVersionInS3(InputStream fileData, Path outDir) {
-		List<CompletableFuture<PutObjectResponse>> futures = new ArrayList<>();
-		try (ZipInputStream zis = new ZipInputStream(fileData)) {
+	private List<CompletableFuture<Void>> uploadVersionInS3(Path packageFile, Path outDir) {
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		// Resources zip, opened with the first file of the resources folder
+		S3UploadOutputStream resourcesZipUpload = null;
+		ZipOutputStream resourcesZos = null;
+		S3UploadOutputStream fileUpload = null;
+		// Local file of the jar in progress, and digest of the jars by path in the build
+		Path blobFile = null;
+		Map<String, String> blobDigests = new TreeMap<>();
+		try (ZipInputStream zis = new ZipInputStream(openPackageFile(packageFile))) {
+			byte[] buffer = new byte[COPY_BUFFER_SIZE];
 			ZipEntry ze;
 			while ((ze = zis.getNextEntry()) != null) {
-				if (ze.getName().contains(BIN_DIST_WEASIS_PATH)
-						&& !Objects.equals(ze.getName(), BIN_DIST_WEASIS_PATH)) {
+				if (ze.getName().contains(BIN_DIST_WEASIS_PATH) && !Objects.equals(ze.getName(), BIN_DIST_WEASIS_PATH)
+						&& !ze.isDirectory()) {
 					// Remove bin-dist/weasis/ from destination path
-					Path filePath = outDir.resolve(ze.getName().substring(BIN_DIST_WEASIS_PATH.length()));
-					if (!ze.isDirectory()) {
-						// Copy file from zip to s3
-						CompletableFuture<PutObjectResponse> completableFuture = this.extractZippedFileToS3(zis,
-								filePath);
-						if (completableFuture != null) {
-							// add in list to wait all the futures to be processed
-							futures.add(completableFuture);
+					String relativePath = ze.getName().substring(BIN_DIST_WEASIS_PATH.length());
+					Path filePath = outDir.resolve(relativePath);
+
+					// Files of the resources folder are copied in the resources zip
+					boolean resource = ze.getName().contains(BIN_DIST_WEASIS_RESOURCES_PATH);
+					if (resource) {
+						if (resourcesZos == null) {
+							resourcesZipUpload = this.s3Service
+								.openUploadStreamInS3(outDir.resolve(RESOURCES_ZIP_FILE_NAME).toString());
+							resourcesZos = new ZipOutputStream(resourcesZipUpload);
 						}
+						// Remove bin-dist/weasis/resources/ from the path in the zip
+						resourcesZos.putNextEntry(new ZipEntry(PathUrlUtil.pathWithS3Separator(
+								Paths.get(ze.getName().substring(BIN_DIST_WEASIS_RESOURCES_PATH.length())).toString())));
+					}
+
+					if (PackageUtil.isDeduplicated(relativePath)) {
+						// Copy file from zip to a local file (and to the resources zip)
+						blobFile = Files.createTempFile(BLOB_FILE_PREFIX, null);
+						MessageDigest messageDigest = createBlobDigest();
+						try (OutputStream blobOutputStream = new DigestOutputStream(Files.newOutputStream(blobFile),
+								messageDigest)) {
+							copyEntry(zis, blobOutputStream, resource ? resourcesZos : null, buffer);
+						}
+						String digest = HexFormat.of().formatHex(messageDigest.digest());
+						blobDigests.put(PathUrlUtil.pathWithS3Separator(relativePath), digest);
+						// add in list to wait all the futures to be processed
+						Path uploadedBlobFile = blobFile;
+						String blobKey = PackageUtil.retrieveBlobKey(this.viewerHubResourcesPackagesWeasisBlobsPath,
+								digest);
+						futures.add(this.s3Service.uploadBlobInS3(blobFile, blobKey)
+							.whenComplete((unused, e) -> PackageUtil.deleteLocalFile(uploadedBlobFile)));
+						blobFile = null;
+					}
+					else {
+						// Text files are uploaded with their gzip variant, served to the
+						// clients accepting it, except the configuration files: they are
+						// listed and parsed to be loaded in db
+						fileUpload = isConfigurationFile(relativePath)
+								? this.s3Service.openUploadStreamInS3(filePath.toString())
+								: this.s3Service.openUploadStreamWithGzipVariantInS3(filePath.toString());
+						// Copy file from zip to s3 (and to the resources zip)
+						copyEntry(zis, fileUpload, resource ? resourcesZos : null, buffer);
+						fileUpload.close();
+						// add in list to wait all the futures to be processed
+						futures.add(fileUpload.getCompletion());
+						fileUpload = null;
+					}
+					if (resource) {
+						resourcesZos.closeEntry();
 					}
 				}
 			}
+			if (!blobDigests.isEmpty()) {
+				// Manifest of the build mapping its jars to their blob
+				byte[] blobManifest = JacksonMappers.JSON_MAPPER.writeValueAsBytes(blobDigests);
+				futures.add(this.s3Service
+					.uploadObjectInS3(new ByteArrayInputStream(blobManifest),
+							outDir.resolve(PackageUtil.BLOB_MANIFEST_FILE).toString())
+					.thenApply(response -> null));
+			}
+			if (resourcesZos != null) {
+				// Writes the end of the zip and completes its upload
+				resourcesZos.close();
+				futures.add(resourcesZipUpload.getCompletion());
+			}
 			return futures;
 		}
-		catch (IOException e) {
+		catch (IOException | RuntimeException e) {
+			// Nothing is published: discard the uploads in progress and the files
+			// already uploaded
+			if (fileUpload != null) {
+				fileUpload.abort();
+			}
+			if (resourcesZipUpload != null) {
+				resourcesZipUpload.abort();
+			}
+			if (blobFile != null) {
+				PackageUtil.deleteLocalFile(blobFile);
+			}
+			this.discardUnpublishedBuild(futures, outDir);
 			throw new TechnicalException("Issue when uploading package version:%s".formatted(e.getMessage()));
 		}
 	}
 
 	/**
-	 * Copy file from zip to S3
-	 * @param zis ZipInputStream
-	 * @param path Path
-	 * @return CompletableFuture
+	 * Remove the files of a build not published, once their uploads are over. The blobs
+	 * shared by the builds are kept: the blobs referenced by no build are removed by the
+	 * retention.
+	 * @param futures Uploads of the files of the build
+	 * @param outDir Output directory of the build
 	 */
-	private CompletableFuture<PutObjectResponse> extractZippedFileToS3(ZipInputStream zis, Path path) {
-		try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-			// Extract zip file
-			zis.transferTo(baos);
+	private void discardUnpublishedBuild(List<CompletableFuture<Void>> futures, Path outDir) {
+		CompletableFuture
+			.allOf(futures.stream().map(future -> future.exceptionally(e -> null)).toArray(CompletableFuture[]::new))
+			.thenCompose(unused -> this.s3Service.deleteS3Objects("%s/".formatted(outDir)))
+			.whenComplete((response, e) -> {
+				if (e != null) {
+					LOG.warn("Not able to remove the files of the build not published {}:{}", outDir,
+							e.getMessage());
+				}
+			});
+	}
 
-			// Upload object in S3
-			return this.s3Service.uploadObjectInS3(new ByteArrayInputStream(baos.toByteArray()), path.toString());
+	/**
+	 * Copy the current entry of the zip in the output stream in parameter, and in the
+	 * resources zip if the entry is a resource
+	 * @param zis Zip positioned on the entry
+	 * @param outputStream Output stream to write the entry in
+	 * @param resourcesZos Resources zip positioned on the entry, null if the entry is not
+	 * a resource
+	 * @param buffer Buffer of the copy
+	 * @throws IOException if the entry cannot be copied
+	 */
+	private static void copyEntry(ZipInputStream zis, OutputStream outputStream, ZipOutputStream resourcesZos,
+			byte[] buffer) throws IOException {
+		int read;
+		while ((read = zis.read(buffer)) != -1) {
+			outputStream.write(buffer, 0, read);
+			if (resourcesZos != null) {
+				resourcesZos.write(buffer, 0, read);
+			}
 		}
-		catch (IOException e) {
-			throw new TechnicalException("Issue when extracting zip file:%s".formatted(e.getMessage()));
+	}
+
+	/**
+	 * Check if the file of the package is in its configuration folder
+	 * @param relativePath Path of the file in the package
+	 * @return true if the file is in the configuration folder
+	 */
+	private static boolean isConfigurationFile(String relativePath) {
+		return PathUrlUtil.pathWithS3Separator(relativePath).startsWith("%s/".formatted(CONF_FOLDER_NAME));
+	}
+
+	/**
+	 * Create the digest computing the key of a content-addressed blob
+	 * @return MessageDigest created
+	 */
+	private static MessageDigest createBlobDigest() {
+		try {
+			return MessageDigest.getInstance(PackageUtil.BLOB_DIGEST_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new TechnicalException("Issue when creating blob digest:%s".formatted(e.getMessage()));
 		}
 	}
 
@@ -1201,6 +1314,9 @@ public class PackageServiceImpl implements PackageService {
 				// Browse content of folder in order to find other configs (with default
 				// found above)
 				this.s3Service.retrieveS3KeysFromPrefix(configFolderKey)
+					.stream()
+					// Gzip variants stored next to the configuration files by older uploads
+					.filter(key -> !key.endsWith(PackageUtil.GZIP_VARIANT_EXTENSION))
 					.forEach(key -> this.determineNotDefaultConfigurationFromS3ToPersist(key, packageVersionEntity,
 							defaultTarget, defaultOverrideConfig, overrideConfigEntities, useJsonParsing, buildId));
 			}
@@ -1341,15 +1457,16 @@ public class PackageServiceImpl implements PackageService {
 
 		// Retrieve the launch config name based on the file name
 		// Case Json files
-		if (useJsonParsing && fileName.contains(PropertiesFileName.EXTENSION_JSON_FILE)) {
-			launchConfigName = fileName.substring(0, fileName.indexOf(PropertiesFileName.EXTENSION_JSON_FILE));
+		if (useJsonParsing && fileName.endsWith(PropertiesFileName.EXTENSION_JSON_FILE)) {
+			launchConfigName = fileName.substring(0,
+					fileName.length() - PropertiesFileName.EXTENSION_JSON_FILE.length());
 		}
 		// Case properties file
-		else if (!useJsonParsing && fileName.contains(PropertiesFileName.EXT_PATTERN_NAME)
-				&& fileName.contains(PropertiesFileName.EXTENSION_PROPERTIES_FILE)
+		else if (!useJsonParsing && fileName.startsWith(PropertiesFileName.EXT_PATTERN_NAME)
+				&& fileName.endsWith(PropertiesFileName.EXTENSION_PROPERTIES_FILE)
 				&& !Objects.equals(fileName, EXT_CONFIG_PROPERTIES_FILENAME)) {
 			launchConfigName = fileName.substring(PropertiesFileName.EXT_PATTERN_NAME.length(),
-					fileName.indexOf(PropertiesFileName.EXTENSION_PROPERTIES_FILE));
+					fileName.length() - PropertiesFileName.EXTENSION_PROPERTIES_FILE.length());
 		}
 
 		// Retrieve the launch config associated to the parsing of the file name
@@ -1434,15 +1551,9 @@ public class PackageServiceImpl implements PackageService {
 	 */
 	List<MinimalReleaseVersion> retrieveS3MinimalReleaseVersions(String key) {
 		try (InputStream responseInputStream = this.s3Service.retrieveS3Object(key)) {
-			ObjectMapper objectMapper = JsonMapper.builder()
-				.configureForJackson2()
-				.propertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
-				.build();
-
 			// Retrieve the minimal release versions
-			List<MinimalReleaseVersion> minimalReleaseVersions = objectMapper.readValue(responseInputStream,
-					new TypeReference<>() {
-					});
+			List<MinimalReleaseVersion> minimalReleaseVersions = JacksonMappers.JACKSON2_MINIMAL_RELEASE_VERSIONS_READER
+				.readValue(responseInputStream);
 
 			// Clean versions without qualifier for release and minimal versions
 			minimalReleaseVersions.forEach(MinimalReleaseVersion::cleaningQualifierForReleaseAndMinimalVersion);
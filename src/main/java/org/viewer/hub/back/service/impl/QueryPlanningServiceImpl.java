@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
+import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
+import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
+import org.viewer.hub.back.service.QueryPlanningService;
+import org.viewer.hub.back.service.ViewerSelectionService;
+
+@Service
+public class QueryPlanningServiceImpl implements QueryPlanningService {
+
+	// Services
+	private final ViewerSelectionService viewerSelectionService;
+
+	@Autowired
+	public QueryPlanningServiceImpl(final ViewerSelectionService viewerSelectionService) {
+		this.viewerSelectionService = viewerSelectionService;
+	}
+
+	@Override
+	public DicomWebLevelLimitType determineQueryLevelLimit(SearchCriteria searchCriteria) {
+		DicomWebLevelLimitType viewerLevelLimit = switch (searchCriteria.getViewer()) {
+			// Ohif needs the study uids, and the serie uids when series or sop instances
+			// are requested
+			case OHIF -> isSerieOrSopInstanceRequested(searchCriteria) ? DicomWebLevelLimitType.SERIE
+					: DicomWebLevelLimitType.STUDY;
+			// Slicer and MicroDicom need only the study uid
+			case SLICER, MICRODICOM -> DicomWebLevelLimitType.STUDY;
+			// Weasis manifest needs the sop instances
+			case WEASIS -> null;
+			// Viewer determined by the viewer selection rules
+			case null -> this.determineViewerSelectionLevelLimit(searchCriteria);
+		};
+
+		// The filter on the modalities is applied on the modalities of the series
+		if (viewerLevelLimit == DicomWebLevelLimitType.STUDY && !searchCriteria.getModalitiesInStudy().isEmpty()) {
+			return DicomWebLevelLimitType.SERIE;
+		}
+		return viewerLevelLimit;
+	}
+
+	/**
+	 * Determine the level needed by the viewer selection rules
+	 * @param searchCriteria Search criteria of the request
+	 * @return Deepest level to retrieve, null if the sop instances are needed
+	 */
+	private DicomWebLevelLimitType determineViewerSelectionLevelLimit(SearchCriteria searchCriteria) {
+		// Only Weasis supports multiple archives: Weasis will be selected
+		if (searchCriteria.getArchive() != null && searchCriteria.getArchive().size() > 1) {
+			return null;
+		}
+
+		// The modalities of the series are needed only if a rule is based on modalities
+		boolean modalitiesEvaluated = this.viewerSelectionService.retrieveViewerSelection(Sort.Direction.DESC)
+			.stream()
+			.anyMatch(rule -> rule.getModalities() != null && !rule.getModalities().isEmpty());
+		return modalitiesEvaluated ? DicomWebLevelLimitType.SERIE : DicomWebLevelLimitType.STUDY;
+	}
+
+	/**
+	 * Check if series or sop instances are requested in the search criteria
+	 * @param searchCriteria Search criteria of the request
+	 * @return true if series uids or sop instance uids are requested
+	 */
+	private static boolean isSerieOrSopInstanceRequested(SearchCriteria searchCriteria) {
+		return searchCriteria instanceof ArchiveSearchCriteria archiveSearchCriteria
+				&& (!archiveSearchCriteria.getSeriesUID().isEmpty() || !archiveSearchCriteria.getObjectUID().isEmpty());
+	}
+
+}
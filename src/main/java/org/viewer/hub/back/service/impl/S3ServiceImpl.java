@@ -17,8 +17,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.viewer.hub.back.config.s3.DeleteResource;
 import org.viewer.hub.back.config.s3.DownloadResource;
+import org.viewer.hub.back.config.s3.S3ObjectMetadata;
+import org.viewer.hub.back.config.s3.S3UploadOutputStream;
 import org.viewer.hub.back.config.s3.UploadResource;
 import org.viewer.hub.back.service.S3Service;
+import org.viewer.hub.back.util.PackageUtil;
 import org.viewer.hub.back.util.PathUrlUtil;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
@@ -27,6 +30,7 @@ import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
@@ -78,6 +82,45 @@ public class S3ServiceImpl implements S3Service {
 		return Collections.emptyMap();
 	}
 
+	@Override
+	public Map<String, String> retrieveS3ObjectsETagFromPrefix(String prefix) {
+		if (StringUtils.isNotBlank(prefix)) {
+			return this.downloadResource.retrieveS3ObjectsFromPrefix(PathUrlUtil.pathWithS3Separator(prefix))
+				.stream()
+				.collect(Collectors.toMap(S3Object::key, S3Object::eTag, (existing, replacement) -> existing));
+		}
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public Map<String, String> retrieveS3ObjectsETagFromFolder(String folder) {
+		if (StringUtils.isNotBlank(folder)) {
+			return this.downloadResource.retrieveS3FolderContent(retrieveS3FolderKey(folder))
+				.stream()
+				.flatMap(response -> response.contents().stream())
+				.collect(Collectors.toMap(S3Object::key, S3Object::eTag, (existing, replacement) -> existing));
+		}
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public Instant retrieveS3ObjectLastModified(String key) {
+		if (StringUtils.isNotBlank(key)) {
+			S3ObjectMetadata metadata = this.downloadResource
+				.retrieveUncachedS3ObjectMetadata(PathUrlUtil.pathWithS3Separator(key));
+			return metadata.exists() ? metadata.lastModified() : null;
+		}
+		return null;
+	}
+
+	@Override
+	public Instant retrieveS3BlobLastReused(String key) {
+		if (StringUtils.isNotBlank(key)) {
+			return this.downloadResource.retrieveBlobLastReused(PathUrlUtil.pathWithS3Separator(key));
+		}
+		return null;
+	}
+
 	@Override
 	public InputStream retrieveS3Object(String key) {
 		if (StringUtils.isNotBlank(key)) {
@@ -94,6 +137,36 @@ public class S3ServiceImpl implements S3Service {
 		return null;
 	}
 
+	@Override
+	public S3UploadOutputStream openUploadStreamInS3(String key) {
+		if (StringUtils.isNotBlank(key)) {
+			return this.uploadResource.openUploadStream(PathUrlUtil.pathWithS3Separator(key));
+		}
+		return null;
+	}
+
+	@Override
+	public S3UploadOutputStream openUploadStreamWithGzipVariantInS3(String key) {
+		if (StringUtils.isNotBlank(key)) {
+			String s3Key = PathUrlUtil.pathWithS3Separator(key);
+			return PackageUtil.isCompressible(s3Key) ? this.uploadResource.openUploadStreamWithGzipVariant(s3Key)
+					: this.uploadResource.openUploadStream(s3Key);
+		}
+		return null;
+	}
+
+	@Override
+	public CompletableFuture<Void> uploadBlobInS3(Path file, String key) {
+		String s3Key = PathUrlUtil.pathWithS3Separator(key);
+		// Not from the cache: the blob may have been removed by the retention since cached
+		if (this.downloadResource.retrieveUncachedS3ObjectMetadata(s3Key).exists()) {
+			LOG.debug("Blob {} already stored: upload skipped", s3Key);
+			// Blob removed in the meantime: uploaded again
+			return this.uploadResource.markBlobReused(s3Key).exceptionallyCompose(e -> this.uploadFile(file, s3Key));
+		}
+		return this.uploadFile(file, s3Key);
+	}
+
 	@Override
 	public CompletableFuture<CompletedCopy> copyS3ObjectFromTo(String sourceKey, String destinationKey) {
 		if (StringUtils.isNotBlank(sourceKey) && StringUtils.isNotBlank(destinationKey)) {
@@ -112,4 +185,34 @@ public class S3ServiceImpl implements S3Service {
 		return CompletableFuture.completedFuture(null);
 	}
 
+	@Override
+	public CompletableFuture<DeleteObjectsResponse> deleteS3Keys(Set<String> keys) {
+		if (keys != null && !keys.isEmpty()) {
+			return this.deleteResource
+				.deleteObjects(keys.stream().map(PathUrlUtil::pathWithS3Separator).collect(Collectors.toSet()));
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Upload a local file in S3
+	 * @param file File to upload
+	 * @param key S3 key
+	 * @return CompletableFuture
+	 */
+	private CompletableFuture<Void> uploadFile(Path file, String key) {
+		return this.uploadResource.uploadFile(file, key).thenApply(completedFileUpload -> null);
+	}
+
+	/**
+	 * Retrieve the key of the folder in parameter ending with the S3 separator, so that
+	 * the listing does not match the folders starting with the same name
+	 * @param folder Folder to evaluate
+	 * @return Key of the folder
+	 */
+	private static String retrieveS3FolderKey(String folder) {
+		String folderKey = PathUrlUtil.pathWithS3Separator(folder);
+		return folderKey.endsWith("/") ? folderKey : "%s/".formatted(folderKey);
+	}
+
 }
@@ -89,16 +89,6 @@ public class TargetServiceImpl implements TargetService {
 		return this.targetRepository.existsByNameIgnoreCase(targetName);
 	}
 
-	@Override
-	public boolean containsAGroup(@Valid List<TargetEntity> targets) {
-		return targets.stream().anyMatch(t -> {
-			TargetType type = this.targetRepository.findOptionalByNameIgnoreCase(t.getName())
-				.map(TargetEntity::getType)
-				.orElse(null);
-			return Objects.equals(TargetType.HOST_GROUP, type) || Objects.equals(TargetType.USER_GROUP, type);
-		});
-	}
-
 	@Override
 	public void checkParametersAssociation(String groupName, @Valid List<TargetEntity> targets, TargetType targetType,
 			String messageType) {
@@ -117,15 +107,14 @@ public class TargetServiceImpl implements TargetService {
 			// case group name does not exist in database
 			throw new ParameterException("Associations not %s: group does not exist".formatted(messageType));
 		}
-		else if (targets.stream().anyMatch(t -> !this.targetExistsByNameAndType(t.getName(), targetType))) {
-			// case there is one of the target which does not exist
+		else if (targets.stream()
+			.anyMatch(t -> !this.targetExistsByNameAndType(t.getName(), targetType)
+					&& !this.targetExistsByNameAndType(t.getName(), groupType))) {
+			// case there is one of the target which does not exist: members are targets or
+			// nested groups
 			throw new ParameterException(
 					"Associations not %s: one of the member does not exist or does not have the correct target type:%s"
-						.formatted(messageType, targetType.getCode()));
-		}
-		else if (this.containsAGroup(targets)) {
-			// case there is one of the target which is a group
-			throw new ParameterException("Associations not %s: one of the member is a group".formatted(messageType));
+						.formatted(messageType, "%s or %s".formatted(targetType.getCode(), groupType.getCode())));
 		}
 	}
 
@@ -16,17 +16,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.viewer.hub.back.enums.ConnectorType;
 import org.viewer.hub.back.enums.QueryLevelType;
+import org.viewer.hub.back.model.connector.ConnectorQueryTask;
 import org.viewer.hub.back.model.manifest.Manifest;
+import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.SearchCriteria;
 import org.viewer.hub.back.service.ConnectorService;
 import org.viewer.hub.back.service.DbConnectorQueryService;
 import org.viewer.hub.back.service.DicomConnectorQueryService;
 import org.viewer.hub.back.service.WeasisConnectorQueryService;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
-import java.util.Objects;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -39,118 +42,176 @@ public class WeasisConnectorQueryServiceImpl implements WeasisConnectorQueryServ
 
 	private final ConnectorService connectorService;
 
+	private final ConnectorQueryExecutorService connectorQueryExecutorService;
+
 	@Autowired
 	public WeasisConnectorQueryServiceImpl(final DbConnectorQueryService dbConnectorQueryService,
-			final DicomConnectorQueryService dicomConnectorQueryService, final ConnectorService connectorService) {
+			final DicomConnectorQueryService dicomConnectorQueryService, final ConnectorService connectorService,
+			final ConnectorQueryExecutorService connectorQueryExecutorService) {
 		this.dbConnectorQueryService = dbConnectorQueryService;
 		this.dicomConnectorQueryService = dicomConnectorQueryService;
 		this.connectorService = connectorService;
+		this.connectorQueryExecutorService = connectorQueryExecutorService;
+	}
+
+	@Override
+	public void buildFromArchiveSearchCriteria(Manifest manifest, ArchiveSearchCriteria searchCriteria,
+			Authentication authentication) {
+		// Tasks of all the requested levels, in the order of the merge in the manifest
+		List<ConnectorQueryTask<Set<Patient>>> tasks = new ArrayList<>();
+		if (!searchCriteria.getObjectUID().isEmpty()) {
+			tasks.addAll(this.createSopInstanceUidsTasks(searchCriteria.getObjectUID(), searchCriteria.getArchive(),
+					authentication));
+		}
+		if (!searchCriteria.getSeriesUID().isEmpty()) {
+			tasks.addAll(this.createSeriesInstanceUidsTasks(searchCriteria.getSeriesUID(),
+					searchCriteria.getArchive(), authentication));
+		}
+		if (!searchCriteria.getAccessionNumber().isEmpty()) {
+			tasks.addAll(this.createStudyAccessionNumbersTasks(searchCriteria.getAccessionNumber(),
+					searchCriteria.getArchive(), authentication));
+		}
+		if (!searchCriteria.getStudyUID().isEmpty()) {
+			tasks.addAll(this.createStudyInstanceUidsTasks(searchCriteria.getStudyUID(), searchCriteria.getArchive(),
+					authentication));
+		}
+		if (!searchCriteria.getPatientID().isEmpty()) {
+			tasks.addAll(this.createPatientIdsTasks(searchCriteria.getPatientID(), searchCriteria, authentication));
+		}
+		// Single fan-out for all the levels
+		this.updateManifest(manifest, tasks);
 	}
 
 	@Override
 	public void buildFromPatientIds(Manifest manifest, Set<String> patientIds, @Valid SearchCriteria searchCriteria,
 			Authentication authentication) {
-		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(searchCriteria.getArchive()).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.PATIENT_ID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					manifest.update(this.dbConnectorQueryService.retrievePatientsFromPatientIdsDbConnector(patientIds,
-							connector), connector);
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(
-							patientIds, connector, authentication), connector);
-				}
-			}
-		});
+		this.updateManifest(manifest, this.createPatientIdsTasks(patientIds, searchCriteria, authentication));
 	}
 
 	@Override
 	public void buildFromStudyInstanceUids(Manifest manifest, Set<String> studyInstanceUids,
 			LinkedHashSet<String> archives, Authentication authentication) {
-		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(archives).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.STUDY_INSTANCE_UID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dbConnectorQueryService
-						.retrievePatientsFromStudyInstanceUidsDbConnector(studyInstanceUids, connector), connector);
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dicomConnectorQueryService.retrievePatientsFromStudyInstanceUidsDicomConnector(
-							studyInstanceUids, connector, authentication), connector);
-				}
-			}
-		});
+		this.updateManifest(manifest, this.createStudyInstanceUidsTasks(studyInstanceUids, archives, authentication));
 	}
 
 	@Override
 	public void buildFromStudyAccessionNumbers(Manifest manifest, Set<String> studyAccessionNumbers,
 			LinkedHashSet<String> archives, Authentication authentication) {
-		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(archives).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.STUDY_ACCESSION_NUMBER)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dbConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDbConnector(
-							studyAccessionNumbers, connector), connector);
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update manifest with patients found
-					manifest
-						.update(this.dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(
-								studyAccessionNumbers, connector, authentication), connector);
-				}
-			}
-		});
+		this.updateManifest(manifest,
+				this.createStudyAccessionNumbersTasks(studyAccessionNumbers, archives, authentication));
 	}
 
 	@Override
 	public void buildFromSeriesInstanceUids(Manifest manifest, Set<String> seriesInstanceUids,
 			LinkedHashSet<String> archives, Authentication authentication) {
-		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(archives).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.SERIE_INSTANCE_UID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dbConnectorQueryService
-						.retrievePatientsFromSeriesInstanceUidsDbConnector(seriesInstanceUids, connector), connector);
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update manifest with patients found
-					manifest
-						.update(this.dicomConnectorQueryService.retrievePatientsFromSeriesInstanceUidsDicomConnector(
-								seriesInstanceUids, connector, authentication), connector);
-				}
-			}
-		});
+		this.updateManifest(manifest,
+				this.createSeriesInstanceUidsTasks(seriesInstanceUids, archives, authentication));
 	}
 
 	@Override
 	public void buildFromSopInstanceUids(Manifest manifest, Set<String> sopInstanceUids, LinkedHashSet<String> archives,
 			Authentication authentication) {
+		this.updateManifest(manifest, this.createSopInstanceUidsTasks(sopInstanceUids, archives, authentication));
+	}
+
+	/**
+	 * Create the connector queries looking for patient ids
+	 * @param patientIds Patient ids to look for
+	 * @param searchCriteria Search criteria
+	 * @param authentication Authentication
+	 * @return tasks created
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createPatientIdsTasks(Set<String> patientIds,
+			SearchCriteria searchCriteria, Authentication authentication) {
+		// Retrieve default or specific connectors
+		return this.connectorQueryExecutorService.createPatientQueryTasks(
+				this.connectorService.retrieveConnectors(searchCriteria.getArchive()), patientIds,
+				QueryLevelType.PATIENT_ID, this.dbConnectorQueryService::retrievePatientsFromPatientIdsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromPatientIdsDicomConnector(values, searchCriteria, null, connector,
+							authentication));
+	}
+
+	/**
+	 * Create the connector queries looking for study instance uids
+	 * @param studyInstanceUids Study instance uids to look for
+	 * @param archives Archives
+	 * @param authentication Authentication
+	 * @return tasks created
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createStudyInstanceUidsTasks(Set<String> studyInstanceUids,
+			LinkedHashSet<String> archives, Authentication authentication) {
 		// Retrieve default or specific connectors
-		this.connectorService.retrieveConnectors(archives).forEach(connector -> {
-			if (!connector.getSearchCriteria().getDeactivated().contains(QueryLevelType.SOP_INSTANCE_UID)) {
-				if (Objects.equals(ConnectorType.DB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dbConnectorQueryService
-						.retrievePatientsFromSopInstanceUidsDbConnector(sopInstanceUids, connector), connector);
-				}
-				else if (Objects.equals(ConnectorType.DICOM, connector.getType())
-						|| Objects.equals(ConnectorType.DICOM_WEB, connector.getType())) {
-					// Update manifest with patients found
-					manifest.update(this.dicomConnectorQueryService.retrievePatientsFromSopInstanceUidsDicomConnector(
-							sopInstanceUids, connector, authentication), connector);
-				}
-			}
-		});
+		return this.connectorQueryExecutorService.createPatientQueryTasks(
+				this.connectorService.retrieveConnectors(archives), studyInstanceUids,
+				QueryLevelType.STUDY_INSTANCE_UID,
+				this.dbConnectorQueryService::retrievePatientsFromStudyInstanceUidsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromStudyInstanceUidsDicomConnector(values, null, connector, authentication));
+	}
+
+	/**
+	 * Create the connector queries looking for study accession numbers
+	 * @param studyAccessionNumbers Study accession numbers to look for
+	 * @param archives Archives
+	 * @param authentication Authentication
+	 * @return tasks created
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createStudyAccessionNumbersTasks(Set<String> studyAccessionNumbers,
+			LinkedHashSet<String> archives, Authentication authentication) {
+		// Retrieve default or specific connectors
+		return this.connectorQueryExecutorService.createPatientQueryTasks(
+				this.connectorService.retrieveConnectors(archives), studyAccessionNumbers,
+				QueryLevelType.STUDY_ACCESSION_NUMBER,
+				this.dbConnectorQueryService::retrievePatientsFromStudyAccessionNumbersDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromStudyAccessionNumbersDicomConnector(values, null, connector, authentication));
+	}
+
+	/**
+	 * Create the connector queries looking for serie instance uids
+	 * @param seriesInstanceUids Serie instance uids to look for
+	 * @param archives Archives
+	 * @param authentication Authentication
+	 * @return tasks created
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createSeriesInstanceUidsTasks(Set<String> seriesInstanceUids,
+			LinkedHashSet<String> archives, Authentication authentication) {
+		// Retrieve default or specific connectors
+		return this.connectorQueryExecutorService.createPatientQueryTasks(
+				this.connectorService.retrieveConnectors(archives), seriesInstanceUids,
+				QueryLevelType.SERIE_INSTANCE_UID,
+				this.dbConnectorQueryService::retrievePatientsFromSeriesInstanceUidsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromSeriesInstanceUidsDicomConnector(values, null, connector, authentication));
+	}
+
+	/**
+	 * Create the connector queries looking for sop instance uids
+	 * @param sopInstanceUids Sop instance uids to look for
+	 * @param archives Archives
+	 * @param authentication Authentication
+	 * @return tasks created
+	 */
+	private List<ConnectorQueryTask<Set<Patient>>> createSopInstanceUidsTasks(Set<String> sopInstanceUids,
+			LinkedHashSet<String> archives, Authentication authentication) {
+		// Retrieve default or specific connectors
+		return this.connectorQueryExecutorService.createPatientQueryTasks(
+				this.connectorService.retrieveConnectors(archives), sopInstanceUids, QueryLevelType.SOP_INSTANCE_UID,
+				this.dbConnectorQueryService::retrievePatientsFromSopInstanceUidsDbConnector,
+				(values, connector) -> this.dicomConnectorQueryService
+					.retrievePatientsFromSopInstanceUidsDicomConnector(values, connector, authentication));
+	}
+
+	/**
+	 * Run the connector queries in parallel and update the manifest with the patients
+	 * found, in the order of the tasks
+	 * @param manifest Manifest to update
+	 * @param tasks Connector queries
+	 */
+	private void updateManifest(Manifest manifest, List<ConnectorQueryTask<Set<Patient>>> tasks) {
+		this.connectorQueryExecutorService.executeAll(tasks)
+			.forEach(result -> manifest.update(result.result(), result.connector()));
 	}
 
 }
@@ -82,8 +82,18 @@ public class WeasisDisplayServiceImpl implements WeasisDisplayService {
 		if (!isBuildInProgress) {
 			// Case no manifest built yet or skip cache requested: build the manifest
 			// asynchronously
-			if (manifest == null || skipWeasisManifestCache) {
-				this.weasisService.buildManifest(key, searchCriteria, patientsByArchive, authentication);
+			// Only one build is launched for identical concurrent requests: the others
+			// share the build in progress
+			if ((manifest == null || skipWeasisManifestCache) && this.cacheService.acquireManifestBuildLock(key)) {
+				try {
+					this.weasisService.buildManifest(key, searchCriteria, patientsByArchive, authentication);
+				}
+				catch (RuntimeException e) {
+					// Build not dispatched (task rejected...): the build will not release
+					// the lock
+					this.cacheService.releaseManifestBuildLock(key);
+					throw e;
+				}
 			}
 			// Case manifest already built and in the cache: reset structured arguments
 			// for monitoring
@@ -18,11 +18,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.TargetEntity;
@@ -35,12 +37,15 @@ import org.viewer.hub.back.repository.LaunchConfigRepository;
 import org.viewer.hub.back.service.PackageService;
 import org.viewer.hub.back.service.TargetService;
 import org.viewer.hub.back.service.WeasisRepositoryService;
+import org.viewer.hub.back.util.PackageUtil;
 import org.viewer.hub.back.util.PageUtil;
 import org.viewer.hub.front.views.weasis.bundle.repository.component.WeasisAssetFilter;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -54,6 +59,11 @@ import java.util.Objects;
 @Slf4j
 public class WeasisRepositoryServiceImpl implements WeasisRepositoryService {
 
+	// Prefix and suffix of the local files of the assets downloaded
+	private static final String ASSET_FILE_PREFIX = "weasis-asset-";
+
+	private static final String ZIP_FILE_SUFFIX = ".zip";
+
 	// Name of the Weasis repository
 	private final String weasisRepositoryName;
 
@@ -104,8 +114,17 @@ public class WeasisRepositoryServiceImpl implements WeasisRepositoryService {
 	}
 
 	@Override
-	public InputStream downloadWeasisAsset(WeasisAssetModel weasisAssetModel) {
-		byte[] downloadedAssetBytes = webClientDownloadAssetsRepository.get()
+	public Path downloadWeasisAsset(WeasisAssetModel weasisAssetModel) {
+		Path assetFile;
+		try {
+			assetFile = Files.createTempFile(ASSET_FILE_PREFIX, ZIP_FILE_SUFFIX);
+		}
+		catch (IOException e) {
+			throw new TechnicalException("Issue when creating the file of the asset:%s".formatted(e.getMessage()));
+		}
+
+		// Asset streamed in the file, without being held in memory
+		Flux<DataBuffer> downloadedAsset = webClientDownloadAssetsRepository.get()
 			.uri(uriBuilder -> uriBuilder.queryParam(NexusApiQueryParamType.REPOSITORY.getCode(), weasisRepositoryName)
 				.queryParam(NexusApiQueryParamType.GROUP.getCode(), weasisRepositoryGroup)
 				.queryParam(NexusApiQueryParamType.MAVEN_EXTENSION.getCode(),
@@ -114,11 +133,15 @@ public class WeasisRepositoryServiceImpl implements WeasisRepositoryService {
 				.queryParam(NexusApiQueryParamType.VERSION.getCode(), weasisAssetModel.getVersion())
 				.build())
 			.retrieve()
-			.bodyToMono(ByteArrayResource.class)
-			.map(ByteArrayResource::getByteArray)
-			.block();
-
-		return downloadedAssetBytes != null ? new ByteArrayInputStream(downloadedAssetBytes) : null;
+			.bodyToFlux(DataBuffer.class);
+		try {
+			DataBufferUtils.write(downloadedAsset, assetFile).block();
+		}
+		catch (RuntimeException e) {
+			PackageUtil.deleteLocalFile(assetFile);
+			throw e;
+		}
+		return assetFile;
 	}
 
 	@Override
@@ -46,21 +46,25 @@ public class WeasisServiceImpl implements WeasisService {
 
 	private final ConnectorService connectorService;
 
+	private final ManifestReadinessService manifestReadinessService;
+
 	/**
 	 * Autowired constructor
 	 * @param cacheService Cache service
 	 * @param weasisConnectorQueryService Connector query service
 	 * @param securityService Security service
 	 * @param connectorService Connector service
+	 * @param manifestReadinessService Manifest readiness service
 	 */
 	@Autowired
 	public WeasisServiceImpl(final CacheService cacheService,
 			final WeasisConnectorQueryService weasisConnectorQueryService, final SecurityService securityService,
-			final ConnectorService connectorService) {
+			final ConnectorService connectorService, final ManifestReadinessService manifestReadinessService) {
 		this.cacheService = cacheService;
 		this.weasisConnectorQueryService = weasisConnectorQueryService;
 		this.securityService = securityService;
 		this.connectorService = connectorService;
+		this.manifestReadinessService = manifestReadinessService;
 	}
 
 	@Override
@@ -72,39 +76,53 @@ public class WeasisServiceImpl implements WeasisService {
 	// When working should use SecurityContextHolder.getContext().getAuthentication()
 	public void buildManifest(String key, @Valid SearchCriteria searchCriteria,
 			Map<String, Set<Patient>> patientsByArchive, Authentication authentication) {
-		// Initialize manifest and set it in the cache with the flag build in progress to
-		// true
-		Manifest manifest = initializeManifest(key, searchCriteria, authentication);
-
-		// Build manifest depending on the presence of patientsByArchive in parameter and
-		// the type of search criteria (IHE or non-IHE)
-		if (patientsByArchive == null) {
-			if (searchCriteria instanceof IHESearchCriteria iheSearchCriteria) {
-				// Build manifest with IHE search criteria
-				this.buildManifestWithIHESearchCriteria(manifest, iheSearchCriteria, authentication);
+		boolean buildFailed = false;
+		try {
+			// Initialize manifest and set it in the cache with the flag build in progress to
+			// true
+			Manifest manifest = initializeManifest(key, searchCriteria, authentication);
+
+			// Build manifest depending on the presence of patientsByArchive in parameter and
+			// the type of search criteria (IHE or non-IHE)
+			if (patientsByArchive == null) {
+				if (searchCriteria instanceof IHESearchCriteria iheSearchCriteria) {
+					// Build manifest with IHE search criteria
+					this.buildManifestWithIHESearchCriteria(manifest, iheSearchCriteria, authentication);
+				}
+				else if (searchCriteria instanceof ArchiveSearchCriteria archiveSearchCriteria) {
+					// Build manifest with non-IHE search criteria
+					this.buildManifestWithoutIHESearchCriteria(manifest, archiveSearchCriteria, authentication);
+				}
 			}
-			else if (searchCriteria instanceof ArchiveSearchCriteria archiveSearchCriteria) {
-				// Build manifest with non-IHE search criteria
-				this.buildManifestWithoutIHESearchCriteria(manifest, archiveSearchCriteria, authentication);
+			else {
+				// Build manifest with provided patients by archive map.
+				// Case when patients have already been fetched from the connectors based on
+				// the search criteria
+				// Happens when viewer=WEASIS has not been specified in the search criteria
+				this.buildManifestWithPatientsByArchiveMap(manifest, patientsByArchive);
 			}
+
+			// Finalize manifest by applying filters, handling authentication, setting build
+			// duration,
+			// set the flag build in progress to false and updating cache
+			this.finalizeBuildingManifest(key, manifest, searchCriteria, authentication);
 		}
-		else {
-			// Build manifest with provided patients by archive map.
-			// Case when patients have already been fetched from the connectors based on
-			// the search criteria
-			// Happens when viewer=WEASIS has not been specified in the search criteria
-			this.buildManifestWithPatientsByArchiveMap(manifest, patientsByArchive);
+		catch (RuntimeException | Error e) {
+			// Evict the manifest left in build so that the clients do not wait for a build
+			// which will never end
+			LOG.error("Manifest not built for key:" + key + " and search criteria:" + searchCriteria, e);
+			buildFailed = true;
+			this.cacheService.removeManifest(key);
+			throw e;
+		}
+		finally {
+			// Allow the next build of this manifest
+			this.cacheService.releaseManifestBuildLock(key);
+			if (buildFailed) {
+				// Wake up the clients already waiting for the failed build
+				this.manifestReadinessService.notifyManifestReady(key);
+			}
 		}
-
-		// Finalize manifest by applying filters, handling authentication, setting build
-		// duration,
-		// set the flag build in progress to false and updating cache
-		this.finalizeBuildingManifest(key, manifest, searchCriteria, authentication);
-	}
-
-	@Override
-	public Manifest retrieveManifest(String key) {
-		return this.cacheService.getManifest(key);
 	}
 
 	/**
@@ -124,7 +142,8 @@ public class WeasisServiceImpl implements WeasisService {
 
 	/**
 	 * Finalize manifest by applying filters, handling authentication, setting build
-	 * duration, set the flag build in progress to false and updating cache
+	 * duration, set the flag build in progress to false, updating cache and notifying the
+	 * clients waiting for the manifest
 	 * @param key Cache key
 	 * @param manifest Manifest to finalize
 	 * @param searchCriteria Search criteria used for filtering
@@ -147,6 +166,8 @@ public class WeasisServiceImpl implements WeasisService {
 		// Construction of the manifest is over: set the manifest in the cache
 		manifest.setBuildInProgress(false);
 		this.cacheService.putManifest(key, manifest);
+		// Wake up the clients waiting for this manifest
+		this.manifestReadinessService.notifyManifestReady(key);
 		LOG.info("Manifest built for key:" + key + " and search criteria:" + searchCriteria);
 	}
 
@@ -165,31 +186,9 @@ public class WeasisServiceImpl implements WeasisService {
 		// TODO: decrypt..
 		// TODO: doBuildQuery...
 
-		// Sop Instance Uid
-		if (!searchCriteria.getObjectUID().isEmpty()) {
-			this.weasisConnectorQueryService.buildFromSopInstanceUids(manifest, searchCriteria.getObjectUID(),
-					searchCriteria.getArchive(), authentication);
-		}
-		// Series Instance Uid
-		if (!searchCriteria.getSeriesUID().isEmpty()) {
-			this.weasisConnectorQueryService.buildFromSeriesInstanceUids(manifest, searchCriteria.getSeriesUID(),
-					searchCriteria.getArchive(), authentication);
-		}
-		// Accession Number
-		if (!searchCriteria.getAccessionNumber().isEmpty()) {
-			this.weasisConnectorQueryService.buildFromStudyAccessionNumbers(manifest,
-					searchCriteria.getAccessionNumber(), searchCriteria.getArchive(), authentication);
-		}
-		// Study Uid
-		if (!searchCriteria.getStudyUID().isEmpty()) {
-			this.weasisConnectorQueryService.buildFromStudyInstanceUids(manifest, searchCriteria.getStudyUID(),
-					searchCriteria.getArchive(), authentication);
-		}
-		// Patient Id
-		if (!searchCriteria.getPatientID().isEmpty()) {
-			this.weasisConnectorQueryService.buildFromPatientIds(manifest, searchCriteria.getPatientID(),
-					searchCriteria, authentication);
-		}
+		// Sop instance uids, serie instance uids, accession numbers, study uids and patient
+		// ids queried in a single fan-out
+		this.weasisConnectorQueryService.buildFromArchiveSearchCriteria(manifest, searchCriteria, authentication);
 	}
 
 	/**
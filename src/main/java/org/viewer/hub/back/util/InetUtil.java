@@ -20,7 +20,6 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 @Slf4j
 public class InetUtil {
@@ -31,26 +30,6 @@ public class InetUtil {
 	private InetUtil() {
 	}
 
-	/**
-	 * @see {@link #getClientHost(HttpServletRequest,Optional, String)} <br>
-	 */
-	public static String getClientHost(HttpServletRequest request, Optional<String> optHostAddr, String bypass) {
-		return optHostAddr.isPresent() ? getClientHostFromAddr(optHostAddr.get(), bypass)
-				: getClientHostFromRequest(request);
-	}
-
-	/**
-	 * Returns HostName from request remote ipAddress
-	 *
-	 * @see {@link #getClientIpAddr(HttpServletRequest)} <br>
-	 * {@link #getClientHostFromAddr(String)}
-	 * @param request
-	 * @return <b>hostName</b> or <b>null</b> if host cannot be resolved.
-	 */
-	public static String getClientHostFromRequest(HttpServletRequest request) {
-		return getClientHostFromAddr(getClientIpAddr(request));
-	}
-
 	/**
 	 * Returns original Internet Protocol (IP) address of the client or last proxy that
 	 * sent the request even if behind a proxy or a load balancer.
@@ -86,55 +65,41 @@ public class InetUtil {
 	}
 
 	/**
-	 * Returns HostName from DNS if correctly set on the OS by providing a remote lookup
-	 * on literal IP address, if not, the reverse lookup from "host" file will be used
-	 * instead. <br>
-	 *
-	 * Depending on the underlying system configuration best effort method is applied,
-	 * meaning a simple textual representation of the IP address may be returned.
+	 * Returns the canonical HostName of the address: blocking call on the DNS for a
+	 * literal IP address.
 	 *
-	 * If valid, the found hostName is returned without any unneeded SUFFIX part <br>
-	 *
-	 * @see {@link #removeFQDN(String)}
-	 * @param addr as literal IP address (IPV4/IPV6) or hostName (even in fully qualified
-	 * domain name form)
-	 * @return <b>hostName</b> or <b>null</b> if host cannot be resolved or bypassed.<br>
+	 * @param addr as literal IP address (IPV4/IPV6) or hostName
+	 * @return <b>canonical hostName</b>, the literal IP address when no hostName is found,
+	 * or <b>null</b> if the address cannot be resolved.<br>
 	 */
-	public static String getClientHostFromAddr(String addr) {
-		return getClientHostFromAddr(addr, null);
-	}
-
-	/**
-	 * @see {@link #getClientHostFromAddr(String)}
-	 */
-	public static String getClientHostFromAddr(String addr, String bypass) {
-
-		if (isEmpty(addr) || addr.equalsIgnoreCase(bypass))
-			return null; // avoids resolving localhost loopback interface when supplied
-							// clientIP is null
-
-		String clientHost = null;
-
+	public static String lookupCanonicalHostName(String addr) {
 		try {
 			// If a literal IP address is supplied, only the validity of the address
 			// format is checked.
 			InetAddress inetAddress = InetAddress.getByName(addr);
 			if (inetAddress.isLoopbackAddress())
-				clientHost = InetAddress.getLocalHost().getCanonicalHostName();
-			else
-				clientHost = inetAddress.getCanonicalHostName();
-
+				return InetAddress.getLocalHost().getCanonicalHostName();
+			return inetAddress.getCanonicalHostName();
 		}
 		catch (Exception e) {
 			LOG.warn("Can't get CanonicalHostName from IP [{}] : {} ", addr, e.getLocalizedMessage());
+			return null;
 		}
+	}
 
-		if (!(isEmpty(clientHost))) {
-			String clientHostFQDN = clientHost;
-			clientHost = removeFQDN(clientHost);
-			LOG.debug("Client HOST is [{}] with orginal FQDN form [{}]", clientHost, clientHostFQDN);
-		}
+	/**
+	 * Returns the hostName without any unneeded SUFFIX part
+	 *
+	 * @see {@link #removeFQDN(String)}
+	 * @param clientHostFQDN hostName in fully qualified domain name form
+	 * @return <b>hostName</b> or <b>null</b> if the hostName in parameter is empty.<br>
+	 */
+	public static String simplifyHostName(String clientHostFQDN) {
+		if (isEmpty(clientHostFQDN))
+			return null;
 
+		String clientHost = removeFQDN(clientHostFQDN);
+		LOG.debug("Client HOST is [{}] with orginal FQDN form [{}]", clientHost, clientHostFQDN);
 		return clientHost;
 	}
 
@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.util;
+
+import org.viewer.hub.back.entity.OverrideConfigEntity;
+import org.viewer.hub.back.model.version.MinimalReleaseVersion;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.databind.ser.std.StdSerializer;
+import tools.jackson.dataformat.javaprop.JavaPropsMapper;
+import tools.jackson.dataformat.javaprop.JavaPropsSchema;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the Jackson mappers shared across the application: mappers, readers and
+ * writers are immutable and thread-safe once built, and keep their serializers and
+ * deserializers in cache, so they are built once instead of on each call.
+ * <p>
+ * The mappers used by the http converters and the manifest streaming are Spring beans
+ * declared in WebConfiguration.
+ */
+public final class JacksonMappers {
+
+	/**
+	 * Json mapper with the default configuration of Jackson 3
+	 */
+	public static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	/**
+	 * Json mapper reading kebab case properties
+	 */
+	public static final JsonMapper KEBAB_CASE_JSON_MAPPER = JsonMapper.builder()
+		.propertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
+		.build();
+
+	/**
+	 * Json mapper with the Jackson 2 defaults reading kebab case properties
+	 */
+	public static final JsonMapper JACKSON2_KEBAB_CASE_JSON_MAPPER = JsonMapper.builder()
+		.configureForJackson2()
+		.propertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
+		.build();
+
+	/**
+	 * Properties mapper with the default configuration
+	 */
+	public static final JavaPropsMapper PROPERTIES_MAPPER = JavaPropsMapper.builder().build();
+
+	/**
+	 * Reader of an OverrideConfigEntity in json
+	 */
+	public static final ObjectReader OVERRIDE_CONFIG_JSON_READER = JSON_MAPPER.readerFor(OverrideConfigEntity.class);
+
+	/**
+	 * Reader of a properties file in a flat map: the dots of the keys are not used as
+	 * path separator
+	 */
+	public static final ObjectReader PROPERTIES_MAP_READER = PROPERTIES_MAPPER.readerFor(HashMap.class)
+		.with(JavaPropsSchema.emptySchema().withoutPathSeparator());
+
+	/**
+	 * Reader of the mapping of the minimal release versions
+	 */
+	public static final ObjectReader MINIMAL_RELEASE_VERSIONS_READER = KEBAB_CASE_JSON_MAPPER
+		.readerForListOf(MinimalReleaseVersion.class);
+
+	/**
+	 * Reader of the mapping of the minimal release versions with the Jackson 2 defaults
+	 */
+	public static final ObjectReader JACKSON2_MINIMAL_RELEASE_VERSIONS_READER = JACKSON2_KEBAB_CASE_JSON_MAPPER
+		.readerForListOf(MinimalReleaseVersion.class);
+
+	/**
+	 * Reader of the manifest of a build mapping the paths of its deduplicated files to
+	 * their digest
+	 */
+	public static final ObjectReader BLOB_MANIFEST_READER = JSON_MAPPER.readerForMapOf(String.class);
+
+	// Properties writers using a custom serializer, by serialized class and serializer
+	private static final Map<SerializerKey, ObjectWriter> PROPERTIES_WRITERS = new ConcurrentHashMap<>();
+
+	private JacksonMappers() {
+		// Private constructor to hide implicit one
+	}
+
+	/**
+	 * Retrieve the properties writer serializing the class in parameter with the custom
+	 * serializer in parameter: the writer is built on the first call for a class and a
+	 * serializer class, serializers being stateless
+	 * @param classToSerialize Class to serialize
+	 * @param stdSerializer Serializer of the class
+	 * @return writer
+	 */
+	public static <T> ObjectWriter propertiesWriter(Class<T> classToSerialize, StdSerializer<T> stdSerializer) {
+		return PROPERTIES_WRITERS.computeIfAbsent(new SerializerKey(classToSerialize, stdSerializer.getClass()), k -> {
+			SimpleModule module = new SimpleModule();
+			module.addSerializer(classToSerialize, stdSerializer);
+			return JavaPropsMapper.builder().addModule(module).build().writer();
+		});
+	}
+
+	/**
+	 * Key of a properties writer
+	 * @param classToSerialize Class to serialize
+	 * @param serializerClass Class of the serializer
+	 */
+	private record SerializerKey(Class<?> classToSerialize, Class<?> serializerClass) {
+	}
+
+}
@@ -18,18 +18,10 @@ import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.WeasisPropertyEntity;
 import org.viewer.hub.back.model.version.MinimalReleaseVersion;
 import tools.jackson.core.JacksonException;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.PropertyNamingStrategies;
-import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.databind.module.SimpleModule;
 import tools.jackson.databind.ser.std.StdSerializer;
-import tools.jackson.dataformat.javaprop.JavaPropsMapper;
-import tools.jackson.dataformat.javaprop.JavaPropsSchema;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,7 +37,7 @@ public class JacksonUtil {
 	public static String serializeIntoJson(Object objectToSerialize) {
 		String objectSerialized = null;
 		try {
-			objectSerialized = JsonMapper.builder().build().writeValueAsString(objectToSerialize);
+			objectSerialized = JacksonMappers.JSON_MAPPER.writeValueAsString(objectToSerialize);
 		}
 		catch (JacksonException e) {
 			LOG.error("Issue when serializing:%s".formatted(e.getMessage()));
@@ -61,7 +53,7 @@ public class JacksonUtil {
 	public static String serializeIntoProperties(Object objectToSerialize) {
 		String objectSerialized = null;
 		try {
-			objectSerialized = JavaPropsMapper.builder().build().writeValueAsString(objectToSerialize);
+			objectSerialized = JacksonMappers.PROPERTIES_MAPPER.writeValueAsString(objectToSerialize);
 		}
 		catch (JacksonException e) {
 			LOG.error("Issue when serializing:%s".formatted(e.getMessage()));
@@ -78,10 +70,8 @@ public class JacksonUtil {
 			Class<T> classToSerialize) {
 		String objectSerialized = null;
 		try {
-			SimpleModule module = new SimpleModule();
-			module.addSerializer(classToSerialize, stdSerializer);
-			JavaPropsMapper javaPropsMapper = JavaPropsMapper.builder().addModule(module).build();
-			objectSerialized = javaPropsMapper.writeValueAsString(objectToSerialize);
+			objectSerialized = JacksonMappers.propertiesWriter(classToSerialize, stdSerializer)
+				.writeValueAsString(objectToSerialize);
 		}
 		catch (JacksonException e) {
 			LOG.error("Issue when serializing:%s".formatted(e.getMessage()));
@@ -96,10 +86,8 @@ public class JacksonUtil {
 	 */
 	public static OverrideConfigEntity deserializeJsonOverrideConfigEntity(InputStream inputStream) {
 		OverrideConfigEntity overrideConfigEntity;
-		ObjectMapper objectMapper = JsonMapper.builder().build();
 		try {
-			overrideConfigEntity = objectMapper.readValue(inputStream, new TypeReference<>() {
-			});
+			overrideConfigEntity = JacksonMappers.OVERRIDE_CONFIG_JSON_READER.readValue(inputStream);
 
 			// The default value corresponds to the value of the property
 			overrideConfigEntity.getWeasisPropertyEntities().forEach(p -> p.setDefaultValue(p.getValue()));
@@ -119,13 +107,8 @@ public class JacksonUtil {
 	 */
 	public static OverrideConfigEntity deserializePropertiesOverrideConfigEntity(InputStream inputStream) {
 		OverrideConfigEntity overrideConfigEntity;
-		JavaPropsSchema schema = JavaPropsSchema.emptySchema().withoutPathSeparator();
 		try {
-			Map<String, String> map = JavaPropsMapper.builder()
-				.build()
-				.readerFor(HashMap.class)
-				.with(schema)
-				.readValue(inputStream);
+			Map<String, String> map = JacksonMappers.PROPERTIES_MAP_READER.readValue(inputStream);
 			overrideConfigEntity = OverrideConfigEntity.builder()
 				.weasisPropertyEntities(map.keySet()
 					.stream()
@@ -149,14 +132,9 @@ public class JacksonUtil {
 	public static List<MinimalReleaseVersion> deserializeMinimalReleaseVersionsFromInputStream(
 			InputStream inputStream) {
 		try (inputStream) {
-			ObjectMapper objectMapper = JsonMapper.builder()
-				.propertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
-				.build();
-
 			// Retrieve the minimal release versions
-			List<MinimalReleaseVersion> minimalReleaseVersions = objectMapper.readValue(inputStream,
-					new TypeReference<>() {
-					});
+			List<MinimalReleaseVersion> minimalReleaseVersions = JacksonMappers.MINIMAL_RELEASE_VERSIONS_READER
+				.readValue(inputStream);
 
 			// Clean versions without qualifier for release and minimal versions
 			minimalReleaseVersions.forEach(MinimalReleaseVersion::cleaningQualifierForReleaseAndMinimalVersion);
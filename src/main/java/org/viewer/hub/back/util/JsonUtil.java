@@ -12,16 +12,14 @@
 package org.viewer.hub.back.util;
 
 import jakarta.json.Json;
-import lombok.extern.slf4j.Slf4j;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.json.JSONReader;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.function.Consumer;
 
-@Slf4j
 public final class JsonUtil {
 
 	/** Private constructor to hide the implicit one */
@@ -29,25 +27,35 @@ public final class JsonUtil {
 	}
 
 	/**
-	 * Transform json string to list of dcm4chee attributes
-	 * @param json Json to transform
-	 * @return List of Attributes
+	 * Read a json stream of dcm4chee attributes: each attributes read is provided to the
+	 * consumer as soon as it is parsed, without buffering the whole json
+	 * @param inputStream Json stream to read
+	 * @param attributesConsumer Consumer of the attributes read
+	 * @return Number of attributes read
+	 * @throws IOException if the stream cannot be read
 	 */
-	public static List<Attributes> transformJsonToAttributes(String json) {
-		List<Attributes> attributes = new ArrayList<>();
-		if (json != null) {
-			JSONReader jsonReader = new JSONReader(
-					Json.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
-			jsonReader.readDatasets((fmi, dataset) -> {
-				if (dataset != null) {
-					if (fmi != null) {
-						dataset.addAll(fmi);
-					}
-					attributes.add(dataset);
-				}
-			});
+	public static int readJsonAttributes(InputStream inputStream, Consumer<Attributes> attributesConsumer)
+			throws IOException {
+		// Empty body (ex: 204 No Content) means no attributes
+		PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream);
+		int firstByte = pushbackInputStream.read();
+		if (firstByte == -1) {
+			return 0;
 		}
-		return attributes;
+		pushbackInputStream.unread(firstByte);
+
+		int[] count = { 0 };
+		JSONReader jsonReader = new JSONReader(Json.createParser(pushbackInputStream));
+		jsonReader.readDatasets((fmi, dataset) -> {
+			if (dataset != null) {
+				if (fmi != null) {
+					dataset.addAll(fmi);
+				}
+				count[0]++;
+				attributesConsumer.accept(dataset);
+			}
+		});
+		return count[0];
 	}
 
 }
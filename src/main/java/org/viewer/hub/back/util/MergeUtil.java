@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class MergeUtil {
+
+	private MergeUtil() {
+	}
+
+	/**
+	 * Add the elements with a key not yet in the set of elements: the elements already in
+	 * the set are kept as they are
+	 * @param elements Elements to update
+	 * @param elementsToMerge Elements to merge
+	 * @param keyExtractor Extract the key identifying an element
+	 */
+	public static <T> void mergeByKey(Set<T> elements, Collection<T> elementsToMerge,
+			Function<T, String> keyExtractor) {
+		mergeByKey(elements, elementsToMerge, keyExtractor, null);
+	}
+
+	/**
+	 * Merge elements in a set of elements identified by a key: an element with a key
+	 * already in the set is merged in the element of the set, otherwise it is added to the
+	 * set. The elements of the set are indexed once by key so that the merge is linear.
+	 * @param elements Elements to update
+	 * @param elementsToMerge Elements to merge
+	 * @param keyExtractor Extract the key identifying an element
+	 * @param merger Merge the element to merge (second) in the existing element (first),
+	 * null to keep the existing element as it is
+	 */
+	public static <T> void mergeByKey(Set<T> elements, Collection<T> elementsToMerge,
+			Function<T, String> keyExtractor, BiConsumer<T, T> merger) {
+		Map<String, T> elementsByKey = new HashMap<>();
+		elements.forEach(element -> elementsByKey.putIfAbsent(keyExtractor.apply(element), element));
+		elementsToMerge.forEach(elementToMerge -> {
+			T element = elementsByKey.putIfAbsent(keyExtractor.apply(elementToMerge), elementToMerge);
+			if (element == null) {
+				elements.add(elementToMerge);
+			}
+			else if (merger != null) {
+				merger.accept(element, elementToMerge);
+			}
+		});
+	}
+
+	/**
+	 * Merge an element in elements indexed by key: if an element with the same key is
+	 * found the element is merged in it, otherwise the element is added
+	 * @param elementsByKey Elements indexed by key
+	 * @param elementToMerge Element to merge
+	 * @param keyExtractor Extract the key identifying an element
+	 * @param merger Merge the element to merge (second) in the existing element (first)
+	 */
+	public static <T> void mergeByKey(Map<String, T> elementsByKey, T elementToMerge,
+			Function<T, String> keyExtractor, BiConsumer<T, T> merger) {
+		T element = elementsByKey.putIfAbsent(keyExtractor.apply(elementToMerge), elementToMerge);
+		if (element != null) {
+			merger.accept(element, elementToMerge);
+		}
+	}
+
+}
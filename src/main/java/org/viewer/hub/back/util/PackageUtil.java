@@ -11,6 +11,16 @@
 
 package org.viewer.hub.back.util;
 
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Slf4j
 public class PackageUtil {
 
 	public static final String NO_QUALIFIER = "-NO_QUALIFIER";
@@ -37,4 +47,111 @@ public class PackageUtil {
 
 	public static final String CURRENT_BUILD_POINTER_FILE = "current";
 
+	/** buildId format used at upload time: {@link java.util.UUID#randomUUID()}. */
+	public static final Pattern BUILD_ID_PATTERN = Pattern
+		.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+	/** Extension of the gzip variant stored next to a compressible file. */
+	public static final String GZIP_VARIANT_EXTENSION = ".gz";
+
+	/** Per-build manifest mapping the paths of the deduplicated files to their digest. */
+	public static final String BLOB_MANIFEST_FILE = "blobs.json";
+
+	/** Algorithm of the digests keying the content-addressed blobs. */
+	public static final String BLOB_DIGEST_ALGORITHM = "SHA-256";
+
+	/** Tag of a blob holding the instant of its last reuse by an upload. */
+	public static final String BLOB_REUSED_AT_TAG = "reused-at";
+
+	/** Key of a content-addressed blob: sha256/&lt;hex digest&gt; under the blobs path. */
+	private static final Pattern BLOB_KEY_PATTERN = Pattern.compile("(^|.*/)sha256/[0-9a-f]{64}$");
+
+	/** Extensions of the files of the packages stored once as content-addressed blobs. */
+	private static final Set<String> DEDUPLICATED_EXTENSIONS = Set.of("jar");
+
+	/** Extensions of the text files of the packages worth to be compressed. */
+	private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("xml", "properties", "json", "txt", "csv", "html",
+			"htm", "css", "js", "svg", "xsl", "cfg", "conf");
+
+	/**
+	 * Check if the file is worth to be compressed: text files, the other files of the
+	 * packages (jar, zip, images...) being already compressed
+	 * @param key S3 key or name of the file
+	 * @return true if the extension of the file is a compressible one
+	 */
+	public static boolean isCompressible(String key) {
+		return COMPRESSIBLE_EXTENSIONS.contains(retrieveExtension(key));
+	}
+
+	/**
+	 * Check if the file is stored once as a content-addressed blob shared by the builds:
+	 * the bundles jars, mostly identical between the versions and between the builds of a
+	 * version
+	 * @param key S3 key or name of the file
+	 * @return true if the extension of the file is a deduplicated one
+	 */
+	public static boolean isDeduplicated(String key) {
+		return DEDUPLICATED_EXTENSIONS.contains(retrieveExtension(key));
+	}
+
+	/**
+	 * Retrieve the S3 key of the content-addressed blob having the digest in parameter
+	 * @param blobsPath Base S3 path of the blobs
+	 * @param digest Hex SHA-256 digest of the content
+	 * @return S3 key of the blob
+	 */
+	public static String retrieveBlobKey(String blobsPath, String digest) {
+		return "%s/sha256/%s".formatted(blobsPath, digest);
+	}
+
+	/**
+	 * Check if the S3 key is the one of a content-addressed blob: its content is
+	 * immutable, its key being the digest of its content
+	 * @param key S3 key
+	 * @return true if the key is the one of a blob
+	 */
+	public static boolean isBlob(String key) {
+		return BLOB_KEY_PATTERN.matcher(key).matches();
+	}
+
+	/**
+	 * Retrieve the extension of the file in lower case
+	 * @param key S3 key or name of the file
+	 * @return extension of the file, empty if the file has no extension
+	 */
+	private static String retrieveExtension(String key) {
+		int extensionIndex = key.lastIndexOf('.');
+		return extensionIndex > key.lastIndexOf('/') ? key.substring(extensionIndex + 1).toLowerCase(Locale.ROOT)
+				: StringUtil.EMPTY_STRING;
+	}
+
+	/**
+	 * Check if the S3 key is inside a build-stamped sub-directory: the content of these
+	 * sub-directories is immutable, a new upload publishing a new build id
+	 * @param key S3 key
+	 * @return true if one of the folders of the key is a build id
+	 */
+	public static boolean isInBuildStampedFolder(String key) {
+		String[] segments = key.split("/");
+		for (int i = 0; i < segments.length - 1; i++) {
+			if (BUILD_ID_PATTERN.matcher(segments[i]).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Delete a local file of a package once uploaded: zip of the package or jar
+	 * @param file Local file to delete
+	 */
+	public static void deleteLocalFile(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException e) {
+			LOG.warn("Not able to delete local file {}:{}", file, e.getMessage());
+		}
+	}
+
 }
@@ -23,19 +23,20 @@ public class PropertiesLoader {
 
 	private static final String LAUNCH_PROPERTIES_FILENAME = "launchConfig.properties";
 
-	private static final Properties launchProperties = new Properties();
+	// Property map loaded once, copied for each launch config request
+	private static volatile LinkedMultiValueMap<String, String> launchPropertyMap = null;
 
-	private static LinkedMultiValueMap<String, String> launchPropertyMap = null;
-
-	public static void loadProperties() {
+	public static synchronized void loadProperties() {
 		LOG.debug("Load properties");
 
 		try (InputStream is = Thread.currentThread()
 			.getContextClassLoader()
 			.getResourceAsStream(LAUNCH_PROPERTIES_FILENAME)) {
+			Properties launchProperties = new Properties();
 			launchProperties.load(is);
 
-			launchPropertyMap = new LinkedMultiValueMap<>();
+			// Built aside so that concurrent requests never see a partial map
+			LinkedMultiValueMap<String, String> loadedPropertyMap = new LinkedMultiValueMap<>();
 
 			launchProperties.forEach((key, value) -> {
 				String[] splitProp = ((String) key).split("^property_");
@@ -43,8 +44,9 @@ public class PropertiesLoader {
 					key = "pro";
 					value = String.format("%s %s", splitProp[1], value);
 				}
-				launchPropertyMap.add((String) key, (String) value);
+				loadedPropertyMap.add((String) key, (String) value);
 			});
+			launchPropertyMap = loadedPropertyMap;
 		}
 		catch (Exception e) {
 			LOG.error("Error when loading properties");
@@ -52,11 +54,13 @@ public class PropertiesLoader {
 	}
 
 	public static MultiValueMap<String, String> getNewLaunchPropertyMap() {
-		if (launchPropertyMap == null) {
+		LinkedMultiValueMap<String, String> propertyMap = launchPropertyMap;
+		if (propertyMap == null) {
 			loadProperties();
+			propertyMap = launchPropertyMap;
 		}
 		// Deep copy in order to not interfere with initial property map
-		return launchPropertyMap != null ? launchPropertyMap.deepCopy() : new LinkedMultiValueMap<>();
+		return propertyMap != null ? propertyMap.deepCopy() : new LinkedMultiValueMap<>();
 	}
 
 }
@@ -21,7 +21,8 @@ public class SpringDocUtil {
 	public static final String descriptionCheckParametersAssociation = "Checks done:\n"
 			+ "- names of the targets have been well deserialized\n"
 			+ "- group exists in database and has the right type\n"
-			+ "- targets exist in database and have the right type";
+			+ "- targets exist in database and have the right type: hosts or host groups, users or user groups\n"
+			+ "- on creation, the group is not one of the targets and is not contained in one of them";
 
 	public static final String descriptionRetrieveHostsFromHostGroup = "Retrieve members of the host group in parameter. "
 			+ "Checks done:\n " + "- group name not empty\n" + "- group name has been found and has the right type";
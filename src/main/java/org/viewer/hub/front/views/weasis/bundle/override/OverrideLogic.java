@@ -19,7 +19,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.PackageVersionEntity;
@@ -30,12 +29,11 @@ import org.viewer.hub.back.model.MessageLevel;
 import org.viewer.hub.back.model.MessageType;
 import org.viewer.hub.back.service.OverrideConfigService;
 import org.viewer.hub.back.service.PackageService;
+import org.viewer.hub.back.util.PackageUtil;
 import org.viewer.hub.front.views.weasis.bundle.override.component.OverrideConfigFilter;
 import org.viewer.hub.front.views.weasis.bundle.override.component.RefreshPackageGridEvent;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Set;
 
 /**
@@ -143,25 +141,27 @@ public class OverrideLogic {
 
 	/**
 	 * Manage the upload of the package version to add
-	 * @param fileData InputStream corresponding to the zip file to extract
+	 * @param packageFile Zip file to extract
 	 * @param versionToUpload Version to upload
 	 */
-	public void handlePackageVersionToUpload(InputStream fileData, String versionToUpload) {
-		this.packageService.handlePackageVersionToUpload(fileData, versionToUpload);
+	public void handlePackageVersionToUpload(Path packageFile, String versionToUpload) {
+		this.packageService.handlePackageVersionToUpload(packageFile, versionToUpload);
 	}
 
 	/**
-	 * Handle upload of package version
+	 * Handle upload of package version: the zip uploaded in a local file is read from the
+	 * file by each check and by the upload, then deleted
+	 * @param packageFile Zip file uploaded
 	 */
-	public void handleUploadWeasisNative(byte[] fileData) {
-		try (InputStream fileDataInputStream = new ByteArrayInputStream(fileData)) {
-			if (this.packageService.isImportCoherent(fileDataInputStream)) {
+	public void handleUploadWeasisNative(Path packageFile) {
+		try {
+			if (this.packageService.isImportCoherent(packageFile)) {
 
 				// Determine the version to upload, if incorrect format return null
-				String versionToUpload = this.checkVersionToUpload(fileDataInputStream);
+				String versionToUpload = this.checkVersionToUpload(packageFile);
 
 				if (versionToUpload != null) {
-					this.handlePackageVersionToUpload(fileDataInputStream, versionToUpload);
+					this.handlePackageVersionToUpload(packageFile, versionToUpload);
 				}
 				else {
 					this.overrideView.getPackageVersionUpload().getPackageVersionFileUpload().clearFileList();
@@ -177,20 +177,19 @@ public class OverrideLogic {
 						MessageType.NOTIFICATION_MESSAGE);
 			}
 		}
-		catch (IOException e) {
-			throw new TechnicalException(
-					"Issue when getting the input stream of the upload component:%s".formatted(e.getMessage()));
+		finally {
+			PackageUtil.deleteLocalFile(packageFile);
 		}
 	}
 
 	/**
 	 * Determine the version to upload, if incorrect format return null.
-	 * @param fileData To evaluate
+	 * @param packageFile Zip file to evaluate
 	 * @return null if incorrect format of the version, otherwise return the version to
 	 * upload
 	 */
-	public String checkVersionToUpload(InputStream fileData) {
-		return this.packageService.checkWeasisNativeVersionToUpload(fileData);
+	public String checkVersionToUpload(Path packageFile) {
+		return this.packageService.checkWeasisNativeVersionToUpload(packageFile);
 	}
 
 	/**
@@ -39,6 +39,7 @@ import org.viewer.hub.back.model.Message;
 import org.viewer.hub.back.model.MessageFormat;
 import org.viewer.hub.back.model.MessageLevel;
 import org.viewer.hub.back.model.MessageType;
+import org.viewer.hub.back.util.PackageUtil;
 import org.viewer.hub.front.views.AbstractView;
 import org.viewer.hub.front.views.weasis.bundle.override.component.AddGroupConfigDialog;
 import org.viewer.hub.front.views.weasis.bundle.override.component.GroupComboBox;
@@ -124,10 +125,14 @@ public class OverrideView extends AbstractView {
 		PackageVersionFileUpload packageVersionFileUpload = this.packageVersionUpload.getPackageVersionFileUpload();
 		UI ui = UI.getCurrent();
 
-		// Manage the upload of the package version to add
-		packageVersionFileUpload.setUploadHandler(UploadHandler.inMemory((metadata, data) -> {
+		// Manage the upload of the package version to add: the zip is written in a local
+		// file, deleted once imported
+		packageVersionFileUpload.setUploadHandler(UploadHandler.toTempFile((metadata, file) -> {
 			if (metadata.fileName() != null) {
-				ui.access(() -> this.overrideLogic.handleUploadWeasisNative(data));
+				ui.access(() -> this.overrideLogic.handleUploadWeasisNative(file.toPath()));
+			}
+			else {
+				PackageUtil.deleteLocalFile(file.toPath());
 			}
 		}));
 	}
@@ -18,7 +18,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.model.Message;
 import org.viewer.hub.back.model.MessageFormat;
 import org.viewer.hub.back.model.MessageLevel;
@@ -26,10 +25,10 @@ import org.viewer.hub.back.model.MessageType;
 import org.viewer.hub.back.model.asset.WeasisAssetModel;
 import org.viewer.hub.back.service.PackageService;
 import org.viewer.hub.back.service.WeasisRepositoryService;
+import org.viewer.hub.back.util.PackageUtil;
 import org.viewer.hub.front.views.weasis.bundle.repository.component.WeasisAssetFilter;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -79,14 +78,16 @@ public class WeasisRepositoryLogic {
 	 * @param weasisAssetModel Weasis Asset to import
 	 */
 	public void importPackageVersion(WeasisAssetModel weasisAssetModel) {
-		try (InputStream fileDataInputStream = weasisRepositoryService.downloadWeasisAsset(weasisAssetModel)) {
-			if (this.packageService.isImportCoherent(fileDataInputStream)) {
+		// Zip of the asset read from its local file by each check and by the upload
+		Path assetFile = weasisRepositoryService.downloadWeasisAsset(weasisAssetModel);
+		try {
+			if (this.packageService.isImportCoherent(assetFile)) {
 
 				// Determine the version to upload, if incorrect format return null
-				String versionToUpload = this.packageService.checkWeasisNativeVersionToUpload(fileDataInputStream);
+				String versionToUpload = this.packageService.checkWeasisNativeVersionToUpload(assetFile);
 
 				if (versionToUpload != null) {
-					this.packageService.handlePackageVersionToUpload(fileDataInputStream, versionToUpload);
+					this.packageService.handlePackageVersionToUpload(assetFile, versionToUpload);
 					this.weasisRepositoryView
 						.displayMessage(
 								new Message(MessageLevel.INFO, MessageFormat.TEXT,
@@ -106,9 +107,8 @@ public class WeasisRepositoryLogic {
 						MessageType.NOTIFICATION_MESSAGE);
 			}
 		}
-		catch (IOException e) {
-			throw new TechnicalException(
-					"Issue when getting the input stream of the Nexus Weasis repository:%s".formatted(e.getMessage()));
+		finally {
+			PackageUtil.deleteLocalFile(assetFile);
 		}
 	}
 
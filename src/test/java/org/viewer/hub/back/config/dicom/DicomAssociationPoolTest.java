@@ -0,0 +1,245 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.dicom;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.DimseRSP;
+import org.dcm4che3.net.DimseRSPHandler;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.service.QueryRetrieveLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.viewer.hub.back.config.properties.DicomAssociationPoolConfigurationProperties;
+import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.model.property.DicomConnectorDimseProperty;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DicomAssociationPoolTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private final List<Association> openedAssociations = new ArrayList<>();
+
+	private final DicomConnectorDimseProperty dimse = DicomConnectorDimseProperty.builder()
+		.callingAet("VIEWER-HUB")
+		.aet("ARCHIVE")
+		.host("localhost")
+		.port(11112)
+		.build();
+
+	private DicomAssociationPoolConfigurationProperties properties;
+
+	private DicomAssociationPool dicomAssociationPool;
+
+	@BeforeEach
+	public void setUp() {
+		this.properties = new DicomAssociationPoolConfigurationProperties();
+		this.properties.setMaxAssociationsPerArchive(2);
+		this.properties.setBorrowTimeout(Duration.ofSeconds(1));
+		this.properties.setIdleTimeout(Duration.ofSeconds(60));
+		this.properties.setValidateAfterIdle(Duration.ofSeconds(10));
+		this.dicomAssociationPool = new DicomAssociationPool(this.properties, this.nanoTime::get) {
+			@Override
+			Association open(DicomConnectorDimseProperty dimse, boolean useQueryRelational) {
+				Association association = Mockito.mock(Association.class);
+				when(association.isReadyForDataTransfer()).thenReturn(true);
+				DicomAssociationPoolTest.this.openedAssociations.add(association);
+				return association;
+			}
+		};
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.dicomAssociationPool.shutdown();
+	}
+
+	@Test
+	void givenAssociationReturned_whenExecutingCFind_thenShouldReuseIt() throws Exception {
+		this.cfind();
+		this.cfind();
+
+		assertThat(this.openedAssociations).hasSize(1);
+		verify(this.openedAssociations.getFirst(), times(2)).cfind(anyString(), anyInt(), any(Attributes.class),
+				isNull(), any(DimseRSPHandler.class));
+		verify(this.openedAssociations.getFirst(), never()).abort();
+	}
+
+	@Test
+	void givenCFindFailing_whenExecutingCFind_thenShouldAbortAssociationAndNotReturnIt() throws Exception {
+		this.cfind();
+		Association failingAssociation = this.openedAssociations.getFirst();
+		doThrow(new IOException("connection reset")).when(failingAssociation)
+			.cfind(anyString(), anyInt(), any(Attributes.class), isNull(), any(DimseRSPHandler.class));
+
+		assertThrows(TechnicalException.class, this::cfind);
+		this.cfind();
+
+		verify(failingAssociation).abort();
+		assertThat(this.openedAssociations).hasSize(2);
+	}
+
+	@Test
+	void givenAllAssociationsBorrowed_whenExecutingCFind_thenShouldThrowAfterBorrowTimeout() throws Exception {
+		this.properties.setMaxAssociationsPerArchive(1);
+		this.properties.setBorrowTimeout(Duration.ofMillis(10));
+		this.cfind();
+		Association borrowedAssociation = this.openedAssociations.getFirst();
+		CountDownLatch borrowed = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			borrowed.countDown();
+			done.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(borrowedAssociation)
+			.cfind(anyString(), anyInt(), any(Attributes.class), isNull(), any(DimseRSPHandler.class));
+		Thread borrower = Thread.ofVirtual().start(this::cfind);
+
+		try {
+			assertThat(borrowed.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThrows(TechnicalException.class, this::cfind);
+		}
+		finally {
+			done.countDown();
+			borrower.join();
+		}
+	}
+
+	@Test
+	void givenAssociationIdleLongerThanIdleTimeout_whenEvicting_thenShouldReleaseIt() throws Exception {
+		this.cfind();
+		this.nanoTime.addAndGet(Duration.ofSeconds(61).toNanos());
+
+		this.dicomAssociationPool.evictIdleAssociations();
+		this.cfind();
+
+		verify(this.openedAssociations.getFirst()).release();
+		assertThat(this.openedAssociations).hasSize(2);
+	}
+
+	@Test
+	void givenAssociationIdleShorterThanIdleTimeout_whenEvicting_thenShouldKeepIt() throws Exception {
+		this.cfind();
+		this.nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+
+		this.dicomAssociationPool.evictIdleAssociations();
+		this.cfind();
+
+		verify(this.openedAssociations.getFirst(), never()).release();
+		assertThat(this.openedAssociations).hasSize(1);
+	}
+
+	@Test
+	void givenAssociationBorrowed_whenEvicting_thenShouldNotReleaseIt() throws Exception {
+		this.cfind();
+		Association borrowedAssociation = this.openedAssociations.getFirst();
+		this.stubCEcho(borrowedAssociation, Status.Success);
+		this.nanoTime.addAndGet(Duration.ofSeconds(61).toNanos());
+		// Eviction running while the association executes a C-FIND
+		doAnswer(invocation -> {
+			this.dicomAssociationPool.evictIdleAssociations();
+			return null;
+		}).when(borrowedAssociation)
+			.cfind(anyString(), anyInt(), any(Attributes.class), isNull(), any(DimseRSPHandler.class));
+
+		this.cfind();
+
+		verify(borrowedAssociation, never()).release();
+		verify(borrowedAssociation, never()).abort();
+	}
+
+	@Test
+	void givenAssociationIdleLongerThanValidateAfterIdle_whenExecutingCFind_thenShouldCheckItBeforeReuse()
+			throws Exception {
+		this.cfind();
+		Association association = this.openedAssociations.getFirst();
+		this.stubCEcho(association, Status.Success);
+		this.nanoTime.addAndGet(Duration.ofSeconds(11).toNanos());
+
+		this.cfind();
+
+		verify(association).cecho();
+		assertThat(this.openedAssociations).hasSize(1);
+	}
+
+	@Test
+	void givenAssociationIdleShorterThanValidateAfterIdle_whenExecutingCFind_thenShouldReuseItWithoutCheck()
+			throws Exception {
+		this.cfind();
+		this.nanoTime.addAndGet(Duration.ofSeconds(9).toNanos());
+
+		this.cfind();
+
+		verify(this.openedAssociations.getFirst(), never()).cecho();
+		assertThat(this.openedAssociations).hasSize(1);
+	}
+
+	@Test
+	void givenValidationFailing_whenExecutingCFind_thenShouldAbortAssociationAndOpenNewOne() throws Exception {
+		this.cfind();
+		Association association = this.openedAssociations.getFirst();
+		when(association.cecho()).thenThrow(new IOException("connection reset"));
+		this.nanoTime.addAndGet(Duration.ofSeconds(11).toNanos());
+
+		this.cfind();
+
+		verify(association).abort();
+		assertThat(this.openedAssociations).hasSize(2);
+	}
+
+	/**
+	 * Execute a C-FIND at study level on the archive
+	 * @return List of attributes found
+	 */
+	private List<Attributes> cfind() {
+		return this.dicomAssociationPool.cfind(this.dimse, QueryRetrieveLevel.STUDY, List.of(), false);
+	}
+
+	/**
+	 * Answer the C-ECHO of the association with the status in parameter
+	 * @param association Association to stub
+	 * @param status Status of the C-ECHO response
+	 */
+	private void stubCEcho(Association association, int status) throws Exception {
+		Attributes command = new Attributes();
+		command.setInt(Tag.Status, VR.US, status);
+		DimseRSP rsp = Mockito.mock(DimseRSP.class);
+		when(rsp.getCommand()).thenReturn(command);
+		when(association.cecho()).thenReturn(rsp);
+	}
+
+}
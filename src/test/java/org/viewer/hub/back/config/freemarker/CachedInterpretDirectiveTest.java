@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.freemarker;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CachedInterpretDirectiveTest {
+
+	private final CachedInterpretDirective cachedInterpretDirective = new CachedInterpretDirective();
+
+	private Template template;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Configuration configuration = new Configuration(Configuration.VERSION_2_3_32);
+		configuration.setSharedVariable(CachedInterpretDirective.NAME, this.cachedInterpretDirective);
+		this.template = new Template("launchConfigTemplate", new StringReader("""
+				<#ftl output_format="XML" auto_esc=true>
+				<#assign cdb = r'${svr}/weasis${ver}'>
+				<@interpretCached source='<#assign cdb = "${cdb}">'/>
+				<#list pro as property>
+				<@interpretCached source='<#assign interpreted = "${property}">'/>
+				<property name="${interpreted?keep_before(' ')}" value="${interpreted?keep_after(' ')}"/>
+				</#list>
+				${cdb}"""), configuration);
+	}
+
+	@Test
+	void when_processingTemplate_should_interpretContentLikeInterpretBuiltIn() throws Exception {
+		// Call service
+		String result = this.process(Map.of("svr", "http://viewer-hub", "ver", "-4.5.1", "pro",
+				new String[] { "weasis.pref.url ${svr}/preferences", "apple.laf.useScreenMenuBar true" }));
+
+		// Test results
+		assertEquals(List.of("<property name=\"weasis.pref.url\" value=\"http://viewer-hub/preferences\"/>",
+				"<property name=\"apple.laf.useScreenMenuBar\" value=\"true\"/>", "http://viewer-hub/weasis-4.5.1"),
+				result.lines().map(String::strip).filter(line -> !line.isEmpty()).toList());
+	}
+
+	@Test
+	void when_retrievingTemplate_with_sameContent_should_compileItOnce() throws Exception {
+		// Call service
+		Template first = this.cachedInterpretDirective.retrieveTemplate(this.template, "<#assign x = \"${y}\">");
+		Template second = this.cachedInterpretDirective.retrieveTemplate(this.template, "<#assign x = \"${y}\">");
+		Template other = this.cachedInterpretDirective.retrieveTemplate(this.template, "<#assign x = \"${z}\">");
+
+		// Test results
+		assertSame(first, second);
+		assertNotSame(first, other);
+	}
+
+	@Test
+	void when_cacheFull_should_evictLeastRecentlyUsedTemplate() throws Exception {
+		// Init data
+		CachedInterpretDirective boundedDirective = new CachedInterpretDirective(2);
+		Template first = boundedDirective.retrieveTemplate(this.template, "<#assign x = \"${a}\">");
+		Template second = boundedDirective.retrieveTemplate(this.template, "<#assign x = \"${b}\">");
+		boundedDirective.retrieveTemplate(this.template, "<#assign x = \"${a}\">");
+
+		// Call service
+		boundedDirective.retrieveTemplate(this.template, "<#assign x = \"${c}\">");
+
+		// Test results
+		assertSame(first, boundedDirective.retrieveTemplate(this.template, "<#assign x = \"${a}\">"));
+		assertNotSame(second, boundedDirective.retrieveTemplate(this.template, "<#assign x = \"${b}\">"));
+	}
+
+	private String process(Map<String, Object> dataModel) throws Exception {
+		StringWriter writer = new StringWriter();
+		this.template.process(dataModel, writer);
+		return writer.toString();
+	}
+
+}
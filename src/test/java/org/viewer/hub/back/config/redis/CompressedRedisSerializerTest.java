@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.viewer.hub.back.constant.CacheName;
+import org.viewer.hub.back.model.manifest.Manifest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedRedisSerializerTest {
+
+	private MeterRegistry meterRegistry;
+
+	private CompressedRedisSerializer compressedRedisSerializer;
+
+	private Manifest manifest;
+
+	@BeforeEach
+	public void setUp() {
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.compressedRedisSerializer = new CompressedRedisSerializer(CacheName.MANIFEST, this.meterRegistry);
+		this.manifest = new Manifest();
+		this.manifest.setUid("uid");
+		this.manifest.setBuildInProgress(true);
+	}
+
+	@Test
+	void givenManifest_whenSerializingAndDeserializing_thenShouldReturnSameManifest() {
+		byte[] bytes = this.compressedRedisSerializer.serialize(this.manifest);
+
+		Manifest manifestRead = (Manifest) this.compressedRedisSerializer.deserialize(bytes);
+
+		assertThat(manifestRead).isNotNull();
+		assertThat(manifestRead.getUid()).isEqualTo("uid");
+		assertThat(manifestRead.isBuildInProgress()).isTrue();
+	}
+
+	@Test
+	void givenManifest_whenSerializing_thenShouldBeSmallerThanLegacyFormat() {
+		byte[] legacyBytes = new JdkSerializationRedisSerializer().serialize(this.manifest);
+
+		byte[] bytes = this.compressedRedisSerializer.serialize(this.manifest);
+
+		assertThat(bytes).hasSizeLessThan(legacyBytes.length);
+		assertThat(this.meterRegistry.get("viewer.hub.cache.value.compression.ratio").summary().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void givenManifestInLegacyFormat_whenDeserializing_thenShouldReturnManifest() {
+		byte[] legacyBytes = new JdkSerializationRedisSerializer().serialize(this.manifest);
+
+		Manifest manifestRead = (Manifest) this.compressedRedisSerializer.deserialize(legacyBytes);
+
+		assertThat(manifestRead).isNotNull();
+		assertThat(manifestRead.getUid()).isEqualTo("uid");
+	}
+
+	@Test
+	void givenEmptyValue_whenDeserializing_thenShouldReturnNull() {
+		assertThat(this.compressedRedisSerializer.deserialize(new byte[0])).isNull();
+		assertThat(this.compressedRedisSerializer.deserialize(null)).isNull();
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeleteResourceTest {
+
+	private S3AsyncClient s3AsyncClient;
+
+	private DeleteResource deleteResource;
+
+	@BeforeEach
+	public void setUp() {
+		this.s3AsyncClient = mock(S3AsyncClient.class);
+		S3ClientConfigurationProperties s3config = new S3ClientConfigurationProperties();
+		s3config.setBucket("bucket");
+		s3config.setMaxDeleteBatchesInFlight(2);
+		s3config.setDeleteMaxAttempts(2);
+		this.deleteResource = new DeleteResource(this.s3AsyncClient, s3config, new S3ObjectMetadataCache(s3config));
+	}
+
+	@Test
+	void givenMoreKeysThanRequestLimit_whenDeleting_thenShouldDeleteByBatches() {
+		when(this.s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+			.thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+		Set<String> keys = IntStream.range(0, DeleteResource.MAX_KEYS_PER_REQUEST * 2 + 1)
+			.mapToObj("key%d"::formatted)
+			.collect(Collectors.toSet());
+
+		DeleteObjectsResponse response = this.deleteResource.deleteObjects(keys).join();
+
+		assertThat(response.errors()).isEmpty();
+		ArgumentCaptor<DeleteObjectsRequest> requestCaptor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		verify(this.s3AsyncClient, times(3)).deleteObjects(requestCaptor.capture());
+		assertThat(requestCaptor.getAllValues()).allSatisfy(request -> {
+			assertThat(request.delete().objects()).hasSizeLessThanOrEqualTo(DeleteResource.MAX_KEYS_PER_REQUEST);
+			assertThat(request.delete().quiet()).isTrue();
+		});
+		assertThat(requestCaptor.getAllValues()
+			.stream()
+			.flatMap(request -> request.delete().objects().stream())
+			.map(ObjectIdentifier::key)
+			.collect(Collectors.toSet())).isEqualTo(keys);
+	}
+
+	@Test
+	void givenKeyInError_whenDeleting_thenShouldDeleteOnlyThisKeyAgain() {
+		when(this.s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+			.thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder()
+				.errors(S3Error.builder().key("key2").code("SlowDown").build())
+				.build()))
+			.thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+		DeleteObjectsResponse response = this.deleteResource.deleteObjects(Set.of("key1", "key2", "key3")).join();
+
+		assertThat(response.errors()).isEmpty();
+		ArgumentCaptor<DeleteObjectsRequest> requestCaptor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		verify(this.s3AsyncClient, times(2)).deleteObjects(requestCaptor.capture());
+		assertThat(requestCaptor.getAllValues().get(1).delete().objects()).extracting(ObjectIdentifier::key)
+			.containsExactly("key2");
+	}
+
+	@Test
+	void givenKeyAlwaysInError_whenDeleting_thenShouldReturnError() {
+		when(this.s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+			.thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder()
+				.errors(S3Error.builder().key("key1").code("AccessDenied").build())
+				.build()));
+
+		DeleteObjectsResponse response = this.deleteResource.deleteObjects(Set.of("key1")).join();
+
+		assertThat(response.errors()).extracting(S3Error::key).containsExactly("key1");
+		verify(this.s3AsyncClient, times(2)).deleteObjects(any(DeleteObjectsRequest.class));
+	}
+
+	@Test
+	void givenBatchThrottled_whenDeleting_thenShouldDeleteWholeBatchAgain() {
+		when(this.s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+			.thenReturn(CompletableFuture
+				.failedFuture(S3Exception.builder().statusCode(503).message("Please reduce your request rate").build()))
+			.thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+		DeleteObjectsResponse response = this.deleteResource.deleteObjects(Set.of("key1", "key2")).join();
+
+		assertThat(response.errors()).isEmpty();
+		ArgumentCaptor<DeleteObjectsRequest> requestCaptor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		verify(this.s3AsyncClient, times(2)).deleteObjects(requestCaptor.capture());
+		assertThat(requestCaptor.getAllValues().get(1).delete().objects()).extracting(ObjectIdentifier::key)
+			.containsExactlyInAnyOrder("key1", "key2");
+	}
+
+	@Test
+	void givenBatchRefused_whenDeleting_thenShouldReturnErrorOfEachKeyWithoutDeletingAgain() {
+		when(this.s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+			.thenReturn(CompletableFuture
+				.failedFuture(S3Exception.builder().statusCode(403).message("Access Denied").build()));
+
+		DeleteObjectsResponse response = this.deleteResource.deleteObjects(Set.of("key1", "key2")).join();
+
+		assertThat(response.errors()).extracting(S3Error::key).containsExactlyInAnyOrder("key1", "key2");
+		verify(this.s3AsyncClient, times(1)).deleteObjects(any(DeleteObjectsRequest.class));
+	}
+
+	@Test
+	void givenNoKey_whenDeleting_thenShouldNotCallS3() {
+		DeleteObjectsResponse response = this.deleteResource.deleteObjects(Set.of()).join();
+
+		assertThat(response.errors()).isEmpty();
+		verify(this.s3AsyncClient, never()).deleteObjects(any(DeleteObjectsRequest.class));
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.util.PackageUtil;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectTaggingResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.Tag;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DownloadResourceTest {
+
+	private S3AsyncClient s3AsyncClient;
+
+	private DownloadResource downloadResource;
+
+	@BeforeEach
+	public void setUp() {
+		this.s3AsyncClient = mock(S3AsyncClient.class);
+		S3ClientConfigurationProperties s3config = new S3ClientConfigurationProperties();
+		s3config.setBucket("bucket");
+		this.downloadResource = new DownloadResource(this.s3AsyncClient, s3config,
+				new S3ObjectMetadataCache(s3config));
+	}
+
+	@Test
+	void givenExistingObject_whenCheckingTwice_thenShouldSendOnlyOneHeadRequest() {
+		when(this.s3AsyncClient.headObject(any(Consumer.class)))
+			.thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder()
+				.contentLength(10L)
+				.eTag("\"etag\"")
+				.lastModified(Instant.EPOCH)
+				.build()));
+
+		boolean exists = this.downloadResource.checkS3KeyExists("folder/file.txt");
+		S3ObjectMetadata metadata = this.downloadResource.retrieveS3ObjectMetadata("folder/file.txt");
+
+		assertThat(exists).isTrue();
+		assertThat(metadata).isEqualTo(new S3ObjectMetadata(true, 10L, "\"etag\"", Instant.EPOCH));
+		verify(this.s3AsyncClient, times(1)).headObject(any(Consumer.class));
+		verify(this.s3AsyncClient, never()).listObjectsV2(any(Consumer.class));
+	}
+
+	@Test
+	void givenFolder_whenChecking_thenShouldListOnlyOneKeyOfTheFolder() {
+		when(this.s3AsyncClient.headObject(any(Consumer.class)))
+			.thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().statusCode(404).build()));
+		S3Object s3Object = S3Object.builder().key("folder/file.txt").build();
+		when(this.s3AsyncClient.listObjectsV2(any(Consumer.class)))
+			.thenReturn(CompletableFuture.completedFuture(ListObjectsV2Response.builder().contents(s3Object).build()));
+
+		boolean exists = this.downloadResource.checkS3KeyExists("folder");
+
+		assertThat(exists).isTrue();
+		assertThat(this.downloadResource.retrieveS3ObjectMetadata("folder").exists()).isFalse();
+		verify(this.s3AsyncClient, times(1)).headObject(any(Consumer.class));
+		verify(this.s3AsyncClient, times(1)).listObjectsV2(any(Consumer.class));
+	}
+
+	@Test
+	void givenMissingKey_whenCheckingTwice_thenShouldUseNegativeEntries() {
+		when(this.s3AsyncClient.headObject(any(Consumer.class)))
+			.thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().statusCode(404).build()));
+		when(this.s3AsyncClient.listObjectsV2(any(Consumer.class)))
+			.thenReturn(CompletableFuture.completedFuture(ListObjectsV2Response.builder().build()));
+
+		assertThat(this.downloadResource.checkS3KeyExists("missing")).isFalse();
+		assertThat(this.downloadResource.checkS3KeyExists("missing")).isFalse();
+
+		verify(this.s3AsyncClient, times(1)).headObject(any(Consumer.class));
+		verify(this.s3AsyncClient, times(1)).listObjectsV2(any(Consumer.class));
+	}
+
+	@Test
+	void givenBlobReused_whenRetrievingLastReuse_thenShouldReadItsTag() {
+		Instant reusedAt = Instant.parse("2026-01-01T10:00:00Z");
+		when(this.s3AsyncClient.getObjectTagging(any(Consumer.class)))
+			.thenReturn(CompletableFuture.completedFuture(GetObjectTaggingResponse.builder()
+				.tagSet(Tag.builder().key(PackageUtil.BLOB_REUSED_AT_TAG).value(reusedAt.toString()).build())
+				.build()))
+			.thenReturn(CompletableFuture.completedFuture(GetObjectTaggingResponse.builder().build()))
+			.thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().statusCode(404).build()));
+
+		assertThat(this.downloadResource.retrieveBlobLastReused("blobs/sha256/reused")).isEqualTo(reusedAt);
+		assertThat(this.downloadResource.retrieveBlobLastReused("blobs/sha256/neverReused")).isNull();
+		assertThat(this.downloadResource.retrieveBlobLastReused("blobs/sha256/missing")).isNull();
+	}
+
+}
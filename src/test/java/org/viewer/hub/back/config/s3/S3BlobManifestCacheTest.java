@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3BlobManifestCacheTest {
+
+	private static final String BUILD_FOLDER = "weasis/package/4.6.0/11111111-1111-1111-1111-111111111111";
+
+	private static final String MANIFEST_KEY = BUILD_FOLDER + "/blobs.json";
+
+	private static final String DIGEST = "ab".repeat(32);
+
+	private DownloadResource downloadResource;
+
+	private S3BlobManifestCache s3BlobManifestCache;
+
+	@BeforeEach
+	public void setUp() {
+		this.downloadResource = mock(DownloadResource.class);
+		this.s3BlobManifestCache = new S3BlobManifestCache(this.downloadResource, "weasis/blobs");
+	}
+
+	@Test
+	void givenManifest_whenRetrievingTwice_thenShouldReadManifestOnce() {
+		this.mockManifest();
+
+		String blobKey = this.s3BlobManifestCache.retrieveBlobKey(BUILD_FOLDER + "/bundle/weasis-core.jar");
+		String otherBlobKey = this.s3BlobManifestCache.retrieveBlobKey(BUILD_FOLDER + "/bundle/weasis-core.jar");
+
+		assertThat(blobKey).isEqualTo("weasis/blobs/sha256/" + DIGEST).isEqualTo(otherBlobKey);
+		verify(this.downloadResource, times(1)).retrieveS3ObjectInputStream(MANIFEST_KEY);
+	}
+
+	@Test
+	void givenJarMissingFromManifest_whenRetrieving_thenShouldReturnNull() {
+		this.mockManifest();
+
+		assertThat(this.s3BlobManifestCache.retrieveBlobKey(BUILD_FOLDER + "/bundle/other.jar")).isNull();
+	}
+
+	@Test
+	void givenNoManifest_whenRetrieving_thenShouldReturnNull() {
+		when(this.downloadResource.retrieveS3ObjectMetadata(MANIFEST_KEY)).thenReturn(S3ObjectMetadata.NOT_FOUND);
+
+		assertThat(this.s3BlobManifestCache.retrieveBlobKey(BUILD_FOLDER + "/bundle/weasis-core.jar")).isNull();
+		verify(this.downloadResource, never()).retrieveS3ObjectInputStream(anyString());
+	}
+
+	@Test
+	void givenNotDeduplicatedFileOrLegacyLayout_whenRetrieving_thenShouldNotLookForManifest() {
+		assertThat(this.s3BlobManifestCache.retrieveBlobKey(BUILD_FOLDER + "/conf/config.properties")).isNull();
+		assertThat(this.s3BlobManifestCache.retrieveBlobKey("weasis/package/4.6.0/bundle/weasis-core.jar")).isNull();
+		verify(this.downloadResource, never()).retrieveS3ObjectMetadata(anyString());
+	}
+
+	private void mockManifest() {
+		when(this.downloadResource.retrieveS3ObjectMetadata(MANIFEST_KEY))
+			.thenReturn(new S3ObjectMetadata(true, 100L, "\"etag\"", Instant.EPOCH));
+		when(this.downloadResource.retrieveS3ObjectInputStream(MANIFEST_KEY))
+			.thenAnswer(invocation -> new ByteArrayInputStream(
+					"{\"bundle/weasis-core.jar\":\"%s\"}".formatted(DIGEST).getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class S3GzipVariantUploadOutputStreamTest {
+
+	private static final byte[] CONTENT = "<xml>content</xml>".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+	private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+	private S3AsyncClient s3AsyncClient;
+
+	private Semaphore requestsInFlight;
+
+	@BeforeEach
+	public void setUp() {
+		this.s3AsyncClient = mock(S3AsyncClient.class);
+		this.requestsInFlight = new Semaphore(2);
+		when(this.s3AsyncClient.putObject(any(Consumer.class), any(AsyncRequestBody.class)))
+			.thenAnswer(invocation -> {
+				// Keep the objects uploaded by key
+				PutObjectRequest.Builder builder = PutObjectRequest.builder();
+				invocation.<Consumer<PutObjectRequest.Builder>>getArgument(0).accept(builder);
+				this.objects.put(builder.build().key(), read(invocation.getArgument(1)));
+				return CompletableFuture.completedFuture(PutObjectResponse.builder().build());
+			});
+	}
+
+	@Test
+	void givenContent_whenClosing_thenShouldUploadObjectAndGzipVariant() throws IOException {
+		S3UploadOutputStream stream = this.openStream();
+
+		stream.write(CONTENT);
+		stream.close();
+
+		assertThat(stream.getCompletion()).isCompleted();
+		assertThat(this.objects).containsOnlyKeys("file.xml", "file.xml.gz");
+		assertThat(this.objects.get("file.xml")).isEqualTo(CONTENT);
+		assertThat(this.objects.get("file.xml.gz")).hasSizeLessThan(CONTENT.length);
+		try (GZIPInputStream gzipInputStream = new GZIPInputStream(
+				new ByteArrayInputStream(this.objects.get("file.xml.gz")))) {
+			assertThat(gzipInputStream.readAllBytes()).isEqualTo(CONTENT);
+		}
+	}
+
+	@Test
+	void givenUploadInProgress_whenAborting_thenShouldUploadNothing() throws IOException {
+		S3UploadOutputStream stream = this.openStream();
+		stream.write(CONTENT);
+
+		stream.abort();
+		stream.close();
+
+		assertThat(stream.getCompletion()).isCompletedExceptionally();
+		assertThat(this.objects).isEmpty();
+	}
+
+	private S3UploadOutputStream openStream() throws IOException {
+		S3UploadOutputStream variantUpload = new S3UploadOutputStream(this.s3AsyncClient, "bucket", "file.xml.gz",
+				CONTENT.length * 2, 1, this.requestsInFlight, () -> {
+				});
+		return new S3GzipVariantUploadOutputStream(this.s3AsyncClient, "bucket", "file.xml", CONTENT.length * 2, 1,
+				this.requestsInFlight, () -> {
+				}, variantUpload);
+	}
+
+	private static byte[] read(AsyncRequestBody body) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		body.subscribe(buffer -> {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			outputStream.writeBytes(bytes);
+		}).join();
+		return outputStream.toByteArray();
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3ObjectMetadataCacheTest {
+
+	private static final S3ObjectMetadata METADATA = new S3ObjectMetadata(true, 10L, "\"etag\"", Instant.EPOCH);
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private S3ClientConfigurationProperties s3config;
+
+	private S3ObjectMetadataCache s3ObjectMetadataCache;
+
+	@BeforeEach
+	public void setUp() {
+		this.s3config = new S3ClientConfigurationProperties();
+		this.s3config.setMetadataCacheTtl(Duration.ofSeconds(30));
+		this.s3config.setMetadataCacheNegativeTtl(Duration.ofSeconds(5));
+		this.s3ObjectMetadataCache = new S3ObjectMetadataCache(this.s3config, this.nanoTime::get);
+	}
+
+	@Test
+	void givenMetadataCached_whenRetrievingBeforeTtl_thenShouldNotLoadAgain() {
+		this.s3ObjectMetadataCache.get("key", this.loader(METADATA));
+		this.nanoTime.addAndGet(Duration.ofSeconds(29).toNanos());
+
+		S3ObjectMetadata metadata = this.s3ObjectMetadataCache.get("key", this.loader(METADATA));
+
+		assertThat(metadata).isEqualTo(METADATA);
+		assertThat(this.loads).hasValue(1);
+	}
+
+	@Test
+	void givenMissingObjectCached_whenRetrievingAfterNegativeTtl_thenShouldLoadAgain() {
+		this.s3ObjectMetadataCache.get("key", this.loader(S3ObjectMetadata.NOT_FOUND));
+		this.nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+
+		S3ObjectMetadata metadata = this.s3ObjectMetadataCache.get("key", this.loader(METADATA));
+
+		assertThat(metadata).isEqualTo(METADATA);
+		assertThat(this.loads).hasValue(2);
+	}
+
+	@Test
+	void givenKeyWritten_whenInvalidating_thenShouldLoadKeyAndParentFoldersAgain() {
+		this.s3ObjectMetadataCache.get("a/b/c.txt", this.loader(S3ObjectMetadata.NOT_FOUND));
+		this.s3ObjectMetadataCache.get("a/b/", this.loader(S3ObjectMetadata.NOT_FOUND));
+		this.s3ObjectMetadataCache.get("a/", this.loader(S3ObjectMetadata.NOT_FOUND));
+		this.s3ObjectMetadataCache.get("a/d/", this.loader(METADATA));
+
+		this.s3ObjectMetadataCache.invalidate("a/b/c.txt");
+
+		assertThat(this.s3ObjectMetadataCache.get("a/b/c.txt", this.loader(METADATA))).isEqualTo(METADATA);
+		assertThat(this.s3ObjectMetadataCache.get("a/b/", this.loader(METADATA))).isEqualTo(METADATA);
+		assertThat(this.s3ObjectMetadataCache.get("a/", this.loader(METADATA))).isEqualTo(METADATA);
+		this.s3ObjectMetadataCache.get("a/d/", this.loader(METADATA));
+		assertThat(this.loads).hasValue(7);
+	}
+
+	@Test
+	void givenMaximumSizeReached_whenLoadingNewKey_thenShouldEvictLeastRecentlyUsedKeyOnly() {
+		this.s3config.setMetadataCacheMaximumSize(2);
+		this.s3ObjectMetadataCache.get("first", this.loader(METADATA));
+		this.s3ObjectMetadataCache.get("second", this.loader(METADATA));
+		// First becomes the most recently used
+		this.s3ObjectMetadataCache.get("first", this.loader(METADATA));
+
+		this.s3ObjectMetadataCache.get("third", this.loader(METADATA));
+
+		this.s3ObjectMetadataCache.get("first", this.loader(METADATA));
+		this.s3ObjectMetadataCache.get("third", this.loader(METADATA));
+		assertThat(this.loads).hasValue(3);
+		this.s3ObjectMetadataCache.get("second", this.loader(METADATA));
+		assertThat(this.loads).hasValue(4);
+	}
+
+	private Function<String, S3ObjectMetadata> loader(S3ObjectMetadata metadata) {
+		return key -> {
+			this.loads.incrementAndGet();
+			return metadata;
+		};
+	}
+
+}
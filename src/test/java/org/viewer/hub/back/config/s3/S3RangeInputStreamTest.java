@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3RangeInputStreamTest {
+
+	private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+	private static final S3ObjectMetadata METADATA = new S3ObjectMetadata(true, CONTENT.length, "\"etag\"",
+			Instant.EPOCH);
+
+	private DownloadResource downloadResource;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.downloadResource = mock(DownloadResource.class);
+		when(this.downloadResource.retrieveS3ObjectInputStream(anyString(), anyLong(), anyString()))
+			.thenAnswer(invocation -> {
+				int start = Math.toIntExact(invocation.<Long>getArgument(1));
+				return new ByteArrayInputStream(CONTENT, start, CONTENT.length - start);
+			});
+	}
+
+	@Test
+	void givenRange_whenCopyingRange_thenShouldRequestS3FromFirstByteOfRange() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (InputStream inputStream = new S3RangeInputStream(this.downloadResource, "file.jar", METADATA)) {
+			StreamUtils.copyRange(inputStream, outputStream, 4, 6);
+		}
+
+		assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("456");
+		verify(this.downloadResource).retrieveS3ObjectInputStream("file.jar", 4L, "\"etag\"");
+	}
+
+	@Test
+	void givenSkipBeyondEnd_whenReading_thenShouldNotRequestS3() throws IOException {
+		try (InputStream inputStream = new S3RangeInputStream(this.downloadResource, "file.jar", METADATA)) {
+			assertThat(inputStream.skip(20)).isEqualTo(CONTENT.length);
+			assertThat(inputStream.read()).isEqualTo(-1);
+		}
+
+		verify(this.downloadResource, never()).retrieveS3ObjectInputStream(anyString(), anyLong(), anyString());
+	}
+
+	@Test
+	void givenNoSkip_whenReading_thenShouldRequestWholeObject() throws IOException {
+		try (InputStream inputStream = new S3RangeInputStream(this.downloadResource, "file.jar", METADATA)) {
+			assertThat(inputStream.readAllBytes()).isEqualTo(CONTENT);
+		}
+
+		verify(this.downloadResource).retrieveS3ObjectInputStream("file.jar", 0L, "\"etag\"");
+	}
+
+}
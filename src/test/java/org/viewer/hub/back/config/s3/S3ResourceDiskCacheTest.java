@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.viewer.hub.back.config.properties.ResourceDiskCacheConfigurationProperties;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3ResourceDiskCacheTest {
+
+	private static final String BUILD_FOLDER = "weasis/package/4.6.0/11111111-1111-1111-1111-111111111111/";
+
+	private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	Path directory;
+
+	private S3AsyncClient s3AsyncClient;
+
+	private ResourceDiskCacheConfigurationProperties resourceDiskCacheConfigurationProperties;
+
+	private S3ResourceDiskCache s3ResourceDiskCache;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.s3AsyncClient = mock(S3AsyncClient.class);
+		when(this.s3AsyncClient.getObject(any(Consumer.class), any(AsyncResponseTransformer.class)))
+			.thenAnswer(invocation -> {
+				// Write the content in the file of the transformer
+				AsyncResponseTransformer<GetObjectResponse, GetObjectResponse> transformer = invocation
+					.getArgument(1);
+				CompletableFuture<GetObjectResponse> future = transformer.prepare();
+				transformer.onResponse(GetObjectResponse.builder().build());
+				transformer.onStream(AsyncRequestBody.fromBytes(CONTENT));
+				return future;
+			});
+		S3ClientConfigurationProperties s3config = new S3ClientConfigurationProperties();
+		s3config.setBucket("bucket");
+		this.resourceDiskCacheConfigurationProperties = new ResourceDiskCacheConfigurationProperties();
+		this.resourceDiskCacheConfigurationProperties.setDirectory(this.directory);
+		this.s3ResourceDiskCache = new S3ResourceDiskCache(this.s3AsyncClient, s3config,
+				this.resourceDiskCacheConfigurationProperties);
+		this.s3ResourceDiskCache.init();
+	}
+
+	@Test
+	void givenImmutableObject_whenRetrievingTwice_thenShouldDownloadItOnce() throws Exception {
+		S3ObjectMetadata metadata = metadata(md5(CONTENT));
+
+		try (FileChannel channel = this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "bundle/weasis.jar", metadata);
+				FileChannel channelCached = this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "bundle/weasis.jar",
+						metadata)) {
+			assertThat(read(channel)).isEqualTo(CONTENT);
+			assertThat(read(channelCached)).isEqualTo(CONTENT);
+		}
+
+		Path file = this.cachedFile(BUILD_FOLDER + "bundle/weasis.jar");
+		assertThat(file).hasBinaryContent(CONTENT);
+		assertThat(file.getFileName().toString()).endsWith(".jar");
+		assertThat(Files.getLastModifiedTime(file).toInstant()).isEqualTo(Instant.EPOCH);
+		verify(this.s3AsyncClient, times(1)).getObject(any(Consumer.class), any(AsyncResponseTransformer.class));
+	}
+
+	@Test
+	void givenObjectOutsideBuildFolder_whenRetrieving_thenShouldNotCacheIt() throws Exception {
+		FileChannel channel = this.s3ResourceDiskCache.openFile("weasis/package/4.6.0/bundle/weasis.jar",
+				metadata(md5(CONTENT)));
+
+		assertThat(channel).isNull();
+		verify(this.s3AsyncClient, never()).getObject(any(Consumer.class), any(AsyncResponseTransformer.class));
+	}
+
+	@Test
+	void givenContentNotMatchingETag_whenRetrieving_thenShouldNotCacheIt() throws IOException {
+		FileChannel channel = this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "bundle/weasis.jar",
+				metadata("00000000000000000000000000000000"));
+
+		assertThat(channel).isNull();
+		try (Stream<Path> paths = Files.list(this.directory)) {
+			assertThat(paths).isEmpty();
+		}
+	}
+
+	@Test
+	void givenMaximumSizeReached_whenRetrieving_thenShouldRemoveLeastRecentlyUsedFile() throws Exception {
+		this.resourceDiskCacheConfigurationProperties.setMaximumSize(DataSize.ofBytes(CONTENT.length * 2L));
+		S3ObjectMetadata metadata = metadata(md5(CONTENT));
+		this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "first", metadata).close();
+		this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "second", metadata).close();
+		// First becomes the most recently used
+		this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "first", metadata).close();
+
+		this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "third", metadata).close();
+
+		assertThat(this.cachedFile(BUILD_FOLDER + "first")).exists();
+		assertThat(this.cachedFile(BUILD_FOLDER + "second")).doesNotExist();
+		assertThat(this.cachedFile(BUILD_FOLDER + "third")).exists();
+	}
+
+	@Test
+	void givenFileOpened_whenEvicted_thenShouldStayReadable() throws Exception {
+		this.resourceDiskCacheConfigurationProperties.setMaximumSize(DataSize.ofBytes(CONTENT.length));
+		S3ObjectMetadata metadata = metadata(md5(CONTENT));
+
+		try (FileChannel channel = this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "first", metadata)) {
+			this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "second", metadata).close();
+
+			assertThat(this.cachedFile(BUILD_FOLDER + "first")).doesNotExist();
+			assertThat(read(channel)).isEqualTo(CONTENT);
+		}
+	}
+
+	@Test
+	void givenFileRemovedFromDisk_whenOpening_thenShouldDownloadItAgain() throws Exception {
+		S3ObjectMetadata metadata = metadata(md5(CONTENT));
+		this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "bundle/weasis.jar", metadata).close();
+		Files.delete(this.cachedFile(BUILD_FOLDER + "bundle/weasis.jar"));
+
+		try (FileChannel channel = this.s3ResourceDiskCache.openFile(BUILD_FOLDER + "bundle/weasis.jar", metadata)) {
+			assertThat(read(channel)).isEqualTo(CONTENT);
+		}
+		verify(this.s3AsyncClient, times(2)).getObject(any(Consumer.class), any(AsyncResponseTransformer.class));
+	}
+
+	private Path cachedFile(String key) {
+		return this.directory.resolve(S3ResourceDiskCache.fileName(key));
+	}
+
+	private static byte[] read(FileChannel channel) throws IOException {
+		return Channels.newInputStream(channel).readAllBytes();
+	}
+
+	private static S3ObjectMetadata metadata(String md5) {
+		return new S3ObjectMetadata(true, CONTENT.length, "\"%s\"".formatted(md5), Instant.EPOCH);
+	}
+
+	private static String md5(byte[] content) throws NoSuchAlgorithmException {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+	}
+
+}
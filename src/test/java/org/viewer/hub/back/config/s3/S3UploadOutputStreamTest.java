@@ -0,0 +1,168 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3UploadOutputStreamTest {
+
+	private static final int PART_SIZE = 16;
+
+	private static final int MAX_ATTEMPTS = 2;
+
+	private S3AsyncClient s3AsyncClient;
+
+	private Semaphore requestsInFlight;
+
+	private final AtomicInteger uploadsOver = new AtomicInteger();
+
+	@BeforeEach
+	public void setUp() {
+		this.s3AsyncClient = mock(S3AsyncClient.class);
+		this.requestsInFlight = new Semaphore(2);
+		when(this.s3AsyncClient.putObject(any(Consumer.class), any(AsyncRequestBody.class)))
+			.thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+		when(this.s3AsyncClient.createMultipartUpload(any(Consumer.class)))
+			.thenReturn(
+					CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("id").build()));
+		when(this.s3AsyncClient.completeMultipartUpload(any(Consumer.class)))
+			.thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+		when(this.s3AsyncClient.abortMultipartUpload(any(Consumer.class)))
+			.thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+	}
+
+	@Test
+	void givenObjectSmallerThanPart_whenClosing_thenShouldUploadWithSinglePut() throws IOException {
+		S3UploadOutputStream stream = this.openStream();
+
+		stream.write(new byte[PART_SIZE - 1]);
+		stream.close();
+
+		assertThat(stream.getCompletion()).isCompleted();
+		verify(this.s3AsyncClient).putObject(any(Consumer.class), any(AsyncRequestBody.class));
+		verify(this.s3AsyncClient, never()).createMultipartUpload(any(Consumer.class));
+		assertThat(this.requestsInFlight.availablePermits()).isEqualTo(2);
+		assertThat(this.uploadsOver).hasValue(1);
+	}
+
+	@Test
+	void givenObjectBiggerThanPart_whenClosing_thenShouldUploadPartsAndComplete() throws IOException {
+		when(this.s3AsyncClient.uploadPart(any(Consumer.class), any(AsyncRequestBody.class)))
+			.thenReturn(CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("etag").build()));
+		S3UploadOutputStream stream = this.openStream();
+
+		stream.write(new byte[PART_SIZE * 2 + 1]);
+		stream.close();
+
+		assertThat(stream.getCompletion()).isCompleted();
+		verify(this.s3AsyncClient, times(3)).uploadPart(any(Consumer.class), any(AsyncRequestBody.class));
+		verify(this.s3AsyncClient, never()).putObject(any(Consumer.class), any(AsyncRequestBody.class));
+		ArgumentCaptor<Consumer<CompleteMultipartUploadRequest.Builder>> requestCaptor = (ArgumentCaptor) ArgumentCaptor
+			.forClass(Consumer.class);
+		verify(this.s3AsyncClient).completeMultipartUpload(requestCaptor.capture());
+		CompleteMultipartUploadRequest.Builder builder = CompleteMultipartUploadRequest.builder();
+		requestCaptor.getValue().accept(builder);
+		assertThat(builder.build().multipartUpload().parts()).extracting(CompletedPart::partNumber)
+			.containsExactly(1, 2, 3);
+		assertThat(this.requestsInFlight.availablePermits()).isEqualTo(2);
+	}
+
+	@Test
+	void givenPartFailingOnce_whenClosing_thenShouldUploadPartAgain() throws IOException {
+		when(this.s3AsyncClient.uploadPart(any(Consumer.class), any(AsyncRequestBody.class)))
+			.thenReturn(CompletableFuture.failedFuture(new IOException("failure")))
+			.thenReturn(CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("etag").build()));
+		S3UploadOutputStream stream = this.openStream();
+
+		stream.write(new byte[PART_SIZE + 1]);
+		stream.close();
+
+		assertThat(stream.getCompletion()).isCompleted();
+		verify(this.s3AsyncClient, times(3)).uploadPart(any(Consumer.class), any(AsyncRequestBody.class));
+		verify(this.s3AsyncClient, never()).abortMultipartUpload(any(Consumer.class));
+	}
+
+	@Test
+	void givenPartAlwaysFailing_whenWriting_thenShouldFailAndAbortUpload() throws IOException {
+		when(this.s3AsyncClient.uploadPart(any(Consumer.class), any(AsyncRequestBody.class)))
+			.thenReturn(CompletableFuture.failedFuture(new IOException("failure")));
+		S3UploadOutputStream stream = this.openStream();
+		stream.write(new byte[PART_SIZE + 1]);
+
+		assertThatThrownBy(() -> stream.write(new byte[1])).isInstanceOf(IOException.class);
+
+		assertThat(stream.getCompletion()).isCompletedExceptionally();
+		verify(this.s3AsyncClient, times(MAX_ATTEMPTS)).uploadPart(any(Consumer.class), any(AsyncRequestBody.class));
+		verify(this.s3AsyncClient).abortMultipartUpload(any(Consumer.class));
+		verify(this.s3AsyncClient, never()).completeMultipartUpload(any(Consumer.class));
+	}
+
+	@Test
+	void givenMultipartUpload_whenAborting_thenShouldAbortUploadInS3() throws IOException {
+		when(this.s3AsyncClient.uploadPart(any(Consumer.class), any(AsyncRequestBody.class)))
+			.thenReturn(CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("etag").build()));
+		S3UploadOutputStream stream = this.openStream();
+		stream.write(new byte[PART_SIZE + 1]);
+
+		stream.abort();
+		stream.close();
+
+		assertThat(stream.getCompletion()).isCompletedExceptionally();
+		verify(this.s3AsyncClient).abortMultipartUpload(any(Consumer.class));
+		verify(this.s3AsyncClient, never()).completeMultipartUpload(any(Consumer.class));
+		assertThat(this.uploadsOver).hasValue(1);
+	}
+
+	@Test
+	void givenObjectSmallerThanPart_whenAborting_thenShouldRunUploadOverAction() throws IOException {
+		S3UploadOutputStream stream = this.openStream();
+		stream.write(new byte[PART_SIZE - 1]);
+
+		stream.abort();
+
+		assertThat(stream.getCompletion()).isCompletedExceptionally();
+		verify(this.s3AsyncClient, never()).putObject(any(Consumer.class), any(AsyncRequestBody.class));
+		assertThat(this.uploadsOver).hasValue(1);
+	}
+
+	private S3UploadOutputStream openStream() {
+		return new S3UploadOutputStream(this.s3AsyncClient, "bucket", "key", PART_SIZE, MAX_ATTEMPTS,
+				this.requestsInFlight, this.uploadsOver::incrementAndGet);
+	}
+
+}
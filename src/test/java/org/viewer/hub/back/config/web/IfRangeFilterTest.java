@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.config.web;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IfRangeFilterTest {
+
+	private static final String ETAG = "\"etag\"";
+
+	private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+	private final IfRangeFilter ifRangeFilter = new IfRangeFilter();
+
+	@Test
+	void givenMatchingETag_whenReadingRange_thenShouldKeepRange() throws ServletException, IOException {
+		assertThat(this.filterRange(ETAG)).isEqualTo("bytes=100-");
+	}
+
+	@Test
+	void givenMatchingDate_whenReadingRange_thenShouldKeepRange() throws ServletException, IOException {
+		assertThat(this.filterRange(LAST_MODIFIED)).isEqualTo("bytes=100-");
+	}
+
+	@Test
+	void givenOtherETag_whenReadingRange_thenShouldIgnoreRange() throws ServletException, IOException {
+		assertThat(this.filterRange("\"other\"")).isNull();
+	}
+
+	@Test
+	void givenWeakETag_whenReadingRange_thenShouldIgnoreRange() throws ServletException, IOException {
+		assertThat(this.filterRange("W/" + ETAG)).isNull();
+	}
+
+	@Test
+	void givenOtherDate_whenReadingRange_thenShouldIgnoreRange() throws ServletException, IOException {
+		assertThat(this.filterRange("Tue, 20 Oct 2026 07:28:00 GMT")).isNull();
+	}
+
+	@Test
+	void givenInvalidDate_whenReadingRange_thenShouldIgnoreRange() throws ServletException, IOException {
+		assertThat(this.filterRange("yesterday")).isNull();
+	}
+
+	@Test
+	void givenIgnoredRange_whenReadingHeaderNames_thenShouldHideRange() throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/weasis/file.jar");
+		request.addHeader(HttpHeaders.RANGE, "bytes=100-");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+		AtomicReference<HttpServletRequest> filteredRequest = new AtomicReference<>();
+
+		this.ifRangeFilter.doFilter(request, new MockHttpServletResponse(),
+				(req, res) -> filteredRequest.set((HttpServletRequest) req));
+
+		assertThat(Collections.list(filteredRequest.get().getHeaderNames())).containsExactly(HttpHeaders.IF_RANGE);
+		assertThat(filteredRequest.get().getHeaders(HttpHeaders.RANGE).hasMoreElements()).isFalse();
+	}
+
+	/**
+	 * Filter a range request, the Range header being read after the headers of the
+	 * response have been set, as done by the resource handler
+	 * @param ifRange If-Range header of the request
+	 * @return Range header read
+	 */
+	private String filterRange(String ifRange) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/weasis/file.jar");
+		request.addHeader(HttpHeaders.RANGE, "bytes=100-");
+		request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+		AtomicReference<String> range = new AtomicReference<>();
+
+		this.ifRangeFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			MockHttpServletResponse response = (MockHttpServletResponse) res;
+			response.setHeader(HttpHeaders.ETAG, ETAG);
+			response.setHeader(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+			range.set(((HttpServletRequest) req).getHeader(HttpHeaders.RANGE));
+		});
+
+		return range.get();
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.entity.listener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.viewer.hub.back.entity.LaunchEntity;
+import org.viewer.hub.back.entity.TargetEntity;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class LaunchConfigurationEntityListenerTest {
+
+	private final ApplicationEventPublisher applicationEventPublisherMock = Mockito
+		.mock(ApplicationEventPublisher.class);
+
+	private LaunchConfigurationEntityListener launchConfigurationEntityListener;
+
+	@BeforeEach
+	public void setUp() {
+		this.launchConfigurationEntityListener = new LaunchConfigurationEntityListener(
+				this.applicationEventPublisherMock);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void when_changingEntitiesWithoutTransaction_should_publishEachChange() {
+		// Call listener
+		this.launchConfigurationEntityListener.onChange(new TargetEntity());
+
+		// Test results
+		Mockito.verify(this.applicationEventPublisherMock)
+			.publishEvent(new LaunchConfigurationChangedEvent(Set.of("TargetEntity")));
+	}
+
+	@Test
+	void when_changingEntitiesInTransaction_should_publishOnceAfterCommit() {
+		// Init data
+		TransactionSynchronizationManager.initSynchronization();
+
+		// Call listener
+		this.launchConfigurationEntityListener.onChange(new TargetEntity());
+		this.launchConfigurationEntityListener.onChange(new TargetEntity());
+		this.launchConfigurationEntityListener.onChange(new LaunchEntity());
+
+		// Test results
+		Mockito.verifyNoInteractions(this.applicationEventPublisherMock);
+		this.complete(TransactionSynchronization.STATUS_COMMITTED);
+		Mockito.verify(this.applicationEventPublisherMock, Mockito.times(1))
+			.publishEvent(new LaunchConfigurationChangedEvent(Set.of("TargetEntity", "LaunchEntity")));
+		assertFalse(TransactionSynchronizationManager.hasResource(this.launchConfigurationEntityListener));
+	}
+
+	@Test
+	void when_transactionRolledBack_should_notPublish() {
+		// Init data
+		TransactionSynchronizationManager.initSynchronization();
+
+		// Call listener
+		this.launchConfigurationEntityListener.onChange(new TargetEntity());
+		this.complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		// Test results
+		Mockito.verifyNoInteractions(this.applicationEventPublisherMock);
+		assertFalse(TransactionSynchronizationManager.hasResource(this.launchConfigurationEntityListener));
+	}
+
+	/**
+	 * Complete the transaction as the transaction manager does
+	 * @param status Status of the completion
+	 */
+	private void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		}
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.connector;
+
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.patient.Serie;
+import org.viewer.hub.back.model.patient.Study;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbConnectorPatientsBuilderTest {
+
+	@Test
+	void when_rowsShareParents_should_groupThemInOneTree() {
+		// Given
+		DbConnectorPatientsBuilder patientsBuilder = new DbConnectorPatientsBuilder("transferSyntaxUid", 80);
+
+		// When
+		patientsBuilder.add(buildRow("patientId", "studyUid", "serieUid", "sopInstanceUid1", 1));
+		patientsBuilder.add(buildRow("patientId", "studyUid", "serieUid", "sopInstanceUid2", 2));
+		patientsBuilder.add(buildRow("patientId", "studyUid", "serieUid", "sopInstanceUid2", 2));
+		Set<Patient> patients = patientsBuilder.build();
+
+		// Then
+		assertThat(patients).hasSize(1);
+		Patient patient = patients.iterator().next();
+		assertThat(patient.getPatientID()).isEqualTo("patientId");
+		assertThat(patient.getStudies()).hasSize(1);
+		Study study = patient.getStudies().iterator().next();
+		assertThat(study.getSeries()).hasSize(1);
+		Serie serie = study.getSeries().iterator().next();
+		assertThat(serie.getWadoTransferSyntaxUID()).isEqualTo("transferSyntaxUid");
+		assertThat(serie.getInstances()).hasSize(2);
+	}
+
+	@Test
+	void when_rowsHaveDifferentParents_should_buildOneTreeByPatient() {
+		// Given
+		DbConnectorPatientsBuilder patientsBuilder = new DbConnectorPatientsBuilder(null, null);
+
+		// When
+		patientsBuilder.add(buildRow("patientId1", "studyUid1", "serieUid1", "sopInstanceUid1", 1));
+		patientsBuilder.add(buildRow("patientId1", "studyUid2", "serieUid2", "sopInstanceUid2", 1));
+		patientsBuilder.add(buildRow("patientId1", "studyUid2", "serieUid3", "sopInstanceUid3", 1));
+		patientsBuilder.add(buildRow("patientId2", "studyUid3", "serieUid4", "sopInstanceUid4", 1));
+		Set<Patient> patients = patientsBuilder.build();
+
+		// Then
+		assertThat(patients).hasSize(2);
+		Patient patient1 = patients.stream()
+			.filter(p -> p.getPatientID().equals("patientId1"))
+			.findFirst()
+			.orElseThrow();
+		assertThat(patient1.getStudies()).extracting(Study::getStudyInstanceUID)
+			.containsExactlyInAnyOrder("studyUid1", "studyUid2");
+		assertThat(patient1.getStudies()
+			.stream()
+			.filter(s -> s.getStudyInstanceUID().equals("studyUid2"))
+			.findFirst()
+			.orElseThrow()
+			.getSeries()).hasSize(2);
+	}
+
+	@Test
+	void when_noRow_should_returnNoPatient() {
+		assertThat(new DbConnectorPatientsBuilder(null, null).build()).isEmpty();
+	}
+
+	private static DbConnectorResult buildRow(String patientId, String studyUid, String serieUid,
+			String sopInstanceUid, Integer instanceNumber) {
+		return new DbConnectorResult("patientName", patientId, LocalDate.of(2023, 1, 1), "O", studyUid, "studyId",
+				LocalDateTime.of(2023, 1, 1, 23, 55, 0), "accessionNumber", "referringPhysicianName",
+				"studyDescription", serieUid, "CT", LocalDateTime.of(2023, 1, 1, 23, 59, 0), "seriesDescription", 2,
+				sopInstanceUid, "sopClassUid", instanceNumber);
+	}
+
+}
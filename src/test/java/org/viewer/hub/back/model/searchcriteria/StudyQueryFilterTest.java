@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.model.searchcriteria;
+
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.enums.SearchCriteriaPushDownType;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudyQueryFilterTest {
+
+	@Test
+	void when_noPushDownSupported_should_returnNoFilter() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setLowerDateTime(LocalDateTime.of(2024, 1, 15, 10, 30));
+		searchCriteria.setMostRecentResults(3);
+
+		// When
+		StudyQueryFilter studyQueryFilter = StudyQueryFilter.of(searchCriteria, Set.of());
+
+		// Then
+		assertThat(studyQueryFilter).isEqualTo(StudyQueryFilter.NONE);
+		assertThat(StudyQueryFilter.of(null, EnumSet.allOf(SearchCriteriaPushDownType.class)))
+			.isEqualTo(StudyQueryFilter.NONE);
+	}
+
+	@Test
+	void when_dateRangePushedDown_should_buildDicomRange_and_notLimitResults() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setLowerDateTime(LocalDateTime.of(2024, 1, 15, 10, 30));
+		searchCriteria.setMostRecentResults(3);
+
+		// When
+		StudyQueryFilter studyQueryFilter = StudyQueryFilter.of(searchCriteria,
+				EnumSet.allOf(SearchCriteriaPushDownType.class));
+
+		// Then
+		assertThat(studyQueryFilter.studyDateRange()).isEqualTo("20240115-");
+		assertThat(studyQueryFilter.modalitiesInStudy()).isEmpty();
+		// The most recent results are selected after the time part of the date filter
+		assertThat(studyQueryFilter.mostRecentResults()).isNull();
+	}
+
+	@Test
+	void when_modalitiesPushedDown_should_notLimitResults() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setModalitiesInStudy(Set.of("CT", "MR"));
+		searchCriteria.setMostRecentResults(2);
+
+		// When
+		StudyQueryFilter withModalities = StudyQueryFilter.of(searchCriteria, EnumSet
+			.of(SearchCriteriaPushDownType.MODALITIES_IN_STUDY, SearchCriteriaPushDownType.MOST_RECENT_RESULTS));
+		StudyQueryFilter withoutModalities = StudyQueryFilter.of(searchCriteria,
+				EnumSet.of(SearchCriteriaPushDownType.MOST_RECENT_RESULTS));
+
+		// Then
+		assertThat(withModalities.modalitiesInStudy()).containsExactlyInAnyOrder("CT", "MR");
+		// The modalities are filtered again on the series of the studies retrieved
+		assertThat(withModalities.mostRecentResults()).isNull();
+		assertThat(withoutModalities.modalitiesInStudy()).isEmpty();
+		assertThat(withoutModalities.mostRecentResults()).isNull();
+	}
+
+	@Test
+	void when_onlyMostRecentResultsRequested_should_limitResults() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setMostRecentResults(2);
+
+		// When
+		StudyQueryFilter studyQueryFilter = StudyQueryFilter.of(searchCriteria,
+				EnumSet.of(SearchCriteriaPushDownType.MOST_RECENT_RESULTS));
+
+		// Then
+		assertThat(studyQueryFilter.studyDateRange()).isNull();
+		assertThat(studyQueryFilter.modalitiesInStudy()).isEmpty();
+		assertThat(studyQueryFilter.mostRecentResults()).isEqualTo(2);
+	}
+
+	@Test
+	void when_descriptionFiltered_should_notLimitResults() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setContainsInDescription(Set.of("thorax"));
+		searchCriteria.setMostRecentResults(2);
+
+		// When
+		StudyQueryFilter studyQueryFilter = StudyQueryFilter.of(searchCriteria,
+				EnumSet.allOf(SearchCriteriaPushDownType.class));
+
+		// Then
+		assertThat(studyQueryFilter.mostRecentResults()).isNull();
+	}
+
+}
@@ -12,6 +12,7 @@
 package org.viewer.hub.back.service.impl;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.viewer.hub.back.service.S3Service;
@@ -21,15 +22,19 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 
 class BuildRetentionServiceTest {
 
 	private static final String BASE_PATH = "resources/packages/weasis/i18n";
 
+	private static final String PACKAGE_PATH = "resources/packages/weasis/package";
+
+	private static final String BLOBS_PATH = "resources/packages/weasis/blobs";
+
 	private static final String VERSION = "4.0.0-SNAPSHOT";
 
 	private static final String CURRENT_BUILD = "11111111-1111-1111-1111-111111111111";
@@ -42,11 +47,12 @@ class BuildRetentionServiceTest {
 
 	private void setUp(Duration gracePeriod) {
 		this.buildRetentionService = new BuildRetentionService(this.s3Service);
-		ReflectionTestUtils.setField(this.buildRetentionService, "packagePath", "resources/packages/weasis/package");
+		ReflectionTestUtils.setField(this.buildRetentionService, "packagePath", PACKAGE_PATH);
 		ReflectionTestUtils.setField(this.buildRetentionService, "i18nPath", BASE_PATH);
+		ReflectionTestUtils.setField(this.buildRetentionService, "blobsPath", BLOBS_PATH);
 		ReflectionTestUtils.setField(this.buildRetentionService, "enabled", true);
 		ReflectionTestUtils.setField(this.buildRetentionService, "gracePeriod", gracePeriod);
-		Mockito.when(this.s3Service.deleteS3Objects(anyString()))
+		Mockito.when(this.s3Service.deleteS3Keys(any()))
 			.thenReturn(java.util.concurrent.CompletableFuture.completedFuture(null));
 	}
 
@@ -71,9 +77,8 @@ class BuildRetentionServiceTest {
 		this.buildRetentionService.cleanObsoleteBuildsForBasePath(BASE_PATH);
 
 		// Obsolete build deleted, current build kept
-		Mockito.verify(this.s3Service).deleteS3Objects(eq("%s/%s/%s/".formatted(BASE_PATH, VERSION, OBSOLETE_BUILD)));
-		Mockito.verify(this.s3Service, Mockito.never())
-			.deleteS3Objects(eq("%s/%s/%s/".formatted(BASE_PATH, VERSION, CURRENT_BUILD)));
+		Mockito.verify(this.s3Service)
+			.deleteS3Keys(eq(Set.of("%s/%s/%s/messages.properties".formatted(BASE_PATH, VERSION, OBSOLETE_BUILD))));
 	}
 
 	@Test
@@ -84,7 +89,7 @@ class BuildRetentionServiceTest {
 
 		this.buildRetentionService.cleanObsoleteBuildsForBasePath(BASE_PATH);
 
-		Mockito.verify(this.s3Service, Mockito.never()).deleteS3Objects(anyString());
+		Mockito.verify(this.s3Service, Mockito.never()).deleteS3Keys(any());
 	}
 
 	@Test
@@ -100,9 +105,76 @@ class BuildRetentionServiceTest {
 
 		this.buildRetentionService.cleanObsoleteBuildsForBasePath(BASE_PATH);
 
-		Mockito.verify(this.s3Service, Mockito.never()).deleteS3Objects(anyString());
+		Mockito.verify(this.s3Service, Mockito.never()).deleteS3Keys(any());
 		// Never resolves a build id since there is nothing build-stamped to clean
 		Mockito.verify(this.s3Service, Mockito.never()).retrieveS3Object(any());
 	}
 
+	@Test
+	void when_blobReferencedByNoManifest_should_deleteOnlyUnreferencedBlobOlderThanGrace() {
+		this.setUp(Duration.ofHours(24));
+		String referencedBlob = "%s/sha256/%s".formatted(BLOBS_PATH, "a".repeat(64));
+		String unreferencedBlob = "%s/sha256/%s".formatted(BLOBS_PATH, "b".repeat(64));
+		String recentUnreferencedBlob = "%s/sha256/%s".formatted(BLOBS_PATH, "c".repeat(64));
+		Mockito.when(this.s3Service.retrieveS3ObjectsLastModifiedFromPrefix(BLOBS_PATH))
+			.thenReturn(Map.of(referencedBlob, Instant.now().minus(Duration.ofDays(10)), unreferencedBlob,
+					Instant.now().minus(Duration.ofDays(10)), recentUnreferencedBlob,
+					Instant.now().minus(Duration.ofHours(1))));
+		String manifestKey = "%s/%s/%s/blobs.json".formatted(PACKAGE_PATH, VERSION, CURRENT_BUILD);
+		String configKey = "%s/%s/%s/conf/config.json".formatted(PACKAGE_PATH, VERSION, CURRENT_BUILD);
+		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(PACKAGE_PATH)).thenReturn(Set.of(manifestKey, configKey));
+		Mockito.when(this.s3Service.retrieveS3Object(manifestKey))
+			.thenAnswer(invocation -> new ByteArrayInputStream(
+					"{\"bundle/felix.jar\":\"%s\"}".formatted("a".repeat(64)).getBytes(StandardCharsets.UTF_8)));
+		Mockito.when(this.s3Service.retrieveS3ObjectLastModified(unreferencedBlob))
+			.thenReturn(Instant.now().minus(Duration.ofDays(10)));
+
+		this.buildRetentionService.cleanUnreferencedBlobs();
+
+		// Referenced blob and blob uploaded within the grace period kept
+		Mockito.verify(this.s3Service).deleteS3Keys(eq(Set.of(unreferencedBlob)));
+	}
+
+	@Test
+	void when_unreferencedBlobReusedByUploadInProgress_should_keepBlob() {
+		this.setUp(Duration.ofHours(24));
+		String reusedBlob = "%s/sha256/%s".formatted(BLOBS_PATH, "b".repeat(64));
+		String manifestKey = "%s/%s/%s/blobs.json".formatted(PACKAGE_PATH, VERSION, CURRENT_BUILD);
+		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(PACKAGE_PATH)).thenReturn(Set.of(manifestKey));
+		Mockito.when(this.s3Service.retrieveS3Object(manifestKey))
+			.thenAnswer(invocation -> new ByteArrayInputStream(
+					"{\"bundle/felix.jar\":\"%s\"}".formatted("a".repeat(64)).getBytes(StandardCharsets.UTF_8)));
+		// Blob referenced by no build, reused by an upload not published yet, its manifest
+		// not uploaded: its reuse is recorded, its last modification unchanged
+		Mockito.when(this.s3Service.retrieveS3ObjectsLastModifiedFromPrefix(BLOBS_PATH))
+			.thenReturn(Map.of(reusedBlob, Instant.now().minus(Duration.ofDays(10))));
+		Mockito.when(this.s3Service.retrieveS3ObjectLastModified(reusedBlob))
+			.thenReturn(Instant.now().minus(Duration.ofDays(10)));
+		Mockito.when(this.s3Service.retrieveS3BlobLastReused(reusedBlob)).thenReturn(Instant.now());
+
+		this.buildRetentionService.cleanUnreferencedBlobs();
+
+		// Manifests read before the reuse is checked, reused blob kept
+		InOrder inOrder = Mockito.inOrder(this.s3Service);
+		inOrder.verify(this.s3Service).retrieveS3KeysFromPrefix(PACKAGE_PATH);
+		inOrder.verify(this.s3Service).retrieveS3BlobLastReused(reusedBlob);
+		Mockito.verify(this.s3Service, Mockito.never()).deleteS3Keys(any());
+	}
+
+	@Test
+	void when_blobManifestUnreadable_should_deleteNoBlob() {
+		this.setUp(Duration.ofHours(24));
+		Mockito.when(this.s3Service.retrieveS3ObjectsLastModifiedFromPrefix(BLOBS_PATH))
+			.thenReturn(Map.of("%s/sha256/%s".formatted(BLOBS_PATH, "b".repeat(64)),
+					Instant.now().minus(Duration.ofDays(10))));
+		String manifestKey = "%s/%s/%s/blobs.json".formatted(PACKAGE_PATH, VERSION, CURRENT_BUILD);
+		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(PACKAGE_PATH)).thenReturn(Set.of(manifestKey));
+		Mockito.when(this.s3Service.retrieveS3Object(manifestKey))
+			.thenAnswer(invocation -> new ByteArrayInputStream("not json".getBytes(StandardCharsets.UTF_8)));
+
+		this.buildRetentionService.cleanUnreferencedBlobs();
+
+		Mockito.verify(this.s3Service, Mockito.never()).deleteS3Keys(any());
+	}
+
 }
\ No newline at end of file
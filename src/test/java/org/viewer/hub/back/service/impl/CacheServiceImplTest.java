@@ -15,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.Cache;
@@ -22,12 +23,17 @@ import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.viewer.hub.back.constant.CacheName;
 import org.viewer.hub.back.entity.PackageVersionEntity;
 import org.viewer.hub.back.model.manifest.Manifest;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
+import org.viewer.hub.back.model.searchcriteria.WeasisArchiveSearchCriteria;
 import org.viewer.hub.back.service.CacheService;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -36,6 +42,7 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -60,6 +67,12 @@ class CacheServiceImplTest {
 	@Mock
 	private RedisTemplate<String, PackageVersionEntity> packageVersionRedisTemplateMock;
 
+	@Mock
+	private StringRedisTemplate stringRedisTemplateMock;
+
+	@Mock
+	private ValueOperations<String, String> valueOperationsMock;
+
 	private ValueWrapper manifestValueWrapper;
 
 	private ValueWrapper packageVersionValueWrapper;
@@ -87,7 +100,7 @@ class CacheServiceImplTest {
 		when(this.redisCacheManagerMock.getCache(CacheName.PACKAGE_VERSION)).thenReturn(this.packageVersionCacheMock);
 
 		this.cacheService = new CacheServiceImpl(this.redisCacheManagerMock, this.manifestRedisTemplateMock,
-				this.packageVersionRedisTemplateMock);
+				this.packageVersionRedisTemplateMock, this.stringRedisTemplateMock);
 	}
 
 	// ============================= Manifest ================================
@@ -105,6 +118,80 @@ class CacheServiceImplTest {
 		assertNotEquals(key, keyToCompare);
 	}
 
+	@Test
+	void when_searchParametersOrderChange_then_keyBuiltShouldBeTheSame() {
+		// Build keys
+		ArchiveSearchCriteria archiveSearchCriteria = new ArchiveSearchCriteria();
+		archiveSearchCriteria.setStudyUID(new LinkedHashSet<>(List.of("1.2.3", "4.5.6")));
+		ArchiveSearchCriteria archiveSearchCriteriaToCompare = new ArchiveSearchCriteria();
+		archiveSearchCriteriaToCompare.setStudyUID(new LinkedHashSet<>(List.of("4.5.6", "1.2.3")));
+
+		// Test keys
+		String key = this.cacheService.constructManifestKeyDependingOnSearchParameters(archiveSearchCriteria);
+		assertEquals(key,
+				this.cacheService.constructManifestKeyDependingOnSearchParameters(archiveSearchCriteriaToCompare));
+		assertEquals(64, key.length());
+	}
+
+	@Test
+	void when_searchParametersAreTheSame_withDifferentTypes_then_keyBuiltShouldBeDifferent() {
+		// Test keys
+		assertNotEquals(this.cacheService.constructManifestKeyDependingOnSearchParameters(new ArchiveSearchCriteria()),
+				this.cacheService.constructManifestKeyDependingOnSearchParameters(new WeasisArchiveSearchCriteria()));
+	}
+
+	@Test
+	void given_buildInProgress_when_acquiringManifestBuildLock_then_shouldNotAcquireIt() {
+		// Given
+		when(this.stringRedisTemplateMock.opsForValue()).thenReturn(this.valueOperationsMock);
+		when(this.valueOperationsMock.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+		// When
+		boolean firstLock = this.cacheService.acquireManifestBuildLock("hash");
+		boolean secondLock = this.cacheService.acquireManifestBuildLock("hash");
+		this.cacheService.releaseManifestBuildLock("hash");
+		boolean lockAfterRelease = this.cacheService.acquireManifestBuildLock("hash");
+
+		// Then
+		assertTrue(firstLock);
+		assertFalse(secondLock);
+		assertTrue(lockAfterRelease);
+		verify(this.stringRedisTemplateMock).execute(any(RedisScript.class), anyList(), anyString());
+		verify(this.stringRedisTemplateMock, never()).delete(anyString());
+	}
+
+	@Test
+	void given_lockAcquired_when_releasingManifestBuildLock_then_shouldReleaseItWithTokenOfAcquisition() {
+		// Given
+		when(this.stringRedisTemplateMock.opsForValue()).thenReturn(this.valueOperationsMock);
+		when(this.valueOperationsMock.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+		ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+
+		// When
+		this.cacheService.acquireManifestBuildLock("hash");
+		this.cacheService.releaseManifestBuildLock("hash");
+		// Released twice: lock possibly acquired by another instance since the first release
+		this.cacheService.releaseManifestBuildLock("hash");
+
+		// Then: compare and delete with the token stored in the lock, only once
+		verify(this.valueOperationsMock).setIfAbsent(eq("weasis.manifest.lock::hash"), tokenCaptor.capture(),
+				any(Duration.class));
+		verify(this.stringRedisTemplateMock).execute(any(RedisScript.class), eq(List.of("weasis.manifest.lock::hash")),
+				eq(tokenCaptor.getValue()));
+		assertFalse(this.cacheService.isManifestBuildLocked("hash"));
+	}
+
+	@Test
+	void given_buildInProgressOnAnotherInstance_when_acquiringManifestBuildLock_then_shouldNotAcquireIt() {
+		// Given
+		when(this.stringRedisTemplateMock.opsForValue()).thenReturn(this.valueOperationsMock);
+		when(this.valueOperationsMock.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+		// When / Then
+		assertFalse(this.cacheService.acquireManifestBuildLock("hash"));
+		assertFalse(this.cacheService.isManifestBuildLocked("hash"));
+	}
+
 	@Test
 	void given_newEntryInCache_when_addingInManifestCache_then_shouldReturnManifestAdded() {
 		// Given
@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.config.properties.ClientHostResolutionConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientHostServiceImplTest {
+
+	private final ClientHostResolutionConfigurationProperties properties =
+			new ClientHostResolutionConfigurationProperties();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// Canonical host names returned by the lookup, by address
+	private final Map<String, String> canonicalHostNames = new ConcurrentHashMap<>();
+
+	private final AtomicInteger lookupCount = new AtomicInteger();
+
+	private CountDownLatch lookupLatch;
+
+	private ClientHostServiceImpl clientHostService;
+
+	@BeforeEach
+	public void setUp() {
+		this.properties.setLookupTimeout(Duration.ofSeconds(5));
+		this.lookupLatch = new CountDownLatch(0);
+		this.clientHostService = new ClientHostServiceImpl(this.properties, this.meterRegistry, addr -> {
+			this.lookupCount.incrementAndGet();
+			try {
+				this.lookupLatch.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return this.canonicalHostNames.getOrDefault(addr, addr);
+		});
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.clientHostService.shutdown();
+	}
+
+	@Test
+	void when_resolvingClientHost_with_bypassOrEmptyAddress_should_notLookup() {
+		assertNull(this.clientHostService.resolveClientHost("bypass", "bypass"));
+		assertNull(this.clientHostService.resolveClientHost("", "bypass"));
+		assertNull(this.clientHostService.resolveClientHost(null, "bypass"));
+		assertEquals(0, this.lookupCount.get());
+	}
+
+	@Test
+	void when_resolvingClientHost_twice_should_lookupOnceAndSimplifyHost() {
+		// Init data
+		this.canonicalHostNames.put("10.0.0.1", "pc-001-129195220186.example.org");
+
+		// Call service
+		String host = this.clientHostService.resolveClientHost("10.0.0.1", null);
+		String hostCached = this.clientHostService.resolveClientHost("10.0.0.1", null);
+
+		// Test results
+		assertEquals("pc-001", host);
+		assertEquals("pc-001", hostCached);
+		assertEquals(1, this.lookupCount.get());
+		assertEquals(1.0, this.lookupCounter("hit"));
+		assertEquals(1.0, this.lookupCounter("miss"));
+	}
+
+	@Test
+	void when_resolvingClientHost_with_noHostFound_should_keepItForNegativeTtl() {
+		// Init data: no PTR record and negative ttl expired immediately
+		this.properties.setNegativeTtl(Duration.ZERO);
+
+		// Call service
+		this.clientHostService.resolveClientHost("10.0.0.2", null);
+		this.clientHostService.resolveClientHost("10.0.0.2", null);
+
+		// Test results
+		assertEquals(2, this.lookupCount.get());
+		assertEquals(2, this.meterRegistry.get("viewer.hub.client.host.resolution")
+			.tag("outcome", "unresolved")
+			.timer()
+			.count());
+	}
+
+	@Test
+	void when_resolvingClientHost_with_refreshAheadReached_should_returnCachedHostAndRefresh() throws Exception {
+		// Init data
+		this.properties.setRefreshAhead(Duration.ZERO);
+		this.canonicalHostNames.put("10.0.0.3", "pc-003.example.org");
+		this.clientHostService.resolveClientHost("10.0.0.3", null);
+		this.canonicalHostNames.put("10.0.0.3", "pc-004.example.org");
+
+		// Call service
+		String host = this.clientHostService.resolveClientHost("10.0.0.3", null);
+
+		// Test results: cached host returned, new host available once refreshed
+		assertEquals("pc-003", host);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.lookupCount.get() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(2, this.lookupCount.get());
+	}
+
+	@Test
+	void when_resolvingClientHost_with_slowDns_should_continueWithoutHost() throws Exception {
+		// Init data
+		this.properties.setLookupTimeout(Duration.ofMillis(50));
+		this.canonicalHostNames.put("10.0.0.4", "pc-005.example.org");
+		this.lookupLatch = new CountDownLatch(1);
+
+		// Call service
+		String host = this.clientHostService.resolveClientHost("10.0.0.4", null);
+
+		// Test results: lookup completed in background for the next requests
+		assertNull(host);
+		assertEquals(1.0, this.lookupCounter("timeout"));
+		this.lookupLatch.countDown();
+		this.properties.setLookupTimeout(Duration.ofSeconds(5));
+		assertEquals("pc-005", this.clientHostService.resolveClientHost("10.0.0.4", null));
+		assertTrue(this.lookupCount.get() <= 2);
+	}
+
+	private double lookupCounter(String result) {
+		return this.meterRegistry.get("viewer.hub.client.host.lookup").tag("result", result).counter().count();
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.viewer.hub.back.entity.OverrideConfigEntity;
+import org.viewer.hub.back.entity.PackageVersionEntity;
+import org.viewer.hub.back.entity.WeasisPropertyEntity;
+import org.viewer.hub.back.model.launch.ConfigurationPropertiesPayload;
+import org.viewer.hub.back.service.LaunchConfigurationSnapshotService;
+import org.viewer.hub.back.service.OverrideConfigService;
+import org.viewer.hub.back.service.PackageService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigurationPropertiesServiceImplTest {
+
+	@Mock
+	private OverrideConfigService overrideConfigServiceMock;
+
+	@Mock
+	private PackageService packageServiceMock;
+
+	@Mock
+	private LaunchConfigurationSnapshotService launchConfigurationSnapshotServiceMock;
+
+	private ConfigurationPropertiesServiceImpl configurationPropertiesService;
+
+	private final PackageVersionEntity packageVersionEntity = new PackageVersionEntity();
+
+	@BeforeEach
+	public void setUp() {
+		this.configurationPropertiesService = new ConfigurationPropertiesServiceImpl(this.overrideConfigServiceMock,
+				this.packageServiceMock, this.launchConfigurationSnapshotServiceMock);
+		this.packageVersionEntity.setId(1L);
+		this.packageVersionEntity.setVersionNumber("4.0.3");
+	}
+
+	@Test
+	void when_retrievingConfigurationPropertiesTwice_with_sameVersion_should_buildPayloadOnce() {
+		// Mock
+		this.mockProperties("weasis.name", "weasisName");
+
+		// Call service
+		ConfigurationPropertiesPayload first = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+		ConfigurationPropertiesPayload second = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+
+		// Test results
+		assertSame(first, second);
+		assertFalse(first.json());
+		assertTrue(new String(first.content(), StandardCharsets.ISO_8859_1).contains("weasis.name=weasisName"));
+		assertTrue(first.eTag().startsWith("\"") && first.eTag().endsWith("\""));
+		Mockito.verify(this.overrideConfigServiceMock, times(1)).retrieveProperties(1L, 2L, 3L);
+	}
+
+	@Test
+	void when_retrievingConfigurationProperties_with_launchConfigurationChanged_should_buildPayloadAgain() {
+		// Mock
+		this.mockProperties("weasis.name", "weasisName");
+		ConfigurationPropertiesPayload first = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+		when(this.launchConfigurationSnapshotServiceMock.retrieveChangeVersion()).thenReturn(1L);
+
+		// Call service
+		ConfigurationPropertiesPayload second = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+
+		// Test results: same content, same entity tag
+		assertNotSame(first, second);
+		assertEquals(first.eTag(), second.eTag());
+		Mockito.verify(this.overrideConfigServiceMock, times(2)).retrieveProperties(1L, 2L, 3L);
+	}
+
+	@Test
+	void when_retrievingConfigurationProperties_with_differentContent_should_haveDifferentETag() {
+		// Mock
+		this.mockProperties("weasis.name", "weasisName");
+		ConfigurationPropertiesPayload first = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+		this.mockProperties("weasis.name", "otherName");
+		when(this.launchConfigurationSnapshotServiceMock.retrieveChangeVersion()).thenReturn(1L);
+
+		// Call service
+		ConfigurationPropertiesPayload second = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+
+		// Test results
+		assertFalse(first.eTag().equals(second.eTag()));
+	}
+
+	@Test
+	void when_retrievingConfigurationProperties_with_unknownPackageVersion_should_returnNull() {
+		// Call service
+		ConfigurationPropertiesPayload payload = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+
+		// Test results
+		assertNull(payload);
+		Mockito.verifyNoInteractions(this.overrideConfigServiceMock);
+	}
+
+	@Test
+	void when_retrievingConfigurationProperties_with_unknownLaunchConfigOrGroup_should_returnNullWithoutKeepingIt() {
+		// Mock
+		when(this.packageServiceMock.retrievePackageVersion(1L)).thenReturn(this.packageVersionEntity);
+
+		// Call service
+		ConfigurationPropertiesPayload first = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+		ConfigurationPropertiesPayload second = this.configurationPropertiesService.retrieveConfigurationProperties(1L,
+				2L, 3L);
+
+		// Test results: configuration looked up again, once created it is served
+		assertNull(first);
+		assertNull(second);
+		Mockito.verify(this.overrideConfigServiceMock, times(2)).retrieveProperties(1L, 2L, 3L);
+	}
+
+	@Test
+	void when_buildingConfigurationPropertiesFails_should_buildPayloadAgainOnNextRetrieval() {
+		// Mock
+		when(this.packageServiceMock.retrievePackageVersion(1L)).thenThrow(new IllegalStateException("Database down"))
+			.thenReturn(this.packageVersionEntity);
+		when(this.overrideConfigServiceMock.retrieveProperties(1L, 2L, 3L)).thenReturn(OverrideConfigEntity.builder()
+			.weasisPropertyEntities(List.of(WeasisPropertyEntity.builder().code("weasis.name").value("name").build()))
+			.build());
+
+		// Call service and test results: failure not kept
+		assertThrows(IllegalStateException.class,
+				() -> this.configurationPropertiesService.retrieveConfigurationProperties(1L, 2L, 3L));
+		assertNotNull(this.configurationPropertiesService.retrieveConfigurationProperties(1L, 2L, 3L));
+	}
+
+	private void mockProperties(String code, String value) {
+		when(this.packageServiceMock.retrievePackageVersion(1L)).thenReturn(this.packageVersionEntity);
+		when(this.overrideConfigServiceMock.retrieveProperties(1L, 2L, 3L)).thenReturn(OverrideConfigEntity.builder()
+			.weasisPropertyEntities(List.of(WeasisPropertyEntity.builder().code(code).value(value).build()))
+			.build());
+	}
+
+}
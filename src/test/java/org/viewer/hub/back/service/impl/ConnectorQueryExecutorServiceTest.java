@@ -0,0 +1,208 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+
+package org.viewer.hub.back.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.config.properties.ConnectorQueryConfigurationProperties;
+import org.viewer.hub.back.controller.exception.TechnicalException;
+import org.viewer.hub.back.enums.ConnectorType;
+import org.viewer.hub.back.enums.QueryLevelType;
+import org.viewer.hub.back.model.connector.ConnectorQueryResult;
+import org.viewer.hub.back.model.connector.ConnectorQueryTask;
+import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.property.ConnectorProperty;
+import org.viewer.hub.back.model.property.SearchCriteriaProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectorQueryExecutorServiceTest {
+
+	private ConnectorQueryConfigurationProperties connectorQueryConfigurationProperties;
+
+	private ConnectorQueryExecutorService connectorQueryExecutorService;
+
+	private ConnectorProperty dbConnector;
+
+	private ConnectorProperty dicomConnector;
+
+	@BeforeEach
+	void setUp() {
+		this.connectorQueryConfigurationProperties = new ConnectorQueryConfigurationProperties();
+		this.connectorQueryConfigurationProperties.setConnectorTimeout(Duration.ofMillis(500));
+		this.connectorQueryExecutorService = new ConnectorQueryExecutorService(
+				this.connectorQueryConfigurationProperties);
+		this.dbConnector = ConnectorProperty.builder()
+			.id("db")
+			.type(ConnectorType.DB)
+			.searchCriteria(new SearchCriteriaProperty(new HashSet<>()))
+			.build();
+		this.dicomConnector = ConnectorProperty.builder()
+			.id("dicom")
+			.type(ConnectorType.DICOM)
+			.searchCriteria(new SearchCriteriaProperty(new HashSet<>()))
+			.build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.connectorQueryExecutorService.shutdown();
+	}
+
+	@Test
+	void when_creatingPatientQueryTasks_should_createOneTaskPerDicomValueAndOneTaskPerDbConnector() {
+		// Init data
+		LinkedHashSet<String> values = new LinkedHashSet<>(List.of("1", "2", "3"));
+
+		// Call service
+		List<ConnectorQueryTask<Set<Patient>>> tasks = this.connectorQueryExecutorService.createPatientQueryTasks(
+				List.of(this.dbConnector, this.dicomConnector), values, QueryLevelType.STUDY_INSTANCE_UID,
+				(v, c) -> new HashSet<>(), (v, c) -> new HashSet<>());
+
+		// Test results
+		assertEquals(4, tasks.size());
+		assertEquals("db", tasks.getFirst().connector().getId());
+		assertTrue(tasks.subList(1, 4).stream().allMatch(t -> "dicom".equals(t.connector().getId())));
+	}
+
+	@Test
+	void when_creatingPatientQueryTasks_with_deactivatedQueryLevel_should_skipConnector() {
+		// Init data
+		this.dicomConnector.setSearchCriteria(new SearchCriteriaProperty(Set.of(QueryLevelType.PATIENT_ID)));
+
+		// Call service
+		List<ConnectorQueryTask<Set<Patient>>> tasks = this.connectorQueryExecutorService.createPatientQueryTasks(
+				List.of(this.dicomConnector), Set.of("1"), QueryLevelType.PATIENT_ID, (v, c) -> new HashSet<>(),
+				(v, c) -> new HashSet<>());
+
+		// Test results
+		assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	void when_executingTasks_should_runInParallelAndReturnResultsInTaskOrder() {
+		// Init data: every task waits for all the others to be started
+		int nbTasks = 3;
+		CountDownLatch allStarted = new CountDownLatch(nbTasks);
+		List<ConnectorQueryTask<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < nbTasks; i++) {
+			int index = i;
+			tasks.add(new ConnectorQueryTask<>(i == 0 ? this.dbConnector : this.dicomConnector, () -> {
+				allStarted.countDown();
+				try {
+					allStarted.await(5, TimeUnit.SECONDS);
+					// Complete in reverse order
+					Thread.sleep(50L * (nbTasks - index));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return index;
+			}));
+		}
+
+		// Call service
+		List<ConnectorQueryResult<Integer>> results = this.connectorQueryExecutorService.executeAll(tasks);
+
+		// Test results
+		assertEquals(0, allStarted.getCount());
+		assertEquals(List.of(0, 1, 2), results.stream().map(ConnectorQueryResult::result).toList());
+	}
+
+	@Test
+	void when_executingTasks_with_queryExceedingConnectorTimeout_should_ignoreItsResult() {
+		// Init data
+		List<ConnectorQueryTask<String>> tasks = List.of(new ConnectorQueryTask<>(this.dbConnector, () -> "fast"),
+				new ConnectorQueryTask<>(this.dicomConnector, () -> {
+					try {
+						Thread.sleep(5_000);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return "slow";
+				}));
+
+		// Call service
+		List<ConnectorQueryResult<String>> results = this.connectorQueryExecutorService.executeAll(tasks);
+
+		// Test results
+		assertEquals(1, results.size());
+		assertEquals("fast", results.getFirst().result());
+	}
+
+	@Test
+	void when_executingTasks_with_queryIgnoringCancellation_should_keepConnectorPermitUntilItCompletes() {
+		// Init data: a single query at a time on the connector, the first one ignores
+		// its cancellation and runs beyond the connector timeout
+		this.connectorQueryConfigurationProperties.setMaxConcurrentQueriesPerConnector(1);
+		this.connectorQueryConfigurationProperties.setConnectorTimeout(Duration.ofMillis(200));
+		this.connectorQueryExecutorService.shutdown();
+		this.connectorQueryExecutorService = new ConnectorQueryExecutorService(
+				this.connectorQueryConfigurationProperties);
+		AtomicBoolean stubbornQueryCompleted = new AtomicBoolean();
+		ConnectorQueryTask<String> stubbornTask = new ConnectorQueryTask<>(this.dicomConnector, () -> {
+			long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(600);
+			while (System.nanoTime() < end) {
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException e) {
+					// Interruption ignored
+				}
+			}
+			stubbornQueryCompleted.set(true);
+			return "stubborn";
+		});
+		ConnectorQueryTask<Boolean> nextTask = new ConnectorQueryTask<>(this.dicomConnector,
+				stubbornQueryCompleted::get);
+
+		// Call service
+		List<ConnectorQueryResult<String>> stubbornResults = this.connectorQueryExecutorService
+			.executeAll(List.of(stubbornTask));
+		List<ConnectorQueryResult<Boolean>> nextResults = this.connectorQueryExecutorService
+			.executeAll(List.of(nextTask));
+
+		// Test results: the next query started only once the first one has completed
+		assertTrue(stubbornResults.isEmpty());
+		assertEquals(1, nextResults.size());
+		assertTrue(nextResults.getFirst().result());
+	}
+
+	@Test
+	void when_executingTasks_with_failingQuery_should_propagateException() {
+		// Init data
+		List<ConnectorQueryTask<String>> tasks = List.of(new ConnectorQueryTask<>(this.dicomConnector, () -> {
+			throw new TechnicalException("Archive not reachable");
+		}));
+
+		// Call service and test results
+		TechnicalException exception = assertThrows(TechnicalException.class,
+				() -> this.connectorQueryExecutorService.executeAll(tasks));
+		assertEquals("Archive not reachable", exception.getMessage());
+	}
+
+}
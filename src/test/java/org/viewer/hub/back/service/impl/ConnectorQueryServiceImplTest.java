@@ -18,8 +18,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
+import org.viewer.hub.back.config.properties.ConnectorQueryConfigurationProperties;
 import org.viewer.hub.back.enums.ConnectorType;
 import org.viewer.hub.back.enums.IHERequestType;
 import org.viewer.hub.back.model.patient.Patient;
@@ -53,6 +55,10 @@ class ConnectorQueryServiceImplTest {
 	@Mock
 	private ConnectorService connectorService;
 
+	@Spy
+	private ConnectorQueryExecutorService connectorQueryExecutorService = new ConnectorQueryExecutorService(
+			new ConnectorQueryConfigurationProperties());
+
 	@InjectMocks
 	private ConnectorQueryServiceImpl connectorQueryService;
 
@@ -89,7 +95,7 @@ class ConnectorQueryServiceImplTest {
 		// Mock patient ID query
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -125,7 +131,7 @@ class ConnectorQueryServiceImplTest {
 		// Mock patient ID query
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -163,7 +169,7 @@ class ConnectorQueryServiceImplTest {
 		// Mock patient ID query
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -172,7 +178,7 @@ class ConnectorQueryServiceImplTest {
 
 		// When
 		Map<String, Set<Patient>> result = connectorQueryService
-			.retrievePatientsByArchiveWithoutIHESearchCriteria(searchCriteria, authentication);
+			.retrievePatientsByArchiveWithoutIHESearchCriteria(searchCriteria, null, authentication);
 
 		// Then
 		assertNotNull(result);
@@ -199,7 +205,7 @@ class ConnectorQueryServiceImplTest {
 		// Mock patient ID query
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -208,7 +214,7 @@ class ConnectorQueryServiceImplTest {
 
 		// When
 		Map<String, Set<Patient>> result = connectorQueryService
-			.retrievePatientsByArchiveWithIHESearchCriteria(searchCriteria, authentication);
+			.retrievePatientsByArchiveWithIHESearchCriteria(searchCriteria, null, authentication);
 
 		// Then
 		assertNotNull(result);
@@ -235,12 +241,12 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(new HashSet<>());
 
 		// When
 		Map<String, Set<Patient>> result = connectorQueryService
-			.retrievePatientsByArchiveWithoutIHESearchCriteria(searchCriteria, authentication);
+			.retrievePatientsByArchiveWithoutIHESearchCriteria(searchCriteria, null, authentication);
 
 		// Then
 		assertTrue(result.isEmpty());
@@ -287,12 +293,12 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(new HashSet<>());
 
 		// When
 		Map<String, Set<Patient>> result = connectorQueryService
-			.retrievePatientsByArchiveWithIHESearchCriteria(searchCriteria, authentication);
+			.retrievePatientsByArchiveWithIHESearchCriteria(searchCriteria, null, authentication);
 
 		// Then
 		assertTrue(result.isEmpty());
@@ -429,7 +435,7 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P001"));
 
 		// When
@@ -437,8 +443,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.eq(seriesUids), Mockito.eq(dicomConnector),
-					Mockito.eq(authentication));
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.eq(seriesUids), Mockito.isNull(),
+					Mockito.eq(dicomConnector), Mockito.eq(authentication));
 		assertEquals(1, patients.size());
 	}
 
@@ -488,7 +494,7 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P001"));
 
 		// When
@@ -496,7 +502,7 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.eq(accessionNumbers),
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.eq(accessionNumbers), Mockito.isNull(),
 					Mockito.eq(dicomConnector), Mockito.eq(authentication));
 		assertEquals(1, patients.size());
 	}
@@ -546,7 +552,7 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P001"));
 
 		// When
@@ -554,8 +560,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.eq(studyUids), Mockito.eq(dicomConnector),
-					Mockito.eq(authentication));
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.eq(studyUids), Mockito.isNull(),
+					Mockito.eq(dicomConnector), Mockito.eq(authentication));
 		assertEquals(1, patients.size());
 	}
 
@@ -602,7 +608,7 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P001"));
 
 		// When
@@ -610,8 +616,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromPatientIdsDicomConnector(Mockito.eq(patientIds), Mockito.eq(dicomConnector),
-					Mockito.eq(authentication));
+			.retrievePatientsFromPatientIdsDicomConnector(Mockito.eq(patientIds), Mockito.isNull(), Mockito.isNull(),
+					Mockito.eq(dicomConnector), Mockito.eq(authentication));
 		assertEquals(1, patients.size());
 	}
 
@@ -642,7 +648,7 @@ class ConnectorQueryServiceImplTest {
 			.thenReturn(createPatientSet("P001"));
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P002"));
 
 		// When
@@ -653,7 +659,8 @@ class ConnectorQueryServiceImplTest {
 		Mockito.verify(dicomConnectorQueryService)
 			.retrievePatientsFromSopInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertNotNull(result);
 	}
 
@@ -675,7 +682,7 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P001"));
 
 		// When
@@ -684,7 +691,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertNotNull(result);
 		assertEquals(1, result.size());
 	}
@@ -707,7 +715,7 @@ class ConnectorQueryServiceImplTest {
 		Mockito.when(connectorService.retrieveConnectors(Mockito.any())).thenReturn(connectors);
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenReturn(createPatientSet("P001"));
 
 		// When
@@ -716,7 +724,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertNotNull(result);
 		assertEquals(1, result.size());
 	}
@@ -835,7 +844,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService, Mockito.never())
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertTrue(patients.isEmpty());
 	}
 
@@ -866,7 +876,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService, Mockito.never())
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertTrue(patients.isEmpty());
 	}
 
@@ -897,7 +908,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService, Mockito.never())
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertTrue(patients.isEmpty());
 	}
 
@@ -928,7 +940,8 @@ class ConnectorQueryServiceImplTest {
 
 		// Then
 		Mockito.verify(dicomConnectorQueryService, Mockito.never())
-			.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertTrue(patients.isEmpty());
 	}
 
@@ -991,7 +1004,7 @@ class ConnectorQueryServiceImplTest {
 
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -1007,7 +1020,7 @@ class ConnectorQueryServiceImplTest {
 
 		// When
 		Map<String, Set<Patient>> result = connectorQueryService
-			.retrievePatientsByArchiveWithoutIHESearchCriteria(searchCriteria, authentication);
+			.retrievePatientsByArchiveWithoutIHESearchCriteria(searchCriteria, null, authentication);
 
 		// Then
 		assertNotNull(result);
@@ -1034,7 +1047,7 @@ class ConnectorQueryServiceImplTest {
 
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -1050,7 +1063,7 @@ class ConnectorQueryServiceImplTest {
 
 		// When
 		Map<String, Set<Patient>> result = connectorQueryService
-			.retrievePatientsByArchiveWithIHESearchCriteria(searchCriteria, authentication);
+			.retrievePatientsByArchiveWithIHESearchCriteria(searchCriteria, null, authentication);
 
 		// Then
 		assertNotNull(result);
@@ -1102,7 +1115,7 @@ class ConnectorQueryServiceImplTest {
 			});
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P002"));
@@ -1110,7 +1123,7 @@ class ConnectorQueryServiceImplTest {
 			});
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P003"));
@@ -1118,7 +1131,7 @@ class ConnectorQueryServiceImplTest {
 			});
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(),
-					Mockito.any(), Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P004"));
@@ -1126,7 +1139,7 @@ class ConnectorQueryServiceImplTest {
 			});
 		Mockito
 			.when(dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(),
-					Mockito.any()))
+					Mockito.any(), Mockito.any(), Mockito.any()))
 			.thenAnswer(invocation -> {
 				Set<Patient> result = new HashSet<>();
 				result.add(createPatientWithStudy("P001"));
@@ -1141,13 +1154,17 @@ class ConnectorQueryServiceImplTest {
 		Mockito.verify(dicomConnectorQueryService)
 			.retrievePatientsFromSopInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		Mockito.verify(dicomConnectorQueryService)
-			.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any());
+			.retrievePatientsFromPatientIdsDicomConnector(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+					Mockito.any());
 		assertNotNull(result);
 	}
 
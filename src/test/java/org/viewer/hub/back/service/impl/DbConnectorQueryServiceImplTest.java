@@ -17,12 +17,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.viewer.hub.back.config.tenant.TenantIdentifierResolver;
 import org.viewer.hub.back.enums.ConnectorType;
+import org.viewer.hub.back.model.connector.DbConnectorPatientsBuilder;
 import org.viewer.hub.back.model.connector.DbConnectorResult;
 import org.viewer.hub.back.model.manifest.Manifest;
 import org.viewer.hub.back.model.property.*;
@@ -31,9 +31,7 @@ import org.viewer.hub.back.service.DbConnectorQueryService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,17 +50,17 @@ class DbConnectorQueryServiceImplTest {
 	@BeforeEach
 	public void setUp() {
 		// Mock
-		List<DbConnectorResult> dbConnectorResults = new ArrayList<>();
 		DbConnectorResult dbConnectorResult = new DbConnectorResult("patientName", "patientId",
 				LocalDate.of(2023, 1, 1), "O", "studyInstanceUid", "studyId", LocalDateTime.of(2023, 1, 1, 23, 55, 0),
 				"accessionNumber", "referringPhysicianName", "studyDescription", "seriesInstanceUid", "modality",
 				LocalDateTime.of(2025, 1, 1, 23, 59, 0), "seriesDescription", 2, "sopInstanceUid", "sopClassUid", 1);
-		dbConnectorResults.add(dbConnectorResult);
 
-		Mockito
-			.when(this.namedParameterJdbcTemplateMock.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class),
-					Mockito.any(RowMapper.class)))
-			.thenReturn(dbConnectorResults);
+		Mockito.doAnswer(invocation -> {
+			invocation.<DbConnectorPatientsBuilder>getArgument(2).add(dbConnectorResult);
+			return null;
+		})
+			.when(this.namedParameterJdbcTemplateMock)
+			.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class), Mockito.any(RowCallbackHandler.class));
 
 		DbConnectorQueryProperty dbConnectorQueryProperty = new DbConnectorQueryProperty("select",
 				"accessionNumberColumn", "patientIdColumn", "studyInstanceUidColumn", "serieInstanceUidColumn",
@@ -105,7 +103,7 @@ class DbConnectorQueryServiceImplTest {
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).setCurrentTenant(Mockito.anyString());
 		Mockito.verify(this.namedParameterJdbcTemplateMock, Mockito.times(1))
 			.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class),
-					Mockito.any(BeanPropertyRowMapper.class));
+					Mockito.any(RowCallbackHandler.class));
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).clear();
 	}
 
@@ -124,7 +122,7 @@ class DbConnectorQueryServiceImplTest {
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).setCurrentTenant(Mockito.anyString());
 		Mockito.verify(this.namedParameterJdbcTemplateMock, Mockito.times(1))
 			.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class),
-					Mockito.any(BeanPropertyRowMapper.class));
+					Mockito.any(RowCallbackHandler.class));
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).clear();
 	}
 
@@ -143,7 +141,7 @@ class DbConnectorQueryServiceImplTest {
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).setCurrentTenant(Mockito.anyString());
 		Mockito.verify(this.namedParameterJdbcTemplateMock, Mockito.times(1))
 			.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class),
-					Mockito.any(BeanPropertyRowMapper.class));
+					Mockito.any(RowCallbackHandler.class));
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).clear();
 	}
 
@@ -162,7 +160,7 @@ class DbConnectorQueryServiceImplTest {
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).setCurrentTenant(Mockito.anyString());
 		Mockito.verify(this.namedParameterJdbcTemplateMock, Mockito.times(1))
 			.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class),
-					Mockito.any(BeanPropertyRowMapper.class));
+					Mockito.any(RowCallbackHandler.class));
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).clear();
 	}
 
@@ -181,7 +179,7 @@ class DbConnectorQueryServiceImplTest {
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).setCurrentTenant(Mockito.anyString());
 		Mockito.verify(this.namedParameterJdbcTemplateMock, Mockito.times(1))
 			.query(Mockito.anyString(), Mockito.any(SqlParameterSource.class),
-					Mockito.any(BeanPropertyRowMapper.class));
+					Mockito.any(RowCallbackHandler.class));
 		Mockito.verify(this.currentTenantMock, Mockito.times(1)).clear();
 	}
 
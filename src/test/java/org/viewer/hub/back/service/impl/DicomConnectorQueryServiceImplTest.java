@@ -23,11 +23,15 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.viewer.hub.back.config.dicom.DicomAssociationPool;
 import org.viewer.hub.back.config.properties.ConnectorConfigurationProperties;
+import org.viewer.hub.back.config.properties.DicomAssociationPoolConfigurationProperties;
 import org.viewer.hub.back.enums.ConnectorAuthType;
 import org.viewer.hub.back.enums.ConnectorType;
 import org.viewer.hub.back.model.patient.DicomPatientSex;
@@ -50,9 +54,11 @@ import org.viewer.hub.back.service.DicomWebClientService;
 import org.weasis.dicom.op.CFind;
 import org.weasis.dicom.param.DicomParam;
 import org.weasis.dicom.param.DicomState;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
 import tools.jackson.core.JacksonException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Function;
@@ -181,8 +187,12 @@ class DicomConnectorQueryServiceImplTest {
 		Mockito.lenient().when(responseSpec.onStatus(Mockito.any(), Mockito.any())).thenReturn(responseSpec);
 
 		// Create mocked service
+		DicomAssociationPoolConfigurationProperties poolProperties = new DicomAssociationPoolConfigurationProperties();
+		// Pool disabled: requests go through the mocked CFind
+		poolProperties.setEnabled(false);
 		this.dicomConnectorQueryService = new DicomConnectorQueryServiceImpl(connectorConfigurationProperties,
-				dicomWebClientService, oAuth2AuthorizedClientService, clientRegistrationRepository);
+				dicomWebClientService, oAuth2AuthorizedClientService, clientRegistrationRepository,
+				new DicomAssociationPool(poolProperties));
 
 		ReflectionTestUtils.setField(this.dicomConnectorQueryService, "dicomWebTimeoutDuration", "30");
 	}
@@ -203,7 +213,7 @@ class DicomConnectorQueryServiceImplTest {
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(
-				studyAccessionNumbers, this.dicomConnectorProperty, null);
+				studyAccessionNumbers, null, this.dicomConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -218,13 +228,13 @@ class DicomConnectorQueryServiceImplTest {
 		studyAccessionNumbers.add("studyAccessionNumber");
 
 		// Mock behaviour
-		Mockito.when(responseSpec.bodyToMono(String.class))
-			.thenReturn(Mono.just(
+		Mockito.when(responseSpec.bodyToFlux(DataBuffer.class))
+			.thenReturn(this.toDataBuffers(
 					"[{\"00100020\":{\"vr\":\"LO\",\"Value\":[\"patientId\"]},\"00100040\":{\"vr\":\"CS\",\"Value\":[\"O\"]}}]"));
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromStudyAccessionNumbersDicomConnector(
-				studyAccessionNumbers, this.dicomWebConnectorProperty, null);
+				studyAccessionNumbers, null, this.dicomWebConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -240,7 +250,7 @@ class DicomConnectorQueryServiceImplTest {
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(patientIds,
-				this.dicomConnectorProperty, null);
+				archiveSearchCriteria, null, this.dicomConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -255,13 +265,13 @@ class DicomConnectorQueryServiceImplTest {
 		ArchiveSearchCriteria weasisSearchCriteria = new ArchiveSearchCriteria();
 
 		// Mock behaviour
-		Mockito.when(responseSpec.bodyToMono(String.class))
-			.thenReturn(Mono.just(
+		Mockito.when(responseSpec.bodyToFlux(DataBuffer.class))
+			.thenReturn(this.toDataBuffers(
 					"[{\"00100020\":{\"vr\":\"LO\",\"Value\":[\"patientId\"]},\"00100040\":{\"vr\":\"CS\",\"Value\":[\"O\"]}}]"));
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromPatientIdsDicomConnector(patientIds,
-				this.dicomWebConnectorProperty, null);
+				weasisSearchCriteria, null, this.dicomWebConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -276,7 +286,8 @@ class DicomConnectorQueryServiceImplTest {
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(studyInstanceUids, this.dicomConnectorProperty, null);
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(studyInstanceUids, null, this.dicomConnectorProperty,
+					null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -290,13 +301,13 @@ class DicomConnectorQueryServiceImplTest {
 		studyInstanceUids.add("studyInstanceUid");
 
 		// Mock behaviour
-		Mockito.when(responseSpec.bodyToMono(String.class))
-			.thenReturn(Mono.just(
+		Mockito.when(responseSpec.bodyToFlux(DataBuffer.class))
+			.thenReturn(this.toDataBuffers(
 					"[{\"00100020\":{\"vr\":\"LO\",\"Value\":[\"patientId\"]},\"00100040\":{\"vr\":\"CS\",\"Value\":[\"O\"]}}]"));
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromStudyInstanceUidsDicomConnector(
-				studyInstanceUids, this.dicomWebConnectorProperty, null);
+				studyInstanceUids, null, this.dicomWebConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -311,7 +322,7 @@ class DicomConnectorQueryServiceImplTest {
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromSeriesInstanceUidsDicomConnector(
-				seriesInstanceUids, this.dicomConnectorProperty, null);
+				seriesInstanceUids, null, this.dicomConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -325,13 +336,13 @@ class DicomConnectorQueryServiceImplTest {
 		seriesInstanceUids.add("seriesInstanceUid");
 
 		// Mock behaviour
-		Mockito.when(responseSpec.bodyToMono(String.class))
-			.thenReturn(Mono.just(
+		Mockito.when(responseSpec.bodyToFlux(DataBuffer.class))
+			.thenReturn(this.toDataBuffers(
 					"[{\"00100020\":{\"vr\":\"LO\",\"Value\":[\"patientId\"]},\"0020000D\":{\"vr\":\"UI\",\"Value\":[\"studyInstanceUID\"]},\"00100040\":{\"vr\":\"CS\",\"Value\":[\"O\"]}}]"));
 
 		// Call service
 		Set<Patient> patients = this.dicomConnectorQueryService.retrievePatientsFromSeriesInstanceUidsDicomConnector(
-				seriesInstanceUids, this.dicomWebConnectorProperty, null);
+				seriesInstanceUids, null, this.dicomWebConnectorProperty, null);
 
 		// Test results
 		assertEquals("patientId", patients.stream().findFirst().get().getPatientID());
@@ -360,8 +371,8 @@ class DicomConnectorQueryServiceImplTest {
 		sopInstanceUids.add("sopInstanceUid");
 
 		// Mock behaviour
-		Mockito.when(responseSpec.bodyToMono(String.class))
-			.thenReturn(Mono.just(
+		Mockito.when(responseSpec.bodyToFlux(DataBuffer.class))
+			.thenReturn(this.toDataBuffers(
 					"[{\"00100020\":{\"vr\":\"LO\",\"Value\":[\"patientId\"]},\"0020000D\":{\"vr\":\"UI\",\"Value\":[\"studyInstanceUID\"]},\"0020000E\":{\"vr\":\"UI\",\"Value\":[\"serieInstanceUID\"]},\"00100040\":{\"vr\":\"CS\",\"Value\":[\"O\"]}}]"));
 
 		// Call service
@@ -373,4 +384,16 @@ class DicomConnectorQueryServiceImplTest {
 		assertEquals(DicomPatientSex.O, patients.stream().findFirst().get().getPatientSex());
 	}
 
+	/**
+	 * Split a json response in several data buffers to simulate a streamed response
+	 * @param json Json response
+	 * @return Flux of data buffers
+	 */
+	private Flux<DataBuffer> toDataBuffers(String json) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		int middle = bytes.length / 2;
+		return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, 0, middle)),
+				DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, middle, bytes.length)));
+	}
+
 }
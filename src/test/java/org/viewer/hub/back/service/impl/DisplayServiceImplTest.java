@@ -22,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.viewer.hub.back.controller.exception.ParameterException;
 import org.viewer.hub.back.entity.ViewerSelectionEntity;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
 import org.viewer.hub.back.enums.ViewerType;
 import org.viewer.hub.back.model.patient.Patient;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
@@ -59,6 +60,9 @@ class DisplayServiceImplTest {
 	@Mock
 	private ConnectorQueryService connectorQueryService;
 
+	@Mock
+	private QueryPlanningService queryPlanningService;
+
 	@InjectMocks
 	private DisplayServiceImpl displayService;
 
@@ -87,7 +91,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("weasis://test-url", result);
-		verify(connectorQueryService, never()).retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any());
+		verify(connectorQueryService, never()).retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any());
 		verify(weasisDisplayService).retrieveWeasisLaunchUrl(eq(searchCriteria), isNull(), eq(authentication));
 	}
 
@@ -100,7 +104,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.OHIF);
@@ -112,7 +116,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("http://ohif-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(ohifDisplayService).retrieveOhifLaunchUrl(eq(searchCriteria), eq(patientsByArchive), eq(authentication));
 	}
@@ -126,7 +130,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.SLICER);
@@ -138,7 +142,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("http://slicer-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(slicerDisplayService).retrieveSlicerLaunchUrl(eq(searchCriteria), eq(patientsByArchive),
 				eq(authentication));
@@ -153,7 +157,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.MICRODICOM);
@@ -165,7 +169,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("microdicom://test-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(microDicomDisplayService).retrieveMicroDicomLaunchUrl(eq(searchCriteria), eq(patientsByArchive));
 	}
@@ -188,7 +192,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("weasis://test-url", result);
-		verify(connectorQueryService, never()).retrievePatientsByArchiveWithIHESearchCriteria(any(), any());
+		verify(connectorQueryService, never()).retrievePatientsByArchiveWithIHESearchCriteria(any(), any(), any());
 		verify(weasisDisplayService).retrieveWeasisLaunchUrl(eq(searchCriteria), isNull(), eq(authentication));
 	}
 
@@ -201,7 +205,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.OHIF);
@@ -213,7 +217,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("http://ohif-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(ohifDisplayService).retrieveOhifLaunchUrl(eq(searchCriteria), eq(patientsByArchive), eq(authentication));
 	}
@@ -227,7 +231,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.SLICER);
@@ -239,7 +243,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("http://slicer-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(slicerDisplayService).retrieveSlicerLaunchUrl(eq(searchCriteria), eq(patientsByArchive),
 				eq(authentication));
@@ -254,7 +258,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.MICRODICOM);
@@ -266,7 +270,7 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("microdicom://test-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(microDicomDisplayService).retrieveMicroDicomLaunchUrl(eq(searchCriteria), eq(patientsByArchive));
 	}
@@ -284,7 +288,7 @@ class DisplayServiceImplTest {
 		ViewerSelectionEntity viewerSelectionNull = new ViewerSelectionEntity();
 		viewerSelectionNull.setViewer(null);
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(viewerSelectionNull.getViewer());
@@ -307,7 +311,7 @@ class DisplayServiceImplTest {
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 		patientsByArchive.put("archive1", new HashSet<>());
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.OHIF);
@@ -319,13 +323,65 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("http://ohif-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria),
+		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria), any(),
 				eq(authentication));
 		verify(viewerSelectionService).retrieveViewerTypeFromViewerSelectionRules(eq(searchCriteria),
 				eq(patientsByArchive));
 		verify(ohifDisplayService).retrieveOhifLaunchUrl(eq(searchCriteria), eq(patientsByArchive), eq(authentication));
 	}
 
+	@Test
+	void when_viewerLaunchUrl_with_ohifViewer_should_retrievePatientsUpToPlannedLevel() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setViewer(ViewerType.OHIF);
+
+		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
+		patientsByArchive.put("archive1", new HashSet<>());
+
+		when(queryPlanningService.determineQueryLevelLimit(any())).thenReturn(DicomWebLevelLimitType.STUDY);
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
+			.thenReturn(patientsByArchive);
+		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
+			.thenReturn(ViewerType.OHIF);
+		when(ohifDisplayService.retrieveOhifLaunchUrl(any(), any(), any())).thenReturn("http://ohif-url");
+
+		// When
+		displayService.viewerLaunchUrl(searchCriteria, authentication);
+
+		// Then
+		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria),
+				eq(DicomWebLevelLimitType.STUDY), eq(authentication));
+		verify(ohifDisplayService).retrieveOhifLaunchUrl(eq(searchCriteria), eq(patientsByArchive), eq(authentication));
+	}
+
+	@Test
+	void when_viewerLaunchUrl_with_weasisSelected_after_limitedRetrieval_should_letWeasisRetrievePatients() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		// No viewer specified (null)
+
+		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
+		patientsByArchive.put("archive1", new HashSet<>());
+
+		when(queryPlanningService.determineQueryLevelLimit(any())).thenReturn(DicomWebLevelLimitType.SERIE);
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
+			.thenReturn(patientsByArchive);
+		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
+			.thenReturn(ViewerType.WEASIS);
+		when(weasisDisplayService.retrieveWeasisLaunchUrl(any(), any(), any())).thenReturn("weasis://test-url");
+
+		// When
+		String result = displayService.viewerLaunchUrl(searchCriteria, authentication);
+
+		// Then
+		assertEquals("weasis://test-url", result);
+		verify(viewerSelectionService).retrieveViewerTypeFromViewerSelectionRules(eq(searchCriteria),
+				eq(patientsByArchive));
+		// Patients retrieved without the sop instances are not used for the manifest
+		verify(weasisDisplayService).retrieveWeasisLaunchUrl(eq(searchCriteria), isNull(), eq(authentication));
+	}
+
 	// ========== Tests with empty patients map ==========
 
 	@Test
@@ -336,7 +392,7 @@ class DisplayServiceImplTest {
 
 		Map<String, Set<Patient>> emptyPatientsByArchive = new HashMap<>();
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(emptyPatientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.OHIF);
@@ -362,7 +418,7 @@ class DisplayServiceImplTest {
 
 		Map<String, Set<Patient>> patientsByArchive = new HashMap<>();
 
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(patientsByArchive);
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.OHIF);
@@ -374,7 +430,8 @@ class DisplayServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals("http://ohif-url", result);
-		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria), isNull());
+		verify(connectorQueryService).retrievePatientsByArchiveWithoutIHESearchCriteria(eq(searchCriteria), any(),
+				isNull());
 		verify(ohifDisplayService).retrieveOhifLaunchUrl(eq(searchCriteria), eq(patientsByArchive), isNull());
 	}
 
@@ -398,7 +455,7 @@ class DisplayServiceImplTest {
 		// Test OHIF
 		ArchiveSearchCriteria searchCriteriaOhif = new ArchiveSearchCriteria();
 		searchCriteriaOhif.setViewer(ViewerType.OHIF);
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(new HashMap<>());
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.OHIF);
@@ -413,7 +470,7 @@ class DisplayServiceImplTest {
 		// Test SLICER
 		ArchiveSearchCriteria searchCriteriaSlicer = new ArchiveSearchCriteria();
 		searchCriteriaSlicer.setViewer(ViewerType.SLICER);
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(new HashMap<>());
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.SLICER);
@@ -428,7 +485,7 @@ class DisplayServiceImplTest {
 		// Test MICRODICOM
 		ArchiveSearchCriteria searchCriteriaMicroDicom = new ArchiveSearchCriteria();
 		searchCriteriaMicroDicom.setViewer(ViewerType.MICRODICOM);
-		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any()))
+		when(connectorQueryService.retrievePatientsByArchiveWithoutIHESearchCriteria(any(), any(), any()))
 			.thenReturn(new HashMap<>());
 		when(viewerSelectionService.retrieveViewerTypeFromViewerSelectionRules(any(), any()))
 			.thenReturn(ViewerType.MICRODICOM);
@@ -14,27 +14,40 @@ package org.viewer.hub.back.service.impl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.viewer.hub.back.controller.exception.ParameterException;
+import org.viewer.hub.back.entity.GroupClosureEntity;
+import org.viewer.hub.back.entity.GroupClosureEntityPK;
 import org.viewer.hub.back.entity.GroupEntity;
 import org.viewer.hub.back.entity.GroupEntityPK;
 import org.viewer.hub.back.entity.TargetEntity;
 import org.viewer.hub.back.enums.TargetType;
+import org.viewer.hub.back.repository.GroupClosureRepository;
 import org.viewer.hub.back.repository.GroupRepository;
 import org.viewer.hub.back.repository.GroupRepositoryTest;
+import org.viewer.hub.back.repository.TargetRepository;
 import org.viewer.hub.back.service.GroupService;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 class GroupServiceImplTest {
 
 	private final GroupRepository groupRepositoryMock = Mockito.mock(GroupRepository.class);
 
+	private final GroupClosureRepository groupClosureRepositoryMock = Mockito.mock(GroupClosureRepository.class);
+
+	private final TargetRepository targetRepositoryMock = Mockito.mock(TargetRepository.class);
+
 	private GroupService groupService;
 
 	@BeforeEach
@@ -63,7 +76,8 @@ class GroupServiceImplTest {
 		Mockito.doNothing().when(this.groupRepositoryMock).deleteAll(Mockito.anyList());
 
 		// Build the mocked target service
-		this.groupService = new GroupServiceImpl(this.groupRepositoryMock);
+		this.groupService = new GroupServiceImpl(this.groupRepositoryMock, this.groupClosureRepositoryMock,
+				this.targetRepositoryMock);
 	}
 
 	/**
@@ -155,9 +169,9 @@ class GroupServiceImplTest {
 		// Call service
 		this.groupService.deleteMemberAssociation(targetEntity);
 
-		// Test results
+		// Test results: associations to delete, then groups left for the closure
 		Mockito.verify(this.groupRepositoryMock, Mockito.times(1)).deleteAll(Mockito.anyList());
-		Mockito.verify(this.groupRepositoryMock, Mockito.times(1)).findByGroupEntityPKMemberId(Mockito.anyLong());
+		Mockito.verify(this.groupRepositoryMock, Mockito.times(2)).findByGroupEntityPKMemberId(1L);
 	}
 
 	/**
@@ -192,4 +206,107 @@ class GroupServiceImplTest {
 		Mockito.verify(this.groupRepositoryMock, Mockito.times(1)).deleteAll(Mockito.anyList());
 	}
 
+	/**
+	 * Test to retrieve the effective groups of a member
+	 */
+	@Test
+	void retrieveEffectiveGroupsByMemberTest() {
+		// Init data
+		TargetEntity targetUser = GroupRepositoryTest.buildTarget(true, 2L, "TargetUser", TargetType.USER);
+		Mockito.when(this.groupClosureRepositoryMock.findByGroupClosureEntityPKDescendantIdOrderByDepthAsc(2L))
+			.thenReturn(List.of(new GroupClosureEntity(1L, 2L, 1), new GroupClosureEntity(3L, 2L, 2)));
+
+		// Call service
+		List<GroupClosureEntity> groups = this.groupService.retrieveEffectiveGroupsByMember(targetUser);
+
+		// Test results
+		assertEquals(2, groups.size());
+		assertEquals(Long.valueOf(1), groups.get(0).getGroupClosureEntityPK().getAncestorId());
+		assertEquals(Long.valueOf(3), groups.get(1).getGroupClosureEntityPK().getAncestorId());
+	}
+
+	/**
+	 * Test the effective groups of nested groups: workstation -> department -> site ->
+	 * region, with a cycle region -> department
+	 */
+	@Test
+	void computeEffectiveGroupsTest() {
+		// Init data
+		Map<Long, List<Long>> groupIdsByMemberId = Map.of(10L, List.of(20L), 20L, List.of(30L), 30L,
+				List.of(40L), 40L, List.of(20L));
+
+		// Call service
+		Map<Long, Integer> depthByGroupId = GroupServiceImpl.computeEffectiveGroups(10L,
+				memberId -> groupIdsByMemberId.getOrDefault(memberId, List.of()));
+
+		// Test results: workstation 10 in department 20, site 30 and region 40
+		assertEquals(Map.of(20L, 1, 30L, 2, 40L, 3), depthByGroupId);
+	}
+
+	/**
+	 * Test the refresh of the closure after a change of the groups: only the rows of the
+	 * member added and of its own members are refreshed, the rows no longer valid are
+	 * deleted and the new ones created
+	 */
+	@Test
+	void createGroupAssociationShouldRefreshGroupClosureOfMembersTest() {
+		// Init data: department 20 with workstation 10 becomes a member of site 30
+		TargetEntity group = GroupRepositoryTest.buildTarget(true, 30L, "Site", TargetType.HOST_GROUP);
+		TargetEntity member = GroupRepositoryTest.buildTarget(true, 20L, "Department", TargetType.HOST_GROUP);
+		GroupClosureEntity validClosure = new GroupClosureEntity(20L, 10L, 1);
+		GroupClosureEntity staleClosure = new GroupClosureEntity(40L, 10L, 1);
+		Mockito.when(this.groupRepositoryMock.findByGroupEntityPKMemberId(10L))
+			.thenReturn(List.of(buildGroup(20L, 10L)));
+		Mockito.when(this.groupRepositoryMock.findByGroupEntityPKMemberId(20L))
+			.thenReturn(List.of(buildGroup(30L, 20L)));
+		Mockito.when(this.groupRepositoryMock.findByGroupEntityPKMemberId(30L)).thenReturn(List.of());
+		Mockito.when(this.groupClosureRepositoryMock.findByGroupClosureEntityPKAncestorId(20L))
+			.thenReturn(List.of(validClosure));
+		Mockito.when(this.groupClosureRepositoryMock.findByGroupClosureEntityPKDescendantIdOrderByDepthAsc(10L))
+			.thenReturn(List.of(validClosure, staleClosure));
+
+		// Call service
+		this.groupService.createGroupAssociation(group, Collections.singletonList(member));
+
+		// Test results
+		Mockito.verify(this.targetRepositoryMock)
+			.findLockedByNameAndType(TargetType.DEFAULT.getCode(), TargetType.DEFAULT);
+		Mockito.verify(this.groupClosureRepositoryMock, Mockito.never()).findAll();
+		Mockito.verify(this.groupClosureRepositoryMock, Mockito.times(1)).deleteAll(List.of(staleClosure));
+		ArgumentCaptor<Iterable<GroupClosureEntity>> createdCaptor = ArgumentCaptor.forClass(Iterable.class);
+		Mockito.verify(this.groupClosureRepositoryMock, Mockito.times(1)).saveAll(createdCaptor.capture());
+		List<GroupClosureEntity> created = new ArrayList<>();
+		createdCaptor.getValue().forEach(created::add);
+		assertEquals(2, created.size());
+		assertTrue(created.contains(new GroupClosureEntity(30L, 20L, 1)));
+		assertTrue(created.contains(new GroupClosureEntity(30L, 10L, 2)));
+	}
+
+	/**
+	 * Test the association of a group containing the group: would create a cycle
+	 */
+	@Test
+	void createGroupAssociationWithCycleShouldThrowTest() {
+		// Init data: site 30 contains department 20
+		TargetEntity group = GroupRepositoryTest.buildTarget(true, 20L, "Department", TargetType.HOST_GROUP);
+		TargetEntity member = GroupRepositoryTest.buildTarget(true, 30L, "Site", TargetType.HOST_GROUP);
+		Mockito.when(this.groupClosureRepositoryMock.existsById(new GroupClosureEntityPK(30L, 20L))).thenReturn(true);
+
+		// Call service and test results
+		assertThrows(ParameterException.class,
+				() -> this.groupService.createGroupAssociation(group, Collections.singletonList(member)));
+		assertThrows(ParameterException.class,
+				() -> this.groupService.createGroupAssociation(group, Collections.singletonList(group)));
+		Mockito.verify(this.groupRepositoryMock, Mockito.never()).saveAll(Mockito.any());
+	}
+
+	private static GroupEntity buildGroup(Long groupId, Long memberId) {
+		GroupEntity groupEntity = new GroupEntity();
+		GroupEntityPK groupEntityPK = new GroupEntityPK();
+		groupEntityPK.setGroupId(groupId);
+		groupEntityPK.setMemberId(memberId);
+		groupEntity.setGroupEntityPK(groupEntityPK);
+		return groupEntity;
+	}
+
 }
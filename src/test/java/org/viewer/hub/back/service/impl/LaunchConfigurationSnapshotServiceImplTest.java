@@ -0,0 +1,170 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.viewer.hub.back.constant.CacheName;
+import org.viewer.hub.back.entity.TargetEntity;
+import org.viewer.hub.back.entity.listener.LaunchConfigurationChangedEvent;
+import org.viewer.hub.back.enums.TargetType;
+import org.viewer.hub.back.model.launch.LaunchConfigurationSnapshot;
+import org.viewer.hub.back.repository.GroupClosureRepository;
+import org.viewer.hub.back.repository.I18nRepository;
+import org.viewer.hub.back.repository.LaunchConfigRepository;
+import org.viewer.hub.back.repository.LaunchPreferredRepository;
+import org.viewer.hub.back.repository.LaunchRepository;
+import org.viewer.hub.back.repository.OverrideConfigRepository;
+import org.viewer.hub.back.repository.TargetRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class LaunchConfigurationSnapshotServiceImplTest {
+
+	@Mock
+	private TargetRepository targetRepositoryMock;
+
+	@Mock
+	private GroupClosureRepository groupClosureRepositoryMock;
+
+	@Mock
+	private LaunchConfigRepository launchConfigRepositoryMock;
+
+	@Mock
+	private LaunchPreferredRepository launchPreferredRepositoryMock;
+
+	@Mock
+	private LaunchRepository launchRepositoryMock;
+
+	@Mock
+	private OverrideConfigRepository overrideConfigRepositoryMock;
+
+	@Mock
+	private I18nRepository i18nRepositoryMock;
+
+	@Mock
+	private StringRedisTemplate stringRedisTemplateMock;
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private LaunchConfigurationSnapshotServiceImpl launchConfigurationSnapshotService;
+
+	@BeforeEach
+	public void setUp() {
+		this.launchConfigurationSnapshotService = new LaunchConfigurationSnapshotServiceImpl(
+				this.targetRepositoryMock, this.groupClosureRepositoryMock, this.launchConfigRepositoryMock,
+				this.launchPreferredRepositoryMock, this.launchRepositoryMock, this.overrideConfigRepositoryMock,
+				this.i18nRepositoryMock, this.stringRedisTemplateMock, this.nanoTime::get);
+	}
+
+	@Test
+	void when_retrievingSnapshot_with_noChange_should_buildSnapshotOnce() {
+		// Init data
+		TargetEntity targetEntity = new TargetEntity();
+		targetEntity.setId(1L);
+		targetEntity.setName("host");
+		targetEntity.setType(TargetType.HOST);
+		Mockito.when(this.targetRepositoryMock.findAll()).thenReturn(List.of(targetEntity));
+
+		// Call service
+		LaunchConfigurationSnapshot snapshot = this.launchConfigurationSnapshotService.retrieveSnapshot();
+		LaunchConfigurationSnapshot snapshotReused = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Test results
+		assertSame(snapshot, snapshotReused);
+		assertSame(targetEntity, snapshot.retrieveTarget("HOST", TargetType.HOST));
+		Mockito.verify(this.targetRepositoryMock, Mockito.times(1)).findAll();
+		Mockito.verify(this.overrideConfigRepositoryMock, Mockito.times(1)).findAllIds();
+	}
+
+	@Test
+	void when_launchConfigurationChanged_should_publishChangeAndRebuildSnapshot() {
+		// Init data
+		LaunchConfigurationSnapshot snapshot = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Call service
+		this.launchConfigurationSnapshotService
+			.onLaunchConfigurationChanged(new LaunchConfigurationChangedEvent(Set.of("TargetEntity")));
+		LaunchConfigurationSnapshot snapshotRebuilt = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Test results
+		assertNotSame(snapshot, snapshotRebuilt);
+		assertEquals(snapshot.getVersion() + 1, snapshotRebuilt.getVersion());
+		Mockito.verify(this.stringRedisTemplateMock, Mockito.times(1))
+			.convertAndSend(eq(CacheName.LAUNCH_CONFIGURATION_CHANGED_CHANNEL), anyString());
+		Mockito.verify(this.targetRepositoryMock, Mockito.times(2)).findAll();
+	}
+
+	@Test
+	void when_retrievingSnapshot_with_versionOlderThanMaximumAge_should_rebuildSnapshot() {
+		// Init data: change notification of another instance lost
+		LaunchConfigurationSnapshot snapshot = this.launchConfigurationSnapshotService.retrieveSnapshot();
+		this.nanoTime.addAndGet(Duration.ofMinutes(4).toNanos());
+		LaunchConfigurationSnapshot snapshotReused = this.launchConfigurationSnapshotService.retrieveSnapshot();
+		this.nanoTime.addAndGet(Duration.ofMinutes(2).toNanos());
+
+		// Call service
+		LaunchConfigurationSnapshot snapshotRebuilt = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Test results
+		assertSame(snapshot, snapshotReused);
+		assertNotSame(snapshot, snapshotRebuilt);
+		assertEquals(snapshot.getVersion() + 1, snapshotRebuilt.getVersion());
+		assertSame(snapshotRebuilt, this.launchConfigurationSnapshotService.retrieveSnapshot());
+		Mockito.verify(this.targetRepositoryMock, Mockito.times(2)).findAll();
+	}
+
+	@Test
+	void when_invalidatingSnapshot_with_otherInstance_should_rebuildSnapshot() {
+		// Init data
+		LaunchConfigurationSnapshot snapshot = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Call service
+		this.launchConfigurationSnapshotService.invalidateSnapshot("other-instance");
+
+		// Test results
+		assertNotSame(snapshot, this.launchConfigurationSnapshotService.retrieveSnapshot());
+	}
+
+	@Test
+	void when_invalidatingSnapshot_with_ownNotification_should_keepSnapshot() {
+		// Init data
+		this.launchConfigurationSnapshotService.notifyLaunchConfigurationChanged();
+		ArgumentCaptor<String> instanceIdCaptor = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(this.stringRedisTemplateMock)
+			.convertAndSend(eq(CacheName.LAUNCH_CONFIGURATION_CHANGED_CHANNEL), instanceIdCaptor.capture());
+		LaunchConfigurationSnapshot snapshot = this.launchConfigurationSnapshotService.retrieveSnapshot();
+
+		// Call service
+		this.launchConfigurationSnapshotService.invalidateSnapshot(instanceIdCaptor.getValue());
+
+		// Test results
+		assertSame(snapshot, this.launchConfigurationSnapshotService.retrieveSnapshot());
+	}
+
+}
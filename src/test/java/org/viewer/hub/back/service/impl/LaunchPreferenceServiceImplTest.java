@@ -23,16 +23,17 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.viewer.hub.back.controller.exception.ConstraintException;
 import org.viewer.hub.back.controller.exception.ParameterException;
-import org.viewer.hub.back.entity.GroupEntity;
-import org.viewer.hub.back.entity.GroupEntityPK;
+import org.viewer.hub.back.entity.GroupClosureEntity;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.LaunchEntity;
 import org.viewer.hub.back.entity.LaunchEntityPK;
 import org.viewer.hub.back.entity.LaunchPreferredEntity;
+import org.viewer.hub.back.entity.OverrideConfigEntityPK;
 import org.viewer.hub.back.entity.PackageVersionEntity;
 import org.viewer.hub.back.entity.TargetEntity;
 import org.viewer.hub.back.enums.PreferredType;
 import org.viewer.hub.back.enums.TargetType;
+import org.viewer.hub.back.model.launch.LaunchConfigurationSnapshot;
 import org.viewer.hub.back.repository.GroupRepositoryTest;
 import org.viewer.hub.back.repository.LaunchConfigRepository;
 import org.viewer.hub.back.repository.LaunchPreferredRepository;
@@ -40,9 +41,8 @@ import org.viewer.hub.back.repository.LaunchRepository;
 import org.viewer.hub.back.repository.LaunchRepositoryTest;
 import org.viewer.hub.back.repository.TargetRepository;
 import org.viewer.hub.back.service.GroupService;
-import org.viewer.hub.back.service.I18nService;
+import org.viewer.hub.back.service.LaunchConfigurationSnapshotService;
 import org.viewer.hub.back.service.LaunchPreferenceService;
-import org.viewer.hub.back.service.OverrideConfigService;
 import org.viewer.hub.back.service.PackageService;
 import org.viewer.hub.back.util.PackageUtil;
 
@@ -62,7 +62,6 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -82,9 +81,8 @@ class LaunchPreferenceServiceImplTest {
 
 	private final PackageService packageServiceMock = Mockito.mock(PackageService.class);
 
-	private final OverrideConfigService overrideConfigServiceMock = Mockito.mock(OverrideConfigService.class);
-
-	private final I18nService i18nServiceMock = Mockito.mock(I18nService.class);
+	private final LaunchConfigurationSnapshotService launchConfigurationSnapshotServiceMock = Mockito
+		.mock(LaunchConfigurationSnapshotService.class);
 
 	private LaunchPreferenceService launchPreferenceService;
 
@@ -105,12 +103,8 @@ class LaunchPreferenceServiceImplTest {
 		launchPreferedEntity.setId(1L);
 		launchPreferedEntity.setName("launch");
 		launchPreferedEntity.setType(PreferredType.CONFIG.getCode());
-		// GroupEntity
-		GroupEntity groupEntity = new GroupEntity();
-		GroupEntityPK groupEntityPK = new GroupEntityPK();
-		groupEntityPK.setGroupId(1L);
-		groupEntityPK.setMemberId(1L);
-		groupEntity.setGroupEntityPK(groupEntityPK);
+		// GroupClosureEntity
+		GroupClosureEntity groupClosureEntity = new GroupClosureEntity(1L, 1L, 1);
 
 		// Define the behaviour of the mocks
 
@@ -140,8 +134,8 @@ class LaunchPreferenceServiceImplTest {
 			.thenReturn(Collections.singletonList(launchPreferedEntity));
 
 		// Group Service
-		when(this.groupServiceMock.retrieveGroupsByMember(any(TargetEntity.class)))
-			.thenReturn(Collections.singletonList(groupEntity));
+		when(this.groupServiceMock.retrieveEffectiveGroupsByMember(any(TargetEntity.class)))
+			.thenReturn(Collections.singletonList(groupClosureEntity));
 
 		// LaunchRepository
 		LaunchEntity launchEntity = new LaunchEntity();
@@ -161,7 +155,7 @@ class LaunchPreferenceServiceImplTest {
 		// Build the mocked launch preference service
 		this.launchPreferenceService = new LaunchPreferenceServiceImpl(this.launchRepositoryMock,
 				this.launchConfigRepositoryMock, this.launchPreferedRepositoryMock, this.targetRepositoryMock,
-				this.groupServiceMock, this.packageServiceMock, this.overrideConfigServiceMock, this.i18nServiceMock);
+				this.groupServiceMock, this.packageServiceMock, this.launchConfigurationSnapshotServiceMock);
 	}
 
 	/**
@@ -204,7 +198,7 @@ class LaunchPreferenceServiceImplTest {
 	/**
 	 * Test method buildLaunchConfiguration
 	 * <p>
-	 * Expected: retrieve mocked values - key: PreferedType.CONFIG - value: weasis
+	 * Expected: retrieve values of the snapshot - key: PreferedType.CONFIG - value: weasis
 	 */
 
 	@Test
@@ -218,14 +212,29 @@ class LaunchPreferenceServiceImplTest {
 		packageVersionEntity.setQualifier("-MGR");
 		packageVersionEntity.setDescription("description");
 		LaunchConfigEntity launchConfigEntity = new LaunchConfigEntity();
-		launchConfigEntity.setName("default");
+		launchConfigEntity.setName("config");
 		launchConfigEntity.setId(1L);
+		TargetEntity hostEntity = buildTargetEntity(1L, "host", TargetType.HOST);
+		LaunchPreferredEntity launchPreferredEntity = new LaunchPreferredEntity();
+		launchPreferredEntity.setId(1L);
+		launchPreferredEntity.setName("launch");
+		launchPreferredEntity.setType(PreferredType.CONFIG.getCode());
+		LaunchEntity launchEntity = new LaunchEntity();
+		launchEntity.setSelection("weasis");
+		LaunchEntityPK launchEntityPK = new LaunchEntityPK();
+		launchEntityPK.setLaunchConfigId(1L);
+		launchEntityPK.setLaunchPreferredId(1L);
+		launchEntityPK.setTargetId(1L);
+		launchEntity.setLaunchEntityPK(launchEntityPK);
 
 		// Mock
 		when(this.packageServiceMock.retrieveAvailablePackageVersionToUse(anyString(), anyString()))
 			.thenReturn(packageVersionEntity);
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(anyString()))
-			.thenReturn(Optional.of(launchConfigEntity));
+		when(this.launchConfigurationSnapshotServiceMock.retrieveSnapshot())
+			.thenReturn(LaunchConfigurationSnapshot.of(1L,
+					List.of(hostEntity, buildTargetEntity(2L, "default", TargetType.DEFAULT)), List.of(),
+					List.of(launchConfigEntity), List.of(launchPreferredEntity), List.of(launchEntity), List.of(),
+					List.of()));
 
 		// Call service
 		MultiValueMap<String, String> map = this.launchPreferenceService.buildLaunchConfiguration(launchPropertiesMap,
@@ -255,20 +264,15 @@ class LaunchPreferenceServiceImplTest {
 		defaultLaunchConfigEntity.setName("default");
 		defaultLaunchConfigEntity.setId(1L);
 
-		TargetEntity defaultTargetEntity = new TargetEntity();
-		defaultTargetEntity.setId(1L);
-		defaultTargetEntity.setType(TargetType.USER_GROUP);
-		defaultTargetEntity.setName("default");
+		TargetEntity defaultTargetEntity = buildTargetEntity(1L, "default", TargetType.USER_GROUP);
 
 		// Mock
 		when(this.packageServiceMock.retrieveAvailablePackageVersionToUse(anyString(), anyString()))
 			.thenReturn(packageVersionEntity);
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(eq("default")))
-			.thenReturn(Optional.of(defaultLaunchConfigEntity));
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(eq("config")))
-			.thenReturn(Optional.of(launchConfigEntity));
-		when(this.targetRepositoryMock.findOptionalByNameIgnoreCase(eq("default")))
-			.thenReturn(Optional.of(defaultTargetEntity));
+		when(this.launchConfigurationSnapshotServiceMock.retrieveSnapshot())
+			.thenReturn(LaunchConfigurationSnapshot.of(1L, List.of(defaultTargetEntity), List.of(),
+					List.of(defaultLaunchConfigEntity, launchConfigEntity), List.of(), List.of(), List.of(),
+					List.of()));
 
 		// Call service
 		MultiValueMap<String, String> map = this.launchPreferenceService.buildLaunchConfiguration(launchPropertiesMap,
@@ -300,20 +304,16 @@ class LaunchPreferenceServiceImplTest {
 		defaultLaunchConfigEntity.setName("default");
 		defaultLaunchConfigEntity.setId(1L);
 
-		TargetEntity defaultTargetEntity = new TargetEntity();
-		defaultTargetEntity.setId(1L);
-		defaultTargetEntity.setType(TargetType.USER_GROUP);
-		defaultTargetEntity.setName("default");
+		TargetEntity defaultTargetEntity = buildTargetEntity(1L, "default", TargetType.USER_GROUP);
+		TargetEntity userEntity = buildTargetEntity(3L, "user", TargetType.USER);
 
 		// Mock
 		when(this.packageServiceMock.retrieveAvailablePackageVersionToUse(anyString(), anyString()))
 			.thenReturn(packageVersionEntity);
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(eq("default")))
-			.thenReturn(Optional.of(defaultLaunchConfigEntity));
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(eq("config")))
-			.thenReturn(Optional.of(launchConfigEntity));
-		when(this.targetRepositoryMock.findOptionalByNameIgnoreCase(eq("default")))
-			.thenReturn(Optional.of(defaultTargetEntity));
+		when(this.launchConfigurationSnapshotServiceMock.retrieveSnapshot())
+			.thenReturn(LaunchConfigurationSnapshot.of(1L, List.of(defaultTargetEntity, userEntity), List.of(),
+					List.of(defaultLaunchConfigEntity, launchConfigEntity), List.of(), List.of(), List.of(),
+					List.of()));
 
 		// Call service
 		MultiValueMap<String, String> map = this.launchPreferenceService.buildLaunchConfiguration(launchPropertiesMap,
@@ -345,29 +345,20 @@ class LaunchPreferenceServiceImplTest {
 		defaultLaunchConfigEntity.setName("default");
 		defaultLaunchConfigEntity.setId(1L);
 
-		TargetEntity defaultTargetEntity = new TargetEntity();
-		defaultTargetEntity.setId(1L);
-		defaultTargetEntity.setType(TargetType.USER_GROUP);
-		defaultTargetEntity.setName("default");
+		TargetEntity defaultTargetEntity = buildTargetEntity(1L, "default", TargetType.USER_GROUP);
+		TargetEntity targetEntity = buildTargetEntity(2L, "Target", TargetType.USER_GROUP);
+		TargetEntity userEntity = buildTargetEntity(3L, "user", TargetType.USER);
 
-		TargetEntity targetEntity = new TargetEntity();
-		targetEntity.setId(2L);
-		targetEntity.setName("Target");
-		targetEntity.setType(TargetType.USER_GROUP);
+		// User member of the group Target
+		GroupClosureEntity groupClosureEntity = new GroupClosureEntity(2L, 3L, 1);
 
 		// Mock
 		when(this.packageServiceMock.retrieveAvailablePackageVersionToUse(anyString(), anyString()))
 			.thenReturn(packageVersionEntity);
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(eq("default")))
-			.thenReturn(Optional.of(defaultLaunchConfigEntity));
-		when(this.launchConfigRepositoryMock.findOptionalByNameIgnoreCase(eq("config")))
-			.thenReturn(Optional.of(launchConfigEntity));
-		when(this.targetRepositoryMock.findOptionalByNameIgnoreCase(eq("default")))
-			.thenReturn(Optional.of(defaultTargetEntity));
-		when(this.targetRepositoryMock.findOptionalByNameIgnoreCaseAndType(eq("user"), eq(TargetType.USER)))
-			.thenReturn(Optional.of(targetEntity));
-		when(this.overrideConfigServiceMock.existOverrideConfigWithVersionConfigTarget(any(), any(), any()))
-			.thenReturn(true);
+		when(this.launchConfigurationSnapshotServiceMock.retrieveSnapshot())
+			.thenReturn(LaunchConfigurationSnapshot.of(1L, List.of(defaultTargetEntity, targetEntity, userEntity),
+					List.of(groupClosureEntity), List.of(defaultLaunchConfigEntity, launchConfigEntity), List.of(),
+					List.of(), List.of(new OverrideConfigEntityPK(1L, 2L, 2L)), List.of()));
 
 		// Call service
 		MultiValueMap<String, String> map = this.launchPreferenceService.buildLaunchConfiguration(launchPropertiesMap,
@@ -380,6 +371,48 @@ class LaunchPreferenceServiceImplTest {
 		assertEquals("2", map.get(PackageUtil.FREEMARKER_PROPERTIES_GROUP_ID).get(0));
 	}
 
+	@Test
+	void when_buildLaunchConfiguration_with_nestedGroups_should_useClosestGroupWithOverrideConfig() {
+		// Init data
+		MultiValueMap<String, String> launchPropertiesMap = new LinkedMultiValueMap<>();
+		launchPropertiesMap.add(PreferredType.QUALIFIER.getCode(), "-MGR");
+		PackageVersionEntity packageVersionEntity = new PackageVersionEntity();
+		packageVersionEntity.setVersionNumber("4.0.3");
+		packageVersionEntity.setId(1L);
+		packageVersionEntity.setQualifier("-MGR");
+
+		LaunchConfigEntity launchConfigEntity = new LaunchConfigEntity();
+		launchConfigEntity.setName("config");
+		launchConfigEntity.setId(2L);
+
+		TargetEntity defaultTargetEntity = buildTargetEntity(1L, "default", TargetType.USER_GROUP);
+		TargetEntity siteEntity = buildTargetEntity(2L, "site", TargetType.USER_GROUP);
+		TargetEntity departmentEntity = buildTargetEntity(4L, "department", TargetType.USER_GROUP);
+		TargetEntity userEntity = buildTargetEntity(3L, "user", TargetType.USER);
+
+		// User member of the department, itself member of the site
+		List<GroupClosureEntity> groupClosureEntities = List.of(new GroupClosureEntity(2L, 3L, 2),
+				new GroupClosureEntity(4L, 3L, 1), new GroupClosureEntity(2L, 4L, 1));
+
+		// Mock
+		when(this.packageServiceMock.retrieveAvailablePackageVersionToUse(anyString(), anyString()))
+			.thenReturn(packageVersionEntity);
+		when(this.launchConfigurationSnapshotServiceMock.retrieveSnapshot())
+			.thenReturn(LaunchConfigurationSnapshot.of(1L,
+					List.of(defaultTargetEntity, siteEntity, departmentEntity, userEntity), groupClosureEntities,
+					List.of(launchConfigEntity), List.of(), List.of(),
+					List.of(new OverrideConfigEntityPK(1L, 2L, 2L), new OverrideConfigEntityPK(1L, 2L, 4L)),
+					List.of()));
+
+		// Call service
+		MultiValueMap<String, String> map = this.launchPreferenceService.buildLaunchConfiguration(launchPropertiesMap,
+				"user", "host", "config", "4.0.3");
+
+		// Test results: the department is closer to the user than the site
+		assertEquals("2", map.get(PackageUtil.FREEMARKER_PROPERTIES_LAUNCH_CONFIG_ID).get(0));
+		assertEquals("4", map.get(PackageUtil.FREEMARKER_PROPERTIES_GROUP_ID).get(0));
+	}
+
 	/**
 	 * Test method distinctByKey
 	 * <p>
@@ -1121,4 +1154,19 @@ class LaunchPreferenceServiceImplTest {
 		Mockito.verify(this.launchPreferedRepositoryMock, Mockito.times(1)).findAllById(Mockito.anyCollection());
 	}
 
+	/**
+	 * Build a target entity
+	 * @param id Id of the target
+	 * @param name Name of the target
+	 * @param type Type of the target
+	 * @return target built
+	 */
+	private static TargetEntity buildTargetEntity(Long id, String name, TargetType type) {
+		TargetEntity targetEntity = new TargetEntity();
+		targetEntity.setId(id);
+		targetEntity.setName(name);
+		targetEntity.setType(type);
+		return targetEntity;
+	}
+
 }
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.viewer.hub.back.constant.CacheName;
+import org.viewer.hub.back.model.manifest.Manifest;
+import org.viewer.hub.back.service.CacheService;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class ManifestReadinessServiceImplTest {
+
+	@Mock
+	private CacheService cacheServiceMock;
+
+	@Mock
+	private StringRedisTemplate stringRedisTemplateMock;
+
+	private ManifestReadinessServiceImpl manifestReadinessService;
+
+	@BeforeEach
+	public void setUp() {
+		this.manifestReadinessService = new ManifestReadinessServiceImpl(this.cacheServiceMock,
+				this.stringRedisTemplateMock);
+	}
+
+	@Test
+	void when_awaitingManifest_with_manifestAlreadyBuilt_should_completeImmediately() {
+		// Init data
+		Manifest manifest = new Manifest();
+		manifest.setBuildInProgress(false);
+		Mockito.when(this.cacheServiceMock.getManifest("key")).thenReturn(manifest);
+
+		// Call service
+		CompletableFuture<Manifest> waiter = this.manifestReadinessService.awaitManifest("key",
+				Duration.ofSeconds(30));
+
+		// Test results
+		assertTrue(waiter.isDone());
+		assertSame(manifest, waiter.join());
+	}
+
+	@Test
+	void when_awaitingManifest_with_manifestNotInCache_should_completeWithNull() {
+		// Call service
+		CompletableFuture<Manifest> waiter = this.manifestReadinessService.awaitManifest("key",
+				Duration.ofSeconds(30));
+
+		// Test results
+		assertTrue(waiter.isDone());
+		assertNull(waiter.join());
+	}
+
+	@Test
+	void when_awaitingManifest_with_buildInProgress_should_completeWhenNotified() {
+		// Init data
+		Manifest manifestInProgress = new Manifest();
+		manifestInProgress.setBuildInProgress(true);
+		Manifest manifestBuilt = new Manifest();
+		manifestBuilt.setBuildInProgress(false);
+		Mockito.when(this.cacheServiceMock.getManifest("key")).thenReturn(manifestInProgress, manifestBuilt);
+
+		// Call service
+		CompletableFuture<Manifest> waiter = this.manifestReadinessService.awaitManifest("key",
+				Duration.ofSeconds(30));
+		assertFalse(waiter.isDone());
+		this.manifestReadinessService.notifyManifestReady("key");
+
+		// Test results
+		assertTrue(waiter.isDone());
+		assertSame(manifestBuilt, waiter.join());
+		Mockito.verify(this.stringRedisTemplateMock).convertAndSend(CacheName.MANIFEST_READY_CHANNEL, "key");
+	}
+
+	@Test
+	void when_awaitingManifest_with_buildNeverOver_should_completeWithNullAfterTimeout() {
+		// Init data
+		Manifest manifestInProgress = new Manifest();
+		manifestInProgress.setBuildInProgress(true);
+		Mockito.when(this.cacheServiceMock.getManifest("key")).thenReturn(manifestInProgress);
+
+		// Call service
+		CompletableFuture<Manifest> waiter = this.manifestReadinessService.awaitManifest("key",
+				Duration.ofMillis(50));
+
+		// Test results
+		assertNull(waiter.join());
+	}
+
+}
@@ -14,6 +14,7 @@ package org.viewer.hub.back.service.impl;
 import jakarta.validation.constraints.NotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -23,10 +24,13 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.ResourceUtils;
 import org.viewer.hub.back.config.properties.EnvironmentOverrideProperties;
+import org.viewer.hub.back.config.s3.S3UploadOutputStream;
 import org.viewer.hub.back.constant.PropertiesFileName;
+import org.viewer.hub.back.controller.exception.TechnicalException;
 import org.viewer.hub.back.entity.LaunchConfigEntity;
 import org.viewer.hub.back.entity.OverrideConfigEntity;
 import org.viewer.hub.back.entity.PackageVersionEntity;
+import org.viewer.hub.back.entity.S3InventoryEntity;
 import org.viewer.hub.back.entity.TargetEntity;
 import org.viewer.hub.back.entity.WeasisPropertyEntity;
 import org.viewer.hub.back.enums.LaunchConfigType;
@@ -34,11 +38,13 @@ import org.viewer.hub.back.enums.TargetType;
 import org.viewer.hub.back.model.version.MinimalReleaseVersion;
 import org.viewer.hub.back.repository.LaunchConfigRepository;
 import org.viewer.hub.back.repository.PackageVersionRepository;
+import org.viewer.hub.back.repository.S3InventoryRepository;
 import org.viewer.hub.back.service.CacheService;
 import org.viewer.hub.back.service.OverrideConfigService;
 import org.viewer.hub.back.service.S3Service;
 import org.viewer.hub.back.service.TargetService;
 import org.viewer.hub.back.util.PackageUtil;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.PropertyNamingStrategies;
 import tools.jackson.databind.json.JsonMapper;
@@ -52,19 +58,27 @@ import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anySet;
 
@@ -95,9 +109,15 @@ class PackageServiceImplTest {
 	@Mock
 	private EnvironmentOverrideProperties environmentOverrideProperties;
 
+	@Mock
+	private S3InventoryRepository s3InventoryRepository;
+
 	@InjectMocks
 	private PackageServiceImpl packageService;
 
+	@TempDir
+	Path tempDir;
+
 	@NotNull
 	private static Set<String> buildAvailableWeasisPackageVersions() {
 		return Set.of("4.0.3-TEST", "3.8.2-MGR", "4.0.2-TEST", "4.0.2-MGR", "3.8.2-TEST", "4.0.1", "4.1.0-MGR", "4.5.0",
@@ -238,6 +258,13 @@ class PackageServiceImplTest {
 				"resources/packages/weasis/package");
 		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisMappingMinimalVersionPath",
 				"resources/packages/weasis/mapping-minimal-version.json");
+		// Package folder listed in one go, mapping of minimal versions listed with the
+		// objects of its folder
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromPrefix("resources/packages/weasis/package/"))
+			.thenReturn(Map.of("resources/packages/weasis/package/4.1.0-QUALIFIER/current", "\"build\"",
+					"resources/packages/weasis/package/4.1.0-QUALIFIER/build-id/test", "\"test\""));
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromFolder(any()))
+			.thenReturn(Map.of("resources/packages/weasis/mapping-minimal-version.json", "\"mapping\""));
 		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(any()))
 			.thenReturn(Set.of("resources/packages/weasis/package/4.1.0-QUALIFIER/test"));
 		// Fresh stream per call: the refresh now reads the <version>/current build
@@ -265,6 +292,106 @@ class PackageServiceImplTest {
 		Mockito.verify(this.overrideConfigService, Mockito.atLeastOnce()).saveAll(anySet());
 		Mockito.verify(this.cacheService, Mockito.atLeastOnce()).removeAllPackageVersion();
 		Mockito.verify(this.cacheService, Mockito.atLeast(1)).putPackageVersion(any(), any());
+		Mockito.verify(this.s3InventoryRepository, Mockito.times(1)).saveAll(any());
+	}
+
+	@Test
+	void when_refreshingWithUnchangedS3Inventory_should_notReloadDbNorCache() {
+		// Init data
+		String packagePath = "resources/packages/weasis/package";
+		String mappingMinimalVersionPath = "resources/packages/weasis/mapping-minimal-version.json";
+		String versionFolderKey = "%s/4.1.0-QUALIFIER/".formatted(packagePath);
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisPackagePath", packagePath);
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisMappingMinimalVersionPath",
+				mappingMinimalVersionPath);
+		// Cache already built by a previous refresh
+		ReflectionTestUtils.setField(this.packageService, "packageVersionCacheBuilt", true);
+
+		PackageVersionEntity packageVersionInDb = new PackageVersionEntity();
+		packageVersionInDb.setVersionNumber("4.1.0");
+		packageVersionInDb.setQualifier("-QUALIFIER");
+
+		// Mock: S3 state identical to the one persisted at the last refresh
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromPrefix(packagePath + "/"))
+			.thenReturn(Map.of(versionFolderKey + PackageUtil.CURRENT_BUILD_POINTER_FILE, "\"build\""));
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromFolder(any()))
+			.thenReturn(Map.of(mappingMinimalVersionPath, "\"mapping\""));
+		Mockito.when(this.s3InventoryRepository.findAll())
+			.thenReturn(List.of(new S3InventoryEntity(mappingMinimalVersionPath, "\"mapping\""),
+					new S3InventoryEntity(versionFolderKey, "\"build\"")));
+		Mockito.when(this.packageVersionRepository.findAll()).thenReturn(List.of(packageVersionInDb));
+
+		// Call method
+		this.packageService.refreshAvailablePackageVersion();
+
+		// Test results: package folder listed once, nothing read in S3 nor reloaded
+		Mockito.verify(this.s3Service, Mockito.times(1)).retrieveS3ObjectsETagFromPrefix(any());
+		Mockito.verify(this.s3Service, Mockito.times(1)).retrieveS3ObjectsETagFromFolder(any());
+		Mockito.verify(this.s3Service, Mockito.never()).retrieveS3Object(any());
+		Mockito.verify(this.s3Service, Mockito.never()).retrieveS3KeysFromPrefix(any());
+		Mockito.verify(this.packageVersionRepository, Mockito.never()).saveAll(any());
+		Mockito.verify(this.overrideConfigService, Mockito.never()).saveAll(anySet());
+		Mockito.verify(this.cacheService, Mockito.never()).removeAllPackageVersion();
+		Mockito.verify(this.s3InventoryRepository, Mockito.never()).saveAll(any());
+		Mockito.verify(this.s3InventoryRepository, Mockito.never()).deleteAllById(any());
+	}
+
+	@Test
+	void when_refreshingWithChangedCurrentBuildPointer_should_reloadOnlyChangedVersion() throws FileNotFoundException {
+		// Init data
+		String packagePath = "resources/packages/weasis/package";
+		String mappingMinimalVersionPath = "resources/packages/weasis/mapping-minimal-version.json";
+		String changedVersionFolderKey = "%s/4.1.0-MGR/".formatted(packagePath);
+		String unchangedVersionFolderKey = "%s/4.2.0-MGR/".formatted(packagePath);
+		String removedVersionFolderKey = "%s/4.0.0-MGR/".formatted(packagePath);
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisPackagePath", packagePath);
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisMappingMinimalVersionPath",
+				mappingMinimalVersionPath);
+		ReflectionTestUtils.setField(this.packageService, "packageVersionCacheBuilt", true);
+
+		PackageVersionEntity changedVersionInDb = new PackageVersionEntity();
+		changedVersionInDb.setVersionNumber("4.1.0");
+		changedVersionInDb.setQualifier("-MGR");
+		PackageVersionEntity unchangedVersionInDb = new PackageVersionEntity();
+		unchangedVersionInDb.setVersionNumber("4.2.0");
+		unchangedVersionInDb.setQualifier("-MGR");
+
+		// Mock: current build pointer of 4.1.0-MGR replaced, 4.0.0-MGR deleted
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromPrefix(packagePath + "/"))
+			.thenReturn(Map.of(changedVersionFolderKey + PackageUtil.CURRENT_BUILD_POINTER_FILE, "\"new-build\"",
+					unchangedVersionFolderKey + PackageUtil.CURRENT_BUILD_POINTER_FILE, "\"build\""));
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromFolder(any()))
+			.thenReturn(Map.of(mappingMinimalVersionPath, "\"mapping\""));
+		Mockito.when(this.s3InventoryRepository.findAll())
+			.thenReturn(List.of(new S3InventoryEntity(mappingMinimalVersionPath, "\"mapping\""),
+					new S3InventoryEntity(changedVersionFolderKey, "\"previous-build\""),
+					new S3InventoryEntity(unchangedVersionFolderKey, "\"build\""),
+					new S3InventoryEntity(removedVersionFolderKey, "\"build\"")));
+		Mockito.when(this.packageVersionRepository.findAll())
+			.thenReturn(List.of(changedVersionInDb, unchangedVersionInDb));
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(any(), any()))
+			.thenReturn(Optional.of(changedVersionInDb));
+		Mockito.when(this.s3Service.retrieveS3Object(mappingMinimalVersionPath))
+			.thenAnswer(invocation -> new FileInputStream(
+					ResourceUtils.getFile("classpath:weasis/mapping-minimal-version.json")));
+
+		// Call method
+		this.packageService.refreshAvailablePackageVersion();
+
+		// Test results: only the configuration of the changed version is reloaded
+		Mockito.verify(this.overrideConfigService, Mockito.times(1)).saveAll(anySet());
+		Mockito.verify(this.cacheService, Mockito.times(1)).removeAllPackageVersion();
+
+		// Only the changes of the state are persisted
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<S3InventoryEntity>> savedCaptor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(this.s3InventoryRepository, Mockito.times(1)).saveAll(savedCaptor.capture());
+		assertThat(savedCaptor.getValue())
+			.isEqualTo(List.of(new S3InventoryEntity(changedVersionFolderKey, "\"new-build\"")));
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Set<String>> deletedCaptor = ArgumentCaptor.forClass(Set.class);
+		Mockito.verify(this.s3InventoryRepository, Mockito.times(1)).deleteAllById(deletedCaptor.capture());
+		assertThat(deletedCaptor.getValue()).isEqualTo(Set.of(removedVersionFolderKey));
 	}
 
 	@Test
@@ -311,12 +438,14 @@ class PackageServiceImplTest {
 		Mockito.when(this.targetService.retrieveTargetByName(TargetType.DEFAULT.getCode())).thenReturn(defaultTarget);
 
 		Mockito.when(this.s3Service.doesS3KeyExists(any())).thenReturn(true);
-		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(any())).thenAnswer(invocation -> {
-			String prefix = invocation.getArgument(0);
-			// Listing of the available versions / listing of the config folder
-			return Objects.equals(prefix, packagePath) ? Set.of("%s/%s/file".formatted(packagePath, version))
-					: Set.of(newBuildDefaultConfigKey);
-		});
+		// Listing of the available versions: current build pointer replaced since the
+		// last refresh
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromPrefix(packagePath + "/"))
+			.thenReturn(Map.of(currentBuildPointerKey, "\"new-build\"", newBuildDefaultConfigKey, "\"config\""));
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromFolder(any()))
+			.thenReturn(Map.of(mappingMinimalVersionPath, "\"mapping\""));
+		// Listing of the config folder
+		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(any())).thenReturn(Set.of(newBuildDefaultConfigKey));
 		// Fresh stream per call: <version>/current pointer, mapping-minimal-version.json
 		// and configuration files are all read from S3
 		Mockito.when(this.s3Service.retrieveS3Object(any())).thenAnswer(invocation -> {
@@ -363,6 +492,262 @@ class PackageServiceImplTest {
 		assertThat(savedOverrideConfig.getWeasisPropertyEntities().get(0).getValue()).isEqualTo("Weasis new build");
 	}
 
+	@Test
+	void when_uploadingPackageThenReloadingIt_should_loadConfigurationsWithoutGzipVariants() throws IOException {
+		// Init data
+		String packagePath = "resources/packages/weasis/package";
+		String mappingMinimalVersionPath = "resources/packages/weasis/mapping-minimal-version.json";
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisPackagePath", packagePath);
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisMappingMinimalVersionPath",
+				mappingMinimalVersionPath);
+
+		LaunchConfigEntity defaultLaunchConfig = new LaunchConfigEntity();
+		defaultLaunchConfig.setId(2L);
+		defaultLaunchConfig.setName(LaunchConfigType.DEFAULT.getCode());
+		LaunchConfigEntity dicomizerLaunchConfig = new LaunchConfigEntity();
+		dicomizerLaunchConfig.setId(4L);
+		dicomizerLaunchConfig.setName("dicomizer");
+		TargetEntity defaultTarget = new TargetEntity();
+		defaultTarget.setId(3L);
+		defaultTarget.setName(TargetType.DEFAULT.getCode());
+		defaultTarget.setType(TargetType.DEFAULT);
+
+		// Package of a version using properties configuration files
+		Map<String, byte[]> packageFiles = new HashMap<>();
+		packageFiles.put("%s%s/%s".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH,
+				PropertiesFileName.CONF_FOLDER_NAME, PropertiesFileName.CONFIG_PROPERTIES_FILENAME),
+				"weasis.name=Weasis".getBytes(StandardCharsets.UTF_8));
+		packageFiles.put("%s%s/ext-dicomizer.properties".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH,
+				PropertiesFileName.CONF_FOLDER_NAME), "weasis.dicomizer=true".getBytes(StandardCharsets.UTF_8));
+		packageFiles.put(PropertiesFileName.VERSION_COMPATIBILITY_PATH,
+				Files.readAllBytes(ResourceUtils.getFile("classpath:weasis/mapping-minimal-version.json").toPath()));
+		packageFiles.put("%sweasis-launcher.xml".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH),
+				"<launcher/>".getBytes(StandardCharsets.UTF_8));
+
+		// Mock: S3 kept in memory, package versions saved in db retrieved by version
+		Map<String, byte[]> s3Objects = new ConcurrentHashMap<>();
+		this.mockInMemoryS3(s3Objects);
+		List<PackageVersionEntity> packageVersionsInDb = new ArrayList<>();
+		Mockito.when(this.packageVersionRepository.saveAll(any())).thenAnswer(invocation -> {
+			invocation.<Iterable<PackageVersionEntity>>getArgument(0).forEach(packageVersionsInDb::add);
+			return packageVersionsInDb;
+		});
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(any(), any()))
+			.thenAnswer(invocation -> packageVersionsInDb.stream()
+				.filter(p -> Objects.equals(p.getVersionNumber(), invocation.getArgument(0))
+						&& Objects.equals(p.getQualifier(), invocation.getArgument(1)))
+				.findFirst());
+		Mockito.when(this.packageVersionRepository.findAll()).thenAnswer(invocation -> List.copyOf(packageVersionsInDb));
+		Mockito.when(this.launchConfigRepository.findOptionalByNameIgnoreCase(any()))
+			.thenAnswer(invocation -> Stream.of(defaultLaunchConfig, dicomizerLaunchConfig)
+				.filter(l -> l.getName().equalsIgnoreCase(invocation.getArgument(0)))
+				.findFirst());
+		Mockito.when(this.targetService.retrieveTargetByName(TargetType.DEFAULT.getCode())).thenReturn(defaultTarget);
+
+		// Upload the package: the version is loaded once published
+		this.packageService.handlePackageVersionToUpload(this.buildZip(packageFiles), "4.1.0-MGR");
+
+		// Test results: only the files which are not configuration files have a gzip
+		// variant
+		assertThat(s3Objects.keySet()
+			.stream()
+			.filter(key -> key.endsWith(PackageUtil.GZIP_VARIANT_EXTENSION))
+			.toList()).isEqualTo(List.of(s3Objects.keySet()
+				.stream()
+				.filter(key -> key.endsWith("weasis-launcher.xml"))
+				.findFirst()
+				.orElseThrow() + PackageUtil.GZIP_VARIANT_EXTENSION));
+		assertThat(packageVersionsInDb.size()).isEqualTo(1);
+
+		// Reload the version from a configuration folder holding the gzip variants of a
+		// previous upload
+		String buildId = packageVersionsInDb.get(0).getBuildId();
+		String dicomizerConfigKey = "%s/4.1.0-MGR/%s/conf/ext-dicomizer.properties".formatted(packagePath, buildId);
+		s3Objects.put(dicomizerConfigKey + PackageUtil.GZIP_VARIANT_EXTENSION, gzip(s3Objects.get(dicomizerConfigKey)));
+		this.packageService.refreshAvailablePackageVersion();
+
+		// Test results: the configurations are loaded from the configuration files only
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Set<OverrideConfigEntity>> captor = ArgumentCaptor.forClass(Set.class);
+		Mockito.verify(this.overrideConfigService, Mockito.times(2)).saveAll(captor.capture());
+		for (Set<OverrideConfigEntity> savedOverrideConfigs : captor.getAllValues()) {
+			assertThat(savedOverrideConfigs.size()).isEqualTo(2);
+			OverrideConfigEntity dicomizerOverrideConfig = savedOverrideConfigs.stream()
+				.filter(o -> o.getLaunchConfig() == dicomizerLaunchConfig)
+				.findFirst()
+				.orElseThrow();
+			assertThat(dicomizerOverrideConfig.getBuildId()).isEqualTo(buildId);
+			assertThat(dicomizerOverrideConfig.getWeasisPropertyEntities()
+				.stream()
+				.filter(w -> Objects.equals(w.getCode(), "weasis.dicomizer"))
+				.map(WeasisPropertyEntity::getValue)
+				.toList()).isEqualTo(List.of("true"));
+		}
+	}
+
+	@Test
+	void when_uploadingPackageFails_should_abortUploadsAndRemoveFilesOfBuild() throws IOException {
+		// Init data
+		String packagePath = "resources/packages/weasis/package";
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisPackagePath", packagePath);
+		Map<String, byte[]> packageFiles = new LinkedHashMap<>();
+		packageFiles.put("%sweasis-launcher.xml".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH),
+				"<launcher/>".getBytes(StandardCharsets.UTF_8));
+		packageFiles.put("%sweasis-additions.xml".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH),
+				"<additions/>".getBytes(StandardCharsets.UTF_8));
+
+		// Mock: first file uploaded, upload of the second one failing to start
+		Map<String, byte[]> s3Objects = new ConcurrentHashMap<>();
+		Mockito.when(this.s3Service.openUploadStreamWithGzipVariantInS3(any()))
+			.thenAnswer(invocation -> mockUploadStream(s3Objects, invocation.getArgument(0), true))
+			.thenThrow(new IllegalStateException("S3 not available"));
+		Mockito.when(this.s3Service.deleteS3Objects(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+		// Upload the package
+		Path packageFile = this.buildZip(packageFiles);
+		assertThrows(TechnicalException.class,
+				() -> this.packageService.handlePackageVersionToUpload(packageFile, "4.1.0-MGR"));
+
+		// Test results: files of the build already uploaded removed, nothing published
+		ArgumentCaptor<String> prefixCaptor = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(this.s3Service).deleteS3Objects(prefixCaptor.capture());
+		assertThat(prefixCaptor.getValue()).startsWith("%s/4.1.0-MGR/".formatted(packagePath)).endsWith("/");
+		assertThat(s3Objects.keySet().stream().allMatch(key -> key.startsWith(prefixCaptor.getValue()))).isTrue();
+		Mockito.verify(this.s3Service, Mockito.never()).uploadObjectInS3(any(), any());
+	}
+
+	@Test
+	void when_uploadOfPackageFileFails_should_removeFilesOfBuildWithoutPublishingIt() throws IOException {
+		// Init data
+		String packagePath = "resources/packages/weasis/package";
+		ReflectionTestUtils.setField(this.packageService, "viewerHubResourcesPackagesWeasisPackagePath", packagePath);
+		Map<String, byte[]> packageFiles = new LinkedHashMap<>();
+		packageFiles.put("%sweasis-launcher.xml".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH),
+				"<launcher/>".getBytes(StandardCharsets.UTF_8));
+		packageFiles.put("%sweasis-additions.xml".formatted(PropertiesFileName.BIN_DIST_WEASIS_PATH),
+				"<additions/>".getBytes(StandardCharsets.UTF_8));
+
+		// Mock: upload of the second file failing once streamed
+		Map<String, byte[]> s3Objects = new ConcurrentHashMap<>();
+		S3UploadOutputStream failedUpload = Mockito.mock(S3UploadOutputStream.class);
+		Mockito.when(failedUpload.getCompletion())
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("S3 not available")));
+		Mockito.when(this.s3Service.openUploadStreamWithGzipVariantInS3(any()))
+			.thenAnswer(invocation -> mockUploadStream(s3Objects, invocation.getArgument(0), true))
+			.thenReturn(failedUpload);
+		Mockito.when(this.s3Service.deleteS3Objects(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+		// Upload the package
+		this.packageService.handlePackageVersionToUpload(this.buildZip(packageFiles), "4.1.0-MGR");
+
+		// Test results: files of the build removed, the version is not published
+		Mockito.verify(this.s3Service).deleteS3Objects(Mockito.startsWith("%s/4.1.0-MGR/".formatted(packagePath)));
+		Mockito.verify(this.s3Service, Mockito.never()).uploadObjectInS3(any(), any());
+		Mockito.verify(this.applicationEventPublisher, Mockito.never()).publishEvent(any());
+	}
+
+	/**
+	 * Mock the S3 service with the objects in the map in parameter: the uploads are
+	 * stored in the map
+	 * @param s3Objects Content of S3 by key
+	 */
+	private void mockInMemoryS3(Map<String, byte[]> s3Objects) {
+		Mockito.when(this.s3Service.openUploadStreamInS3(any()))
+			.thenAnswer(invocation -> mockUploadStream(s3Objects, invocation.getArgument(0), false));
+		Mockito.when(this.s3Service.openUploadStreamWithGzipVariantInS3(any()))
+			.thenAnswer(invocation -> mockUploadStream(s3Objects, invocation.getArgument(0), true));
+		Mockito.when(this.s3Service.uploadObjectInS3(any(), any())).thenAnswer(invocation -> {
+			s3Objects.put(invocation.getArgument(1), invocation.<InputStream>getArgument(0).readAllBytes());
+			return CompletableFuture.completedFuture(PutObjectResponse.builder().build());
+		});
+		Mockito.when(this.s3Service.copyS3ObjectFromTo(any(), any())).thenAnswer(invocation -> {
+			s3Objects.put(invocation.getArgument(1), s3Objects.get(invocation.<String>getArgument(0)));
+			return CompletableFuture.completedFuture(null);
+		});
+		Mockito.when(this.s3Service.doesS3KeyExists(any()))
+			.thenAnswer(invocation -> s3Objects.keySet()
+				.stream()
+				.anyMatch(key -> key.equals(invocation.getArgument(0))
+						|| key.startsWith(invocation.getArgument(0) + "/")));
+		Mockito.when(this.s3Service.retrieveS3KeysFromPrefix(any()))
+			.thenAnswer(invocation -> s3Objects.keySet()
+				.stream()
+				.filter(key -> key.startsWith(invocation.getArgument(0)))
+				.collect(Collectors.toSet()));
+		Mockito.when(this.s3Service.retrieveS3Object(any())).thenAnswer(invocation -> {
+			byte[] content = s3Objects.get(invocation.<String>getArgument(0));
+			return content != null ? new ByteArrayInputStream(content) : null;
+		});
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromPrefix(any()))
+			.thenAnswer(invocation -> s3Objects.entrySet()
+				.stream()
+				.filter(e -> e.getKey().startsWith(invocation.getArgument(0)))
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> Integer.toHexString(Arrays.hashCode(e.getValue())))));
+		Mockito.when(this.s3Service.retrieveS3ObjectsETagFromFolder(any()))
+			.thenAnswer(invocation -> s3Objects.entrySet()
+				.stream()
+				.filter(e -> e.getKey().startsWith(invocation.getArgument(0))
+						&& e.getKey().indexOf('/', invocation.<String>getArgument(0).length() + 1) == -1)
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> Integer.toHexString(Arrays.hashCode(e.getValue())))));
+	}
+
+	/**
+	 * Mock a stream uploading in the map in parameter the bytes written, with the gzip
+	 * variant of them if requested
+	 * @param s3Objects Content of S3 by key
+	 * @param key Key of the object uploaded
+	 * @param gzipVariant true to upload the gzip variant as well
+	 * @return stream mocked
+	 */
+	private static S3UploadOutputStream mockUploadStream(Map<String, byte[]> s3Objects, String key,
+			boolean gzipVariant) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		S3UploadOutputStream uploadStream = Mockito.mock(S3UploadOutputStream.class);
+		Mockito.doAnswer(invocation -> {
+			content.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+			return null;
+		}).when(uploadStream).write(any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+		Mockito.doAnswer(invocation -> {
+			s3Objects.put(key, content.toByteArray());
+			if (gzipVariant) {
+				s3Objects.put(key + PackageUtil.GZIP_VARIANT_EXTENSION, gzip(content.toByteArray()));
+			}
+			return null;
+		}).when(uploadStream).close();
+		Mockito.when(uploadStream.getCompletion()).thenReturn(CompletableFuture.completedFuture(null));
+		return uploadStream;
+	}
+
+	/**
+	 * Compress the bytes in parameter with gzip
+	 * @param content Bytes to compress
+	 * @return Bytes compressed
+	 */
+	private static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+			gzipOutputStream.write(content);
+		}
+		return compressed.toByteArray();
+	}
+
+	/**
+	 * Build a zip with the files in parameter
+	 * @param files Content of the files by path in the zip
+	 * @return Zip file
+	 */
+	private Path buildZip(Map<String, byte[]> files) throws IOException {
+		Path zipFile = Files.createTempFile(this.tempDir, "package", ".zip");
+		try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+			for (Map.Entry<String, byte[]> file : files.entrySet()) {
+				zos.putNextEntry(new ZipEntry(file.getKey()));
+				zos.write(file.getValue());
+				zos.closeEntry();
+			}
+		}
+		return zipFile;
+	}
+
 	@NotNull
 	private OverrideConfigEntity buildOverrideConfigToDelete(String buildId, String launchConfigName,
 			TargetType targetType) {
@@ -505,16 +890,15 @@ class PackageServiceImplTest {
 		List<MinimalReleaseVersion> minimalReleaseVersions = List.of(minimalReleaseVersionBase,
 				minimalReleaseVersion4Digits);
 
-		// Built inputStream
-		try (InputStream fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions)) {
+		// Built zip file
+		Path fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions);
 
-			// Mock: version already installed on server
-			Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
-				.thenReturn(Optional.of(new PackageVersionEntity()));
+		// Mock: version already installed on server
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
+			.thenReturn(Optional.of(new PackageVersionEntity()));
 
-			// Test service
-			assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
-		}
+		// Test service
+		assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
 	}
 
 	@Test
@@ -532,16 +916,15 @@ class PackageServiceImplTest {
 		minimalReleaseVersion4Digits.setMinimalVersion("4.5.0");
 		List<MinimalReleaseVersion> minimalReleaseVersions = List.of(minimalReleaseVersion4Digits);
 
-		// Built inputStream
-		try (InputStream fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions)) {
+		// Built zip file
+		Path fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions);
 
-			// Mock: version already installed on server
-			Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
-				.thenReturn(Optional.empty());
+		// Mock: version already installed on server
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
+			.thenReturn(Optional.empty());
 
-			// Test service
-			assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
-		}
+		// Test service
+		assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
 	}
 
 	@Test
@@ -566,28 +949,27 @@ class PackageServiceImplTest {
 		List<MinimalReleaseVersion> minimalReleaseVersions = List.of(minimalReleaseVersionBase,
 				minimalReleaseVersion4Digits);
 
-		// Built inputStream
-		try (InputStream fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions)) {
-
-			// Mock: version not already installed on server
-			Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
-				.thenReturn(Optional.empty());
-			// Mock: retrieve previous versions
-			List<MinimalReleaseVersion> list = new ArrayList<>();
-			MinimalReleaseVersion minimalReleaseVersion362 = new MinimalReleaseVersion();
-			minimalReleaseVersion362.setReleaseVersion("3.6.2");
-			minimalReleaseVersion362.setMinimalVersion("3.6.0");
-			minimalReleaseVersion362.setI18nVersion("4.0.0-SNAPSHOT");
-			list.add(minimalReleaseVersion362);
-			InputStream inputStream = buildInputStreamPreviousVersionsCompatibility(list);
-			InputStream inputStream2 = buildInputStreamPreviousVersionsCompatibility(list);
-			Mockito.when(this.s3Service.retrieveS3Object(Mockito.anyString())).thenReturn(inputStream, inputStream2);
-			// Mock: S3 key exists
-			Mockito.when(this.s3Service.doesS3KeyExists(Mockito.eq("test"))).thenReturn(true);
-
-			// Test service
-			assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
-		}
+		// Built zip file
+		Path fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions);
+
+		// Mock: version not already installed on server
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
+			.thenReturn(Optional.empty());
+		// Mock: retrieve previous versions
+		List<MinimalReleaseVersion> list = new ArrayList<>();
+		MinimalReleaseVersion minimalReleaseVersion362 = new MinimalReleaseVersion();
+		minimalReleaseVersion362.setReleaseVersion("3.6.2");
+		minimalReleaseVersion362.setMinimalVersion("3.6.0");
+		minimalReleaseVersion362.setI18nVersion("4.0.0-SNAPSHOT");
+		list.add(minimalReleaseVersion362);
+		InputStream inputStream = buildInputStreamPreviousVersionsCompatibility(list);
+		InputStream inputStream2 = buildInputStreamPreviousVersionsCompatibility(list);
+		Mockito.when(this.s3Service.retrieveS3Object(Mockito.anyString())).thenReturn(inputStream, inputStream2);
+		// Mock: S3 key exists
+		Mockito.when(this.s3Service.doesS3KeyExists(Mockito.eq("test"))).thenReturn(true);
+
+		// Test service
+		assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
 	}
 
 	@Test
@@ -616,24 +998,23 @@ class PackageServiceImplTest {
 		List<MinimalReleaseVersion> minimalReleaseVersions = List.of(minimalReleaseVersion362,
 				minimalReleaseVersionBase, minimalReleaseVersion4Digits);
 
-		// Built inputStream
-		try (InputStream fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions)) {
-
-			// Mock: version not already installed on server
-			Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
-				.thenReturn(Optional.empty());
-			// Mock: retrieve previous versions
-			List<MinimalReleaseVersion> list = new ArrayList<>();
-			list.add(minimalReleaseVersion362);
-			InputStream inputStream = buildInputStreamPreviousVersionsCompatibility(list);
-			InputStream inputStream2 = buildInputStreamPreviousVersionsCompatibility(list);
-			Mockito.when(this.s3Service.retrieveS3Object(Mockito.anyString())).thenReturn(inputStream, inputStream2);
-			// Mock: S3 key exists
-			Mockito.when(this.s3Service.doesS3KeyExists(Mockito.eq("test"))).thenReturn(true);
-
-			// Test service
-			assertThat(this.packageService.isImportCoherent(fileData)).isTrue();
-		}
+		// Built zip file
+		Path fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions);
+
+		// Mock: version not already installed on server
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
+			.thenReturn(Optional.empty());
+		// Mock: retrieve previous versions
+		List<MinimalReleaseVersion> list = new ArrayList<>();
+		list.add(minimalReleaseVersion362);
+		InputStream inputStream = buildInputStreamPreviousVersionsCompatibility(list);
+		InputStream inputStream2 = buildInputStreamPreviousVersionsCompatibility(list);
+		Mockito.when(this.s3Service.retrieveS3Object(Mockito.anyString())).thenReturn(inputStream, inputStream2);
+		// Mock: S3 key exists
+		Mockito.when(this.s3Service.doesS3KeyExists(Mockito.eq("test"))).thenReturn(true);
+
+		// Test service
+		assertThat(this.packageService.isImportCoherent(fileData)).isTrue();
 	}
 
 	@Test
@@ -659,24 +1040,23 @@ class PackageServiceImplTest {
 		List<MinimalReleaseVersion> minimalReleaseVersions = List.of(minimalReleaseVersionBase,
 				minimalReleaseVersionGreater);
 
-		// Built inputStream
-		try (InputStream fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions)) {
+		// Built zip file
+		Path fileData = buildFileData(overrideConfigEntity, minimalReleaseVersions);
 
-			// Mock: version not already installed on server
-			Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
-				.thenReturn(Optional.empty());
+		// Mock: version not already installed on server
+		Mockito.when(this.packageVersionRepository.findByVersionNumberAndQualifier(Mockito.any(), Mockito.any()))
+			.thenReturn(Optional.empty());
 
-			// Test service: should be incoherent as a version in the compatibility
-			// file (4.6.0) is greater than the version being uploaded (4.5.2-MGR)
-			assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
-		}
+		// Test service: should be incoherent as a version in the compatibility
+		// file (4.6.0) is greater than the version being uploaded (4.5.2-MGR)
+		assertThat(this.packageService.isImportCoherent(fileData)).isFalse();
 	}
 
-	private InputStream buildFileData(OverrideConfigEntity overrideConfigEntity,
+	private Path buildFileData(OverrideConfigEntity overrideConfigEntity,
 			List<MinimalReleaseVersion> minimalReleaseVersions) throws IOException {
-		// Create a ByteArrayOutputStream to hold zip content
-		try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				ZipOutputStream zos = new ZipOutputStream(baos)) {
+		// Create a zip file in the temporary folder of the test
+		Path zipFile = Files.createTempFile(this.tempDir, "package", ".zip");
+		try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
 
 			ObjectMapper objectMapper = new ObjectMapper();
 
@@ -709,10 +1089,8 @@ class PackageServiceImplTest {
 
 			// Close the zip entry
 			zos.closeEntry();
-
-			// Provide an InputStream from the ByteArrayOutputStream
-			return new ByteArrayInputStream(baos.toByteArray());
 		}
+		return zipFile;
 	}
 
 	private InputStream buildInputStreamPreviousVersionsCompatibility(
@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.viewer.hub.back.entity.ViewerSelectionEntity;
+import org.viewer.hub.back.enums.DicomWebLevelLimitType;
+import org.viewer.hub.back.enums.ModalityType;
+import org.viewer.hub.back.enums.ViewerType;
+import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
+import org.viewer.hub.back.service.ViewerSelectionService;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueryPlanningServiceImplTest {
+
+	@Mock
+	private ViewerSelectionService viewerSelectionService;
+
+	@InjectMocks
+	private QueryPlanningServiceImpl queryPlanningService;
+
+	@Test
+	void when_determiningQueryLevelLimit_with_slicerOrMicroDicom_should_limitToStudy() {
+		// Given
+		ArchiveSearchCriteria slicerSearchCriteria = new ArchiveSearchCriteria();
+		slicerSearchCriteria.setViewer(ViewerType.SLICER);
+		ArchiveSearchCriteria microDicomSearchCriteria = new ArchiveSearchCriteria();
+		microDicomSearchCriteria.setViewer(ViewerType.MICRODICOM);
+
+		// When / Then
+		assertEquals(DicomWebLevelLimitType.STUDY, queryPlanningService.determineQueryLevelLimit(slicerSearchCriteria));
+		assertEquals(DicomWebLevelLimitType.STUDY,
+				queryPlanningService.determineQueryLevelLimit(microDicomSearchCriteria));
+	}
+
+	@Test
+	void when_determiningQueryLevelLimit_with_ohif_should_limitToSerie_onlyIfSeriesRequested() {
+		// Given
+		ArchiveSearchCriteria studySearchCriteria = new ArchiveSearchCriteria();
+		studySearchCriteria.setViewer(ViewerType.OHIF);
+		ArchiveSearchCriteria serieSearchCriteria = new ArchiveSearchCriteria();
+		serieSearchCriteria.setViewer(ViewerType.OHIF);
+		serieSearchCriteria.setSeriesUID(Set.of("1.2.3"));
+
+		// When / Then
+		assertEquals(DicomWebLevelLimitType.STUDY, queryPlanningService.determineQueryLevelLimit(studySearchCriteria));
+		assertEquals(DicomWebLevelLimitType.SERIE, queryPlanningService.determineQueryLevelLimit(serieSearchCriteria));
+	}
+
+	@Test
+	void when_determiningQueryLevelLimit_with_modalitiesFilter_should_limitToSerie() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		searchCriteria.setViewer(ViewerType.SLICER);
+		searchCriteria.setModalitiesInStudy(Set.of("CT"));
+
+		// When / Then
+		assertEquals(DicomWebLevelLimitType.SERIE, queryPlanningService.determineQueryLevelLimit(searchCriteria));
+	}
+
+	@Test
+	void when_determiningQueryLevelLimit_with_viewerSelectionRules_should_dependOnModalityRules() {
+		// Given
+		ArchiveSearchCriteria searchCriteria = new ArchiveSearchCriteria();
+		ViewerSelectionEntity archiveRule = new ViewerSelectionEntity();
+		archiveRule.setViewer(ViewerType.OHIF);
+		ViewerSelectionEntity modalityRule = new ViewerSelectionEntity();
+		modalityRule.setViewer(ViewerType.SLICER);
+		modalityRule.setModalities(List.of(ModalityType.CT));
+
+		// When / Then
+		when(viewerSelectionService.retrieveViewerSelection(Sort.Direction.DESC)).thenReturn(List.of(archiveRule));
+		assertEquals(DicomWebLevelLimitType.STUDY, queryPlanningService.determineQueryLevelLimit(searchCriteria));
+
+		when(viewerSelectionService.retrieveViewerSelection(Sort.Direction.DESC))
+			.thenReturn(List.of(archiveRule, modalityRule));
+		assertEquals(DicomWebLevelLimitType.SERIE, queryPlanningService.determineQueryLevelLimit(searchCriteria));
+	}
+
+	@Test
+	void when_determiningQueryLevelLimit_with_weasisOrMultipleArchives_should_notLimit() {
+		// Given
+		ArchiveSearchCriteria weasisSearchCriteria = new ArchiveSearchCriteria();
+		weasisSearchCriteria.setViewer(ViewerType.WEASIS);
+		ArchiveSearchCriteria multipleArchivesSearchCriteria = new ArchiveSearchCriteria();
+		multipleArchivesSearchCriteria.setArchive(new LinkedHashSet<>(List.of("archive1", "archive2")));
+
+		// When / Then
+		assertNull(queryPlanningService.determineQueryLevelLimit(weasisSearchCriteria));
+		assertNull(queryPlanningService.determineQueryLevelLimit(multipleArchivesSearchCriteria));
+	}
+
+}
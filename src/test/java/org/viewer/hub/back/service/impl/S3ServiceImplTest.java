@@ -19,16 +19,26 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.viewer.hub.back.config.s3.DeleteResource;
 import org.viewer.hub.back.config.s3.DownloadResource;
+import org.viewer.hub.back.config.s3.S3ObjectMetadata;
 import org.viewer.hub.back.config.s3.UploadResource;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
 import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
+import software.amazon.awssdk.transfer.s3.model.CompletedFileUpload;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -37,6 +47,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -131,6 +143,52 @@ class S3ServiceImplTest {
 		assertThat(toTest).isEmpty();
 	}
 
+	@Test
+	@DisplayName("retrieveS3ObjectsETagFromPrefix: case objects exist")
+	void given_objectsFromPrefix_when_retrieveS3ObjectsETagFromPrefix_then_shouldReturnETagsOfObjects() {
+		// Given
+		// Mock downloadResource: objects of the prefix and of its sub-folders
+		when(this.downloadResource.retrieveS3ObjectsFromPrefix("folder/"))
+			.thenReturn(List.of(S3Object.builder().key("folder/file").eTag("\"etag\"").build(),
+					S3Object.builder().key("folder/sub-folder/file").eTag("\"sub-etag\"").build()));
+
+		// When
+		Map<String, String> toTest = this.s3Service.retrieveS3ObjectsETagFromPrefix("folder/");
+
+		// Then
+		assertThat(toTest).containsOnly(Map.entry("folder/file", "\"etag\""),
+				Map.entry("folder/sub-folder/file", "\"sub-etag\""));
+	}
+
+	@Test
+	@DisplayName("retrieveS3ObjectsETagFromFolder: case objects exist")
+	void given_folderWithObjects_when_retrieveS3ObjectsETagFromFolder_then_shouldReturnETagsOfObjects() {
+		// Given
+		// Mock downloadResource: listing of the folder with the delimiter /
+		when(this.downloadResource.retrieveS3FolderContent("folder/"))
+			.thenReturn(List.of(ListObjectsV2Response.builder()
+				.commonPrefixes(CommonPrefix.builder().prefix("folder/sub-folder/").build())
+				.contents(S3Object.builder().key("folder/file").eTag("\"etag\"").build())
+				.build()));
+
+		// When
+		Map<String, String> toTest = this.s3Service.retrieveS3ObjectsETagFromFolder("folder/");
+
+		// Then
+		assertThat(toTest).containsExactly(Map.entry("folder/file", "\"etag\""));
+	}
+
+	@Test
+	@DisplayName("retrieveS3ObjectsETagFromFolder: case folder is blank")
+	void given_blankFolder_when_retrieveS3ObjectsETagFromFolder_then_shouldReturnEmptyMap() {
+		// When
+		Map<String, String> toTest = this.s3Service.retrieveS3ObjectsETagFromFolder("");
+
+		// Then
+		assertThat(toTest).isEmpty();
+		verify(this.downloadResource, never()).retrieveS3FolderContent(anyString());
+	}
+
 	@Test
 	@DisplayName("retrieveS3Object: case object exist")
 	void given_existingObject_when_retrieveS3Object_then_shouldReturnInputStream() throws IOException {
@@ -268,4 +326,67 @@ class S3ServiceImplTest {
 		assertThat(toTest.get()).isNull();
 	}
 
+	@Test
+	@DisplayName("uploadBlobInS3: case blob already stored")
+	void given_existingBlob_when_uploadBlobInS3_then_shouldMarkBlobReusedWithoutUpload() {
+		// Given
+		// Mock downloadResource and uploadResource
+		when(this.downloadResource.retrieveUncachedS3ObjectMetadata("blobs/sha256/digest"))
+			.thenReturn(new S3ObjectMetadata(true, 10L, "\"etag\"", Instant.EPOCH));
+		when(this.uploadResource.markBlobReused("blobs/sha256/digest"))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		// When
+		CompletableFuture<Void> toTest = this.s3Service.uploadBlobInS3(Path.of("file.jar"), "blobs/sha256/digest");
+
+		// Then: the reused blob is kept by the retention as a blob just uploaded
+		assertThat(toTest).isCompleted();
+		verify(this.uploadResource).markBlobReused("blobs/sha256/digest");
+		verify(this.uploadResource, never()).uploadFile(any(Path.class), anyString());
+		verify(this.downloadResource, never()).retrieveS3ObjectMetadata(anyString());
+	}
+
+	@Test
+	@DisplayName("uploadBlobInS3: case blob removed by the retention once checked")
+	void given_blobRemovedOnceChecked_when_uploadBlobInS3_then_shouldUploadFile() {
+		// Given
+		// Mock downloadResource and uploadResource: the blob is removed between the check
+		// and the record of its reuse
+		when(this.downloadResource.retrieveUncachedS3ObjectMetadata("blobs/sha256/digest"))
+			.thenReturn(new S3ObjectMetadata(true, 10L, "\"etag\"", Instant.EPOCH));
+		when(this.uploadResource.markBlobReused("blobs/sha256/digest"))
+			.thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().build()));
+		when(this.uploadResource.uploadFile(Path.of("file.jar"), "blobs/sha256/digest"))
+			.thenReturn(CompletableFuture.completedFuture(CompletedFileUpload.builder()
+				.response(PutObjectResponse.builder().build())
+				.build()));
+
+		// When
+		CompletableFuture<Void> toTest = this.s3Service.uploadBlobInS3(Path.of("file.jar"), "blobs/sha256/digest");
+
+		// Then
+		assertThat(toTest).isCompleted();
+		verify(this.uploadResource).uploadFile(Path.of("file.jar"), "blobs/sha256/digest");
+	}
+
+	@Test
+	@DisplayName("uploadBlobInS3: case blob missing")
+	void given_missingBlob_when_uploadBlobInS3_then_shouldUploadFile() {
+		// Given
+		// Mock downloadResource and uploadResource
+		when(this.downloadResource.retrieveUncachedS3ObjectMetadata("blobs/sha256/digest"))
+			.thenReturn(S3ObjectMetadata.NOT_FOUND);
+		when(this.uploadResource.uploadFile(Path.of("file.jar"), "blobs/sha256/digest"))
+			.thenReturn(CompletableFuture.completedFuture(CompletedFileUpload.builder()
+				.response(PutObjectResponse.builder().build())
+				.build()));
+
+		// When
+		CompletableFuture<Void> toTest = this.s3Service.uploadBlobInS3(Path.of("file.jar"), "blobs/sha256/digest");
+
+		// Then
+		assertThat(toTest).isCompleted();
+		verify(this.uploadResource).uploadFile(Path.of("file.jar"), "blobs/sha256/digest");
+	}
+
 }
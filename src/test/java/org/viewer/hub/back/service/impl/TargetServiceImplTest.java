@@ -199,27 +199,6 @@ class TargetServiceImplTest {
 			.existsByNameIgnoreCaseAndType(Mockito.anyString(), Mockito.any(TargetType.class));
 	}
 
-	/**
-	 * Test containsAGroup
-	 * <p>
-	 * Expected: detect that the list contains a group
-	 */
-	@Test
-	void containsAGroup() {
-
-		// TargetEntity HostGroup
-		TargetEntity targetHostGroup = new TargetEntity();
-		targetHostGroup.setName("TargetHostgroup");
-		targetHostGroup.setType(TargetType.HOST_GROUP);
-
-		// Call service
-		boolean toTest = this.targetService.containsAGroup(Collections.singletonList(targetHostGroup));
-
-		// Test call
-		Mockito.verify(this.targetRepositoryMock, Mockito.times(1)).findOptionalByNameIgnoreCase(Mockito.anyString());
-		assertTrue(toTest);
-	}
-
 	/**
 	 * Case there is an error in the name of the group name / group name is empty / empty
 	 * target list / wrong parameter in the targets Initial: Name of the target found by
@@ -269,29 +248,33 @@ class TargetServiceImplTest {
 	}
 
 	/**
-	 * Case there is one of the target which is a group
+	 * Case there is one of the target which is a group of the same type: nested group
 	 * <p>
-	 * Expected: Parameter exception
+	 * Expected: should not throw exception
 	 */
 	@Test
 	void checkParametersCreateAssociationCaseTargetsContainGroup() {
 		// Mock data
 		Mockito
 			.when(this.targetRepositoryMock.existsByNameIgnoreCaseAndType(Mockito.anyString(),
-					Mockito.any(TargetType.class)))
+					Mockito.eq(TargetType.HOST_GROUP)))
 			.thenReturn(true);
+		Mockito
+			.when(this.targetRepositoryMock.existsByNameIgnoreCaseAndType(Mockito.anyString(),
+					Mockito.eq(TargetType.HOST)))
+			.thenReturn(false);
 
 		// Init data
 		List<TargetEntity> targets = new ArrayList<>();
-		// TargetEntity Host
-		TargetEntity targetHost = new TargetEntity();
-		targetHost.setName("host");
-		targetHost.setType(TargetType.HOST);
-		targets.add(targetHost);
+		// TargetEntity HostGroup
+		TargetEntity targetHostGroup = new TargetEntity();
+		targetHostGroup.setName("department");
+		targetHostGroup.setType(TargetType.HOST_GROUP);
+		targets.add(targetHostGroup);
 
 		// Call service and test results
-		assertThrows(ParameterException.class, () -> this.targetService.checkParametersAssociation("createAssociation",
-				targets, TargetType.HOST, "created"));
+		assertDoesNotThrow(() -> this.targetService.checkParametersAssociation("site", targets, TargetType.HOST,
+				"created"));
 	}
 
 	/**
@@ -312,14 +295,12 @@ class TargetServiceImplTest {
 
 		// Mock data
 		Mockito
-			.when(this.targetRepositoryMock.existsByNameIgnoreCaseAndType(Mockito.anyString(),
+			.when(this.targetRepositoryMock.existsByNameIgnoreCaseAndType(Mockito.eq("createAssociation"),
 					Mockito.eq(TargetType.HOST_GROUP)))
 			.thenReturn(true);
-		Mockito.when(this.targetRepositoryMock.findOptionalByNameIgnoreCase(Mockito.anyString()))
-			.thenReturn(Optional.of(targetHost));
 		Mockito
-			.when(this.targetRepositoryMock.existsByNameIgnoreCaseAndType(Mockito.anyString(),
-					Mockito.eq(TargetType.HOST)))
+			.when(this.targetRepositoryMock.existsByNameIgnoreCaseAndType(Mockito.eq("host"),
+					Mockito.any(TargetType.class)))
 			.thenReturn(false);
 
 		// Call service and test results
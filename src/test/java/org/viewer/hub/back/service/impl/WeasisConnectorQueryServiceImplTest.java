@@ -18,11 +18,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.viewer.hub.back.config.properties.ConnectorConfigurationProperties;
+import org.viewer.hub.back.config.properties.ConnectorQueryConfigurationProperties;
 import org.viewer.hub.back.enums.ConnectorType;
 import org.viewer.hub.back.enums.QueryLevelType;
 import org.viewer.hub.back.model.manifest.Manifest;
 import org.viewer.hub.back.model.property.*;
 import org.viewer.hub.back.model.searchcriteria.ArchiveSearchCriteria;
+import org.viewer.hub.back.model.searchcriteria.WeasisArchiveSearchCriteria;
 import org.viewer.hub.back.service.ConnectorService;
 import org.viewer.hub.back.service.DbConnectorQueryService;
 import org.viewer.hub.back.service.DicomConnectorQueryService;
@@ -151,7 +153,37 @@ class WeasisConnectorQueryServiceImplTest {
 
 		// Create mocked service
 		this.connectorQueryService = new WeasisConnectorQueryServiceImpl(this.dbConnectorQueryServiceMock,
-				this.dicomConnectorQueryServiceMock, this.connectorServiceMock);
+				this.dicomConnectorQueryServiceMock, this.connectorServiceMock,
+				new ConnectorQueryExecutorService(new ConnectorQueryConfigurationProperties()));
+	}
+
+	@Test
+	void when_fillingManifestFromArchiveSearchCriteria_with_allLevels_should_queryEachLevel() {
+		// Init data
+		WeasisArchiveSearchCriteria archiveSearchCriteria = new WeasisArchiveSearchCriteria();
+		archiveSearchCriteria.getArchive().add("idDbA");
+		archiveSearchCriteria.setObjectUID(new LinkedHashSet<>(List.of("sopUid")));
+		archiveSearchCriteria.setSeriesUID(new LinkedHashSet<>(List.of("serieUid")));
+		archiveSearchCriteria.setAccessionNumber(new LinkedHashSet<>(List.of("accessionNumber")));
+		archiveSearchCriteria.setStudyUID(new LinkedHashSet<>(List.of("studyUid")));
+		archiveSearchCriteria.setPatientID(new LinkedHashSet<>(List.of("patientId")));
+		Mockito.when(this.connectorServiceMock.retrieveConnectors(any()))
+			.thenReturn(new LinkedHashSet<>(List.of(connectorPropertyDbA)));
+
+		// Call service
+		this.connectorQueryService.buildFromArchiveSearchCriteria(new Manifest(), archiveSearchCriteria, null);
+
+		// Test results
+		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
+			.retrievePatientsFromSopInstanceUidsDbConnector(Set.of("sopUid"), connectorPropertyDbA);
+		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
+			.retrievePatientsFromSeriesInstanceUidsDbConnector(Set.of("serieUid"), connectorPropertyDbA);
+		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
+			.retrievePatientsFromStudyAccessionNumbersDbConnector(Set.of("accessionNumber"), connectorPropertyDbA);
+		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
+			.retrievePatientsFromStudyInstanceUidsDbConnector(Set.of("studyUid"), connectorPropertyDbA);
+		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
+			.retrievePatientsFromPatientIdsDbConnector(Set.of("patientId"), connectorPropertyDbA);
 	}
 
 	@Test
@@ -169,7 +201,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
 			.retrievePatientsFromPatientIdsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any());
+			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any(), any(), any());
 	}
 
 	@Test
@@ -187,7 +219,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromPatientIdsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any());
+			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any(), any(), any());
 	}
 
 	@Test
@@ -205,7 +237,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromPatientIdsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any());
+			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any(), any(), any());
 	}
 
 	@Test
@@ -236,7 +268,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromPatientIdsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any());
+			.retrievePatientsFromPatientIdsDicomConnector(any(), any(), any(), any(), any());
 	}
 
 	@Test
@@ -254,7 +286,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
 			.retrievePatientsFromStudyInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -272,7 +304,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromStudyInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -290,7 +322,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromStudyInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -321,7 +353,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromStudyInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -339,7 +371,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
 			.retrievePatientsFromStudyAccessionNumbersDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -357,7 +389,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromStudyAccessionNumbersDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -375,7 +407,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromStudyAccessionNumbersDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -405,7 +437,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromStudyAccessionNumbersDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any());
+			.retrievePatientsFromStudyAccessionNumbersDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -423,7 +455,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.times(1))
 			.retrievePatientsFromSeriesInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -441,7 +473,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromSeriesInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -459,7 +491,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromSeriesInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.times(1))
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -490,7 +522,7 @@ class WeasisConnectorQueryServiceImplTest {
 		Mockito.verify(this.dbConnectorQueryServiceMock, Mockito.never())
 			.retrievePatientsFromSeriesInstanceUidsDbConnector(any(), any());
 		Mockito.verify(this.dicomConnectorQueryServiceMock, Mockito.never())
-			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any());
+			.retrievePatientsFromSeriesInstanceUidsDicomConnector(any(), any(), any(), any());
 	}
 
 	@Test
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.viewer.hub.back.config.properties.WeasisConfigurationProperties;
 import org.viewer.hub.back.model.manifest.Manifest;
@@ -30,6 +31,7 @@ import org.viewer.hub.back.service.WeasisService;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
 @Slf4j
@@ -48,6 +50,7 @@ class WeasisDisplayServiceImplTest {
 	void setUp() {
 		Mockito.when(weasisConfigurationProperties.getCommand())
 			.thenReturn(new Command("weasis://", "", "$weasis:config wcfg=", "$dicom:get -w"));
+		Mockito.when(this.cacheServiceMock.acquireManifestBuildLock(Mockito.anyString())).thenReturn(true);
 		this.displayService = new WeasisDisplayServiceImpl(this.cacheServiceMock, this.manifestServiceMock,
 				this.weasisConfigurationProperties);
 		ReflectionTestUtils.setField(this.displayService, "viewerHubServerUrl", "http://test.com");
@@ -100,6 +103,44 @@ class WeasisDisplayServiceImplTest {
 			.buildManifest(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any());
 	}
 
+	@Test
+	void when_retrievingWeasisLaunchUrl_withBuildLockAlreadyAcquired_should_notCallServiceToBuildManifest() {
+		// Init data
+		WeasisArchiveSearchCriteria weasisSearchCriteria = new WeasisArchiveSearchCriteria();
+
+		// Mock: identical request launched concurrently
+		Mockito.when(this.cacheServiceMock.constructManifestKeyDependingOnSearchParameters(weasisSearchCriteria))
+			.thenReturn("key");
+		Mockito.when(this.cacheServiceMock.acquireManifestBuildLock("key")).thenReturn(false);
+
+		// Call service
+		this.displayService.retrieveWeasisLaunchUrl(weasisSearchCriteria, null, null);
+
+		// Test results
+		Mockito.verify(this.manifestServiceMock, Mockito.never())
+			.buildManifest(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	void when_retrievingWeasisLaunchUrl_withBuildNotDispatched_should_releaseBuildLock() {
+		// Init data
+		WeasisArchiveSearchCriteria weasisSearchCriteria = new WeasisArchiveSearchCriteria();
+
+		// Mock: asynchronous build rejected
+		Mockito.when(this.cacheServiceMock.constructManifestKeyDependingOnSearchParameters(weasisSearchCriteria))
+			.thenReturn("key");
+		Mockito.doThrow(new TaskRejectedException("Executor saturated"))
+			.when(this.manifestServiceMock)
+			.buildManifest(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any());
+
+		// Call service
+		assertThrows(TaskRejectedException.class,
+				() -> this.displayService.retrieveWeasisLaunchUrl(weasisSearchCriteria, null, null));
+
+		// Test results
+		Mockito.verify(this.cacheServiceMock).releaseManifestBuildLock("key");
+	}
+
 	@Test
 	void when_retrievingWeasisLaunchUrl_with_noArgumentCommand_should_buildValidLaunchUrl() {
 		// Init data
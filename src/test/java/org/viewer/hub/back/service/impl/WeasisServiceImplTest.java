@@ -12,8 +12,10 @@
 package org.viewer.hub.back.service.impl;
 
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -24,6 +26,7 @@ import org.viewer.hub.back.model.searchcriteria.WeasisArchiveSearchCriteria;
 import org.viewer.hub.back.model.searchcriteria.WeasisIHESearchCriteria;
 import org.viewer.hub.back.service.CacheService;
 import org.viewer.hub.back.service.ConnectorService;
+import org.viewer.hub.back.service.ManifestReadinessService;
 import org.viewer.hub.back.service.SecurityService;
 import org.viewer.hub.back.service.WeasisConnectorQueryService;
 
@@ -42,6 +45,9 @@ class WeasisServiceImplTest {
 	@Mock
 	private SecurityService securityServiceMock;
 
+	@Mock
+	private ManifestReadinessService manifestReadinessServiceMock;
+
 	private WeasisServiceImpl weasisService;
 
 	AutoCloseable openMocks;
@@ -52,7 +58,7 @@ class WeasisServiceImplTest {
 		openMocks = MockitoAnnotations.openMocks(this);
 
 		this.weasisService = new WeasisServiceImpl(this.cacheServiceMock, this.connectorQueryServiceMock,
-				this.securityServiceMock, this.connectorServiceMock);
+				this.securityServiceMock, this.connectorServiceMock, this.manifestReadinessServiceMock);
 	}
 
 	@AfterEach
@@ -85,8 +91,8 @@ class WeasisServiceImplTest {
 		this.weasisService.buildManifest("testWithoutIHE", weasisSearchCriteria, null, null);
 
 		// Test results
-		Mockito.verify(this.connectorQueryServiceMock, Mockito.atLeastOnce())
-			.buildFromSopInstanceUids(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(this.connectorQueryServiceMock, Mockito.times(1))
+			.buildFromArchiveSearchCriteria(Mockito.any(), Mockito.eq(weasisSearchCriteria), Mockito.any());
 	}
 
 	@Test
@@ -100,8 +106,8 @@ class WeasisServiceImplTest {
 		this.weasisService.buildManifest("testWithoutIHE", weasisSearchCriteria, null, null);
 
 		// Test results
-		Mockito.verify(this.connectorQueryServiceMock, Mockito.atLeastOnce())
-			.buildFromSeriesInstanceUids(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(this.connectorQueryServiceMock, Mockito.times(1))
+			.buildFromArchiveSearchCriteria(Mockito.any(), Mockito.eq(weasisSearchCriteria), Mockito.any());
 	}
 
 	@Test
@@ -115,8 +121,8 @@ class WeasisServiceImplTest {
 		this.weasisService.buildManifest("testWithoutIHE", weasisSearchCriteria, null, null);
 
 		// Test results
-		Mockito.verify(this.connectorQueryServiceMock, Mockito.atLeastOnce())
-			.buildFromStudyAccessionNumbers(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(this.connectorQueryServiceMock, Mockito.times(1))
+			.buildFromArchiveSearchCriteria(Mockito.any(), Mockito.eq(weasisSearchCriteria), Mockito.any());
 	}
 
 	@Test
@@ -130,8 +136,8 @@ class WeasisServiceImplTest {
 		this.weasisService.buildManifest("testWithoutIHE", weasisSearchCriteria, null, null);
 
 		// Test results
-		Mockito.verify(this.connectorQueryServiceMock, Mockito.atLeastOnce())
-			.buildFromStudyInstanceUids(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(this.connectorQueryServiceMock, Mockito.times(1))
+			.buildFromArchiveSearchCriteria(Mockito.any(), Mockito.eq(weasisSearchCriteria), Mockito.any());
 	}
 
 	@Test
@@ -145,8 +151,8 @@ class WeasisServiceImplTest {
 		this.weasisService.buildManifest("testWithoutIHE", weasisSearchCriteria, null, null);
 
 		// Test results
-		Mockito.verify(this.connectorQueryServiceMock, Mockito.atLeastOnce())
-			.buildFromPatientIds(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(this.connectorQueryServiceMock, Mockito.times(1))
+			.buildFromArchiveSearchCriteria(Mockito.any(), Mockito.eq(weasisSearchCriteria), Mockito.any());
 	}
 
 	@Test
@@ -227,16 +233,6 @@ class WeasisServiceImplTest {
 			.buildFromPatientIds(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
 	}
 
-	@Test
-	void when_retrievingManifest_should_putGetManifestFromCache() {
-
-		// Call service
-		this.weasisService.retrieveManifest("testWithoutIHE");
-
-		// Test results
-		Mockito.verify(this.cacheServiceMock, Mockito.atLeastOnce()).getManifest(Mockito.anyString());
-	}
-
 	// ========== Tests with Authentication ==========
 
 	@Test
@@ -413,4 +409,40 @@ class WeasisServiceImplTest {
 		Mockito.verify(this.cacheServiceMock, Mockito.atLeastOnce()).putManifest(Mockito.anyString(), Mockito.any());
 	}
 
+	@Test
+	void when_buildingManifest_should_notifyManifestReadyAtEnd() {
+
+		// Init data
+		WeasisArchiveSearchCriteria weasisSearchCriteria = new WeasisArchiveSearchCriteria();
+		weasisSearchCriteria.setStudyUID(new LinkedHashSet<>(List.of("uid")));
+
+		// Call service
+		this.weasisService.buildManifest("testNotification", weasisSearchCriteria, null, null);
+
+		// Test results
+		Mockito.verify(this.manifestReadinessServiceMock, Mockito.times(1)).notifyManifestReady("testNotification");
+	}
+
+	@Test
+	void when_buildingManifestFails_should_evictManifestAndNotifyWaiters() {
+
+		// Init data
+		WeasisArchiveSearchCriteria weasisSearchCriteria = new WeasisArchiveSearchCriteria();
+		weasisSearchCriteria.setStudyUID(new LinkedHashSet<>(List.of("uid")));
+		Mockito.doThrow(new IllegalStateException("archive unreachable"))
+			.when(this.connectorQueryServiceMock)
+			.buildFromArchiveSearchCriteria(Mockito.any(), Mockito.any(), Mockito.any());
+
+		// Call service
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> this.weasisService.buildManifest("testFailure", weasisSearchCriteria, null, null));
+
+		// Test results
+		InOrder inOrder = Mockito.inOrder(this.cacheServiceMock, this.manifestReadinessServiceMock);
+		inOrder.verify(this.cacheServiceMock).removeManifest("testFailure");
+		inOrder.verify(this.cacheServiceMock).releaseManifestBuildLock("testFailure");
+		inOrder.verify(this.manifestReadinessServiceMock).notifyManifestReady("testFailure");
+		Mockito.verify(this.cacheServiceMock, Mockito.never()).putManifest(Mockito.anyString(), Mockito.any());
+	}
+
 }
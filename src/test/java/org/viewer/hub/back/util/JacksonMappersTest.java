@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.util;
+
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.entity.WeasisPropertyEntity;
+import org.viewer.hub.back.entity.serializer.WeasisPropertyEntitySerializer;
+import org.viewer.hub.back.model.version.MinimalReleaseVersion;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JacksonMappersTest {
+
+	@Test
+	void when_retrievingPropertiesWriter_with_sameSerializerClass_should_reuseWriter() {
+		assertThat(JacksonMappers.propertiesWriter(WeasisPropertyEntity.class,
+				new WeasisPropertyEntitySerializer(WeasisPropertyEntity.class)))
+			.isSameAs(JacksonMappers.propertiesWriter(WeasisPropertyEntity.class,
+					new WeasisPropertyEntitySerializer(WeasisPropertyEntity.class)));
+	}
+
+	@Test
+	void when_serializingWithPropertiesWriter_should_useCustomSerializer() {
+		WeasisPropertyEntitySerializer serializer = new WeasisPropertyEntitySerializer(WeasisPropertyEntity.class);
+		String serialized = JacksonMappers.propertiesWriter(WeasisPropertyEntity.class, serializer)
+			.writeValueAsString(WeasisPropertyEntity.builder().code("weasis.name").value("weasisName").build());
+
+		assertThat(serialized).isEqualTo("weasis.name=weasisName\n");
+	}
+
+	@Test
+	void when_readingPropertiesMap_should_keepDottedKeysFlat() {
+		Map<String, String> map = JacksonMappers.PROPERTIES_MAP_READER
+			.readValue(new ByteArrayInputStream("weasis.code=valueCode\nweasis.name=valueName"
+				.getBytes(StandardCharsets.ISO_8859_1)));
+
+		assertThat(map).containsEntry("weasis.code", "valueCode").containsEntry("weasis.name", "valueName");
+	}
+
+	@Test
+	void when_readingMinimalReleaseVersions_should_readKebabCaseProperties() {
+		List<MinimalReleaseVersion> minimalReleaseVersions = JacksonMappers.MINIMAL_RELEASE_VERSIONS_READER
+			.readValue("[{\"release-version\":\"4.5.1\",\"minimal-version\":\"4.0.0\"}]");
+
+		assertThat(minimalReleaseVersions).hasSize(1);
+		assertThat(minimalReleaseVersions.get(0).getReleaseVersion()).isEqualTo("4.5.1");
+		assertThat(minimalReleaseVersions.get(0).getMinimalVersion()).isEqualTo("4.0.0");
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.util;
+
+import org.junit.jupiter.api.Test;
+import org.viewer.hub.back.model.patient.Instance;
+import org.viewer.hub.back.model.patient.Patient;
+import org.viewer.hub.back.model.patient.Serie;
+import org.viewer.hub.back.model.patient.Study;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MergeUtilTest {
+
+	/**
+	 * Merge patients: the patient already present is merged, the new ones are added in
+	 * their order of arrival
+	 */
+	@Test
+	void shouldMergeExistingPatientsAndAddNewOnesInOrder() {
+		// Init data
+		Set<Patient> patients = new LinkedHashSet<>();
+		patients.add(buildPatient("patient1", "study1", "serie1", "sop1"));
+		Set<Patient> toMerge = new LinkedHashSet<>();
+		toMerge.add(buildPatient("patient3", "study3", "serie3", "sop3"));
+		toMerge.add(buildPatient("patient1", "study1", "serie1", "sop2"));
+		toMerge.add(buildPatient("patient2", "study2", "serie2", "sop4"));
+
+		// Call util
+		Patient.mergePatients(patients, toMerge);
+
+		// Test results
+		assertEquals(List.of("patient1", "patient3", "patient2"),
+				patients.stream().map(Patient::getPatientID).toList());
+		Patient patient1 = patients.iterator().next();
+		assertEquals(1, patient1.getStudies().size());
+		Serie serie1 = patient1.getStudies().iterator().next().getSeries().iterator().next();
+		assertEquals(List.of("sop1", "sop2"), serie1.getInstances().stream().map(Instance::getSopInstanceUID).toList());
+		// Patient still found in the set after the update of its studies
+		assertTrue(patients.contains(patient1));
+	}
+
+	/**
+	 * Merge elements without merger: the elements already present are kept as they are
+	 */
+	@Test
+	void shouldKeepExistingElementsWhenMergingWithoutMerger() {
+		// Init data
+		Patient patient1 = buildPatient("patient1", "study1", "serie1", "sop1");
+		Set<Patient> patients = new LinkedHashSet<>(List.of(patient1));
+
+		// Call util
+		MergeUtil.mergeByKey(patients, List.of(buildPatient("patient1", "study2", "serie2", "sop2"),
+				buildPatient("patient2", "study3", "serie3", "sop3")), Patient::getPatientID);
+
+		// Test results
+		assertEquals(List.of("patient1", "patient2"), patients.stream().map(Patient::getPatientID).toList());
+		assertEquals(1, patient1.getStudies().size());
+	}
+
+	/**
+	 * Merge elements one by one in elements indexed by key
+	 */
+	@Test
+	void shouldMergeElementInElementsIndexedByKey() {
+		// Init data
+		Map<String, Patient> patientsById = new LinkedHashMap<>();
+
+		// Call util
+		MergeUtil.mergeByKey(patientsById, buildPatient("patient1", "study1", "serie1", "sop1"),
+				Patient::getPatientID, Patient::merge);
+		MergeUtil.mergeByKey(patientsById, buildPatient("patient1", "study2", "serie2", "sop2"),
+				Patient::getPatientID, Patient::merge);
+
+		// Test results
+		assertEquals(1, patientsById.size());
+		assertEquals(2, patientsById.get("patient1").getStudies().size());
+	}
+
+	private static Patient buildPatient(String patientId, String studyUid, String serieUid, String sopInstanceUid) {
+		Serie serie = new Serie(serieUid, "description", 1, "CT", LocalDateTime.of(2024, 1, 1, 10, 0), null, null);
+		serie.getInstances().add(new Instance(sopInstanceUid, "sopClassUid", 1, null));
+		Study study = new Study(studyUid, "description", LocalDateTime.of(2024, 1, 1, 10, 0), "accessionNumber",
+				"studyId", "referringPhysicianName");
+		study.getSeries().add(serie);
+		Patient patient = new Patient(patientId, "patientName", null, null);
+		patient.getStudies().add(study);
+		return patient;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2022-2026 Weasis Team and other contributors.
+ *
+ *  This program and the accompanying materials are made available under the terms of the Eclipse
+ *  Public License 2.0 which is available at https://www.eclipse.org/legal/epl-2.0, or the Apache
+ *  License, Version 2.0 which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ *  SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *
+ */
+
+package org.viewer.hub.back.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageUtilTest {
+
+	@Test
+	void givenTextFiles_whenCheckingCompressible_thenShouldBeCompressible() {
+		assertThat(PackageUtil.isCompressible("weasis/package/4.6.0/conf/config.properties")).isTrue();
+		assertThat(PackageUtil.isCompressible("weasis/package/4.6.0/conf/base.JSON")).isTrue();
+		assertThat(PackageUtil.isCompressible("presets.xml")).isTrue();
+	}
+
+	@Test
+	void givenCompressedOrWithoutExtensionFiles_whenCheckingCompressible_thenShouldNotBeCompressible() {
+		assertThat(PackageUtil.isCompressible("weasis/package/4.6.0/bundle/weasis-core.jar")).isFalse();
+		assertThat(PackageUtil.isCompressible("weasis/package/4.6.0/resources.zip")).isFalse();
+		assertThat(PackageUtil.isCompressible("weasis/package/4.6.0.xml/current")).isFalse();
+	}
+
+	@Test
+	void givenKeys_whenCheckingBuildStampedFolder_thenShouldDetectBuildIdFolder() {
+		assertThat(PackageUtil
+			.isInBuildStampedFolder("weasis/package/4.6.0/11111111-1111-1111-1111-111111111111/bundle/core.jar"))
+			.isTrue();
+		assertThat(PackageUtil.isInBuildStampedFolder("weasis/package/4.6.0/bundle/core.jar")).isFalse();
+		assertThat(PackageUtil.isInBuildStampedFolder("weasis/package/4.6.0/11111111-1111-1111-1111-111111111111"))
+			.isFalse();
+	}
+
+	@Test
+	void givenJars_whenCheckingDeduplicated_thenShouldBeDeduplicated() {
+		assertThat(PackageUtil.isDeduplicated("weasis/package/4.6.0/bundle/weasis-core.JAR")).isTrue();
+		assertThat(PackageUtil.isDeduplicated("weasis/package/4.6.0/conf/config.properties")).isFalse();
+		assertThat(PackageUtil.isDeduplicated("weasis/package/4.6.0.jar/current")).isFalse();
+	}
+
+	@Test
+	void givenDigest_whenRetrievingBlobKey_thenShouldBeBlob() {
+		String blobKey = PackageUtil.retrieveBlobKey("weasis/blobs", "0f".repeat(32));
+
+		assertThat(blobKey).isEqualTo("weasis/blobs/sha256/" + "0f".repeat(32));
+		assertThat(PackageUtil.isBlob(blobKey)).isTrue();
+		assertThat(PackageUtil.isBlob("weasis/package/4.6.0/bundle/weasis-core.jar")).isFalse();
+	}
+
+}